@@ -0,0 +1,85 @@
+package com.passwordgenerator.benchmark;
+
+import com.passwordgenerator.service.PasswordGeneratorService;
+import com.passwordgenerator.service.random.RandomStrategy;
+import com.passwordgenerator.service.random.SecureRandomProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link PasswordGeneratorService#generatePassword} for every length/flag
+ * combination at 1, 4 and 16 threads, using the same random source as the default
+ * application configuration (striped DRBG).
+ *
+ * <p>Flags are encoded as letters: U = uppercase, L = lowercase, N = numbers, S = symbols.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordGenerationBenchmark {
+
+    @Param({"8", "32", "256", "1024"})
+    private int length;
+
+    @Param({"U", "L", "N", "S", "UL", "UN", "US", "LN", "LS", "NS", "ULN", "ULS", "UNS", "LNS", "ULNS"})
+    private String flags;
+
+    private PasswordGeneratorService service;
+    private boolean uppercase;
+    private boolean lowercase;
+    private boolean numbers;
+    private boolean symbols;
+
+    @Setup
+    public void setUp() {
+        service = new PasswordGeneratorService(new SecureRandomProvider(RandomStrategy.STRIPED,
+                Runtime.getRuntime().availableProcessors(), PasswordGenerationBenchmark::drbg, 0, null));
+        uppercase = flags.indexOf('U') >= 0;
+        lowercase = flags.indexOf('L') >= 0;
+        numbers = flags.indexOf('N') >= 0;
+        symbols = flags.indexOf('S') >= 0;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String generate1Thread() {
+        return service.generatePassword(length, uppercase, lowercase, numbers, symbols);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generate4Threads() {
+        return service.generatePassword(length, uppercase, lowercase, numbers, symbols);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public String generate16Threads() {
+        return service.generatePassword(length, uppercase, lowercase, numbers, symbols);
+    }
+
+    private static SecureRandom drbg() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.passwordgenerator.benchmark;
+
+import com.passwordgenerator.service.random.RandomEngine;
+import com.passwordgenerator.service.random.RandomEngines;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Raw output rate of each {@link RandomEngine} on a single instance, for draws the size of a
+ * short password's randomness (32 bytes), a batch buffer (1 KiB) and a bulk fill (64 KiB).
+ * The {@code bytes} secondary result is the rate in bytes per second.
+ *
+ * <p>Engines: {@code platform} (NativePRNG on Linux), {@code drbg} (Hash_DRBG, SHA-256),
+ * {@code drbg-hmac} (HMAC_DRBG, SHA-256), {@code drbg-ctr} (CTR_DRBG, AES-256), {@code drbg-pr}
+ * (Hash_DRBG with prediction resistance) and {@code chacha20}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomEngineBenchmark {
+
+    @Param({"platform", "drbg", "drbg-hmac", "drbg-ctr", "drbg-pr", "chacha20"})
+    private String engine;
+
+    @Param({"32", "1024", "65536"})
+    private int size;
+
+    private SecureRandom random;
+    private byte[] buffer;
+
+    /**
+     * Bytes generated in the iteration; JMH reports it per second next to the call rate.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Output {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        // Each parameter combination runs in its own fork, so the JVM-wide mechanism setting is safe
+        RandomEngine selected = switch (engine) {
+            case "platform" -> RandomEngines.platform();
+            case "drbg" -> RandomEngines.drbg(256, false, null);
+            case "drbg-hmac" -> RandomEngines.drbg(256, false, "HMAC_DRBG,SHA-256");
+            case "drbg-ctr" -> RandomEngines.drbg(256, false, "CTR_DRBG,AES-256");
+            case "drbg-pr" -> RandomEngines.drbg(256, true, null);
+            case "chacha20" -> RandomEngines.chaCha20();
+            default -> throw new IllegalArgumentException("Unknown engine: " + engine);
+        };
+        random = selected.newInstance();
+        buffer = new byte[size];
+    }
+
+    @Benchmark
+    public byte[] nextBytes(Output output) {
+        random.nextBytes(buffer);
+        output.bytes += buffer.length;
+        return buffer;
+    }
+}
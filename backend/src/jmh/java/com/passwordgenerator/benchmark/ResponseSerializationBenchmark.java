@@ -0,0 +1,103 @@
+package com.passwordgenerator.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.passwordgenerator.controller.PasswordController;
+import com.passwordgenerator.controller.PasswordResponseWriter;
+import com.passwordgenerator.model.PasswordResponse;
+import com.passwordgenerator.service.ClassRequirements;
+import com.passwordgenerator.service.PasswordGeneratorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Cost of turning a generated password into a response: Jackson serialization of
+ * {@link PasswordResponse} on its own, generation plus serialization through a String and the
+ * response bean versus {@link PasswordResponseWriter} from a pooled buffer, and the full
+ * controller path through MockMvc (argument binding, generation, writing).
+ *
+ * <p>Run with {@code -prof gc} to compare allocation per request ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"8", "32", "256", "1024"})
+    private int length;
+
+    private ObjectMapper objectMapper;
+    private PasswordResponse response;
+    private MockMvc mockMvc;
+    private PasswordGeneratorService service;
+    private PasswordResponseWriter writer;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        service = new PasswordGeneratorService();
+        response = new PasswordResponse(service.generatePassword(length, true, true, true, true),
+                length, true, true, true, true);
+
+        PasswordController controller = new PasswordController();
+        ReflectionTestUtils.setField(controller, "passwordGeneratorService", service);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+        writer = new PasswordResponseWriter(PasswordGeneratorService.MAX_PASSWORD_LENGTH, 4);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] generateAndSerialize() throws Exception {
+        String password = service.generatePassword(length, true, true, true, true);
+        return objectMapper.writeValueAsBytes(new PasswordResponse(password, length, true, true, true, true));
+    }
+
+    @Benchmark
+    public int generateAndWrite() {
+        PasswordResponseWriter.Scratch scratch = writer.acquire();
+        try {
+            service.generatePassword(scratch.chars(), length, true, true, true, true, ClassRequirements.NONE);
+            return writer.encodeJson(scratch, length, true, true, true, true);
+        } finally {
+            writer.release(scratch);
+        }
+    }
+
+    @Benchmark
+    public byte[] controllerRoundTrip() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/generate-password")
+                        .param("length", Integer.toString(length))
+                        .param("includeUppercase", "true")
+                        .param("includeLowercase", "true")
+                        .param("includeNumbers", "true")
+                        .param("includeSymbols", "true"))
+                .andReturn();
+        return result.getResponse().getContentAsByteArray();
+    }
+}
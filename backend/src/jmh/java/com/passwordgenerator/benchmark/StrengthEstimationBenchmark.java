@@ -0,0 +1,61 @@
+package com.passwordgenerator.benchmark;
+
+import com.passwordgenerator.model.StrengthEstimate;
+import com.passwordgenerator.service.PasswordGeneratorService;
+import com.passwordgenerator.service.strength.DictionaryTrie;
+import com.passwordgenerator.service.strength.StrengthEstimator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@link StrengthEstimator#estimate} on random passwords and on a long password made
+ * of dictionary words and keyboard walks, which produces many overlapping patterns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StrengthEstimationBenchmark {
+
+    @Param({"16", "128", "1024"})
+    private int length;
+
+    private StrengthEstimator estimator;
+    private String random;
+    private String patterned;
+
+    @Setup
+    public void setUp() {
+        estimator = new StrengthEstimator(DictionaryTrie.loadDefault());
+        random = new PasswordGeneratorService().generatePassword(length, true, true, true, true);
+
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < length) {
+            builder.append("P@ssw0rd123qwertyDragon!!!abc");
+        }
+        patterned = builder.substring(0, length);
+    }
+
+    @Benchmark
+    public StrengthEstimate estimateRandom() {
+        return estimator.estimate(random);
+    }
+
+    @Benchmark
+    public StrengthEstimate estimatePatterned() {
+        return estimator.estimate(patterned);
+    }
+}
@@ -0,0 +1,20 @@
+package com.passwordgenerator.config;
+
+import com.passwordgenerator.service.breach.BreachedPasswordIndex;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+@EnableConfigurationProperties(BreachProperties.class)
+public class BreachConfiguration {
+
+    @Bean
+    @ConditionalOnExpression("!'${password.breach.file:}'.isBlank()")
+    public BreachedPasswordIndex breachedPasswordIndex(BreachProperties properties) {
+        return BreachedPasswordIndex.open(Path.of(properties.getFile()), properties.getFilterSize().toBytes());
+    }
+}
@@ -0,0 +1,44 @@
+package com.passwordgenerator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings for the offline breached-password check ({@code password.breach.*}).
+ */
+@ConfigurationProperties(prefix = "password.breach")
+public class BreachProperties {
+
+    /** SHA-1 breach corpus in HIBP "ordered by hash" format ({@code HASH:COUNT} per line); blank disables the check. */
+    private String file = "";
+
+    /** Heap spent on the Bloom filter in front of the file; independent of the corpus size. 0 disables it. */
+    private DataSize filterSize = DataSize.ofMegabytes(64);
+
+    /** Regenerate any generated password that appears in the corpus. */
+    private boolean checkGenerated = false;
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public DataSize getFilterSize() {
+        return filterSize;
+    }
+
+    public void setFilterSize(DataSize filterSize) {
+        this.filterSize = filterSize;
+    }
+
+    public boolean isCheckGenerated() {
+        return checkGenerated;
+    }
+
+    public void setCheckGenerated(boolean checkGenerated) {
+        this.checkGenerated = checkGenerated;
+    }
+}
@@ -0,0 +1,27 @@
+package com.passwordgenerator.config;
+
+import com.passwordgenerator.controller.PasswordResponseWriter;
+import com.passwordgenerator.service.PasswordGeneratorService;
+import com.passwordgenerator.service.export.ExportJobManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+@EnableConfigurationProperties(ExportProperties.class)
+@ConditionalOnProperty(prefix = "password.export", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ExportConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public ExportJobManager exportJobManager(ExportProperties properties) {
+        // One scratch buffer per generating thread
+        PasswordResponseWriter writer = new PasswordResponseWriter(
+                PasswordGeneratorService.MAX_PASSWORD_LENGTH, properties.getThreads());
+        return new ExportJobManager(Path.of(properties.getSpoolDir()), properties.getThreads(),
+                properties.getQueueCapacity(), properties.getMaxJobs(), properties.getTtl(),
+                properties.getRetainAfterDownload(), properties.getSweepInterval(), writer::writeBatch);
+    }
+}
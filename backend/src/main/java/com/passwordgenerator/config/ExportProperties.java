@@ -0,0 +1,110 @@
+package com.passwordgenerator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for background export jobs ({@code password.export.*}).
+ */
+@ConfigurationProperties(prefix = "password.export")
+public class ExportProperties {
+
+    private boolean enabled = true;
+
+    /** Directory for the encrypted spool files; leftovers from a previous run are deleted at startup. */
+    private String spoolDir = System.getProperty("java.io.tmpdir") + "/password-exports";
+
+    /** Largest number of passwords one job may ask for. */
+    private int maxCount = 50_000_000;
+
+    /** Jobs generated at the same time, each on its own platform thread. */
+    private int threads = 1;
+
+    /** Jobs allowed to wait for a thread; further requests get 429. */
+    private int queueCapacity = 8;
+
+    /** Jobs retained in any state, which bounds the disk used by spool files. */
+    private int maxJobs = 32;
+
+    /** How long a finished job and its file are kept. */
+    private Duration ttl = Duration.ofHours(1);
+
+    /** How long a job is kept once its file has been sent to the end, so an interrupted transfer can resume. */
+    private Duration retainAfterDownload = Duration.ofMinutes(10);
+
+    /** How often expired jobs are deleted. */
+    private Duration sweepInterval = Duration.ofMinutes(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getSpoolDir() {
+        return spoolDir;
+    }
+
+    public void setSpoolDir(String spoolDir) {
+        this.spoolDir = spoolDir;
+    }
+
+    public int getMaxCount() {
+        return maxCount;
+    }
+
+    public void setMaxCount(int maxCount) {
+        this.maxCount = maxCount;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getMaxJobs() {
+        return maxJobs;
+    }
+
+    public void setMaxJobs(int maxJobs) {
+        this.maxJobs = maxJobs;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Duration getRetainAfterDownload() {
+        return retainAfterDownload;
+    }
+
+    public void setRetainAfterDownload(Duration retainAfterDownload) {
+        this.retainAfterDownload = retainAfterDownload;
+    }
+
+    public Duration getSweepInterval() {
+        return sweepInterval;
+    }
+
+    public void setSweepInterval(Duration sweepInterval) {
+        this.sweepInterval = sweepInterval;
+    }
+}
@@ -0,0 +1,33 @@
+package com.passwordgenerator.config;
+
+import com.passwordgenerator.service.hash.HashingPool;
+import com.passwordgenerator.service.hash.PasswordHasher;
+import com.passwordgenerator.service.random.SecureRandomProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(HashProperties.class)
+@ConditionalOnProperty(prefix = "password.hash", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class HashConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(HashConfiguration.class);
+
+    private static final int QUEUE_PER_THREAD = 16;
+
+    @Bean(destroyMethod = "close")
+    public HashingPool hashingPool(HashProperties properties, SecureRandomProvider random) {
+        int threads = properties.getThreads() > 0
+                ? properties.getThreads()
+                : Runtime.getRuntime().availableProcessors();
+        int queueCapacity = properties.getQueueCapacity() > 0
+                ? properties.getQueueCapacity()
+                : threads * QUEUE_PER_THREAD;
+        logger.info("Password hashing threads={} queueCapacity={}", threads, queueCapacity);
+        return new HashingPool(new PasswordHasher(random), threads, queueCapacity);
+    }
+}
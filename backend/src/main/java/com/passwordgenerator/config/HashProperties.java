@@ -0,0 +1,53 @@
+package com.passwordgenerator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for generate-and-hash ({@code password.hash.*}).
+ */
+@ConfigurationProperties(prefix = "password.hash")
+public class HashProperties {
+
+    private boolean enabled = true;
+
+    /** Hashing workers; 0 for one per available processor. */
+    private int threads = 0;
+
+    /** Hashes queued or running at once; 0 for 16 per worker. Single requests beyond it get 429. */
+    private int queueCapacity = 0;
+
+    /** Largest bulk batch that may be hashed; hashing runs at roughly 10 passwords per core per second. */
+    private int maxBulkCount = 10_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getMaxBulkCount() {
+        return maxBulkCount;
+    }
+
+    public void setMaxBulkCount(int maxBulkCount) {
+        this.maxBulkCount = maxBulkCount;
+    }
+}
@@ -0,0 +1,207 @@
+package com.passwordgenerator.config;
+
+import com.passwordgenerator.service.BoundedCache;
+import com.passwordgenerator.service.PasswordGeneratorService;
+import com.passwordgenerator.service.breach.BreachedPasswordIndex;
+import com.passwordgenerator.service.export.ExportJob;
+import com.passwordgenerator.service.export.ExportJobManager;
+import com.passwordgenerator.service.hash.HashAlgorithm;
+import com.passwordgenerator.service.hash.HashingPool;
+import com.passwordgenerator.service.policy.PolicyRegistry;
+import com.passwordgenerator.service.random.EntropyPrefetchBuffer;
+import com.passwordgenerator.service.random.SecureRandomProvider;
+import com.passwordgenerator.service.ratelimit.AdmissionControl;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MetricsConfiguration {
+
+    /**
+     * Random source meters are read from the provider's own counters at scrape time, so
+     * nothing extra is recorded on the generation path.
+     */
+    @Bean
+    public MeterBinder randomSourceMetrics(SecureRandomProvider provider,
+                                           ObjectProvider<EntropyPrefetchBuffer> prefetchBuffer) {
+        return registry -> {
+            FunctionCounter.builder("password.random.bytes", provider, SecureRandomProvider::getBytesGenerated)
+                    .description("Random bytes produced by the random source")
+                    .baseUnit("bytes")
+                    .tag("strategy", provider.getStrategy().name())
+                    .tag("engine", provider.getEngine())
+                    .register(registry);
+
+            EntropyPrefetchBuffer buffer = prefetchBuffer.getIfAvailable();
+            if (buffer != null) {
+                FunctionCounter.builder("password.random.prefetch.requests", buffer, EntropyPrefetchBuffer::getHits)
+                        .description("Random byte requests served by the prefetch buffer")
+                        .tag("result", "hit")
+                        .register(registry);
+                FunctionCounter.builder("password.random.prefetch.requests", buffer, EntropyPrefetchBuffer::getMisses)
+                        .description("Random byte requests served by the prefetch buffer")
+                        .tag("result", "miss")
+                        .register(registry);
+                Gauge.builder("password.random.prefetch.available", buffer, EntropyPrefetchBuffer::getAvailableBytes)
+                        .description("Bytes currently buffered")
+                        .baseUnit("bytes")
+                        .register(registry);
+            }
+        };
+    }
+
+    /**
+     * Hit, miss and eviction counts of the compiled-plan caches: templates, class-coverage
+     * plans and custom or exclusion charsets.
+     */
+    @Bean
+    public MeterBinder planCacheMetrics(PasswordGeneratorService generator) {
+        return registry -> {
+            bindCache(registry, "template", generator.getTemplateCache());
+            bindCache(registry, "coverage", generator.getCoverageCache());
+            bindCache(registry, "charset", generator.getCharsetCache());
+        };
+    }
+
+    private static void bindCache(MeterRegistry registry, String name, BoundedCache<?, ?> cache) {
+        FunctionCounter.builder("password.plan.cache.requests", cache, BoundedCache::getHits)
+                .description("Compiled plan cache lookups, by whether the entry was cached")
+                .tags("cache", name, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("password.plan.cache.requests", cache, BoundedCache::getMisses)
+                .description("Compiled plan cache lookups, by whether the entry was cached")
+                .tags("cache", name, "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("password.plan.cache.evictions", cache, BoundedCache::getEvictions)
+                .description("Entries evicted from a compiled plan cache")
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("password.plan.cache.size", cache, BoundedCache::size)
+                .description("Entries held by a compiled plan cache")
+                .tag("cache", name)
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder breachIndexMetrics(ObjectProvider<BreachedPasswordIndex> breachIndex) {
+        return registry -> {
+            BreachedPasswordIndex index = breachIndex.getIfAvailable();
+            if (index == null) {
+                return;
+            }
+            FunctionCounter.builder("password.breach.lookups", index, BreachedPasswordIndex::getFilteredLookups)
+                    .description("Breached password lookups, by whether the Bloom filter answered them")
+                    .tag("result", "filtered")
+                    .register(registry);
+            FunctionCounter.builder("password.breach.lookups", index, BreachedPasswordIndex::getSearchedLookups)
+                    .description("Breached password lookups, by whether the Bloom filter answered them")
+                    .tag("result", "searched")
+                    .register(registry);
+            Gauge.builder("password.breach.filter.ready", index, i -> i.isFilterReady() ? 1 : 0)
+                    .description("Whether the Bloom filter in front of the breach corpus has finished loading")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder policyMetrics(ObjectProvider<PolicyRegistry> policyRegistry) {
+        return registry -> {
+            PolicyRegistry policies = policyRegistry.getIfAvailable();
+            if (policies == null) {
+                return;
+            }
+            Gauge.builder("password.policies", policies, p -> p.getPolicies().size())
+                    .description("Named generation policies currently loaded")
+                    .register(registry);
+            FunctionCounter.builder("password.policy.reloads", policies, PolicyRegistry::getReloads)
+                    .description("Policy file changes, by whether the new file was applied or rejected")
+                    .tag("result", "applied")
+                    .register(registry);
+            FunctionCounter.builder("password.policy.reloads", policies, PolicyRegistry::getFailedReloads)
+                    .description("Policy file changes, by whether the new file was applied or rejected")
+                    .tag("result", "rejected")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder admissionControlMetrics(ObjectProvider<AdmissionControl> admissionControl) {
+        return registry -> {
+            AdmissionControl control = admissionControl.getIfAvailable();
+            if (control == null) {
+                return;
+            }
+            FunctionCounter.builder("password.ratelimit.rejections", control, AdmissionControl::getClientRejections)
+                    .description("Requests refused with 429, by whether the client or the server was over its limit")
+                    .tag("reason", "client")
+                    .register(registry);
+            FunctionCounter.builder("password.ratelimit.rejections", control, AdmissionControl::getOverloadRejections)
+                    .description("Requests refused with 429, by whether the client or the server was over its limit")
+                    .tag("reason", "overload")
+                    .register(registry);
+            Gauge.builder("password.ratelimit.in.flight", control, AdmissionControl::getInFlight)
+                    .description("API requests currently admitted")
+                    .register(registry);
+            Gauge.builder("password.ratelimit.clients", control, c -> c.getLimiter().getTrackedClients())
+                    .description("Clients with a partly used bucket")
+                    .register(registry);
+            FunctionCounter.builder("password.ratelimit.evictions", control, c -> c.getLimiter().getEvicted())
+                    .description("Idle client buckets evicted")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder exportJobMetrics(ObjectProvider<ExportJobManager> exportJobManager) {
+        return registry -> {
+            ExportJobManager manager = exportJobManager.getIfAvailable();
+            if (manager == null) {
+                return;
+            }
+            for (ExportJob.State state : ExportJob.State.values()) {
+                Gauge.builder("password.export.jobs", manager, m -> m.countJobs(state))
+                        .description("Export jobs held, by state")
+                        .tag("state", state.name().toLowerCase())
+                        .register(registry);
+            }
+            FunctionCounter.builder("password.export.spooled", manager, ExportJobManager::getSpooledBytes)
+                    .description("Encrypted bytes written to export spool files")
+                    .baseUnit("bytes")
+                    .register(registry);
+            FunctionCounter.builder("password.export.deleted", manager, ExportJobManager::getDeletedFiles)
+                    .description("Export spool files wiped and deleted")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder hashingPoolMetrics(ObjectProvider<HashingPool> hashingPool) {
+        return registry -> {
+            HashingPool pool = hashingPool.getIfAvailable();
+            if (pool == null) {
+                return;
+            }
+            for (HashAlgorithm algorithm : HashAlgorithm.values()) {
+                FunctionTimer.builder("password.hash", pool,
+                                p -> p.getHashes(algorithm), p -> p.getHashSeconds(algorithm), TimeUnit.SECONDS)
+                        .description("Passwords hashed on the hashing pool, by algorithm")
+                        .tag("algorithm", algorithm.name().toLowerCase())
+                        .register(registry);
+            }
+            Gauge.builder("password.hash.in.flight", pool, HashingPool::getInFlight)
+                    .description("Hashes queued or running on the hashing pool")
+                    .register(registry);
+            FunctionCounter.builder("password.hash.rejections", pool, HashingPool::getRejected)
+                    .description("Hashed requests refused with 429 because every hashing slot was taken")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package com.passwordgenerator.config;
+
+import com.passwordgenerator.service.passphrase.WordList;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+@EnableConfigurationProperties(PassphraseProperties.class)
+public class PassphraseConfiguration {
+
+    @Bean
+    @ConditionalOnExpression("!'${password.passphrase.wordlist:}'.isBlank()")
+    public WordList wordList(PassphraseProperties properties) {
+        return WordList.open(Path.of(properties.getWordlist()), Path.of(properties.getIndexDir()));
+    }
+}
@@ -0,0 +1,32 @@
+package com.passwordgenerator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for passphrase generation ({@code password.passphrase.*}).
+ */
+@ConfigurationProperties(prefix = "password.passphrase")
+public class PassphraseProperties {
+
+    /** Word list file: plain text (one word per line or EFF diceware format) or a compiled .pwix index. */
+    private String wordlist = "";
+
+    /** Directory where compiled indexes of plain-text lists are kept; defaults to the temp directory. */
+    private String indexDir = System.getProperty("java.io.tmpdir");
+
+    public String getWordlist() {
+        return wordlist;
+    }
+
+    public void setWordlist(String wordlist) {
+        this.wordlist = wordlist;
+    }
+
+    public String getIndexDir() {
+        return indexDir;
+    }
+
+    public void setIndexDir(String indexDir) {
+        this.indexDir = indexDir;
+    }
+}
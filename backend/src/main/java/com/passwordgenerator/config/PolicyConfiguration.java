@@ -0,0 +1,22 @@
+package com.passwordgenerator.config;
+
+import com.passwordgenerator.service.PasswordGeneratorService;
+import com.passwordgenerator.service.policy.PolicyRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+@EnableConfigurationProperties(PolicyProperties.class)
+public class PolicyConfiguration {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnExpression("!'${password.policy.file:}'.isBlank()")
+    public PolicyRegistry policyRegistry(PolicyProperties properties, PasswordGeneratorService passwordGeneratorService) {
+        return new PolicyRegistry(Path.of(properties.getFile()), passwordGeneratorService,
+                properties.isWatch() ? properties.getSettleDelay() : null);
+    }
+}
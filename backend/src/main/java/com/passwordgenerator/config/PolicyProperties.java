@@ -0,0 +1,45 @@
+package com.passwordgenerator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for named generation policies ({@code password.policy.*}).
+ */
+@ConfigurationProperties(prefix = "password.policy")
+public class PolicyProperties {
+
+    /** YAML or JSON (by the .json extension) file of named policies; blank disables ?policy=. */
+    private String file = "";
+
+    /** Reload the file when it changes. */
+    private boolean watch = true;
+
+    /** Wait after a change before reloading, so a save made of several writes is read whole. */
+    private Duration settleDelay = Duration.ofMillis(200);
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public boolean isWatch() {
+        return watch;
+    }
+
+    public void setWatch(boolean watch) {
+        this.watch = watch;
+    }
+
+    public Duration getSettleDelay() {
+        return settleDelay;
+    }
+
+    public void setSettleDelay(Duration settleDelay) {
+        this.settleDelay = settleDelay;
+    }
+}
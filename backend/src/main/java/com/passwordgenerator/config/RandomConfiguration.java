@@ -0,0 +1,80 @@
+package com.passwordgenerator.config;
+
+import com.passwordgenerator.service.random.EntropyPrefetchBuffer;
+import com.passwordgenerator.service.random.RandomEngine;
+import com.passwordgenerator.service.random.RandomEngines;
+import com.passwordgenerator.service.random.RandomStrategy;
+import com.passwordgenerator.service.random.SecureRandomProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+@Configuration
+@EnableConfigurationProperties(RandomProperties.class)
+public class RandomConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(RandomConfiguration.class);
+
+    @Bean
+    public SecureRandomProvider secureRandomProvider(RandomProperties properties, Environment environment) {
+        int stripes = properties.getStripes() > 0
+                ? properties.getStripes()
+                : Runtime.getRuntime().availableProcessors();
+
+        // Every request gets a fresh virtual thread, so per-thread generators would never be reused
+        RandomStrategy strategy = properties.getStrategy();
+        if (strategy == RandomStrategy.THREAD_LOCAL && Threading.VIRTUAL.isActive(environment)) {
+            logger.warn("THREAD_LOCAL random strategy is not suited to virtual threads; using STRIPED instead");
+            strategy = RandomStrategy.STRIPED;
+        }
+
+        RandomEngine engine = randomEngine(properties);
+        logger.info("Random source engine={} strategy={} stripes={}", engine.name(), strategy,
+                strategy == RandomStrategy.STRIPED ? stripes : 1);
+        return new SecureRandomProvider(strategy, stripes, engine,
+                properties.getReseedBytes(), properties.getReseedInterval());
+    }
+
+    /**
+     * Takes precedence over the provider as the service's random source when prefetching is on;
+     * the provider still backs the producers and the fallback path.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "password.random.prefetch", name = "enabled", havingValue = "true")
+    public EntropyPrefetchBuffer entropyPrefetchBuffer(SecureRandomProvider provider, RandomProperties properties) {
+        RandomProperties.Prefetch prefetch = properties.getPrefetch();
+        EntropyPrefetchBuffer buffer = new EntropyPrefetchBuffer(provider, prefetch.getBufferSize(),
+                prefetch.getChunkSize(), prefetch.getLowWaterMark(), prefetch.getProducerThreads());
+        buffer.start();
+        return buffer;
+    }
+
+    private static RandomEngine randomEngine(RandomProperties properties) {
+        String algorithm = properties.getAlgorithm();
+        boolean hasAlgorithm = algorithm != null && !algorithm.isBlank();
+        RandomProperties.Engine engine = properties.getEngine() != null ? properties.getEngine()
+                : hasAlgorithm ? RandomProperties.Engine.JCA : RandomProperties.Engine.PLATFORM;
+
+        return switch (engine) {
+            case PLATFORM -> RandomEngines.platform();
+            case JCA -> {
+                if (!hasAlgorithm) {
+                    throw new IllegalStateException("password.random.algorithm is required for the JCA engine");
+                }
+                yield RandomEngines.jca(algorithm);
+            }
+            case DRBG -> {
+                RandomProperties.Drbg drbg = properties.getDrbg();
+                yield RandomEngines.drbg(drbg.getStrength(), drbg.isPredictionResistance(), drbg.getMechanism());
+            }
+            case CHACHA20 -> RandomEngines.chaCha20();
+        };
+    }
+}
@@ -0,0 +1,205 @@
+package com.passwordgenerator.config;
+
+import com.passwordgenerator.service.random.RandomStrategy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the random source behind password generation ({@code password.random.*}).
+ */
+@ConfigurationProperties(prefix = "password.random")
+public class RandomProperties {
+
+    /** How request threads are mapped onto SecureRandom instances. */
+    private RandomStrategy strategy = RandomStrategy.STRIPED;
+
+    /** Number of instances for the STRIPED strategy; 0 means one per available processor. */
+    private int stripes = 0;
+
+    /** Generator implementation; unset means JCA when an algorithm is given, otherwise PLATFORM. */
+    private Engine engine;
+
+    /** JCA algorithm name for the JCA engine, e.g. SHA1PRNG or NativePRNGNonBlocking. */
+    private String algorithm = "";
+
+    /** Bytes an instance may produce before it is replaced by a freshly seeded one; 0 disables. */
+    private long reseedBytes = 0;
+
+    /** Maximum age of an instance before it is replaced; zero disables. */
+    private Duration reseedInterval = Duration.ZERO;
+
+    private final Drbg drbg = new Drbg();
+
+    private final Prefetch prefetch = new Prefetch();
+
+    /**
+     * Built-in random engines, see {@link com.passwordgenerator.service.random.RandomEngines}.
+     */
+    public enum Engine {
+        /** {@code new SecureRandom()}, NativePRNG on Linux. */
+        PLATFORM,
+        /** The JCA algorithm named by {@code password.random.algorithm}. */
+        JCA,
+        /** The JDK's SP 800-90A DRBG, configured by {@code password.random.drbg.*}. */
+        DRBG,
+        /** ChaCha20 with fast key erasure, seeded from the OS. */
+        CHACHA20
+    }
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public void setEngine(Engine engine) {
+        this.engine = engine;
+    }
+
+    public RandomStrategy getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(RandomStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public int getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public long getReseedBytes() {
+        return reseedBytes;
+    }
+
+    public void setReseedBytes(long reseedBytes) {
+        this.reseedBytes = reseedBytes;
+    }
+
+    public Duration getReseedInterval() {
+        return reseedInterval;
+    }
+
+    public void setReseedInterval(Duration reseedInterval) {
+        this.reseedInterval = reseedInterval;
+    }
+
+    public Drbg getDrbg() {
+        return drbg;
+    }
+
+    public Prefetch getPrefetch() {
+        return prefetch;
+    }
+
+    /**
+     * JDK DRBG settings for the DRBG engine ({@code password.random.drbg.*}).
+     */
+    public static class Drbg {
+
+        /** Security strength in bits: 112, 128, 192 or 256. */
+        private int strength = 256;
+
+        /** Reseed from the OS on every call; much slower. */
+        private boolean predictionResistance = false;
+
+        /** Mechanism and algorithm, e.g. HMAC_DRBG,SHA-256 or CTR_DRBG,AES-256; blank keeps Hash_DRBG,SHA-256. */
+        private String mechanism = "";
+
+        public int getStrength() {
+            return strength;
+        }
+
+        public void setStrength(int strength) {
+            this.strength = strength;
+        }
+
+        public boolean isPredictionResistance() {
+            return predictionResistance;
+        }
+
+        public void setPredictionResistance(boolean predictionResistance) {
+            this.predictionResistance = predictionResistance;
+        }
+
+        public String getMechanism() {
+            return mechanism;
+        }
+
+        public void setMechanism(String mechanism) {
+            this.mechanism = mechanism;
+        }
+    }
+
+    /**
+     * Background prefetch of random bytes ({@code password.random.prefetch.*}).
+     */
+    public static class Prefetch {
+
+        /** Serve random bytes from a buffer filled by background producer threads. */
+        private boolean enabled = false;
+
+        /** Buffer capacity in bytes. */
+        private int bufferSize = 256 * 1024;
+
+        /** Bytes per buffer slot; the unit in which bytes are produced and consumed. */
+        private int chunkSize = 32;
+
+        /** Producers refill once fewer than this many bytes remain buffered. */
+        private int lowWaterMark = 64 * 1024;
+
+        /** Number of background producer threads. */
+        private int producerThreads = 1;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getLowWaterMark() {
+            return lowWaterMark;
+        }
+
+        public void setLowWaterMark(int lowWaterMark) {
+            this.lowWaterMark = lowWaterMark;
+        }
+
+        public int getProducerThreads() {
+            return producerThreads;
+        }
+
+        public void setProducerThreads(int producerThreads) {
+            this.producerThreads = producerThreads;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.passwordgenerator.config;
+
+import com.passwordgenerator.controller.AdmissionFilter;
+import com.passwordgenerator.service.ratelimit.AdmissionControl;
+import com.passwordgenerator.service.ratelimit.ClientRateLimiter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.util.HashSet;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(prefix = "password.ratelimit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public ClientRateLimiter clientRateLimiter(RateLimitProperties properties) {
+        return new ClientRateLimiter(properties.getCapacity(), properties.getRefillPerSecond(),
+                properties.getStripes(), properties.getMaxClients(), properties.getSweepInterval());
+    }
+
+    @Bean
+    public AdmissionControl admissionControl(ClientRateLimiter limiter, RateLimitProperties properties) {
+        return new AdmissionControl(limiter, properties.getMaxConcurrentRequests(),
+                properties.getCharactersPerToken(), new HashSet<>(properties.getApiKeys()));
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionFilter> admissionFilter(
+            AdmissionControl admissionControl,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver,
+            RateLimitProperties properties) {
+        FilterRegistrationBean<AdmissionFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionFilter(admissionControl, exceptionResolver, properties.getApiKeyHeader()));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,121 @@
+package com.passwordgenerator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for per-client rate limiting and load shedding on {@code /api} ({@code password.ratelimit.*}).
+ */
+@ConfigurationProperties(prefix = "password.ratelimit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Burst size of each client's bucket, in tokens. */
+    private long capacity = 200;
+
+    /** Tokens returned to each bucket per second. */
+    private double refillPerSecond = 20;
+
+    /** Requested characters (count x length) that cost one token on top of the request itself. */
+    private int charactersPerToken = 256;
+
+    /** Requests allowed in flight across all clients before new ones are refused with 429. */
+    private int maxConcurrentRequests = 256;
+
+    /** Upper bound on tracked clients; beyond it new clients share an overflow bucket. */
+    private int maxClients = 1_000_000;
+
+    private int stripes = 64;
+
+    /** How often buckets that have refilled completely are evicted. */
+    private Duration sweepInterval = Duration.ofSeconds(30);
+
+    /** Header carrying an API key; recognized keys get their own bucket instead of their address's. */
+    private String apiKeyHeader = "X-API-Key";
+
+    private List<String> apiKeys = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(long capacity) {
+        this.capacity = capacity;
+    }
+
+    public double getRefillPerSecond() {
+        return refillPerSecond;
+    }
+
+    public void setRefillPerSecond(double refillPerSecond) {
+        this.refillPerSecond = refillPerSecond;
+    }
+
+    public int getCharactersPerToken() {
+        return charactersPerToken;
+    }
+
+    public void setCharactersPerToken(int charactersPerToken) {
+        this.charactersPerToken = charactersPerToken;
+    }
+
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    public int getMaxClients() {
+        return maxClients;
+    }
+
+    public void setMaxClients(int maxClients) {
+        this.maxClients = maxClients;
+    }
+
+    public int getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+
+    public Duration getSweepInterval() {
+        return sweepInterval;
+    }
+
+    public void setSweepInterval(Duration sweepInterval) {
+        this.sweepInterval = sweepInterval;
+    }
+
+    public String getApiKeyHeader() {
+        return apiKeyHeader;
+    }
+
+    public void setApiKeyHeader(String apiKeyHeader) {
+        this.apiKeyHeader = apiKeyHeader;
+    }
+
+    public List<String> getApiKeys() {
+        return apiKeys;
+    }
+
+    public void setApiKeys(List<String> apiKeys) {
+        this.apiKeys = apiKeys;
+    }
+}
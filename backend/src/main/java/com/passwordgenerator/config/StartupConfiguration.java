@@ -0,0 +1,25 @@
+package com.passwordgenerator.config;
+
+import com.passwordgenerator.service.export.ExportJobManager;
+import com.passwordgenerator.service.policy.PolicyRegistry;
+import com.passwordgenerator.service.random.EntropyPrefetchBuffer;
+import com.passwordgenerator.service.random.SecureRandomProvider;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfiguration {
+
+    /**
+     * Beans created at startup even with lazy initialization on: the random source, so a bad
+     * algorithm still fails the deployment and seeding is not paid by the first request, the
+     * policy registry, so an invalid policy file does too, and the export job manager, which
+     * wipes spool files left by a previous run.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                SecureRandomProvider.class, EntropyPrefetchBuffer.class, PolicyRegistry.class, ExportJobManager.class);
+    }
+}
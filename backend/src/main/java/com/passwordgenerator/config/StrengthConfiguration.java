@@ -0,0 +1,22 @@
+package com.passwordgenerator.config;
+
+import com.passwordgenerator.service.strength.DictionaryTrie;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+
+@Configuration
+@EnableConfigurationProperties(StrengthProperties.class)
+public class StrengthConfiguration {
+
+    @Bean
+    public DictionaryTrie strengthDictionary(StrengthProperties properties) {
+        return DictionaryTrie.load(properties.getDictionaries().stream()
+                .filter(path -> !path.isBlank())
+                .map(Path::of)
+                .collect(Collectors.toList()));
+    }
+}
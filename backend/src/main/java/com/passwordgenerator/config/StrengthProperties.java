@@ -0,0 +1,24 @@
+package com.passwordgenerator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for password strength estimation ({@code password.strength.*}).
+ */
+@ConfigurationProperties(prefix = "password.strength")
+public class StrengthProperties {
+
+    /** Extra ranked word lists (one word per line, most common first) appended to the bundled dictionary. */
+    private List<String> dictionaries = new ArrayList<>();
+
+    public List<String> getDictionaries() {
+        return dictionaries;
+    }
+
+    public void setDictionaries(List<String> dictionaries) {
+        this.dictionaries = dictionaries;
+    }
+}
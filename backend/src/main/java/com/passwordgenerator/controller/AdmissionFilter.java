@@ -0,0 +1,119 @@
+package com.passwordgenerator.controller;
+
+import com.passwordgenerator.exception.RateLimitExceededException;
+import com.passwordgenerator.service.ratelimit.AdmissionControl;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+
+/**
+ * Runs admission control in front of the API, before any request body is read. Rejections are
+ * handed to the MVC exception resolvers so they get the same JSON error body as other failures.
+ *
+ * <p>The in-flight slot is held until the response is complete, including the async part of
+ * streamed bulk responses.
+ */
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    /** Request attribute holding the client key, for charges made once the body is parsed. */
+    public static final String CLIENT_ATTRIBUTE = AdmissionFilter.class.getName() + ".client";
+
+    /** Rough characters per passphrase word, for pricing passphrase requests. */
+    private static final int CHARACTERS_PER_WORD = 8;
+
+    private final AdmissionControl admissionControl;
+    private final HandlerExceptionResolver exceptionResolver;
+    private final String apiKeyHeader;
+
+    public AdmissionFilter(AdmissionControl admissionControl, HandlerExceptionResolver exceptionResolver,
+                           String apiKeyHeader) {
+        this.admissionControl = admissionControl;
+        this.exceptionResolver = exceptionResolver;
+        this.apiKeyHeader = apiKeyHeader;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // CORS preflights and health checks are never charged
+        return "OPTIONS".equals(request.getMethod()) || request.getRequestURI().endsWith("/health");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try {
+            admissionControl.enter();
+        } catch (RateLimitExceededException e) {
+            exceptionResolver.resolveException(request, response, null, e);
+            return;
+        }
+
+        try {
+            String client = admissionControl.clientKey(request.getHeader(apiKeyHeader), request.getRemoteAddr());
+            try {
+                admissionControl.admit(client, requestedCharacters(request));
+            } catch (RateLimitExceededException e) {
+                exceptionResolver.resolveException(request, response, null, e);
+                return;
+            }
+            request.setAttribute(CLIENT_ATTRIBUTE, client);
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ExitListener());
+            } else {
+                admissionControl.exit();
+            }
+        }
+    }
+
+    /**
+     * Characters a GET request asks for, from its query parameters. Malformed values cost nothing
+     * here; the controller rejects them.
+     */
+    private static long requestedCharacters(HttpServletRequest request) {
+        long length = parse(request.getParameter("length"));
+        if (length > 0) {
+            return length;
+        }
+        return parse(request.getParameter("words")) * CHARACTERS_PER_WORD;
+    }
+
+    private static long parse(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private final class ExitListener implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            admissionControl.exit();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.passwordgenerator.controller;
+
+/**
+ * A single satisfiable byte range {@code [start, end)} from an HTTP {@code Range} header.
+ * Multiple ranges and malformed headers are ignored (the whole entity is sent, as RFC 9110
+ * allows); a range that starts beyond the end of the entity is {@link #UNSATISFIABLE}.
+ */
+public record ByteRange(long start, long end) {
+
+    public static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    private static final String UNIT_PREFIX = "bytes=";
+
+    public long length() {
+        return end - start;
+    }
+
+    /**
+     * @param header the {@code Range} header, may be null
+     * @param size the entity size in bytes
+     * @return the range to send, null to send the whole entity, or {@link #UNSATISFIABLE}
+     */
+    public static ByteRange parse(String header, long size) {
+        if (header == null || !header.regionMatches(true, 0, UNIT_PREFIX, 0, UNIT_PREFIX.length())) {
+            return null;
+        }
+        String spec = header.substring(UNIT_PREFIX.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0 || spec.indexOf(',') >= 0) {
+            return null;
+        }
+        long first = parseDigits(spec, 0, dash);
+        long last = parseDigits(spec, dash + 1, spec.length());
+
+        if (dash == 0) {
+            // Suffix range: the last N bytes
+            if (last < 0) {
+                return null;
+            }
+            return last == 0 || size == 0 ? UNSATISFIABLE : new ByteRange(Math.max(0, size - last), size);
+        }
+        if (first < 0 || (dash + 1 < spec.length() && last < 0)) {
+            return null;
+        }
+        if (first >= size) {
+            return UNSATISFIABLE;
+        }
+        long end = dash + 1 == spec.length() ? size : Math.min(last, size - 1) + 1;
+        return end <= first ? null : new ByteRange(first, end);
+    }
+
+    /**
+     * Value of the decimal digits in {@code text[from, to)}, or -1 if it is empty, contains
+     * anything else or overflows.
+     */
+    private static long parseDigits(String text, int from, int to) {
+        if (from >= to || to - from > 18) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,48 @@
+package com.passwordgenerator.controller;
+
+import com.passwordgenerator.service.random.EntropyPrefetchBuffer;
+import com.passwordgenerator.service.random.SecureRandomProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint ({@code /actuator/entropy}) reporting random source usage and, when
+ * prefetching is enabled, buffer fill level and hit/miss counters.
+ */
+@Component
+@Endpoint(id = "entropy")
+public class EntropyEndpoint {
+
+    private final SecureRandomProvider provider;
+    private final ObjectProvider<EntropyPrefetchBuffer> prefetchBuffer;
+
+    public EntropyEndpoint(SecureRandomProvider provider, ObjectProvider<EntropyPrefetchBuffer> prefetchBuffer) {
+        this.provider = provider;
+        this.prefetchBuffer = prefetchBuffer;
+    }
+
+    @ReadOperation
+    public Map<String, Object> entropy() {
+        Map<String, Object> entropy = new LinkedHashMap<>();
+        entropy.put("engine", provider.getEngine());
+        entropy.put("strategy", provider.getStrategy());
+        entropy.put("bytesGenerated", provider.getBytesGenerated());
+
+        EntropyPrefetchBuffer buffer = prefetchBuffer.getIfAvailable();
+        Map<String, Object> prefetch = new LinkedHashMap<>();
+        prefetch.put("enabled", buffer != null);
+        if (buffer != null) {
+            prefetch.put("capacityBytes", buffer.getCapacityBytes());
+            prefetch.put("availableBytes", buffer.getAvailableBytes());
+            prefetch.put("hits", buffer.getHits());
+            prefetch.put("misses", buffer.getMisses());
+        }
+        entropy.put("prefetch", prefetch);
+        return entropy;
+    }
+}
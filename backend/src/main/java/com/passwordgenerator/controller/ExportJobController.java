@@ -0,0 +1,289 @@
+package com.passwordgenerator.controller;
+
+import com.passwordgenerator.exception.ErrorResponses;
+import com.passwordgenerator.exception.ExportJobNotFoundException;
+import com.passwordgenerator.exception.ExportNotReadyException;
+import com.passwordgenerator.exception.FeatureNotConfiguredException;
+import com.passwordgenerator.exception.ParameterError;
+import com.passwordgenerator.model.ExportJobRequest;
+import com.passwordgenerator.model.ExportJobStatus;
+import com.passwordgenerator.service.CharsetOptions;
+import com.passwordgenerator.service.ClassRequirements;
+import com.passwordgenerator.service.PasswordBatch;
+import com.passwordgenerator.service.PasswordGeneratorService;
+import com.passwordgenerator.service.PasswordMetrics;
+import com.passwordgenerator.service.export.ExportJob;
+import com.passwordgenerator.service.export.ExportJobManager;
+import com.passwordgenerator.service.policy.PasswordPolicy;
+import com.passwordgenerator.service.policy.PolicyRegistry;
+import com.passwordgenerator.service.ratelimit.AdmissionControl;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Background export jobs for batches too large to stream in one response.
+ */
+@RestController
+@RequestMapping("/api/export-jobs")
+@CrossOrigin(originPatterns = "*")
+public class ExportJobController {
+
+    private static final String FORMAT_NDJSON = "ndjson";
+    private static final String FORMAT_TEXT = "text";
+
+    // Tomcat's sendfile hand-off: the connector streams the file with FileChannel.transferTo
+    // once the request has been processed. Not offered over TLS.
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private PasswordGeneratorService passwordGeneratorService;
+
+    @Autowired
+    private PasswordMetrics passwordMetrics;
+
+    @Autowired(required = false)
+    private ExportJobManager exportJobManager;
+
+    @Autowired(required = false)
+    private AdmissionControl admissionControl;
+
+    @Autowired(required = false)
+    private PolicyRegistry policyRegistry;
+
+    @Value("${password.export.max-count:50000000}")
+    private int maxExportCount;
+
+    /**
+     * Creates an export job. Parameters are validated before the job is queued.
+     *
+     * @param request count (1 to password.export.max-count) plus a policy name, a template or the same fields accepted
+     *                by /generate-passwords except hash, optionally unique=true and format=ndjson (default) or text
+     * @param httpRequest the servlet request, carrying the client key set by admission control
+     * @param httpResponse the servlet response a request to hash or an invalid format is answered on
+     * @return 202 with the job status, including the only copy of the key and IV the download is encrypted with,
+     *         or null once the 400 error for a request to hash or an invalid format has been written
+     */
+    @PostMapping
+    public ResponseEntity<ExportJobStatus> createExportJob(@RequestBody ExportJobRequest request,
+                                                           HttpServletRequest httpRequest,
+                                                           HttpServletResponse httpResponse) throws IOException {
+        ExportJobManager manager = requireExports();
+        // Export batches run to tens of millions; hashing them would take days of CPU
+        if (rejected(request.getHash() != null ? ParameterError.EXPORT_HASH_UNSUPPORTED : null, httpResponse)) {
+            return null;
+        }
+        if (rejected(checkFormat(request.getFormat()), httpResponse)) {
+            return null;
+        }
+        boolean plainText = FORMAT_TEXT.equalsIgnoreCase(request.getFormat());
+        boolean unique = Boolean.TRUE.equals(request.getUnique());
+        PasswordBatch batch = request.getPolicy() != null
+                ? passwordGeneratorService.prepareExport(
+                        request.getCount(), maxExportCount, requirePolicy(request.getPolicy()), unique)
+                : request.getTemplate() != null
+                ? passwordGeneratorService.prepareExportFromTemplate(
+                        request.getCount(), maxExportCount, request.getTemplate(), unique)
+                : passwordGeneratorService.prepareExport(
+                        request.getCount(), maxExportCount, request.getLength(),
+                        Boolean.TRUE.equals(request.getIncludeUppercase()),
+                        Boolean.TRUE.equals(request.getIncludeLowercase()),
+                        Boolean.TRUE.equals(request.getIncludeNumbers()),
+                        Boolean.TRUE.equals(request.getIncludeSymbols()),
+                        new ClassRequirements(Boolean.TRUE.equals(request.getRequireEachClass()),
+                                request.getMinUppercase(), request.getMinLowercase(),
+                                request.getMinNumbers(), request.getMinSymbols()),
+                        new CharsetOptions(request.getAlphabet(), request.getExclude()),
+                        unique);
+
+        String client = (String) httpRequest.getAttribute(AdmissionFilter.CLIENT_ATTRIBUTE);
+        if (admissionControl != null && client != null) {
+            admissionControl.chargeAdditional(client, (long) batch.count() * batch.passwordLength());
+        }
+
+        ExportJobManager.Submission submission = manager.submit(batch, plainText);
+        try {
+            ExportJobStatus status = status(submission.job());
+            status.setKey(HexFormat.of().formatHex(submission.key()));
+            status.setIv(HexFormat.of().formatHex(submission.iv()));
+            return ResponseEntity.accepted()
+                    .location(URI.create(jobPath(submission.job())))
+                    .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                    .body(status);
+        } finally {
+            Arrays.fill(submission.key(), (byte) 0);
+            Arrays.fill(submission.iv(), (byte) 0);
+        }
+    }
+
+    /**
+     * Reports a job's progress; poll until the state is COMPLETED (or FAILED).
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ExportJobStatus> getExportJob(@PathVariable String id) {
+        return new ResponseEntity<>(status(requireJob(id)), HttpStatus.OK);
+    }
+
+    /**
+     * Cancels a job if it is still running and deletes its file.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteExportJob(@PathVariable String id) {
+        if (!requireExports().delete(id)) {
+            throw new ExportJobNotFoundException("Export job " + id + " does not exist or has expired");
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Sends a completed job's encrypted file, or the byte range asked for with {@code Range}
+     * (honoring {@code If-Range}), so interrupted downloads can resume. The file goes out
+     * with the container's zero-copy sendfile when available, otherwise through
+     * {@link FileChannel#transferTo}.
+     */
+    @GetMapping("/{id}/download")
+    public void downloadExport(@PathVariable String id,
+                               @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                               @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+                               HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        ExportJobManager manager = requireExports();
+        ExportJob job = requireJob(id);
+        if (job.getState() != ExportJob.State.COMPLETED) {
+            throw new ExportNotReadyException(
+                "Export job " + id + " is " + job.getState() + "; its file can be downloaded once it is COMPLETED");
+        }
+
+        long size = job.getSizeBytes();
+        String etag = "\"" + job.getId() + "\"";
+        ByteRange byteRange = ifRange == null || ifRange.equals(etag) ? ByteRange.parse(range, size) : null;
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        if (byteRange == ByteRange.UNSATISFIABLE) {
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            return;
+        }
+
+        long start = byteRange != null ? byteRange.start() : 0;
+        long end = byteRange != null ? byteRange.end() : size;
+        response.setStatus(byteRange != null ? HttpStatus.PARTIAL_CONTENT.value() : HttpStatus.OK.value());
+        if (byteRange != null) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + size);
+        }
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"passwords-" + job.getId() +
+                (job.isPlainText() ? ".txt" : ".ndjson") + ".enc\"");
+        response.setContentLengthLong(end - start);
+
+        // Keep the file until the transfer has had time to finish; the sweeper would otherwise
+        // wipe it while it is being sent
+        manager.holdForTransfer(job);
+        Path file = manager.spoolFile(job);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // The connector sends the file after this returns and never reports back, so the job
+            // keeps its extended expiry rather than being marked downloaded
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            for (long position = start; position < end; ) {
+                position += channel.transferTo(position, end - position, target);
+            }
+        } catch (NoSuchFileException e) {
+            throw new ExportJobNotFoundException("Export job " + id + " has expired");
+        }
+        if (end == size) {
+            response.flushBuffer();
+            manager.markDownloaded(job);
+        }
+    }
+
+    private ExportJobManager requireExports() {
+        if (exportJobManager == null) {
+            throw new FeatureNotConfiguredException(
+                "Export jobs are not available on this server (password.export.enabled=false)");
+        }
+        return exportJobManager;
+    }
+
+    private PasswordPolicy requirePolicy(String name) {
+        if (policyRegistry == null) {
+            throw new FeatureNotConfiguredException(
+                "Named policies are not available: no policy file is configured (password.policy.file)");
+        }
+        return policyRegistry.require(name);
+    }
+
+    /**
+     * Answers a failed parameter check from its prebuilt body, without an exception.
+     *
+     * @return true if {@code error} was set and the 400 response has been written
+     */
+    private boolean rejected(ParameterError error, HttpServletResponse httpResponse) throws IOException {
+        if (error == null) {
+            return false;
+        }
+        passwordMetrics.recordFailure(error);
+        ErrorResponses.write(error, httpResponse);
+        return true;
+    }
+
+    private ExportJob requireJob(String id) {
+        ExportJob job = requireExports().get(id);
+        if (job == null) {
+            throw new ExportJobNotFoundException("Export job " + id + " does not exist or has expired");
+        }
+        return job;
+    }
+
+    private static ParameterError checkFormat(String format) {
+        return format == null || FORMAT_NDJSON.equalsIgnoreCase(format) || FORMAT_TEXT.equalsIgnoreCase(format)
+                ? null
+                : ParameterError.EXPORT_FORMAT_INVALID;
+    }
+
+    private static String jobPath(ExportJob job) {
+        return "/api/export-jobs/" + job.getId();
+    }
+
+    private static ExportJobStatus status(ExportJob job) {
+        ExportJobStatus status = new ExportJobStatus(job.getId(), job.getState().name(), job.getCount(),
+                job.getGenerated(), job.isPlainText() ? FORMAT_TEXT : FORMAT_NDJSON, job.getCreatedAt());
+        status.setCipher(ExportJobManager.CIPHER_NAME);
+        status.setCompletedAt(job.getCompletedAt());
+        status.setExpiresAt(job.getExpiresAt());
+        status.setError(job.getError());
+        if (job.getState() == ExportJob.State.COMPLETED) {
+            status.setSizeBytes(job.getSizeBytes());
+            status.setDownloadUrl(jobPath(job) + "/download");
+        }
+        return status;
+    }
+}
@@ -1,21 +1,97 @@
 package com.passwordgenerator.controller;
 
-import com.passwordgenerator.model.PasswordRequest;
+import com.passwordgenerator.exception.ErrorResponses;
+import com.passwordgenerator.exception.FeatureNotConfiguredException;
+import com.passwordgenerator.exception.ParameterError;
+import com.passwordgenerator.exception.RateLimitExceededException;
+import com.passwordgenerator.model.BreachCheckRequest;
+import com.passwordgenerator.model.BreachCheckResponse;
+import com.passwordgenerator.model.BulkPasswordRequest;
+import com.passwordgenerator.model.PassphraseResponse;
 import com.passwordgenerator.model.PasswordResponse;
+import com.passwordgenerator.model.StrengthEstimate;
+import com.passwordgenerator.model.StrengthRequest;
+import com.passwordgenerator.model.TemplatePasswordResponse;
+import com.passwordgenerator.service.CharsetOptions;
+import com.passwordgenerator.service.ClassRequirements;
+import com.passwordgenerator.service.FingerprintSet;
+import com.passwordgenerator.service.PasswordBatch;
 import com.passwordgenerator.service.PasswordGeneratorService;
+import com.passwordgenerator.service.PasswordMetrics;
+import com.passwordgenerator.service.hash.HashAlgorithm;
+import com.passwordgenerator.service.hash.HashSpec;
+import com.passwordgenerator.service.hash.HashingPool;
+import com.passwordgenerator.service.passphrase.Capitalization;
+import com.passwordgenerator.service.policy.PasswordPolicy;
+import com.passwordgenerator.service.policy.PolicyRegistry;
+import com.passwordgenerator.service.ratelimit.AdmissionControl;
+import com.passwordgenerator.service.strength.StrengthEstimator;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @RestController
 @RequestMapping("/api")
-@CrossOrigin(origins = "*")
+@CrossOrigin(originPatterns = "*")
 public class PasswordController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final String PLAIN_TEXT_UTF8 = MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8";
+    private static final int MAX_STREAM_BATCH_SIZE = 256;
+    private static final long STREAM_RETRY_AFTER_SECONDS = 5;
+    private static final String STREAM_SLOT_INTERCEPTOR = PasswordController.class.getName() + ".streamSlot";
+    private static final String UNIQUE_SET_BYTES_HEADER = "X-Unique-Set-Bytes";
+    private static final String UNIQUE_BYTES_PER_PASSWORD_HEADER = "X-Unique-Bytes-Per-Password";
+
     @Autowired
     private PasswordGeneratorService passwordGeneratorService;
 
+    @Autowired
+    private PasswordMetrics passwordMetrics;
+
+    @Autowired
+    private StrengthEstimator strengthEstimator;
+
+    @Autowired(required = false)
+    private AdmissionControl admissionControl;
+
+    @Autowired(required = false)
+    private PolicyRegistry policyRegistry;
+
+    @Autowired(required = false)
+    private HashingPool hashingPool;
+
+    @Value("${password.stream.max-concurrent:32}")
+    private int maxConcurrentStreams;
+
+    @Value("${password.hash.max-bulk-count:10000}")
+    private int maxHashedBulkCount;
+
+    private final AtomicInteger activeStreams = new AtomicInteger();
+
+    private final PasswordResponseWriter responseWriter = new PasswordResponseWriter(
+            PasswordGeneratorService.MAX_PASSWORD_CHARS, Math.max(16, 4 * Runtime.getRuntime().availableProcessors()));
+
     /**
      * Generates a password based on provided parameters
      * 
@@ -24,31 +100,491 @@ public class PasswordController {
      * @param includeLowercase Include lowercase letters (a-z)
      * @param includeNumbers Include numeric digits (0-9)
      * @param includeSymbols Include special symbols
-     * @return PasswordResponse containing the generated password
+     * @param requireEachClass Guarantee at least one character from every selected class
+     * @param minUppercase Minimum number of uppercase letters (0-16, optional)
+     * @param minLowercase Minimum number of lowercase letters (0-16, optional)
+     * @param minNumbers Minimum number of digits (0-16, optional)
+     * @param minSymbols Minimum number of symbols (0-16, optional)
+     * @param alphabet Characters to draw from instead of the character types (optional)
+     * @param exclude Characters never to use, e.g. look-alikes such as "0O1lI" (optional)
+     * @param estimateStrength Include a strength estimate of the generated password
+     * @param policy Name of a configured policy to generate from instead of the parameters above (optional)
+     * @param accept the Accept header; {@code text/plain} returns the bare password
+     * @param httpRequest the servlet request, carrying the client key set by admission control
+     * @param httpResponse the servlet response the password is written to
+     * @return PasswordResponse when a strength estimate is requested; otherwise the response, or
+     *         the 400 error for invalid parameters, is written directly and null is returned
      */
     @GetMapping("/generate-password")
     public ResponseEntity<PasswordResponse> generatePassword(
-            @RequestParam(value = "length") Integer length,
+            @RequestParam(value = "length", required = false) Integer length,
             @RequestParam(value = "includeUppercase", defaultValue = "false") Boolean includeUppercase,
             @RequestParam(value = "includeLowercase", defaultValue = "false") Boolean includeLowercase,
             @RequestParam(value = "includeNumbers", defaultValue = "false") Boolean includeNumbers,
-            @RequestParam(value = "includeSymbols", defaultValue = "false") Boolean includeSymbols) {
+            @RequestParam(value = "includeSymbols", defaultValue = "false") Boolean includeSymbols,
+            @RequestParam(value = "requireEachClass", defaultValue = "false") Boolean requireEachClass,
+            @RequestParam(value = "minUppercase", required = false) Integer minUppercase,
+            @RequestParam(value = "minLowercase", required = false) Integer minLowercase,
+            @RequestParam(value = "minNumbers", required = false) Integer minNumbers,
+            @RequestParam(value = "minSymbols", required = false) Integer minSymbols,
+            @RequestParam(value = "alphabet", required = false) String alphabet,
+            @RequestParam(value = "exclude", required = false) String exclude,
+            @RequestParam(value = "estimateStrength", defaultValue = "false") Boolean estimateStrength,
+            @RequestParam(value = "policy", required = false) String policy,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) throws IOException {
 
-        try {
-            // Generate the password using the service
-            String generatedPassword = passwordGeneratorService.generatePassword(
-                    length, includeUppercase, includeLowercase, includeNumbers, includeSymbols);
+        ClassRequirements requirements = null;
+        CharsetOptions charset = null;
+        PasswordPolicy resolvedPolicy = null;
+        if (policy != null) {
+            // A policy was validated and compiled when it was loaded; it defines every setting
+            resolvedPolicy = requirePolicy(policy, httpRequest);
+            length = resolvedPolicy.getLength();
+            includeUppercase = resolvedPolicy.isIncludeUppercase();
+            includeLowercase = resolvedPolicy.isIncludeLowercase();
+            includeNumbers = resolvedPolicy.isIncludeNumbers();
+            includeSymbols = resolvedPolicy.isIncludeSymbols();
+        } else {
+            requirements = new ClassRequirements(requireEachClass, minUppercase, minLowercase, minNumbers, minSymbols);
+            charset = new CharsetOptions(alphabet, exclude);
+
+            // Answer invalid parameters from a prebuilt body, without an exception
+            if (rejected(passwordGeneratorService.checkPasswordParameters(
+                    length, includeUppercase, includeLowercase, includeNumbers, includeSymbols, requirements, charset),
+                    httpResponse)) {
+                return null;
+            }
+        }
 
-            // Create response object
+        if (estimateStrength) {
+            // The estimator works on a String, so this variant goes through the response bean
+            String generatedPassword = resolvedPolicy != null
+                    ? passwordGeneratorService.generatePassword(resolvedPolicy)
+                    : passwordGeneratorService.generatePassword(
+                            length, includeUppercase, includeLowercase, includeNumbers, includeSymbols, requirements,
+                            charset);
             PasswordResponse response = new PasswordResponse(
                     generatedPassword, length, includeUppercase, includeLowercase, includeNumbers, includeSymbols);
-
+            response.setStrength(strengthEstimator.estimate(generatedPassword));
             return new ResponseEntity<>(response, HttpStatus.OK);
+        }
+
+        // Generate into a pooled buffer and encode it straight into the response
+        boolean plainText = accept != null && accept.contains(MediaType.TEXT_PLAIN_VALUE);
+        PasswordResponseWriter.Scratch scratch = responseWriter.acquire();
+        try {
+            int chars = resolvedPolicy != null
+                    ? passwordGeneratorService.generatePassword(scratch.chars(), resolvedPolicy)
+                    : passwordGeneratorService.generatePassword(scratch.chars(), length,
+                            includeUppercase, includeLowercase, includeNumbers, includeSymbols, requirements, charset);
+            int size = plainText
+                    ? responseWriter.encodeText(scratch, chars)
+                    : responseWriter.encodeJson(scratch, chars, length,
+                            includeUppercase, includeLowercase, includeNumbers, includeSymbols);
+
+            httpResponse.setStatus(HttpStatus.OK.value());
+            httpResponse.setContentType(plainText ? PLAIN_TEXT_UTF8 : MediaType.APPLICATION_JSON_VALUE);
+            httpResponse.setContentLength(size);
+            httpResponse.getOutputStream().write(scratch.bytes(), 0, size);
+        } finally {
+            responseWriter.release(scratch);
+        }
+        return null;
+    }
+
+    /**
+     * Generates a password as /generate-password does and returns it with its hash, for
+     * provisioning that stores the hash straight away. Hashing runs on the bounded hashing pool,
+     * and the request thread is released while it does.
+     *
+     * @param hash BCRYPT, PBKDF2 or ARGON2 (Argon2id)
+     * @param hashCost bcrypt log2 rounds (4-16, default 10), PBKDF2 iterations (1,000-10,000,000,
+     *                 default 600,000) or Argon2 passes (1-16, default 2)
+     * @param hashMemory Argon2 memory in KiB (up to 65,536, default 19,456)
+     * @param hashParallelism Argon2 lanes (1-16, default 1)
+     * @return PasswordResponse with the hash; 429 if the hashing queue is full
+     */
+    @GetMapping(value = "/generate-password", params = "hash")
+    public CompletableFuture<ResponseEntity<PasswordResponse>> generateHashedPassword(
+            @RequestParam(value = "length", required = false) Integer length,
+            @RequestParam(value = "includeUppercase", defaultValue = "false") Boolean includeUppercase,
+            @RequestParam(value = "includeLowercase", defaultValue = "false") Boolean includeLowercase,
+            @RequestParam(value = "includeNumbers", defaultValue = "false") Boolean includeNumbers,
+            @RequestParam(value = "includeSymbols", defaultValue = "false") Boolean includeSymbols,
+            @RequestParam(value = "requireEachClass", defaultValue = "false") Boolean requireEachClass,
+            @RequestParam(value = "minUppercase", required = false) Integer minUppercase,
+            @RequestParam(value = "minLowercase", required = false) Integer minLowercase,
+            @RequestParam(value = "minNumbers", required = false) Integer minNumbers,
+            @RequestParam(value = "minSymbols", required = false) Integer minSymbols,
+            @RequestParam(value = "alphabet", required = false) String alphabet,
+            @RequestParam(value = "exclude", required = false) String exclude,
+            @RequestParam(value = "estimateStrength", defaultValue = "false") Boolean estimateStrength,
+            @RequestParam(value = "policy", required = false) String policy,
+            @RequestParam(value = "hash") HashAlgorithm hash,
+            @RequestParam(value = "hashCost", required = false) Integer hashCost,
+            @RequestParam(value = "hashMemory", required = false) Integer hashMemory,
+            @RequestParam(value = "hashParallelism", required = false) Integer hashParallelism,
+            HttpServletRequest httpRequest) {
+
+        HashingPool pool = requireHashingPool();
+        HashSpec spec = HashSpec.of(hash, hashCost, hashMemory, hashParallelism);
+
+        char[] password = new char[PasswordGeneratorService.MAX_PASSWORD_CHARS];
+        int chars;
+        try {
+            if (policy != null) {
+                PasswordPolicy resolvedPolicy = requirePolicy(policy, httpRequest);
+                length = resolvedPolicy.getLength();
+                includeUppercase = resolvedPolicy.isIncludeUppercase();
+                includeLowercase = resolvedPolicy.isIncludeLowercase();
+                includeNumbers = resolvedPolicy.isIncludeNumbers();
+                includeSymbols = resolvedPolicy.isIncludeSymbols();
+                requireValid(spec.checkPasswordLength(resolvedPolicy.getPlan().maxUtf8Length()));
+                chars = passwordGeneratorService.generatePassword(password, resolvedPolicy);
+            } else {
+                CharsetOptions charset = new CharsetOptions(alphabet, exclude);
+                if (length != null) {
+                    requireValid(spec.checkPasswordLength(length * charset.maxUtf8BytesPerCharacter()));
+                }
+                chars = passwordGeneratorService.generatePassword(password, length,
+                        includeUppercase, includeLowercase, includeNumbers, includeSymbols,
+                        new ClassRequirements(requireEachClass, minUppercase, minLowercase, minNumbers, minSymbols),
+                        charset);
+            }
+        } catch (RuntimeException e) {
+            Arrays.fill(password, '\0');
+            throw e;
+        }
 
-        } catch (Exception e) {
-            // Exception handling is delegated to GlobalExceptionHandler
+        String generatedPassword = new String(password, 0, chars);
+        PasswordResponse response = new PasswordResponse(
+                generatedPassword, length, includeUppercase, includeLowercase, includeNumbers, includeSymbols);
+        if (estimateStrength) {
+            response.setStrength(strengthEstimator.estimate(generatedPassword));
+        }
+        CompletableFuture<String> hashed;
+        try {
+            hashed = pool.submit(password, chars, spec);
+        } catch (RuntimeException e) {
+            Arrays.fill(password, '\0');
             throw e;
         }
+        return hashed
+                .whenComplete((result, error) -> Arrays.fill(password, '\0'))
+                .thenApply(result -> {
+                    response.setHash(result);
+                    return new ResponseEntity<>(response, HttpStatus.OK);
+                });
+    }
+
+    /**
+     * Generates a password following a template, e.g. "Aaaa-9999-!!" or "~L{3}9{4}!"
+     *
+     * @param template Password template (see README for the syntax)
+     * @param httpRequest the servlet request, carrying the client key set by admission control
+     * @return TemplatePasswordResponse containing the generated password
+     */
+    @GetMapping("/generate-password-from-template")
+    public ResponseEntity<TemplatePasswordResponse> generatePasswordFromTemplate(
+            @RequestParam(value = "template") String template,
+            HttpServletRequest httpRequest) {
+
+        // The admission filter has no length parameter to price; charge for what the template expands to
+        chargeAdditional(httpRequest, passwordGeneratorService.compileTemplate(template).length());
+        String generatedPassword = passwordGeneratorService.generateFromTemplate(template);
+
+        TemplatePasswordResponse response = new TemplatePasswordResponse(
+                generatedPassword, template, generatedPassword.length());
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Generates many passwords in one call and streams them back as they are produced.
+     * Output is newline-delimited JSON ({@code {"password":"..."}} per line) by default,
+     * or one bare password per line when the client asks for {@code text/plain}. With a hash
+     * algorithm, passwords are hashed in parallel and each line also carries its hash, in order.
+     *
+     * @param request count (1-1,000,000) plus a policy name, a template or the same fields accepted by /generate-password,
+     *                optionally unique=true to forbid repeats within the batch, and optionally hash with
+     *                hashCost, hashMemory and hashParallelism as for hashed /generate-password
+     *                (count up to password.hash.max-bulk-count)
+     * @param accept the Accept header, used to choose between NDJSON and plain text
+     * @param httpRequest the servlet request, carrying the client key set by admission control
+     * @param httpResponse the servlet response invalid hash parameters are answered on
+     * @return a streaming body that writes passwords without buffering the whole batch, or null
+     *         once the 400 error for invalid hash parameters has been written
+     */
+    @PostMapping("/generate-passwords")
+    public ResponseEntity<StreamingResponseBody> generatePasswords(
+            @RequestBody BulkPasswordRequest request,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) throws IOException {
+
+        // Validation happens here, before the response is committed
+        boolean unique = Boolean.TRUE.equals(request.getUnique());
+        if (rejected(checkBulkHash(request), httpResponse)) {
+            return null;
+        }
+        HashSpec hashSpec = request.getHash() != null
+                ? HashSpec.of(request.getHash(), request.getHashCost(), request.getHashMemory(),
+                        request.getHashParallelism())
+                : null;
+        PasswordPolicy policy = request.getPolicy() != null ? requirePolicy(request.getPolicy()) : null;
+        Integer length = policy != null
+                ? Integer.valueOf(policy.getLength())
+                : request.getTemplate() != null
+                ? Integer.valueOf(passwordGeneratorService.compileTemplate(request.getTemplate()).length())
+                : request.getLength();
+        if (rejected(PasswordGeneratorService.checkBulkSize(request.getCount(), length), httpResponse)) {
+            return null;
+        }
+        // Charge for the whole batch before preparing it: a unique batch allocates its duplicate tracking up front
+        chargeAdditional(httpRequest, (long) request.getCount() * length);
+
+        PasswordBatch batch = policy != null
+                ? passwordGeneratorService.preparePasswords(request.getCount(), policy, unique)
+                : request.getTemplate() != null
+                ? passwordGeneratorService.preparePasswordsFromTemplate(request.getCount(), request.getTemplate(), unique)
+                : passwordGeneratorService.preparePasswords(
+                        request.getCount(), request.getLength(),
+                        Boolean.TRUE.equals(request.getIncludeUppercase()),
+                        Boolean.TRUE.equals(request.getIncludeLowercase()),
+                        Boolean.TRUE.equals(request.getIncludeNumbers()),
+                        Boolean.TRUE.equals(request.getIncludeSymbols()),
+                        new ClassRequirements(Boolean.TRUE.equals(request.getRequireEachClass()),
+                                request.getMinUppercase(), request.getMinLowercase(),
+                                request.getMinNumbers(), request.getMinSymbols()),
+                        new CharsetOptions(request.getAlphabet(), request.getExclude()),
+                        unique);
+
+        if (hashSpec != null && rejected(hashSpec.checkPasswordLength(batch.maxUtf8Length()), httpResponse)) {
+            return null;
+        }
+
+        boolean plainText = accept != null && accept.contains(MediaType.TEXT_PLAIN_VALUE);
+        StreamingResponseBody body;
+        if (hashSpec != null) {
+            HashSpec spec = hashSpec;
+            body = out -> writeHashedBatch(batch, spec, out, plainText);
+        } else {
+            body = out -> writeBatch(batch, out, plainText);
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(plainText ? MediaType.TEXT_PLAIN : NDJSON);
+        if (unique) {
+            // Report what the duplicate tracking costs for this batch
+            response.header(UNIQUE_SET_BYTES_HEADER, Long.toString(FingerprintSet.memoryFor(request.getCount())))
+                    .header(UNIQUE_BYTES_PER_PASSWORD_HEADER, String.format(Locale.ROOT, "%.2f", FingerprintSet.BYTES_PER_ITEM));
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Streams freshly generated passwords as server-sent events, one
+     * {@code data: {"password":"..."}} event each, for as long as the client reads them.
+     * Passwords are generated and flushed in small batches; each batch is written with a
+     * blocking write, so a slow reader simply stalls its own stream and nothing queues up on
+     * the server. With rate limiting on, each batch waits for the client's tokens instead of failing.
+     *
+     * @param alphabet Characters to draw from instead of the character types (optional)
+     * @param exclude Characters never to use (optional)
+     * @param count Stop after this many passwords (optional; otherwise the stream runs until the
+     *              client disconnects or the async request timeout)
+     * @param batchSize Passwords generated and flushed together (1-256)
+     * @param httpResponse the servlet response an invalid count or batch size is answered on
+     * @return an event stream, or null once the 400 error for an invalid count or batch size has
+     *         been written; 429 if this server already runs its maximum number of streams
+     */
+    @GetMapping("/stream-passwords")
+    public ResponseEntity<StreamingResponseBody> streamPasswords(
+            @RequestParam(value = "length") Integer length,
+            @RequestParam(value = "includeUppercase", defaultValue = "false") Boolean includeUppercase,
+            @RequestParam(value = "includeLowercase", defaultValue = "false") Boolean includeLowercase,
+            @RequestParam(value = "includeNumbers", defaultValue = "false") Boolean includeNumbers,
+            @RequestParam(value = "includeSymbols", defaultValue = "false") Boolean includeSymbols,
+            @RequestParam(value = "requireEachClass", defaultValue = "false") Boolean requireEachClass,
+            @RequestParam(value = "minUppercase", required = false) Integer minUppercase,
+            @RequestParam(value = "minLowercase", required = false) Integer minLowercase,
+            @RequestParam(value = "minNumbers", required = false) Integer minNumbers,
+            @RequestParam(value = "minSymbols", required = false) Integer minSymbols,
+            @RequestParam(value = "alphabet", required = false) String alphabet,
+            @RequestParam(value = "exclude", required = false) String exclude,
+            @RequestParam(value = "count", required = false) Long count,
+            @RequestParam(value = "batchSize", defaultValue = "32") Integer batchSize,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) throws IOException {
+
+        if (rejected(checkStream(count, batchSize), httpResponse)) {
+            return null;
+        }
+        PasswordBatch stream = passwordGeneratorService.preparePasswordStream(
+                length, includeUppercase, includeLowercase, includeNumbers, includeSymbols,
+                new ClassRequirements(requireEachClass, minUppercase, minLowercase, minNumbers, minSymbols),
+                new CharsetOptions(alphabet, exclude));
+
+        // Each stream pins a connection for minutes, so cap them per node
+        if (activeStreams.incrementAndGet() > maxConcurrentStreams) {
+            activeStreams.decrementAndGet();
+            throw new RateLimitExceededException(
+                "This server is already serving " + maxConcurrentStreams + " password streams",
+                STREAM_RETRY_AFTER_SECONDS);
+        }
+
+        // Freed when the body finishes, or when the async request ends if the body never runs to
+        // completion (timeout, client abort, rejected task); whichever comes first frees it
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                activeStreams.decrementAndGet();
+            }
+        };
+        WebAsyncUtils.getAsyncManager(httpRequest).registerCallableInterceptor(STREAM_SLOT_INTERCEPTOR,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                        release.run();
+                    }
+                });
+
+        String client = (String) httpRequest.getAttribute(AdmissionFilter.CLIENT_ATTRIBUTE);
+        long limit = count != null ? count : Long.MAX_VALUE;
+        StreamingResponseBody body = out -> {
+            try {
+                writeStream(stream, limit, batchSize, client, out);
+            } finally {
+                release.run();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                // Ask reverse proxies not to buffer the stream, which would defeat the backpressure
+                .header("X-Accel-Buffering", "no")
+                .body(body);
+    }
+
+    /**
+     * Password streams currently holding one of the {@code password.stream.max-concurrent} slots.
+     */
+    public int getActiveStreams() {
+        return activeStreams.get();
+    }
+
+    private void writeStream(PasswordBatch stream, long limit, int batchSize, String client, OutputStream out)
+            throws IOException {
+        long start = System.nanoTime();
+        long written = 0;
+        PasswordResponseWriter.Scratch scratch = responseWriter.acquire();
+        try {
+            while (written < limit && stream.hasNext()) {
+                int events = (int) Math.min(batchSize, limit - written);
+                if (admissionControl != null && client != null) {
+                    admissionControl.pace(client, (long) events * stream.passwordLength());
+                }
+                responseWriter.writeEvents(scratch, stream, events, out);
+                written += events;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Password stream interrupted");
+        } finally {
+            stream.close();
+            responseWriter.release(scratch);
+            passwordMetrics.recordStream(written, System.nanoTime() - start);
+        }
+    }
+
+    private void writeBatch(PasswordBatch batch, OutputStream out, boolean plainText) throws IOException {
+        long start = System.nanoTime();
+        try {
+            responseWriter.writeBatch(batch, out, plainText);
+        } finally {
+            batch.close();
+            passwordMetrics.recordBulk(batch.generated(), System.nanoTime() - start);
+        }
+    }
+
+    private void writeHashedBatch(PasswordBatch batch, HashSpec spec, OutputStream out, boolean plainText)
+            throws IOException {
+        long start = System.nanoTime();
+        try {
+            responseWriter.writeHashedBatch(batch, hashingPool, spec, out, plainText);
+        } finally {
+            batch.close();
+            passwordMetrics.recordBulk(batch.generated(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Generates a diceware-style passphrase, e.g. "correct-horse-battery-staple"
+     *
+     * @param words Number of words (1-64)
+     * @param separator Text between words (at most 8 characters)
+     * @param capitalization NONE, FIRST, UPPER or RANDOM
+     * @param digits Number of random digits appended to randomly chosen words
+     * @param httpResponse the servlet response invalid parameters are answered on
+     * @return PassphraseResponse containing the passphrase and its entropy, or null once the
+     *         400 error for invalid parameters has been written
+     */
+    @GetMapping("/generate-passphrase")
+    public ResponseEntity<PassphraseResponse> generatePassphrase(
+            @RequestParam(value = "words", defaultValue = "6") Integer words,
+            @RequestParam(value = "separator", defaultValue = "-") String separator,
+            @RequestParam(value = "capitalization", defaultValue = "NONE") Capitalization capitalization,
+            @RequestParam(value = "digits", defaultValue = "0") Integer digits,
+            HttpServletResponse httpResponse) throws IOException {
+
+        if (rejected(passwordGeneratorService.checkPassphraseParameters(words, separator, capitalization, digits),
+                httpResponse)) {
+            return null;
+        }
+        String passphrase = passwordGeneratorService.generatePassphrase(words, separator, capitalization, digits);
+        double entropyBits = passwordGeneratorService.passphraseEntropyBits(words, capitalization, digits);
+
+        PassphraseResponse response = new PassphraseResponse(
+                passphrase, words, separator, capitalization.name(), digits, entropyBits);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Estimates the strength of a password from its character set and any weak patterns it
+     * contains (dictionary words, keyboard walks, repeats and sequences)
+     *
+     * @param request the password to rate (1-1024 characters)
+     * @param httpResponse the servlet response an invalid password is answered on
+     * @return StrengthEstimate with entropy in bits, a 0-4 score and the patterns found, or null
+     *         once the 400 error for an invalid password has been written
+     */
+    @PostMapping("/estimate-strength")
+    public ResponseEntity<StrengthEstimate> estimateStrength(@RequestBody StrengthRequest request,
+                                                             HttpServletResponse httpResponse) throws IOException {
+        if (rejected(StrengthEstimator.checkPassword(request.getPassword()), httpResponse)) {
+            return null;
+        }
+        return new ResponseEntity<>(strengthEstimator.estimate(request.getPassword()), HttpStatus.OK);
+    }
+
+    /**
+     * Checks whether a password appears in the configured offline breach corpus
+     *
+     * @param request the password to look up
+     * @param httpResponse the servlet response a missing password is answered on
+     * @return BreachCheckResponse with the number of times the password was seen in breaches, or
+     *         null once the 400 error for a missing password has been written
+     */
+    @PostMapping("/check-breached")
+    public ResponseEntity<BreachCheckResponse> checkBreached(@RequestBody BreachCheckRequest request,
+                                                             HttpServletResponse httpResponse) throws IOException {
+        if (rejected(PasswordGeneratorService.checkBreachPassword(request.getPassword()), httpResponse)) {
+            return null;
+        }
+        long occurrences = passwordGeneratorService.breachOccurrences(request.getPassword());
+        return new ResponseEntity<>(new BreachCheckResponse(occurrences > 0, occurrences), HttpStatus.OK);
     }
 
     /**
@@ -58,4 +594,92 @@ public class PasswordController {
     public ResponseEntity<String> health() {
         return new ResponseEntity<>("Password Generator API is running", HttpStatus.OK);
     }
+
+    /**
+     * Resolves a policy for a single password and charges for its length, which the admission
+     * filter could not see: it only reads the request's own length parameter, if any.
+     */
+    private PasswordPolicy requirePolicy(String name, HttpServletRequest httpRequest) {
+        PasswordPolicy policy = requirePolicy(name);
+        chargeAdditional(httpRequest, policy.getLength());
+        return policy;
+    }
+
+    /**
+     * Answers a failed parameter check from its prebuilt body, without an exception.
+     *
+     * @return true if {@code error} was set and the 400 response has been written
+     */
+    private boolean rejected(ParameterError error, HttpServletResponse httpResponse) throws IOException {
+        if (error == null) {
+            return false;
+        }
+        passwordMetrics.recordFailure(error);
+        ErrorResponses.write(error, httpResponse);
+        return true;
+    }
+
+    /**
+     * Throws a failed parameter check for endpoints that cannot write the response themselves;
+     * the exception handler answers it from the same prebuilt body.
+     */
+    private static void requireValid(ParameterError error) {
+        if (error != null) {
+            throw error.exception();
+        }
+    }
+
+    /**
+     * Charges the client for characters the admission filter could not see in the request.
+     */
+    private void chargeAdditional(HttpServletRequest httpRequest, long characters) {
+        String client = (String) httpRequest.getAttribute(AdmissionFilter.CLIENT_ATTRIBUTE);
+        if (admissionControl != null && client != null) {
+            admissionControl.chargeAdditional(client, characters);
+        }
+    }
+
+    private static ParameterError checkStream(Long count, int batchSize) {
+        if (count != null && count < 1) {
+            return ParameterError.STREAM_COUNT_OUT_OF_RANGE;
+        }
+        if (batchSize < 1 || batchSize > MAX_STREAM_BATCH_SIZE) {
+            return ParameterError.STREAM_BATCH_SIZE_OUT_OF_RANGE;
+        }
+        return null;
+    }
+
+    /**
+     * Checks the hashing requested for a bulk batch, if any.
+     *
+     * @return the first problem found, or null if the batch is plain or its hash parameters are valid
+     */
+    private ParameterError checkBulkHash(BulkPasswordRequest request) {
+        if (request.getHash() == null) {
+            return request.getHashCost() != null || request.getHashMemory() != null
+                    || request.getHashParallelism() != null ? ParameterError.HASH_ALGORITHM_REQUIRED : null;
+        }
+        requireHashingPool();
+        if (request.getCount() != null && request.getCount() > maxHashedBulkCount) {
+            return ParameterError.HASHED_COUNT_OUT_OF_RANGE;
+        }
+        return HashSpec.check(request.getHash(), request.getHashCost(), request.getHashMemory(),
+                request.getHashParallelism());
+    }
+
+    private HashingPool requireHashingPool() {
+        if (hashingPool == null) {
+            throw new FeatureNotConfiguredException(
+                "Password hashing is not available: it is disabled on this server (password.hash.enabled)");
+        }
+        return hashingPool;
+    }
+
+    private PasswordPolicy requirePolicy(String name) {
+        if (policyRegistry == null) {
+            throw new FeatureNotConfiguredException(
+                "Named policies are not available: no policy file is configured (password.policy.file)");
+        }
+        return policyRegistry.require(name);
+    }
 }
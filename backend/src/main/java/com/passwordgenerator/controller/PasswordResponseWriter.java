@@ -0,0 +1,365 @@
+package com.passwordgenerator.controller;
+
+import com.passwordgenerator.service.PasswordBatch;
+import com.passwordgenerator.service.hash.HashSpec;
+import com.passwordgenerator.service.hash.HashingPool;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Encodes generated passwords straight from a {@code char[]} into response bytes, skipping the
+ * {@link String}, the response bean and Jackson's reflection on the hot paths. The JSON is byte
+ * for byte what Jackson writes for {@link com.passwordgenerator.model.PasswordResponse}, including
+ * its escaping rules.
+ *
+ * <p>Requests run on virtual threads, one per request, so per-thread buffers would never be
+ * reused. Instead scratch buffers are borrowed from a small lock-free pool and wiped when they
+ * are returned; when the pool is empty a fresh buffer is allocated.
+ */
+public final class PasswordResponseWriter {
+
+    /** Worst case per character: a six-byte unicode escape. */
+    private static final int MAX_BYTES_PER_CHAR = 6;
+    private static final int ENVELOPE_BYTES = 160;
+    private static final int FLUSH_INTERVAL = 1024;
+
+    private static final byte[] HEX = ascii("0123456789ABCDEF");
+    private static final byte[] PASSWORD_PREFIX = ascii("{\"password\":\"");
+    private static final byte[] LENGTH_FIELD = ascii("\",\"length\":");
+    private static final byte[] UPPERCASE_FIELD = ascii(",\"includeUppercase\":");
+    private static final byte[] LOWERCASE_FIELD = ascii(",\"includeLowercase\":");
+    private static final byte[] NUMBERS_FIELD = ascii(",\"includeNumbers\":");
+    private static final byte[] SYMBOLS_FIELD = ascii(",\"includeSymbols\":");
+    private static final byte[] LINE_END = ascii("\"}\n");
+    private static final byte[] HASH_FIELD = ascii("\",\"hash\":\"");
+    private static final byte[] TAB = ascii("\t");
+    private static final byte[] EVENT_PREFIX = ascii("data: {\"password\":\"");
+    private static final byte[] EVENT_END = ascii("\"}\n\n");
+    private static final byte[] NEWLINE = ascii("\n");
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] FALSE = ascii("false");
+
+    private final int maxPasswordLength;
+    private final AtomicReferenceArray<Scratch> pool;
+
+    public PasswordResponseWriter(int maxPasswordLength, int poolSize) {
+        this.maxPasswordLength = maxPasswordLength;
+        this.pool = new AtomicReferenceArray<>(Math.max(1, poolSize));
+    }
+
+    /**
+     * Buffers for one response: the generated characters and their encoding.
+     */
+    public static final class Scratch {
+        private final char[] chars;
+        private final byte[] bytes;
+        private int bytesUsed;
+
+        private Scratch(int maxPasswordLength) {
+            this.chars = new char[maxPasswordLength];
+            this.bytes = new byte[maxPasswordLength * MAX_BYTES_PER_CHAR + ENVELOPE_BYTES];
+        }
+
+        /**
+         * Buffer to generate a password into, at least as long as the longest password.
+         */
+        public char[] chars() {
+            return chars;
+        }
+
+        public byte[] bytes() {
+            return bytes;
+        }
+    }
+
+    public Scratch acquire() {
+        int start = (int) (Thread.currentThread().threadId() % pool.length());
+        for (int i = 0; i < pool.length(); i++) {
+            Scratch scratch = pool.getAndSet((start + i) % pool.length(), null);
+            if (scratch != null) {
+                return scratch;
+            }
+        }
+        return new Scratch(maxPasswordLength);
+    }
+
+    /**
+     * Wipes the buffers and returns them to the pool. The whole character buffer is cleared,
+     * since generation may have failed part way through filling it.
+     */
+    public void release(Scratch scratch) {
+        Arrays.fill(scratch.chars, '\0');
+        Arrays.fill(scratch.bytes, 0, scratch.bytesUsed, (byte) 0);
+        scratch.bytesUsed = 0;
+        for (int i = 0; i < pool.length(); i++) {
+            if (pool.compareAndSet(i, null, scratch)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Encodes the {@code PasswordResponse} JSON for {@code chars()[0, length)} into {@code bytes()}.
+     *
+     * @return the number of bytes written
+     */
+    public int encodeJson(Scratch scratch, int length, boolean includeUppercase, boolean includeLowercase,
+                          boolean includeNumbers, boolean includeSymbols) {
+        return encodeJson(scratch, length, length, includeUppercase, includeLowercase, includeNumbers, includeSymbols);
+    }
+
+    /**
+     * Encodes the {@code PasswordResponse} JSON for {@code chars()[0, chars)} with the given
+     * {@code length} field, which counts characters rather than {@code char}s when a custom
+     * alphabet has supplementary characters.
+     *
+     * @return the number of bytes written
+     */
+    public int encodeJson(Scratch scratch, int chars, int length, boolean includeUppercase, boolean includeLowercase,
+                          boolean includeNumbers, boolean includeSymbols) {
+        byte[] out = scratch.bytes;
+        int position = put(out, 0, PASSWORD_PREFIX);
+        position = encodeString(scratch.chars, chars, out, position);
+        position = put(out, position, LENGTH_FIELD);
+        position = putInt(out, position, length);
+        position = put(out, put(out, position, UPPERCASE_FIELD), includeUppercase ? TRUE : FALSE);
+        position = put(out, put(out, position, LOWERCASE_FIELD), includeLowercase ? TRUE : FALSE);
+        position = put(out, put(out, position, NUMBERS_FIELD), includeNumbers ? TRUE : FALSE);
+        position = put(out, put(out, position, SYMBOLS_FIELD), includeSymbols ? TRUE : FALSE);
+        out[position++] = '}';
+        return used(scratch, position);
+    }
+
+    /**
+     * Encodes {@code chars()[0, length)} as bare UTF-8 into {@code bytes()}.
+     *
+     * @return the number of bytes written
+     */
+    public int encodeText(Scratch scratch, int length) {
+        return used(scratch, encodeUtf8(scratch.chars, length, scratch.bytes, 0));
+    }
+
+    /**
+     * Streams a batch as NDJSON ({@code {"password":"..."}} per line) or one password per line,
+     * flushing every {@value #FLUSH_INTERVAL} passwords so clients see steady progress.
+     */
+    public void writeBatch(PasswordBatch batch, OutputStream out, boolean plainText) throws IOException {
+        Scratch scratch = batch.passwordLength() <= maxPasswordLength ? acquire() : new Scratch(batch.passwordLength());
+        try {
+            writeLines(scratch, batch, batch.count(), plainText ? null : PASSWORD_PREFIX, plainText ? NEWLINE : LINE_END,
+                    FLUSH_INTERVAL, out);
+        } finally {
+            release(scratch);
+        }
+    }
+
+    /**
+     * Streams a batch with each password's hash, as NDJSON ({@code {"password":"...","hash":"..."}}
+     * per line) or as {@code hash<TAB>password} lines; hashes never contain whitespace, so the
+     * first tab always ends the hash. Passwords are hashed in parallel on {@code hashingPool}
+     * and written in batch order; output is flushed whenever the next hash is not ready yet.
+     */
+    public void writeHashedBatch(PasswordBatch batch, HashingPool hashingPool, HashSpec spec, OutputStream out,
+                                 boolean plainText) throws IOException {
+        Scratch scratch = batch.passwordLength() <= maxPasswordLength ? acquire() : new Scratch(batch.passwordLength());
+        try {
+            byte[] bytes = scratch.bytes;
+            hashingPool.hashInOrder(batch, spec, new HashingPool.HashedPasswordSink() {
+                @Override
+                public void accept(char[] password, int length, String hash) throws IOException {
+                    // Hashes are printable ASCII without quotes or backslashes, so they need no escaping
+                    int position;
+                    if (plainText) {
+                        position = putAscii(bytes, 0, hash);
+                        position = put(bytes, position, TAB);
+                        position = encodeUtf8(password, length, bytes, position);
+                        position = put(bytes, position, NEWLINE);
+                    } else {
+                        position = put(bytes, 0, PASSWORD_PREFIX);
+                        position = encodeString(password, length, bytes, position);
+                        position = put(bytes, position, HASH_FIELD);
+                        position = putAscii(bytes, position, hash);
+                        position = put(bytes, position, LINE_END);
+                    }
+                    used(scratch, position);
+                    out.write(bytes, 0, position);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    out.flush();
+                }
+            });
+            out.flush();
+        } finally {
+            release(scratch);
+        }
+    }
+
+    /**
+     * Writes the next {@code events} passwords of a batch as server-sent events
+     * ({@code data: {"password":"..."}}), then flushes once.
+     */
+    public void writeEvents(Scratch scratch, PasswordBatch batch, int events, OutputStream out) throws IOException {
+        writeLines(scratch, batch, events, EVENT_PREFIX, EVENT_END, events, out);
+    }
+
+    /**
+     * Generates up to {@code limit} passwords, each framed by {@code prefix} (JSON-escaped) and
+     * {@code suffix} or, without a prefix, as bare UTF-8. Bytes are handed to {@code out} whenever
+     * the buffer could not take another line, and flushed every {@code flushEvery} passwords.
+     */
+    private static void writeLines(Scratch scratch, PasswordBatch batch, int limit, byte[] prefix, byte[] suffix,
+                                   int flushEvery, OutputStream out) throws IOException {
+        int maxLineBytes = batch.passwordLength() * MAX_BYTES_PER_CHAR + ENVELOPE_BYTES;
+        char[] chars = scratch.chars;
+        byte[] bytes = scratch.bytes;
+        int position = 0;
+        int written = 0;
+
+        while (written < limit && batch.hasNext()) {
+            int length = batch.next(chars);
+            if (prefix == null) {
+                position = encodeUtf8(chars, length, bytes, position);
+            } else {
+                position = put(bytes, position, prefix);
+                position = encodeString(chars, length, bytes, position);
+            }
+            position = put(bytes, position, suffix);
+            scratch.bytesUsed = Math.max(scratch.bytesUsed, position);
+
+            if (++written % flushEvery == 0) {
+                out.write(bytes, 0, position);
+                out.flush();
+                position = 0;
+            } else if (bytes.length - position < maxLineBytes) {
+                out.write(bytes, 0, position);
+                position = 0;
+            }
+        }
+        if (position > 0 || written % flushEvery != 0) {
+            out.write(bytes, 0, position);
+            out.flush();
+        }
+    }
+
+    private static int used(Scratch scratch, int bytes) {
+        scratch.bytesUsed = Math.max(scratch.bytesUsed, bytes);
+        return bytes;
+    }
+
+    /**
+     * JSON string contents with Jackson's default escaping: quote, backslash and control
+     * characters are escaped (the common ones in their short forms), as are surrogates, which
+     * Jackson writes as a pair of escapes rather than one four-byte UTF-8 sequence. Everything
+     * else is UTF-8.
+     */
+    private static int encodeString(char[] chars, int length, byte[] out, int position) {
+        for (int i = 0; i < length; i++) {
+            char c = chars[i];
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                out[position++] = (byte) c;
+            } else if (c == '"' || c == '\\') {
+                out[position++] = '\\';
+                out[position++] = (byte) c;
+            } else if (c < 0x20 || Character.isSurrogate(c)) {
+                position = escape(c, out, position);
+            } else {
+                position = encodeUtf8(chars, i, false, out, position);
+            }
+        }
+        return position;
+    }
+
+    private static int escape(char c, byte[] out, int position) {
+        out[position++] = '\\';
+        switch (c) {
+            case '\b' -> out[position++] = 'b';
+            case '\t' -> out[position++] = 't';
+            case '\n' -> out[position++] = 'n';
+            case '\f' -> out[position++] = 'f';
+            case '\r' -> out[position++] = 'r';
+            default -> {
+                out[position++] = 'u';
+                out[position++] = HEX[c >> 12];
+                out[position++] = HEX[(c >> 8) & 0xF];
+                out[position++] = HEX[(c >> 4) & 0xF];
+                out[position++] = HEX[c & 0xF];
+            }
+        }
+        return position;
+    }
+
+    private static int encodeUtf8(char[] chars, int length, byte[] out, int position) {
+        for (int i = 0; i < length; i++) {
+            char c = chars[i];
+            if (c < 0x80) {
+                out[position++] = (byte) c;
+            } else {
+                boolean pair = i + 1 < length && Character.isSurrogatePair(c, chars[i + 1]);
+                position = encodeUtf8(chars, i, pair, out, position);
+                if (pair) {
+                    i++;
+                }
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Encodes the non-ASCII character at {@code chars[i]} (with its low surrogate when
+     * {@code pair}); unpaired surrogates become {@code '?'}, as in {@link String#getBytes}.
+     */
+    private static int encodeUtf8(char[] chars, int i, boolean pair, byte[] out, int position) {
+        char c = chars[i];
+        if (pair) {
+            int codePoint = Character.toCodePoint(c, chars[i + 1]);
+            out[position++] = (byte) (0xF0 | (codePoint >> 18));
+            out[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            out[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            out[position++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            out[position++] = '?';
+        } else if (c < 0x800) {
+            out[position++] = (byte) (0xC0 | (c >> 6));
+            out[position++] = (byte) (0x80 | (c & 0x3F));
+        } else {
+            out[position++] = (byte) (0xE0 | (c >> 12));
+            out[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            out[position++] = (byte) (0x80 | (c & 0x3F));
+        }
+        return position;
+    }
+
+    private static int putInt(byte[] out, int position, int value) {
+        int digits = 1;
+        for (int rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            out[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return position + digits;
+    }
+
+    private static int put(byte[] out, int position, byte[] literal) {
+        System.arraycopy(literal, 0, out, position, literal.length);
+        return position + literal.length;
+    }
+
+    private static int putAscii(byte[] out, int position, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            out[position++] = (byte) value.charAt(i);
+        }
+        return position;
+    }
+
+    private static byte[] ascii(String literal) {
+        return literal.getBytes(StandardCharsets.US_ASCII);
+    }
+}
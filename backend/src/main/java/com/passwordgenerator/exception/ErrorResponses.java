@@ -0,0 +1,78 @@
+package com.passwordgenerator.exception;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Response bodies for {@link ParameterError} codes, serialized once. The JSON has the same
+ * fields as the other error responses; only the timestamp changes, and it is formatted at most
+ * once a second, so rejecting a bad request costs a few array copies rather than a map, a
+ * clock read and a pass through Jackson.
+ */
+public final class ErrorResponses {
+
+    private static final byte[][] BODY_PREFIXES = buildPrefixes();
+    private static final byte[] BODY_SUFFIX = "\"}".getBytes(StandardCharsets.US_ASCII);
+
+    private static volatile Timestamp timestamp = new Timestamp(Long.MIN_VALUE, new byte[0]);
+
+    private ErrorResponses() {
+    }
+
+    private record Timestamp(long second, byte[] bytes) {
+    }
+
+    /**
+     * Writes the 400 response for {@code error}, complete with its content length.
+     */
+    public static void write(ParameterError error, HttpServletResponse response) throws IOException {
+        byte[] prefix = BODY_PREFIXES[error.ordinal()];
+        byte[] time = currentTimestamp();
+
+        response.setStatus(HttpStatus.BAD_REQUEST.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(prefix.length + time.length + BODY_SUFFIX.length);
+        OutputStream out = response.getOutputStream();
+        out.write(prefix);
+        out.write(time);
+        out.write(BODY_SUFFIX);
+    }
+
+    private static byte[] currentTimestamp() {
+        long second = System.currentTimeMillis() / 1000;
+        Timestamp current = timestamp;
+        if (current.second() != second) {
+            // Racing threads may each format it once; any of their results is correct
+            String formatted = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS)
+                    .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            current = new Timestamp(second, formatted.getBytes(StandardCharsets.US_ASCII));
+            timestamp = current;
+        }
+        return current.bytes();
+    }
+
+    private static byte[][] buildPrefixes() {
+        ParameterError[] errors = ParameterError.values();
+        byte[][] prefixes = new byte[errors.length][];
+        for (ParameterError error : errors) {
+            String prefix = "{\"status\":" + HttpStatus.BAD_REQUEST.value() +
+                    ",\"error\":" + quote(error.getCategory().getTitle()) +
+                    ",\"message\":" + quote(error.getMessage()) +
+                    ",\"timestamp\":\"";
+            prefixes[error.ordinal()] = prefix.getBytes(StandardCharsets.UTF_8);
+        }
+        return prefixes;
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+}
@@ -0,0 +1,11 @@
+package com.passwordgenerator.exception;
+
+/**
+ * Thrown for an export job id that does not exist, either because it never did or because the
+ * job has expired or been deleted.
+ */
+public class ExportJobNotFoundException extends RuntimeException {
+    public ExportJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.passwordgenerator.exception;
+
+/**
+ * Thrown when an export job's file is requested before the job has completed successfully.
+ */
+public class ExportNotReadyException extends RuntimeException {
+    public ExportNotReadyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.passwordgenerator.exception;
+
+/**
+ * Thrown when a request needs an optional feature whose backing resource (a word list, an
+ * index file, ...) has not been configured on this server.
+ */
+public class FeatureNotConfiguredException extends RuntimeException {
+    public FeatureNotConfiguredException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,12 @@
 package com.passwordgenerator.exception;
 
+import com.passwordgenerator.service.PasswordMetrics;
+import com.passwordgenerator.service.PasswordMetrics.FailureType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MissingServletRequestParameterException;
@@ -7,15 +14,36 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private final PasswordMetrics metrics;
+    // Unexpected errors tend to arrive in bursts; a few stack traces a minute are enough to diagnose one
+    private final LogThrottle errorLogThrottle = new LogThrottle(10, 1, TimeUnit.MINUTES);
+
+    public GlobalExceptionHandler(PasswordMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     @ExceptionHandler(InvalidPasswordParametersException.class)
-    public ResponseEntity<Map<String, Object>> handleInvalidPasswordParameters(InvalidPasswordParametersException ex) {
+    public ResponseEntity<Map<String, Object>> handleInvalidPasswordParameters(InvalidPasswordParametersException ex,
+                                                                               HttpServletResponse response)
+            throws IOException {
+        if (ex.getError() != null) {
+            metrics.recordFailure(ex.getError());
+            ErrorResponses.write(ex.getError(), response);
+            return null;
+        }
+        metrics.recordFailure(FailureType.INVALID_PARAMETERS);
+
         Map<String, Object> errorResponse = new HashMap<>();
         errorResponse.put("status", HttpStatus.BAD_REQUEST.value());
         errorResponse.put("error", "Invalid Password Parameters");
@@ -27,6 +55,8 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, Object>> handleIllegalArgument(IllegalArgumentException ex) {
+        metrics.recordFailure(FailureType.ILLEGAL_ARGUMENT);
+
         Map<String, Object> errorResponse = new HashMap<>();
         errorResponse.put("status", HttpStatus.BAD_REQUEST.value());
         errorResponse.put("error", "Illegal Argument");
@@ -36,8 +66,67 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(FeatureNotConfiguredException.class)
+    public ResponseEntity<Map<String, Object>> handleFeatureNotConfigured(FeatureNotConfiguredException ex) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        errorResponse.put("error", "Feature Not Configured");
+        errorResponse.put("message", ex.getMessage());
+        errorResponse.put("timestamp", LocalDateTime.now());
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(ExportJobNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleExportJobNotFound(ExportJobNotFoundException ex) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("status", HttpStatus.NOT_FOUND.value());
+        errorResponse.put("error", "Export Job Not Found");
+        errorResponse.put("message", ex.getMessage());
+        errorResponse.put("timestamp", LocalDateTime.now());
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(PolicyNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handlePolicyNotFound(PolicyNotFoundException ex) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("status", HttpStatus.NOT_FOUND.value());
+        errorResponse.put("error", "Policy Not Found");
+        errorResponse.put("message", ex.getMessage());
+        errorResponse.put("timestamp", LocalDateTime.now());
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(ExportNotReadyException.class)
+    public ResponseEntity<Map<String, Object>> handleExportNotReady(ExportNotReadyException ex) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("status", HttpStatus.CONFLICT.value());
+        errorResponse.put("error", "Export Not Ready");
+        errorResponse.put("message", ex.getMessage());
+        errorResponse.put("timestamp", LocalDateTime.now());
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleRateLimitExceeded(RateLimitExceededException ex) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        errorResponse.put("error", "Too Many Requests");
+        errorResponse.put("message", ex.getMessage());
+        errorResponse.put("timestamp", LocalDateTime.now());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
     @ExceptionHandler({MissingServletRequestParameterException.class, MethodArgumentTypeMismatchException.class})
     public ResponseEntity<Map<String, Object>> handleBadRequestExceptions(Exception ex) {
+        metrics.recordFailure(FailureType.BAD_REQUEST);
+
         Map<String, Object> errorResponse = new HashMap<>();
         errorResponse.put("status", HttpStatus.BAD_REQUEST.value());
         errorResponse.put("error", "Bad Request");
@@ -48,14 +137,20 @@ public class GlobalExceptionHandler {
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, Object>> handleGeneralException(Exception ex) {
+    public ResponseEntity<Map<String, Object>> handleGeneralException(Exception ex, HttpServletRequest request) {
+        metrics.recordFailure(FailureType.INTERNAL_ERROR);
+
         Map<String, Object> errorResponse = new HashMap<>();
         errorResponse.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
         errorResponse.put("error", "Internal Server Error");
         errorResponse.put("message", "An unexpected error occurred: " + ex.getClass().getName() + " - " + ex.getMessage());
         errorResponse.put("timestamp", LocalDateTime.now());
 
-        ex.printStackTrace();
+        long suppressed = errorLogThrottle.tryAcquire();
+        if (suppressed >= 0) {
+            logger.error("Unhandled exception: type={} method={} path={} suppressed={}",
+                    ex.getClass().getName(), request.getMethod(), request.getRequestURI(), suppressed, ex);
+        }
         return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 }
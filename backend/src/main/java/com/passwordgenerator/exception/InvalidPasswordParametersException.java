@@ -1,11 +1,40 @@
 package com.passwordgenerator.exception;
 
-public class InvalidPasswordParametersException extends RuntimeException {
+/**
+ * A request the service cannot satisfy as asked. These are client errors, raised once per bad
+ * request, so no stack trace is captured; when the problem is one of the standard
+ * {@link ParameterError} codes, the code is carried along and the response body is prebuilt.
+ */
+public class InvalidPasswordParametersException extends IllegalArgumentException {
+
+    private final ParameterError error;
+
     public InvalidPasswordParametersException(String message) {
-        super(message);
+        this(message, null, null);
     }
 
     public InvalidPasswordParametersException(String message, Throwable cause) {
+        this(message, cause, null);
+    }
+
+    public InvalidPasswordParametersException(ParameterError error) {
+        this(error.getMessage(), null, error);
+    }
+
+    private InvalidPasswordParametersException(String message, Throwable cause, ParameterError error) {
         super(message, cause);
+        this.error = error;
+    }
+
+    /**
+     * The standard error code, or null for errors with a request-specific message.
+     */
+    public ParameterError getError() {
+        return error;
+    }
+
+    @Override
+    public Throwable fillInStackTrace() {
+        return this;
     }
 }
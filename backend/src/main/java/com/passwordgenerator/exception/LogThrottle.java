@@ -0,0 +1,54 @@
+package com.passwordgenerator.exception;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Lets through at most {@code permits} log events per window and counts the rest, so a burst of
+ * failing requests cannot turn into a burst of stack traces. Each permitted event reports how
+ * many were suppressed since the previous one.
+ */
+public final class LogThrottle {
+
+    private final int permits;
+    private final long windowNanos;
+    private final LongSupplier clock;
+
+    private final AtomicLong windowStart;
+    private final AtomicInteger used = new AtomicInteger();
+    private final LongAdder suppressed = new LongAdder();
+
+    public LogThrottle(int permits, long window, TimeUnit unit) {
+        this(permits, window, unit, System::nanoTime);
+    }
+
+    public LogThrottle(int permits, long window, TimeUnit unit, LongSupplier clock) {
+        if (permits < 1 || window < 1) {
+            throw new IllegalArgumentException("Permits and window must be positive. Provided: " + permits + ", " + window);
+        }
+        this.permits = permits;
+        this.windowNanos = unit.toNanos(window);
+        this.clock = clock;
+        this.windowStart = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * @return -1 if this event should be dropped, otherwise the number of events dropped since
+     *         the last one let through
+     */
+    public long tryAcquire() {
+        long now = clock.getAsLong();
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+        if (used.get() >= permits || used.incrementAndGet() > permits) {
+            suppressed.increment();
+            return -1;
+        }
+        return suppressed.sumThenReset();
+    }
+}
@@ -0,0 +1,136 @@
+package com.passwordgenerator.exception;
+
+import java.util.Locale;
+
+/**
+ * Result codes for the password parameter checks. Validation returns one of these (or null)
+ * instead of throwing, so a caller on a hot path can answer a bad request without an exception;
+ * the messages are fixed per code, which lets {@link ErrorResponses} serialize each body once.
+ */
+public enum ParameterError {
+
+    LENGTH_REQUIRED(Category.ILLEGAL_ARGUMENT,
+            "Length parameter is required and cannot be null"),
+    LENGTH_OUT_OF_RANGE(Category.ILLEGAL_ARGUMENT,
+            "Password length must be between 1 and 1024"),
+    CHARACTER_TYPES_REQUIRED(Category.ILLEGAL_ARGUMENT,
+            "All character type parameters (includeUppercase, includeLowercase, includeNumbers, includeSymbols) are required"),
+    NO_CHARACTER_TYPE(Category.INVALID_PARAMETERS,
+            "At least one character type must be selected (uppercase, lowercase, numbers, or symbols)"),
+    CLASS_MINIMUM_OUT_OF_RANGE(Category.ILLEGAL_ARGUMENT,
+            "Minimum uppercase, lowercase, numbers and symbols counts must each be between 0 and 16"),
+    CLASS_MINIMUM_NOT_SELECTED(Category.INVALID_PARAMETERS,
+            "A minimum count was given for a character type that is not selected"),
+    CLASS_MINIMUMS_EXCEED_LENGTH(Category.INVALID_PARAMETERS,
+            "Password length is too short for the required character counts"),
+    ALPHABET_EMPTY(Category.ILLEGAL_ARGUMENT,
+            "Custom alphabet cannot be empty"),
+    ALPHABET_WITH_CLASSES(Category.INVALID_PARAMETERS,
+            "A custom alphabet replaces the character types and cannot be combined with them or with class minimums"),
+    CHARSET_TOO_LONG(Category.ILLEGAL_ARGUMENT,
+            "Custom alphabet and excluded characters must each be at most 4096 characters"),
+    CUSTOM_ALPHABET_EMPTY(Category.INVALID_PARAMETERS,
+            "Custom alphabet has no characters left after the exclusions"),
+    CUSTOM_ALPHABET_INVISIBLE(Category.INVALID_PARAMETERS,
+            "Custom alphabet can only contain visible, standalone characters: no whitespace, control or "
+                    + "formatting characters, combining marks, unpaired surrogates or unassigned code points"),
+    EXCLUSIONS_REMOVE_UPPERCASE(Category.INVALID_PARAMETERS,
+            "Excluded characters remove all uppercase letters"),
+    EXCLUSIONS_REMOVE_LOWERCASE(Category.INVALID_PARAMETERS,
+            "Excluded characters remove all lowercase letters"),
+    EXCLUSIONS_REMOVE_NUMBERS(Category.INVALID_PARAMETERS,
+            "Excluded characters remove all numbers"),
+    EXCLUSIONS_REMOVE_SYMBOLS(Category.INVALID_PARAMETERS,
+            "Excluded characters remove all symbols"),
+    COUNT_REQUIRED(Category.ILLEGAL_ARGUMENT,
+            "Count parameter is required and cannot be null"),
+    COUNT_OUT_OF_RANGE(Category.ILLEGAL_ARGUMENT,
+            "Password count must be between 1 and 1000000"),
+    UNIQUE_COUNT_EXCEEDS_KEYSPACE(Category.INVALID_PARAMETERS,
+            "Cannot guarantee that many unique passwords: at most half of the distinct passwords these settings "
+                    + "allow can be requested in one batch"),
+    EXPORT_COUNT_OUT_OF_RANGE(Category.INVALID_PARAMETERS,
+            "Export count must be between 1 and the server's password.export.max-count, "
+                    + "and at most 1000000 for unique passwords"),
+    EXPORT_HASH_UNSUPPORTED(Category.ILLEGAL_ARGUMENT,
+            "Export jobs do not hash passwords; use /api/generate-passwords with hash"),
+    EXPORT_FORMAT_INVALID(Category.ILLEGAL_ARGUMENT,
+            "Export format must be ndjson or text"),
+    STREAM_COUNT_OUT_OF_RANGE(Category.ILLEGAL_ARGUMENT,
+            "Stream count must be at least 1"),
+    STREAM_BATCH_SIZE_OUT_OF_RANGE(Category.ILLEGAL_ARGUMENT,
+            "Stream batch size must be between 1 and 256"),
+    TEMPLATE_REQUIRED(Category.INVALID_PARAMETERS,
+            "Template is required and cannot be empty"),
+    PASSPHRASE_WORDS_OUT_OF_RANGE(Category.ILLEGAL_ARGUMENT,
+            "Passphrase word count must be between 1 and 64"),
+    SEPARATOR_INVALID(Category.ILLEGAL_ARGUMENT,
+            "Separator is required and must be at most 8 characters"),
+    CAPITALIZATION_REQUIRED(Category.ILLEGAL_ARGUMENT,
+            "Capitalization parameter is required and cannot be null"),
+    DIGITS_OUT_OF_RANGE(Category.ILLEGAL_ARGUMENT,
+            "Digit count must be between 0 and the number of words"),
+    PASSWORD_REQUIRED(Category.ILLEGAL_ARGUMENT,
+            "Password is required and cannot be empty"),
+    PASSWORD_TOO_LONG(Category.ILLEGAL_ARGUMENT,
+            "Password length must be at most 1024"),
+    HASH_ALGORITHM_REQUIRED(Category.ILLEGAL_ARGUMENT,
+            "Hash parameters require a hash algorithm"),
+    HASH_COST_OUT_OF_RANGE(Category.ILLEGAL_ARGUMENT,
+            "Hash cost must be between 4 and 16 for BCRYPT, 1000 and 10000000 for PBKDF2, or 1 and 16 for ARGON2"),
+    HASH_OPTIONS_NOT_ARGON2(Category.ILLEGAL_ARGUMENT,
+            "Hash memory and parallelism only apply to ARGON2"),
+    HASH_PARALLELISM_OUT_OF_RANGE(Category.ILLEGAL_ARGUMENT,
+            "Hash parallelism must be between 1 and 16"),
+    HASH_MEMORY_OUT_OF_RANGE(Category.ILLEGAL_ARGUMENT,
+            "Hash memory must be at most 65536 KiB and at least 8 KiB per lane of parallelism"),
+    HASH_PASSWORD_TOO_LONG(Category.ILLEGAL_ARGUMENT,
+            "BCRYPT only uses the first 72 bytes of a password; these passwords can be longer in UTF-8"),
+    HASHED_COUNT_OUT_OF_RANGE(Category.ILLEGAL_ARGUMENT,
+            "Hashed batches are limited to the server's password.hash.max-bulk-count passwords");
+
+    /**
+     * The {@code error} title of the response, kept from the exception each code replaces.
+     */
+    public enum Category {
+        ILLEGAL_ARGUMENT("Illegal Argument"),
+        INVALID_PARAMETERS("Invalid Password Parameters");
+
+        private final String title;
+
+        Category(String title) {
+            this.title = title;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+    }
+
+    private final Category category;
+    private final String message;
+
+    ParameterError(Category category, String message) {
+        this.category = category;
+        this.message = message;
+    }
+
+    /**
+     * The code as a metric tag value, e.g. {@code length_out_of_range}.
+     */
+    public String getCode() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public InvalidPasswordParametersException exception() {
+        return new InvalidPasswordParametersException(this);
+    }
+}
@@ -0,0 +1,10 @@
+package com.passwordgenerator.exception;
+
+/**
+ * Thrown for a {@code policy} name that is not defined in the currently loaded policy file.
+ */
+public class PolicyNotFoundException extends RuntimeException {
+    public PolicyNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.passwordgenerator.exception;
+
+/**
+ * Thrown when a request is refused by admission control, either because the client has used
+ * up its allowance or because the server is saturated.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
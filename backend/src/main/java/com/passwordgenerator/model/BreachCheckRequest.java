@@ -0,0 +1,19 @@
+package com.passwordgenerator.model;
+
+public class BreachCheckRequest {
+    private String password;
+
+    public BreachCheckRequest() {}
+
+    public BreachCheckRequest(String password) {
+        this.password = password;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+}
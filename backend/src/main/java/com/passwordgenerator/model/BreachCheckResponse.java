@@ -0,0 +1,27 @@
+package com.passwordgenerator.model;
+
+public class BreachCheckResponse {
+    private Boolean breached;
+    private Long occurrences;
+
+    public BreachCheckResponse(Boolean breached, Long occurrences) {
+        this.breached = breached;
+        this.occurrences = occurrences;
+    }
+
+    public Boolean getBreached() {
+        return breached;
+    }
+
+    public void setBreached(Boolean breached) {
+        this.breached = breached;
+    }
+
+    public Long getOccurrences() {
+        return occurrences;
+    }
+
+    public void setOccurrences(Long occurrences) {
+        this.occurrences = occurrences;
+    }
+}
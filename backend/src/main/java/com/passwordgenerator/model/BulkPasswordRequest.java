@@ -0,0 +1,86 @@
+package com.passwordgenerator.model;
+
+import com.passwordgenerator.service.hash.HashAlgorithm;
+
+public class BulkPasswordRequest extends PasswordRequest {
+    private Integer count;
+    private String template;
+    private Boolean unique;
+    private String policy;
+    private HashAlgorithm hash;
+    private Integer hashCost;
+    private Integer hashMemory;
+    private Integer hashParallelism;
+
+    public BulkPasswordRequest() {}
+
+    public BulkPasswordRequest(Integer count, Integer length, Boolean includeUppercase, Boolean includeLowercase,
+                               Boolean includeNumbers, Boolean includeSymbols) {
+        super(length, includeUppercase, includeLowercase, includeNumbers, includeSymbols);
+        this.count = count;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public void setTemplate(String template) {
+        this.template = template;
+    }
+
+    public Boolean getUnique() {
+        return unique;
+    }
+
+    public void setUnique(Boolean unique) {
+        this.unique = unique;
+    }
+
+    public String getPolicy() {
+        return policy;
+    }
+
+    public void setPolicy(String policy) {
+        this.policy = policy;
+    }
+
+    public HashAlgorithm getHash() {
+        return hash;
+    }
+
+    public void setHash(HashAlgorithm hash) {
+        this.hash = hash;
+    }
+
+    public Integer getHashCost() {
+        return hashCost;
+    }
+
+    public void setHashCost(Integer hashCost) {
+        this.hashCost = hashCost;
+    }
+
+    public Integer getHashMemory() {
+        return hashMemory;
+    }
+
+    public void setHashMemory(Integer hashMemory) {
+        this.hashMemory = hashMemory;
+    }
+
+    public Integer getHashParallelism() {
+        return hashParallelism;
+    }
+
+    public void setHashParallelism(Integer hashParallelism) {
+        this.hashParallelism = hashParallelism;
+    }
+}
@@ -0,0 +1,15 @@
+package com.passwordgenerator.model;
+
+public class ExportJobRequest extends BulkPasswordRequest {
+    private String format;
+
+    public ExportJobRequest() {}
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+}
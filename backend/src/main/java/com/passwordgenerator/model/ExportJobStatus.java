@@ -0,0 +1,155 @@
+package com.passwordgenerator.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * State of an export job. The key and IV are only filled in on the response that creates the
+ * job; they are not kept by the server and cannot be fetched again.
+ */
+public class ExportJobStatus {
+    private String id;
+    private String state;
+    private Integer count;
+    private Integer generated;
+    private String format;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long sizeBytes;
+    private Instant createdAt;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Instant completedAt;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Instant expiresAt;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String downloadUrl;
+    private String cipher;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String key;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String iv;
+
+    public ExportJobStatus(String id, String state, Integer count, Integer generated, String format,
+                           Instant createdAt) {
+        this.id = id;
+        this.state = state;
+        this.count = count;
+        this.generated = generated;
+        this.format = format;
+        this.createdAt = createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+
+    public Integer getGenerated() {
+        return generated;
+    }
+
+    public void setGenerated(Integer generated) {
+        this.generated = generated;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public Long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(Long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public String getDownloadUrl() {
+        return downloadUrl;
+    }
+
+    public void setDownloadUrl(String downloadUrl) {
+        this.downloadUrl = downloadUrl;
+    }
+
+    public String getCipher() {
+        return cipher;
+    }
+
+    public void setCipher(String cipher) {
+        this.cipher = cipher;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getIv() {
+        return iv;
+    }
+
+    public void setIv(String iv) {
+        this.iv = iv;
+    }
+}
@@ -0,0 +1,68 @@
+package com.passwordgenerator.model;
+
+public class PassphraseResponse {
+    private String passphrase;
+    private Integer words;
+    private String separator;
+    private String capitalization;
+    private Integer digits;
+    private Double entropyBits;
+
+    public PassphraseResponse(String passphrase, Integer words, String separator, String capitalization,
+                              Integer digits, Double entropyBits) {
+        this.passphrase = passphrase;
+        this.words = words;
+        this.separator = separator;
+        this.capitalization = capitalization;
+        this.digits = digits;
+        this.entropyBits = entropyBits;
+    }
+
+    public String getPassphrase() {
+        return passphrase;
+    }
+
+    public void setPassphrase(String passphrase) {
+        this.passphrase = passphrase;
+    }
+
+    public Integer getWords() {
+        return words;
+    }
+
+    public void setWords(Integer words) {
+        this.words = words;
+    }
+
+    public String getSeparator() {
+        return separator;
+    }
+
+    public void setSeparator(String separator) {
+        this.separator = separator;
+    }
+
+    public String getCapitalization() {
+        return capitalization;
+    }
+
+    public void setCapitalization(String capitalization) {
+        this.capitalization = capitalization;
+    }
+
+    public Integer getDigits() {
+        return digits;
+    }
+
+    public void setDigits(Integer digits) {
+        this.digits = digits;
+    }
+
+    public Double getEntropyBits() {
+        return entropyBits;
+    }
+
+    public void setEntropyBits(Double entropyBits) {
+        this.entropyBits = entropyBits;
+    }
+}
@@ -6,6 +6,13 @@ public class PasswordRequest {
     private Boolean includeLowercase;
     private Boolean includeNumbers;
     private Boolean includeSymbols;
+    private Boolean requireEachClass;
+    private Integer minUppercase;
+    private Integer minLowercase;
+    private Integer minNumbers;
+    private Integer minSymbols;
+    private String alphabet;
+    private String exclude;
 
     public PasswordRequest() {}
 
@@ -57,4 +64,60 @@ public class PasswordRequest {
     public void setIncludeSymbols(Boolean includeSymbols) {
         this.includeSymbols = includeSymbols;
     }
+
+    public Boolean getRequireEachClass() {
+        return requireEachClass;
+    }
+
+    public void setRequireEachClass(Boolean requireEachClass) {
+        this.requireEachClass = requireEachClass;
+    }
+
+    public Integer getMinUppercase() {
+        return minUppercase;
+    }
+
+    public void setMinUppercase(Integer minUppercase) {
+        this.minUppercase = minUppercase;
+    }
+
+    public Integer getMinLowercase() {
+        return minLowercase;
+    }
+
+    public void setMinLowercase(Integer minLowercase) {
+        this.minLowercase = minLowercase;
+    }
+
+    public Integer getMinNumbers() {
+        return minNumbers;
+    }
+
+    public void setMinNumbers(Integer minNumbers) {
+        this.minNumbers = minNumbers;
+    }
+
+    public Integer getMinSymbols() {
+        return minSymbols;
+    }
+
+    public void setMinSymbols(Integer minSymbols) {
+        this.minSymbols = minSymbols;
+    }
+
+    public String getAlphabet() {
+        return alphabet;
+    }
+
+    public void setAlphabet(String alphabet) {
+        this.alphabet = alphabet;
+    }
+
+    public String getExclude() {
+        return exclude;
+    }
+
+    public void setExclude(String exclude) {
+        this.exclude = exclude;
+    }
 }
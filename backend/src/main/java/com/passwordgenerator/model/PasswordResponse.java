@@ -1,5 +1,7 @@
 package com.passwordgenerator.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class PasswordResponse {
     private String password;
     private Integer length;
@@ -7,6 +9,10 @@ public class PasswordResponse {
     private Boolean includeLowercase;
     private Boolean includeNumbers;
     private Boolean includeSymbols;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private StrengthEstimate strength;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String hash;
 
     public PasswordResponse(String password, Integer length, Boolean includeUppercase, 
                            Boolean includeLowercase, Boolean includeNumbers, Boolean includeSymbols) {
@@ -65,4 +71,20 @@ public class PasswordResponse {
     public void setIncludeSymbols(Boolean includeSymbols) {
         this.includeSymbols = includeSymbols;
     }
+
+    public StrengthEstimate getStrength() {
+        return strength;
+    }
+
+    public void setStrength(StrengthEstimate strength) {
+        this.strength = strength;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
 }
@@ -0,0 +1,60 @@
+package com.passwordgenerator.model;
+
+import java.util.List;
+
+public class StrengthEstimate {
+    private Double entropyBits;
+    private Double charsetEntropyBits;
+    private Integer score;
+    private String rating;
+    private List<StrengthPattern> patterns;
+
+    public StrengthEstimate(Double entropyBits, Double charsetEntropyBits, Integer score, String rating,
+                            List<StrengthPattern> patterns) {
+        this.entropyBits = entropyBits;
+        this.charsetEntropyBits = charsetEntropyBits;
+        this.score = score;
+        this.rating = rating;
+        this.patterns = patterns;
+    }
+
+    public Double getEntropyBits() {
+        return entropyBits;
+    }
+
+    public void setEntropyBits(Double entropyBits) {
+        this.entropyBits = entropyBits;
+    }
+
+    public Double getCharsetEntropyBits() {
+        return charsetEntropyBits;
+    }
+
+    public void setCharsetEntropyBits(Double charsetEntropyBits) {
+        this.charsetEntropyBits = charsetEntropyBits;
+    }
+
+    public Integer getScore() {
+        return score;
+    }
+
+    public void setScore(Integer score) {
+        this.score = score;
+    }
+
+    public String getRating() {
+        return rating;
+    }
+
+    public void setRating(String rating) {
+        this.rating = rating;
+    }
+
+    public List<StrengthPattern> getPatterns() {
+        return patterns;
+    }
+
+    public void setPatterns(List<StrengthPattern> patterns) {
+        this.patterns = patterns;
+    }
+}
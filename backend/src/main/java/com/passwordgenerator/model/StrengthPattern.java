@@ -0,0 +1,50 @@
+package com.passwordgenerator.model;
+
+/**
+ * A weak pattern found in a password, covering characters {@code [start, end)}.
+ */
+public class StrengthPattern {
+    private String type;
+    private Integer start;
+    private Integer end;
+    private Double entropyBits;
+
+    public StrengthPattern(String type, Integer start, Integer end, Double entropyBits) {
+        this.type = type;
+        this.start = start;
+        this.end = end;
+        this.entropyBits = entropyBits;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Integer getStart() {
+        return start;
+    }
+
+    public void setStart(Integer start) {
+        this.start = start;
+    }
+
+    public Integer getEnd() {
+        return end;
+    }
+
+    public void setEnd(Integer end) {
+        this.end = end;
+    }
+
+    public Double getEntropyBits() {
+        return entropyBits;
+    }
+
+    public void setEntropyBits(Double entropyBits) {
+        this.entropyBits = entropyBits;
+    }
+}
@@ -0,0 +1,19 @@
+package com.passwordgenerator.model;
+
+public class StrengthRequest {
+    private String password;
+
+    public StrengthRequest() {}
+
+    public StrengthRequest(String password) {
+        this.password = password;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+}
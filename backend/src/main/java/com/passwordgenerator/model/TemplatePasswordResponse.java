@@ -0,0 +1,37 @@
+package com.passwordgenerator.model;
+
+public class TemplatePasswordResponse {
+    private String password;
+    private String template;
+    private Integer length;
+
+    public TemplatePasswordResponse(String password, String template, Integer length) {
+        this.password = password;
+        this.template = template;
+        this.length = length;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public void setTemplate(String template) {
+        this.template = template;
+    }
+
+    public Integer getLength() {
+        return length;
+    }
+
+    public void setLength(Integer length) {
+        this.length = length;
+    }
+}
@@ -0,0 +1,112 @@
+package com.passwordgenerator.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Size-bounded concurrent cache with approximate least-recently-used eviction.
+ *
+ * <p>Reads are a {@link ConcurrentHashMap} lookup plus a timestamp write, with no shared lock.
+ * When an insert pushes the cache over capacity, one thread evicts the least recently used
+ * entries down to 90% of capacity, so the cost of sorting is amortized over many inserts.
+ */
+public class BoundedCache<K, V> {
+
+    private final int capacity;
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Cache capacity must be at least 1. Provided: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the cached value for {@code key}, computing and caching it on a miss. Concurrent
+     * misses for the same key may compute it more than once; only one result is kept.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            hits.increment();
+            entry.lastAccess = System.nanoTime();
+            return entry.value;
+        }
+
+        misses.increment();
+        V value = loader.apply(key);
+        Entry<V> existing = entries.putIfAbsent(key, new Entry<>(value));
+        if (existing != null) {
+            return existing.value;
+        }
+        if (entries.size() > capacity) {
+            evict();
+        }
+        return value;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int target = Math.max(1, capacity - capacity / 10);
+            int excess = entries.size() - target;
+            if (excess <= 0) {
+                return;
+            }
+            // Snapshot access times first; sorting on live values could see them change mid-sort
+            entries.entrySet().stream()
+                    .map(e -> Map.entry(e.getKey(), e.getValue().lastAccess))
+                    .sorted(Map.Entry.comparingByValue())
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(key -> {
+                        if (entries.remove(key) != null) {
+                            evictions.increment();
+                        }
+                    });
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private volatile long lastAccess = System.nanoTime();
+
+        private Entry(V value) {
+            this.value = value;
+        }
+    }
+}
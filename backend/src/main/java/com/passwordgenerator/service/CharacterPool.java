@@ -0,0 +1,231 @@
+package com.passwordgenerator.service;
+
+import com.passwordgenerator.service.random.RandomSource;
+
+import java.util.Arrays;
+
+/**
+ * Immutable table of characters that passwords are sampled from.
+ *
+ * <p>Sampling pulls random bytes from the RNG in bulk and maps them to indices with
+ * rejection sampling: a sample is only accepted when it falls below the largest multiple
+ * of the pool size, so {@code sample % size} is exactly uniform. Pools of up to 256
+ * characters consume one byte per sample, larger pools two.
+ *
+ * <p>Pools built with {@link #ofCodePoints} may hold characters outside the Basic Multilingual
+ * Plane. Such a pool keeps a table of code points and writes each sample as one or two
+ * {@code char}s, so the UTF-16 length of its output varies; pools of BMP characters only keep
+ * the plain {@code char} table.
+ */
+public final class CharacterPool {
+
+    private static final int MAX_POOL_SIZE = 1 << 16;
+    private static final int SAMPLE_SLACK = 8;
+
+    private final char[] characters;
+    /** Code point table for pools with supplementary characters; null for BMP-only pools. */
+    private final int[] codePoints;
+    private final int bytesPerSample;
+    private final int maxUtf8Bytes;
+    private final int sampleRange;
+    private final int acceptLimit;
+
+    public CharacterPool(String characters) {
+        if (characters == null || characters.isEmpty()) {
+            throw new IllegalArgumentException("Character pool cannot be null or empty");
+        }
+        if (characters.length() > MAX_POOL_SIZE) {
+            throw new IllegalArgumentException(
+                "Character pool cannot contain more than " + MAX_POOL_SIZE + " characters");
+        }
+
+        this.characters = characters.toCharArray();
+        this.codePoints = null;
+        this.bytesPerSample = this.characters.length <= 256 ? 1 : 2;
+        int maxBytes = 1;
+        for (char c : this.characters) {
+            maxBytes = Math.max(maxBytes, utf8Bytes(c));
+        }
+        this.maxUtf8Bytes = maxBytes;
+        this.sampleRange = 1 << (8 * bytesPerSample);
+        this.acceptLimit = sampleRange - (sampleRange % this.characters.length);
+    }
+
+    private CharacterPool(int[] codePoints) {
+        this.characters = null;
+        this.codePoints = codePoints;
+        this.bytesPerSample = codePoints.length <= 256 ? 1 : 2;
+        int maxBytes = 1;
+        for (int codePoint : codePoints) {
+            maxBytes = Math.max(maxBytes, utf8Bytes(codePoint));
+        }
+        this.maxUtf8Bytes = maxBytes;
+        this.sampleRange = 1 << (8 * bytesPerSample);
+        this.acceptLimit = sampleRange - (sampleRange % codePoints.length);
+    }
+
+    /**
+     * Pool of the given code points, which must be distinct valid code points other than
+     * surrogates. Uses the plain {@code char} table when they are all in the BMP.
+     */
+    public static CharacterPool ofCodePoints(int[] codePoints) {
+        if (codePoints == null || codePoints.length == 0) {
+            throw new IllegalArgumentException("Character pool cannot be null or empty");
+        }
+        if (codePoints.length > MAX_POOL_SIZE) {
+            throw new IllegalArgumentException(
+                "Character pool cannot contain more than " + MAX_POOL_SIZE + " characters");
+        }
+        boolean bmp = true;
+        for (int codePoint : codePoints) {
+            if (!Character.isValidCodePoint(codePoint)
+                    || codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE) {
+                throw new IllegalArgumentException("Invalid code point in character pool: " + codePoint);
+            }
+            bmp &= Character.isBmpCodePoint(codePoint);
+        }
+        return bmp ? new CharacterPool(new String(codePoints, 0, codePoints.length))
+                : new CharacterPool(codePoints.clone());
+    }
+
+    /**
+     * Number of characters (code points) in the pool.
+     */
+    public int size() {
+        return characters != null ? characters.length : codePoints.length;
+    }
+
+    /**
+     * Character at {@code index}; only defined for BMP-only pools.
+     */
+    public char charAt(int index) {
+        if (characters == null) {
+            throw new IllegalStateException("Pool contains supplementary characters; use codePointAt");
+        }
+        return characters[index];
+    }
+
+    public int codePointAt(int index) {
+        return characters != null ? characters[index] : codePoints[index];
+    }
+
+    /**
+     * Most {@code char}s one sample can take: 2 when the pool holds supplementary characters.
+     */
+    public int maxCharsPerCharacter() {
+        return characters != null ? 1 : 2;
+    }
+
+    /**
+     * Most bytes one sample takes once UTF-8 encoded: 1 for ASCII pools, up to 4.
+     */
+    public int maxUtf8BytesPerCharacter() {
+        return maxUtf8Bytes;
+    }
+
+    /**
+     * Bytes {@code codePoint} takes in UTF-8. A lone surrogate counts as 3, as it would if encoded on its own.
+     */
+    static int utf8Bytes(int codePoint) {
+        return codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+    }
+
+    /**
+     * Writes {@code length} characters drawn uniformly from this pool into {@code dest} from
+     * {@code offset}. The random bytes go into one buffer sized for the whole run, which is
+     * refilled in place in the rare case rejections leave it short, and wiped once mapped.
+     *
+     * @return the index after the last {@code char} written: {@code offset + length} unless the
+     *         pool holds supplementary characters, which take two {@code char}s each
+     */
+    public int fill(char[] dest, int offset, int length, RandomSource random) {
+        if (characters == null) {
+            return fillCodePoints(dest, offset, length, random);
+        }
+        int position = offset;
+        int end = offset + length;
+
+        byte[] samples = new byte[estimateSamples(length) * bytesPerSample];
+        while (position < end) {
+            random.nextBytes(samples);
+            position = map(samples, 0, samples.length, dest, position, end);
+        }
+        Arrays.fill(samples, (byte) 0);
+        return end;
+    }
+
+    /**
+     * Maps the random bytes {@code samples[from, to)} to characters in order, writing accepted
+     * ones to {@code dest} from {@code position} until {@code end} is reached. BMP pools only.
+     *
+     * @return the index after the last {@code char} written
+     */
+    int map(byte[] samples, int from, int to, char[] dest, int position, int end) {
+        for (int i = from; i < to && position < end; i += bytesPerSample) {
+            int sample = bytesPerSample == 1
+                    ? samples[i] & 0xFF
+                    : ((samples[i] & 0xFF) << 8) | (samples[i + 1] & 0xFF);
+            if (sample < acceptLimit) {
+                dest[position++] = characters[sample % characters.length];
+            }
+        }
+        return position;
+    }
+
+    private int fillCodePoints(char[] dest, int offset, int length, RandomSource random) {
+        int position = offset;
+        int remaining = length;
+
+        byte[] samples = new byte[estimateSamples(length) * bytesPerSample];
+        while (remaining > 0) {
+            random.nextBytes(samples);
+
+            for (int i = 0; i < samples.length && remaining > 0; i += bytesPerSample) {
+                int sample = bytesPerSample == 1
+                        ? samples[i] & 0xFF
+                        : ((samples[i] & 0xFF) << 8) | (samples[i + 1] & 0xFF);
+                if (sample < acceptLimit) {
+                    position += Character.toChars(codePoints[sample % codePoints.length], dest, position);
+                    remaining--;
+                }
+            }
+        }
+        Arrays.fill(samples, (byte) 0);
+        return position;
+    }
+
+    /**
+     * True when every sample is one byte and maps to a single {@code char}: BMP pools of up to
+     * 256 characters.
+     */
+    boolean isByteSampled() {
+        return characters != null && bytesPerSample == 1;
+    }
+
+    /**
+     * Samples at or above this value are rejected.
+     */
+    int acceptLimit() {
+        return acceptLimit;
+    }
+
+    /**
+     * Character an accepted {@code sample} maps to; BMP pools only.
+     */
+    char sampleCharacter(int sample) {
+        return characters[sample % characters.length];
+    }
+
+    /**
+     * Number of samples expected to yield {@code needed} accepted values, plus a little slack
+     * so a single draw almost always suffices.
+     */
+    int estimateSamples(int needed) {
+        return (int) ((long) needed * sampleRange / acceptLimit) + SAMPLE_SLACK;
+    }
+
+    @Override
+    public String toString() {
+        return characters != null ? new String(characters) : new String(codePoints, 0, codePoints.length);
+    }
+}
@@ -0,0 +1,47 @@
+package com.passwordgenerator.service;
+
+/**
+ * Changes to the characters a password is drawn from. A custom {@code alphabet} replaces the
+ * character classes entirely; {@code exclude} removes characters from whichever set applies,
+ * for instance look-alikes such as {@code 0O1lI} or symbols a shell would interpret. Both are
+ * read as Unicode code points, and repeated characters count once.
+ */
+public final class CharsetOptions {
+
+    public static final CharsetOptions NONE = new CharsetOptions(null, null);
+
+    private final String alphabet;
+    private final String exclude;
+
+    public CharsetOptions(String alphabet, String exclude) {
+        this.alphabet = alphabet;
+        this.exclude = exclude;
+    }
+
+    public String getAlphabet() {
+        return alphabet;
+    }
+
+    public String getExclude() {
+        return exclude;
+    }
+
+    public boolean hasAlphabet() {
+        return alphabet != null;
+    }
+
+    public boolean hasExclusions() {
+        return exclude != null && !exclude.isEmpty();
+    }
+
+    /**
+     * Most bytes one password character can take once UTF-8 encoded. The character classes
+     * are ASCII, and exclusions only ever remove characters, so only the alphabet matters.
+     */
+    public int maxUtf8BytesPerCharacter() {
+        if (alphabet == null) {
+            return 1;
+        }
+        return alphabet.codePoints().map(CharacterPool::utf8Bytes).max().orElse(1);
+    }
+}
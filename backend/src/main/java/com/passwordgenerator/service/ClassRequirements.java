@@ -0,0 +1,62 @@
+package com.passwordgenerator.service;
+
+/**
+ * Minimum number of characters each character class must contribute to a password.
+ * A {@code null} minimum means "no explicit minimum"; with {@code requireEachClass} set,
+ * every selected class defaults to a minimum of one.
+ */
+public final class ClassRequirements {
+
+    public static final ClassRequirements NONE = new ClassRequirements(false, null, null, null, null);
+
+    private final boolean requireEachClass;
+    private final Integer minUppercase;
+    private final Integer minLowercase;
+    private final Integer minNumbers;
+    private final Integer minSymbols;
+
+    public ClassRequirements(boolean requireEachClass, Integer minUppercase, Integer minLowercase,
+                             Integer minNumbers, Integer minSymbols) {
+        this.requireEachClass = requireEachClass;
+        this.minUppercase = minUppercase;
+        this.minLowercase = minLowercase;
+        this.minNumbers = minNumbers;
+        this.minSymbols = minSymbols;
+    }
+
+    public boolean isRequireEachClass() {
+        return requireEachClass;
+    }
+
+    public Integer getMinUppercase() {
+        return minUppercase;
+    }
+
+    public Integer getMinLowercase() {
+        return minLowercase;
+    }
+
+    public Integer getMinNumbers() {
+        return minNumbers;
+    }
+
+    public Integer getMinSymbols() {
+        return minSymbols;
+    }
+
+    /**
+     * Explicit minimum for the class with the given *_FLAG bit, or null.
+     */
+    Integer minimumFor(int classFlag) {
+        switch (classFlag) {
+            case PasswordGeneratorService.UPPERCASE_FLAG:
+                return minUppercase;
+            case PasswordGeneratorService.LOWERCASE_FLAG:
+                return minLowercase;
+            case PasswordGeneratorService.NUMERIC_FLAG:
+                return minNumbers;
+            default:
+                return minSymbols;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.passwordgenerator.service;
+
+import com.passwordgenerator.exception.ParameterError;
+
+/**
+ * The pools one choice of characters generates from: the merged pool every uniform draw uses
+ * and, for character classes, each selected class on its own for class minimums. Immutable, so
+ * one instance is shared by every request that resolves to the same characters.
+ *
+ * <p>A choice that cannot generate anything compiles to an instance holding only its
+ * {@link ParameterError}, so rejected charsets are cached like valid ones.
+ */
+final class CompiledCharset {
+
+    private static final CharacterPool[] NO_CLASSES = new CharacterPool[0];
+
+    private final int characterMask;
+    private final CharacterPool merged;
+    private final CharacterPool[] classPools;
+    private final ParameterError error;
+
+    /**
+     * Character classes, each already stripped of any excluded characters, in flag order.
+     */
+    CompiledCharset(int characterMask, CharacterPool merged, CharacterPool[] classPools) {
+        this(characterMask, merged, classPools, null);
+    }
+
+    private CompiledCharset(int characterMask, CharacterPool merged, CharacterPool[] classPools,
+                            ParameterError error) {
+        this.characterMask = characterMask;
+        this.merged = merged;
+        this.classPools = classPools;
+        this.error = error;
+    }
+
+    /**
+     * Characters that were rejected, with the reason; it has no pools.
+     */
+    static CompiledCharset invalid(ParameterError error) {
+        return new CompiledCharset(0, null, NO_CLASSES, error);
+    }
+
+    /**
+     * A custom alphabet, which has no classes.
+     */
+    CompiledCharset(CharacterPool alphabet) {
+        this(0, alphabet, NO_CLASSES);
+    }
+
+    /**
+     * The selected *_FLAG bits, or 0 for a custom alphabet.
+     */
+    int characterMask() {
+        return characterMask;
+    }
+
+    CharacterPool merged() {
+        return merged;
+    }
+
+    CharacterPool[] classPools() {
+        return classPools;
+    }
+
+    /**
+     * Why these characters cannot be used, or null if they can.
+     */
+    ParameterError error() {
+        return error;
+    }
+}
@@ -0,0 +1,258 @@
+package com.passwordgenerator.service;
+
+import com.passwordgenerator.service.random.RandomSource;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Generation plan that guarantees a minimum number of characters from each selected class while
+ * staying exactly uniform over all passwords that satisfy those minimums.
+ *
+ * <p>Two exact strategies are used, chosen once when the plan is compiled:
+ * <ul>
+ *   <li><b>Rejection</b> - draw from the merged pool and retry if a minimum is missed. Only
+ *       chosen when a union bound proves the acceptance probability is at least ~1/2, so the
+ *       expected cost is under two draws regardless of length.</li>
+ *   <li><b>Composition sampling</b> - for short passwords or heavy minimums, where rejection
+ *       would loop. Valid passwords are counted exactly per class composition (how many
+ *       characters of each class), a composition is drawn with probability proportional to its
+ *       count, the class labels are shuffled into positions and each position is filled from its
+ *       class. Counting is done once per plan with {@link BigInteger} arithmetic.</li>
+ * </ul>
+ */
+public final class CoveragePlan implements GenerationPlan {
+
+    /** Per-class minimums are capped so the exact counting tables stay small. */
+    static final int MAX_CLASS_MINIMUM = 16;
+
+    private static final double REJECTION_THRESHOLD = 0.45;
+
+    private final int length;
+    private final CharacterPool mergedPool;
+    private final CharacterPool[] classPools;
+    private final int[] minimums;
+    private final byte[] classOf;
+
+    /** suffixCounts[j][x]: passwords of length x over classes j.. that meet their minimums; null when rejecting. */
+    private final BigInteger[][] suffixCounts;
+
+    CoveragePlan(int length, CharacterPool mergedPool, CharacterPool[] classPools, int[] minimums) {
+        this.length = length;
+        this.mergedPool = mergedPool;
+        this.classPools = classPools;
+        this.minimums = minimums.clone();
+
+        this.classOf = new byte[128];
+        Arrays.fill(classOf, (byte) -1);
+        for (int i = 0; i < classPools.length; i++) {
+            for (int c = 0; c < classPools[i].size(); c++) {
+                classOf[classPools[i].charAt(c)] = (byte) i;
+            }
+        }
+
+        this.suffixCounts = missProbabilityBound() <= REJECTION_THRESHOLD ? null : countValidSuffixes();
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public int maxUtf8Length() {
+        return length * mergedPool.maxUtf8BytesPerCharacter();
+    }
+
+    @Override
+    public int fill(char[] dest, RandomSource random) {
+        if (suffixCounts == null) {
+            fillByRejection(dest, random);
+        } else {
+            fillByComposition(dest, random);
+        }
+        return length;
+    }
+
+    /**
+     * Exact when the counting tables were built; otherwise the union bound gives at least
+     * {@code (1 - bound)} of the merged pool's keyspace.
+     */
+    @Override
+    public BigInteger keyspace() {
+        if (suffixCounts != null) {
+            return suffixCounts[0][length];
+        }
+        BigInteger all = BigInteger.valueOf(mergedPool.size()).pow(length);
+        long acceptedPerMillion = (long) Math.floor((1 - missProbabilityBound()) * 1_000_000);
+        return all.multiply(BigInteger.valueOf(acceptedPerMillion)).divide(BigInteger.valueOf(1_000_000));
+    }
+
+    /**
+     * Whether this plan draws a composition first rather than rejecting; exposed for tests.
+     */
+    boolean usesCompositionSampling() {
+        return suffixCounts != null;
+    }
+
+    private void fillByRejection(char[] dest, RandomSource random) {
+        int[] counts = new int[classPools.length];
+        do {
+            mergedPool.fill(dest, 0, length, random);
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < length; i++) {
+                counts[classOf[dest[i]]]++;
+            }
+        } while (!meetsMinimums(counts));
+    }
+
+    private void fillByComposition(char[] dest, RandomSource random) {
+        int classes = classPools.length;
+        int[] composition = new int[classes];
+        int remaining = length;
+
+        // Draw each class count in turn, weighted by the number of valid completions
+        for (int j = 0; j < classes - 1; j++) {
+            int reservedAfter = 0;
+            for (int l = j + 1; l < classes; l++) {
+                reservedAfter += minimums[l];
+            }
+
+            BigInteger target = randomBelow(suffixCounts[j][remaining], random);
+            BigInteger size = BigInteger.valueOf(classPools[j].size());
+            BigInteger binomial = binomial(remaining, minimums[j]);
+            BigInteger power = size.pow(minimums[j]);
+            int chosen = remaining - reservedAfter;
+
+            for (int c = minimums[j]; c <= remaining - reservedAfter; c++) {
+                BigInteger weight = binomial.multiply(power).multiply(suffixCounts[j + 1][remaining - c]);
+                if (target.compareTo(weight) < 0) {
+                    chosen = c;
+                    break;
+                }
+                target = target.subtract(weight);
+                binomial = binomial.multiply(BigInteger.valueOf(remaining - c)).divide(BigInteger.valueOf(c + 1));
+                power = power.multiply(size);
+            }
+
+            composition[j] = chosen;
+            remaining -= chosen;
+        }
+        composition[classes - 1] = remaining;
+
+        // Uniformly random arrangement of the class labels
+        byte[] labels = new byte[length];
+        int position = 0;
+        for (int j = 0; j < classes; j++) {
+            Arrays.fill(labels, position, position + composition[j], (byte) j);
+            position += composition[j];
+        }
+        if (length > 1) {
+            IndexSampler indices = new IndexSampler(random, length - 1);
+            for (int i = length - 1; i > 0; i--) {
+                int swap = indices.next(i + 1);
+                byte label = labels[i];
+                labels[i] = labels[swap];
+                labels[swap] = label;
+            }
+            indices.wipe();
+        }
+
+        // Fill each class's characters in one draw, then scatter them into their positions
+        char[][] drawn = new char[classes][];
+        int[] taken = new int[classes];
+        for (int j = 0; j < classes; j++) {
+            drawn[j] = new char[composition[j]];
+            classPools[j].fill(drawn[j], 0, composition[j], random);
+        }
+        for (int i = 0; i < length; i++) {
+            dest[i] = drawn[labels[i]][taken[labels[i]]++];
+        }
+        for (char[] chars : drawn) {
+            Arrays.fill(chars, '\0');
+        }
+    }
+
+    private boolean meetsMinimums(int[] counts) {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] < minimums[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Union bound on the probability that a uniform draw from the merged pool misses some
+     * minimum. Only used to pick a strategy; both strategies are exact.
+     */
+    private double missProbabilityBound() {
+        double total = mergedPool.size();
+        double bound = 0;
+        for (int i = 0; i < classPools.length; i++) {
+            double p = classPools[i].size() / total;
+            // P(Binomial(length, p) < minimum), accumulated term by term
+            double term = Math.pow(1 - p, length);
+            for (int j = 0; j < minimums[i]; j++) {
+                bound += term;
+                term *= (double) (length - j) / (j + 1) * p / (1 - p);
+            }
+        }
+        return bound;
+    }
+
+    private BigInteger[][] countValidSuffixes() {
+        int classes = classPools.length;
+        BigInteger[][] counts = new BigInteger[classes + 1][length + 1];
+        Arrays.fill(counts[classes], BigInteger.ZERO);
+        counts[classes][0] = BigInteger.ONE;
+
+        for (int j = classes - 1; j >= 0; j--) {
+            BigInteger size = BigInteger.valueOf(classPools[j].size());
+            // The first class is only ever sampled at the full length
+            for (int x = j == 0 ? length : 0; x <= length; x++) {
+                BigInteger sum = BigInteger.ZERO;
+                if (x >= minimums[j]) {
+                    BigInteger binomial = binomial(x, minimums[j]);
+                    BigInteger power = size.pow(minimums[j]);
+                    for (int c = minimums[j]; c <= x; c++) {
+                        BigInteger rest = counts[j + 1][x - c];
+                        if (rest.signum() != 0) {
+                            sum = sum.add(binomial.multiply(power).multiply(rest));
+                        }
+                        binomial = binomial.multiply(BigInteger.valueOf(x - c)).divide(BigInteger.valueOf(c + 1));
+                        power = power.multiply(size);
+                    }
+                }
+                counts[j][x] = sum;
+            }
+        }
+        return counts;
+    }
+
+    private static BigInteger binomial(int n, int k) {
+        BigInteger result = BigInteger.ONE;
+        for (int i = 0; i < k; i++) {
+            result = result.multiply(BigInteger.valueOf(n - i)).divide(BigInteger.valueOf(i + 1));
+        }
+        return result;
+    }
+
+    /**
+     * Uniform value in {@code [0, bound)}. Masking to the bound's bit length keeps the
+     * acceptance probability above 1/2.
+     */
+    private static BigInteger randomBelow(BigInteger bound, RandomSource random) {
+        int bits = bound.bitLength();
+        byte[] bytes = new byte[(bits + 7) / 8];
+        int excessBits = bytes.length * 8 - bits;
+        while (true) {
+            random.nextBytes(bytes);
+            bytes[0] &= (byte) (0xFF >>> excessBits);
+            BigInteger candidate = new BigInteger(1, bytes);
+            if (candidate.compareTo(bound) < 0) {
+                return candidate;
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.passwordgenerator.service;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * Off-heap open-addressing set of 64-bit password fingerprints, used to keep bulk batches
+ * free of duplicates.
+ *
+ * <p>Short printable-ASCII passwords (up to 9 characters, which covers PINs and the small
+ * keyspaces where duplicates are actually likely) are encoded exactly as base-95 numbers, so
+ * membership is exact. Longer passwords are reduced to a keyed 64-bit hash. A hash collision
+ * can only make the set report a duplicate that isn't one, costing a regeneration; it can
+ * never let a real duplicate through.
+ *
+ * <p>The table is sized once for the batch at a fixed load factor, so memory per tracked
+ * password is a constant {@link #BYTES_PER_ITEM} bytes, held outside the Java heap.
+ * Slots are located with a multiply-shift range reduction and linear probing. Not thread-safe;
+ * each bulk stream owns its set.
+ */
+public final class FingerprintSet {
+
+    private static final double LOAD_FACTOR = 0.75;
+    public static final double BYTES_PER_ITEM = Long.BYTES / LOAD_FACTOR;
+
+    private static final int EXACT_MAX_LENGTH = 9;
+    private static final int PRINTABLE_FIRST = 0x20;
+    private static final int PRINTABLE_COUNT = 95;
+    private static final long EMPTY = 0;
+
+    private final ByteBuffer table;
+    private final long slots;
+    private final long seed;
+    private int size;
+
+    public FingerprintSet(int expectedItems) {
+        if (expectedItems < 1) {
+            throw new IllegalArgumentException("Expected item count must be positive. Provided: " + expectedItems);
+        }
+        long requested = (long) Math.ceil(expectedItems / LOAD_FACTOR) + 1;
+        if (requested * Long.BYTES > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many items for a fingerprint set: " + expectedItems);
+        }
+        this.slots = requested;
+        this.table = ByteBuffer.allocateDirect((int) (slots * Long.BYTES));
+        this.seed = new SecureRandom().nextLong();
+    }
+
+    /**
+     * Off-heap bytes a set sized for {@code expectedItems} allocates.
+     */
+    public static long memoryFor(int expectedItems) {
+        return ((long) Math.ceil(expectedItems / LOAD_FACTOR) + 1) * Long.BYTES;
+    }
+
+    /**
+     * Adds a password's fingerprint.
+     *
+     * @return false if it was already present
+     */
+    public boolean add(CharSequence password) {
+        char[] chars = new char[password.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = password.charAt(i);
+        }
+        try {
+            return add(chars, chars.length);
+        } finally {
+            Arrays.fill(chars, '\0');
+        }
+    }
+
+    /**
+     * Adds the fingerprint of {@code password[0, length)}.
+     *
+     * @return false if it was already present
+     */
+    public boolean add(char[] password, int length) {
+        long fingerprint = fingerprint(password, length);
+        long slot = Math.unsignedMultiplyHigh(mix(fingerprint), slots);
+
+        while (true) {
+            int offset = (int) (slot * Long.BYTES);
+            long current = table.getLong(offset);
+            if (current == EMPTY) {
+                table.putLong(offset, fingerprint);
+                size++;
+                return true;
+            }
+            if (current == fingerprint) {
+                return false;
+            }
+            slot = slot + 1 == slots ? 0 : slot + 1;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getMemoryBytes() {
+        return slots * Long.BYTES;
+    }
+
+    /**
+     * Non-zero 64-bit fingerprint: the exact base-95 value (plus one) for short printable
+     * passwords, otherwise a keyed hash with the top bit set so the two ranges never meet.
+     */
+    private long fingerprint(char[] password, int length) {
+        if (length <= EXACT_MAX_LENGTH) {
+            long value = 0;
+            boolean printable = true;
+            for (int i = 0; i < length && printable; i++) {
+                int digit = password[i] - PRINTABLE_FIRST;
+                printable = digit >= 0 && digit < PRINTABLE_COUNT;
+                value = value * PRINTABLE_COUNT + digit;
+            }
+            if (printable) {
+                // Prefix with the length so "a" and " a" get different values; 95^9 * 10 < 2^63
+                return value * (EXACT_MAX_LENGTH + 1) + length + 1;
+            }
+        }
+
+        long hash = seed;
+        for (int i = 0; i < length; i++) {
+            hash = (hash ^ password[i]) * 0x100000001B3L;
+        }
+        return mix(hash) | Long.MIN_VALUE;
+    }
+
+    /**
+     * MurmurHash3 finalizer: spreads exact (sequential) fingerprints across the table.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,38 @@
+package com.passwordgenerator.service;
+
+import com.passwordgenerator.service.random.RandomSource;
+
+import java.math.BigInteger;
+
+/**
+ * Immutable, precompiled recipe for producing passwords of one shape. All parsing and
+ * validation happens when the plan is built, so generating from it only draws random bytes.
+ */
+public interface GenerationPlan {
+
+    /**
+     * Longest password this plan produces, in {@code char}s: the buffer size {@link #fill}
+     * needs. Every password has exactly this length unless the plan draws from a pool with
+     * supplementary characters, which take two {@code char}s each.
+     */
+    int length();
+
+    /**
+     * Most bytes a password from this plan can take once UTF-8 encoded, for consumers with a
+     * byte limit such as bcrypt. Equal to {@link #length()} for ASCII character sets.
+     */
+    int maxUtf8Length();
+
+    /**
+     * Writes one password into {@code dest} from index 0.
+     *
+     * @return the number of {@code char}s written, at most {@link #length()}
+     */
+    int fill(char[] dest, RandomSource random);
+
+    /**
+     * Number of distinct passwords this plan can produce, or a lower bound on it where the
+     * exact figure is expensive to compute.
+     */
+    BigInteger keyspace();
+}
@@ -0,0 +1,53 @@
+package com.passwordgenerator.service;
+
+import com.passwordgenerator.service.random.RandomSource;
+
+import java.util.Arrays;
+
+/**
+ * Uniform indices for a shuffle, drawn from one bulk request for random bytes rather than one
+ * RNG call per index. Each index comes from a 16-bit sample with rejection above the largest
+ * multiple of its bound, so there is no modulo bias; bounds are at most the maximum password
+ * length, which keeps rejections rare enough that the first draw almost always suffices.
+ * Single use and not thread-safe; call {@link #wipe} when done.
+ */
+final class IndexSampler {
+
+    private static final int SAMPLE_RANGE = 1 << 16;
+    private static final int SAMPLE_SLACK = 8;
+
+    private final RandomSource random;
+    private final byte[] samples;
+    private int next;
+
+    /**
+     * @param count indices the caller expects to draw
+     */
+    IndexSampler(RandomSource random, int count) {
+        this.random = random;
+        this.samples = new byte[2 * (count + count / 32 + SAMPLE_SLACK)];
+        random.nextBytes(samples);
+    }
+
+    /**
+     * Returns a uniformly distributed value in {@code [0, bound)}, for {@code bound} up to 65,536.
+     */
+    int next(int bound) {
+        int limit = SAMPLE_RANGE - SAMPLE_RANGE % bound;
+        while (true) {
+            if (next == samples.length) {
+                random.nextBytes(samples);
+                next = 0;
+            }
+            int sample = ((samples[next] & 0xFF) << 8) | (samples[next + 1] & 0xFF);
+            next += 2;
+            if (sample < limit) {
+                return sample % bound;
+            }
+        }
+    }
+
+    void wipe() {
+        Arrays.fill(samples, (byte) 0);
+    }
+}
@@ -0,0 +1,96 @@
+package com.passwordgenerator.service;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * A validated, not yet generated batch of passwords. Each {@link #next} call writes one
+ * password into a caller-owned buffer, so a writer can stream the batch without creating a
+ * {@link String} per password. Close it once done, however far it got, so characters sampled
+ * ahead of demand are wiped. Single use and not thread-safe.
+ */
+public final class PasswordBatch implements AutoCloseable {
+
+    private final PasswordGeneratorService generator;
+    private final GenerationPlan plan;
+    private final FingerprintSet emitted;
+    private final int count;
+    private int produced;
+
+    PasswordBatch(PasswordGeneratorService generator, GenerationPlan plan, int count, FingerprintSet emitted) {
+        this.generator = generator;
+        this.plan = plan;
+        this.count = count;
+        this.emitted = emitted;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Length of the longest password in the batch, in {@code char}s, so callers can size their
+     * buffer once. Every password has this length unless a custom alphabet has supplementary
+     * characters; {@link #next} returns the actual length.
+     */
+    public int passwordLength() {
+        return plan.length();
+    }
+
+    /**
+     * Most bytes any password in the batch can take once UTF-8 encoded.
+     */
+    public int maxUtf8Length() {
+        return plan.maxUtf8Length();
+    }
+
+    /**
+     * Passwords generated so far.
+     */
+    public int generated() {
+        return produced;
+    }
+
+    public boolean hasNext() {
+        return produced < count;
+    }
+
+    /**
+     * Writes the next password into {@code dest[0, passwordLength())}.
+     *
+     * @return the number of characters written
+     */
+    public int next(char[] dest) {
+        if (produced >= count) {
+            throw new NoSuchElementException("All " + count + " passwords have been generated");
+        }
+        int length = emitted == null
+                ? generator.fillScreened(plan, dest)
+                : generator.fillUnique(plan, dest, emitted);
+        produced++;
+        return length;
+    }
+
+    /**
+     * The rest of the batch as strings. Closing the stream closes the batch.
+     */
+    public Stream<String> stream() {
+        char[] buffer = new char[plan.length()];
+        return Stream.generate(() -> {
+            String password = new String(buffer, 0, next(buffer));
+            Arrays.fill(buffer, '\0');
+            return password;
+        }).limit(count - produced).onClose(this::close);
+    }
+
+    /**
+     * Wipes any passwords generated ahead but not handed out. The batch must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        if (plan instanceof VectorizedPlan vectorized) {
+            vectorized.wipe();
+        }
+    }
+}
@@ -1,143 +1,1069 @@
 package com.passwordgenerator.service;
 
+import com.passwordgenerator.exception.FeatureNotConfiguredException;
 import com.passwordgenerator.exception.InvalidPasswordParametersException;
+import com.passwordgenerator.exception.ParameterError;
+import com.passwordgenerator.service.breach.BreachedPasswordIndex;
+import com.passwordgenerator.service.passphrase.Capitalization;
+import com.passwordgenerator.service.passphrase.WordList;
+import com.passwordgenerator.service.policy.PasswordPolicy;
+import com.passwordgenerator.service.random.RandomSource;
+import com.passwordgenerator.service.random.SecureRandomProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.security.SecureRandom;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.stream.Stream;
 
 @Service
 public class PasswordGeneratorService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PasswordGeneratorService.class);
+
     private static final String UPPERCASE_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
     private static final String LOWERCASE_CHARS = "abcdefghijklmnopqrstuvwxyz";
     private static final String NUMERIC_CHARS = "0123456789";
     private static final String SYMBOL_CHARS = "!@#$%^&*()-_=+[]{}|;:',.<>?/`~";
 
+    static final int UPPERCASE_FLAG = 1;
+    static final int LOWERCASE_FLAG = 1 << 1;
+    static final int NUMERIC_FLAG = 1 << 2;
+    static final int SYMBOL_FLAG = 1 << 3;
+    private static final CharacterPool[] CHARACTER_POOLS = buildCharacterPools();
+
     private static final int MIN_PASSWORD_LENGTH = 1;
-    private static final int MAX_PASSWORD_LENGTH = 1024;
+    public static final int MAX_PASSWORD_LENGTH = 1024;
+    /** Longest password in {@code char}s: custom alphabets may take a surrogate pair per character. */
+    public static final int MAX_PASSWORD_CHARS = 2 * MAX_PASSWORD_LENGTH;
+    private static final int MIN_BULK_COUNT = 1;
+    private static final int MAX_BULK_COUNT = 1_000_000;
+    private static final int MIN_PASSPHRASE_WORDS = 1;
+    private static final int MAX_PASSPHRASE_WORDS = 64;
+    private static final int MAX_SEPARATOR_LENGTH = 8;
+    private static final int TEMPLATE_CACHE_SIZE = 1024;
+    private static final int COVERAGE_CACHE_SIZE = 1024;
+    private static final int CHARSET_CACHE_SIZE = 1024;
+    private static final int MAX_CHARSET_LENGTH = 4096;
+    private static final int MAX_BREACH_ATTEMPTS = 16;
+    private static final int MAX_UNIQUE_ATTEMPTS = 64;
+    /** Batches smaller than this (in characters) are not worth setting up vector tables for. */
+    private static final long MIN_VECTORIZED_CHARS = 1024;
+    private static final int[] CLASS_FLAGS = {UPPERCASE_FLAG, LOWERCASE_FLAG, NUMERIC_FLAG, SYMBOL_FLAG};
+    private static final ParameterError[] EXCLUDED_CLASS_ERRORS = {
+            ParameterError.EXCLUSIONS_REMOVE_UPPERCASE, ParameterError.EXCLUSIONS_REMOVE_LOWERCASE,
+            ParameterError.EXCLUSIONS_REMOVE_NUMBERS, ParameterError.EXCLUSIONS_REMOVE_SYMBOLS};
+    private static final byte[] ASCII_CLASS_FLAGS = buildAsciiClassFlags();
+    private static final CompiledCharset[] STANDARD_CHARSETS = buildStandardCharsets();
 
-    private final SecureRandom secureRandom;
+    private final RandomSource randomSource;
+    private final PasswordMetrics metrics;
+    private final BoundedCache<String, PasswordTemplate> templateCache = new BoundedCache<>(TEMPLATE_CACHE_SIZE);
+    private final BoundedCache<CoverageKey, CoveragePlan> coverageCache = new BoundedCache<>(COVERAGE_CACHE_SIZE);
+    private final BoundedCache<String, CompiledCharset> charsetCache = new BoundedCache<>(CHARSET_CACHE_SIZE);
+    private WordList wordList;
+    private BreachedPasswordIndex breachedPasswordIndex;
+    private boolean screenGenerated;
+    private boolean vectorized;
 
     public PasswordGeneratorService() {
-        this.secureRandom = new SecureRandom();
+        this(SecureRandomProvider.platformDefault());
+    }
+
+    public PasswordGeneratorService(RandomSource randomSource) {
+        this(randomSource, PasswordMetrics.noop());
+    }
+
+    @Autowired
+    public PasswordGeneratorService(RandomSource randomSource, PasswordMetrics metrics) {
+        this.randomSource = randomSource;
+        this.metrics = metrics;
+    }
+
+    @Autowired(required = false)
+    public void setWordList(WordList wordList) {
+        this.wordList = wordList;
+    }
+
+    @Autowired(required = false)
+    public void setBreachedPasswordIndex(BreachedPasswordIndex breachedPasswordIndex) {
+        this.breachedPasswordIndex = breachedPasswordIndex;
+    }
+
+    /**
+     * When enabled (and a breach corpus is configured), generated passwords found in the corpus
+     * are discarded and regenerated.
+     */
+    @Value("${password.breach.check-generated:false}")
+    public void setScreenGenerated(boolean screenGenerated) {
+        this.screenGenerated = screenGenerated;
+    }
+
+    /**
+     * When enabled, bulk batches and streams sample their characters a vector at a time with
+     * the incubating Vector API. Needs {@code --add-modules jdk.incubator.vector}; without it
+     * generation stays on the scalar path.
+     */
+    @Value("${password.bulk.vectorized:false}")
+    public void setVectorized(boolean vectorized) {
+        if (vectorized && !VectorSupport.isAvailable()) {
+            logger.warn("Vectorized bulk generation unavailable, using scalar code reason={}",
+                    VectorSupport.unavailableReason());
+            vectorized = false;
+        } else if (vectorized) {
+            logger.info("Vectorized bulk generation enabled lanes={}", VectorSampler.lanes());
+        }
+        this.vectorized = vectorized;
+    }
+
+    public boolean isVectorized() {
+        return vectorized;
     }
 
     public String generatePassword(Integer length, Boolean includeUppercase, Boolean includeLowercase,
                                    Boolean includeNumbers, Boolean includeSymbols) {
+        return generatePassword(length, includeUppercase, includeLowercase, includeNumbers, includeSymbols,
+                ClassRequirements.NONE);
+    }
+
+    /**
+     * Generates a password that contains at least the required number of characters from each
+     * selected class. The result is uniform over all passwords meeting the requirements; see
+     * {@link CoveragePlan}.
+     */
+    public String generatePassword(Integer length, Boolean includeUppercase, Boolean includeLowercase,
+                                   Boolean includeNumbers, Boolean includeSymbols,
+                                   ClassRequirements requirements) {
+        return generatePassword(length, includeUppercase, includeLowercase, includeNumbers, includeSymbols,
+                requirements, CharsetOptions.NONE);
+    }
+
+    /**
+     * Generates a password from a custom alphabet, or from the selected classes less any
+     * excluded characters; see {@link CharsetOptions}.
+     */
+    public String generatePassword(Integer length, Boolean includeUppercase, Boolean includeLowercase,
+                                   Boolean includeNumbers, Boolean includeSymbols,
+                                   ClassRequirements requirements, CharsetOptions charset) {
+        GenerationPlan plan = plan(length, includeUppercase, includeLowercase, includeNumbers, includeSymbols,
+                requirements, charset);
+        char[] password = new char[plan.length()];
         try {
-            // Validate input parameters
-            validatePasswordParameters(length, includeUppercase, includeLowercase, includeNumbers, includeSymbols);
+            int size = generate(plan, password, length,
+                    characterMask(includeUppercase, includeLowercase, includeNumbers, includeSymbols));
+            return new String(password, 0, size);
+        } finally {
+            Arrays.fill(password, '\0');
+        }
+    }
 
-            // Build the character pool
-            String characterPool = buildCharacterPool(includeUppercase, includeLowercase, includeNumbers, includeSymbols);
+    public int generatePassword(char[] dest, Integer length, Boolean includeUppercase, Boolean includeLowercase,
+                                Boolean includeNumbers, Boolean includeSymbols,
+                                ClassRequirements requirements) {
+        return generatePassword(dest, length, includeUppercase, includeLowercase, includeNumbers, includeSymbols,
+                requirements, CharsetOptions.NONE);
+    }
 
-            // Generate password using SecureRandom
-            return generateSecurePassword(characterPool, length);
+    /**
+     * Generates a password straight into {@code dest} without creating a {@link String}, for
+     * writers that encode it directly into a response. {@code dest} must hold at least
+     * {@link #MAX_PASSWORD_CHARS} characters; the caller is responsible for clearing it afterwards.
+     *
+     * @return the number of {@code char}s written, which is {@code length} unless a custom
+     *         alphabet contains supplementary characters
+     */
+    public int generatePassword(char[] dest, Integer length, Boolean includeUppercase, Boolean includeLowercase,
+                                Boolean includeNumbers, Boolean includeSymbols,
+                                ClassRequirements requirements, CharsetOptions charset) {
+        GenerationPlan plan = plan(length, includeUppercase, includeLowercase, includeNumbers, includeSymbols,
+                requirements, charset);
+        return generate(plan, dest, length,
+                characterMask(includeUppercase, includeLowercase, includeNumbers, includeSymbols));
+    }
 
-        } catch (InvalidPasswordParametersException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new InvalidPasswordParametersException(
-                "An error occurred during password generation: " + e.getMessage(), e);
+    /**
+     * Checks the parameters of {@link #generatePassword} without generating anything.
+     *
+     * @return the first problem found, or null if a password can be generated
+     */
+    public ParameterError checkPasswordParameters(Integer length, Boolean includeUppercase, Boolean includeLowercase,
+                                                  Boolean includeNumbers, Boolean includeSymbols,
+                                                  ClassRequirements requirements) {
+        return checkPasswordParameters(length, includeUppercase, includeLowercase, includeNumbers, includeSymbols,
+                requirements, CharsetOptions.NONE);
+    }
+
+    /**
+     * Checks the parameters of {@link #generatePassword} with charset options. A custom alphabet
+     * or exclusions are compiled to check the characters themselves; the result, valid or not,
+     * is cached, so the generation that follows a successful check reuses it.
+     */
+    public ParameterError checkPasswordParameters(Integer length, Boolean includeUppercase, Boolean includeLowercase,
+                                                  Boolean includeNumbers, Boolean includeSymbols,
+                                                  ClassRequirements requirements, CharsetOptions charset) {
+        ParameterError error = checkSettings(length, includeUppercase, includeLowercase, includeNumbers,
+                includeSymbols, requirements, charset);
+        if (error != null) {
+            return error;
         }
+        return resolveCharset(characterMask(includeUppercase, includeLowercase, includeNumbers, includeSymbols),
+                charset, true).error();
     }
 
-    private void validatePasswordParameters(Integer length, Boolean includeUppercase, Boolean includeLowercase,
-                                           Boolean includeNumbers, Boolean includeSymbols) {
+    /**
+     * Everything {@link #checkPasswordParameters} checks short of compiling the charset.
+     */
+    private static ParameterError checkSettings(Integer length, Boolean includeUppercase, Boolean includeLowercase,
+                                                Boolean includeNumbers, Boolean includeSymbols,
+                                                ClassRequirements requirements, CharsetOptions charset) {
+        if (charset != null && charset.hasAlphabet()) {
+            return checkAlphabetParameters(length, includeUppercase, includeLowercase, includeNumbers,
+                    includeSymbols, requirements, charset);
+        }
+        ParameterError error = checkPasswordParameters(
+                length, includeUppercase, includeLowercase, includeNumbers, includeSymbols);
+        if (error != null) {
+            return error;
+        }
+        if (charset != null && charset.hasExclusions() && charset.getExclude().length() > MAX_CHARSET_LENGTH) {
+            return ParameterError.CHARSET_TOO_LONG;
+        }
+        return checkRequirements(length,
+                characterMask(includeUppercase, includeLowercase, includeNumbers, includeSymbols), requirements);
+    }
+
+    /**
+     * Generates a batch of passwords lazily. Parameters are validated eagerly so that
+     * errors surface before any output is written; passwords themselves are only
+     * produced as the returned stream is consumed, keeping memory bounded for large counts.
+     *
+     * @param count Number of passwords to generate (1-1,000,000)
+     * @return a sequential stream of exactly {@code count} passwords
+     */
+    public Stream<String> generatePasswords(Integer count, Integer length, Boolean includeUppercase,
+                                            Boolean includeLowercase, Boolean includeNumbers,
+                                            Boolean includeSymbols) {
+        return generatePasswords(count, length, includeUppercase, includeLowercase, includeNumbers, includeSymbols,
+                ClassRequirements.NONE);
+    }
+
+    /**
+     * Bulk variant of the class-coverage {@link #generatePassword}; the plan is built once, eagerly.
+     */
+    public Stream<String> generatePasswords(Integer count, Integer length, Boolean includeUppercase,
+                                            Boolean includeLowercase, Boolean includeNumbers,
+                                            Boolean includeSymbols, ClassRequirements requirements) {
+        return generatePasswords(count, length, includeUppercase, includeLowercase, includeNumbers, includeSymbols,
+                requirements, false);
+    }
+
+    /**
+     * Bulk generation with an optional in-batch uniqueness guarantee.
+     *
+     * @param unique when true, no password is repeated within the batch; fails up front if
+     *               {@code count} exceeds half of the keyspace the parameters allow
+     */
+    public Stream<String> generatePasswords(Integer count, Integer length, Boolean includeUppercase,
+                                            Boolean includeLowercase, Boolean includeNumbers,
+                                            Boolean includeSymbols, ClassRequirements requirements,
+                                            boolean unique) {
+        return preparePasswords(count, length, includeUppercase, includeLowercase, includeNumbers, includeSymbols,
+                requirements, unique).stream();
+    }
+
+    /**
+     * Validates a bulk request and returns it as a {@link PasswordBatch}, which writes each
+     * password into a caller buffer instead of allocating strings.
+     */
+    public PasswordBatch preparePasswords(Integer count, Integer length, Boolean includeUppercase,
+                                          Boolean includeLowercase, Boolean includeNumbers,
+                                          Boolean includeSymbols, ClassRequirements requirements,
+                                          boolean unique) {
+        return preparePasswords(count, length, includeUppercase, includeLowercase, includeNumbers, includeSymbols,
+                requirements, CharsetOptions.NONE, unique);
+    }
+
+    public PasswordBatch preparePasswords(Integer count, Integer length, Boolean includeUppercase,
+                                          Boolean includeLowercase, Boolean includeNumbers,
+                                          Boolean includeSymbols, ClassRequirements requirements,
+                                          CharsetOptions charset, boolean unique) {
+        requireValid(checkBulkCount(count));
+        return batch(count, plan(length, includeUppercase, includeLowercase, includeNumbers, includeSymbols,
+                requirements, charset), unique);
+    }
+
+    /**
+     * Open-ended batch for streaming: validated like a single password, with no count of its
+     * own; the caller decides when to stop. Uniqueness is not offered, since tracking an
+     * unbounded stream would need unbounded memory.
+     */
+    public PasswordBatch preparePasswordStream(Integer length, Boolean includeUppercase, Boolean includeLowercase,
+                                               Boolean includeNumbers, Boolean includeSymbols,
+                                               ClassRequirements requirements) {
+        return preparePasswordStream(length, includeUppercase, includeLowercase, includeNumbers, includeSymbols,
+                requirements, CharsetOptions.NONE);
+    }
+
+    public PasswordBatch preparePasswordStream(Integer length, Boolean includeUppercase, Boolean includeLowercase,
+                                               Boolean includeNumbers, Boolean includeSymbols,
+                                               ClassRequirements requirements, CharsetOptions charset) {
+        GenerationPlan plan = plan(length, includeUppercase, includeLowercase, includeNumbers, includeSymbols,
+                requirements, charset);
+        return new PasswordBatch(this, bulkPlan(plan, Integer.MAX_VALUE), Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Validates the settings of a named policy and compiles them into a plan. Policy plans live
+     * until their file changes, so they are built directly rather than through the per-request
+     * plan and charset caches.
+     *
+     * @throws InvalidPasswordParametersException if the settings are invalid
+     */
+    public GenerationPlan compilePlan(Integer length, Boolean includeUppercase, Boolean includeLowercase,
+                                      Boolean includeNumbers, Boolean includeSymbols,
+                                      ClassRequirements requirements, CharsetOptions charset) {
+        requireValid(checkSettings(
+                length, includeUppercase, includeLowercase, includeNumbers, includeSymbols, requirements, charset));
+
+        int characterMask = characterMask(includeUppercase, includeLowercase, includeNumbers, includeSymbols);
+        CompiledCharset compiled = resolveCharset(characterMask, charset, false);
+        requireValid(compiled.error());
+        int[] minimums = classMinimums(characterMask, requirements);
+        return minimums != null
+                ? new CoveragePlan(length, compiled.merged(), compiled.classPools(), minimums)
+                : new UniformPlan(compiled.merged(), length);
+    }
+
+    /**
+     * Generates a password from a named policy straight into {@code dest}. The policy's plan
+     * was validated and built when it was loaded, so nothing is checked or built here.
+     *
+     * @return the number of {@code char}s written
+     */
+    public int generatePassword(char[] dest, PasswordPolicy policy) {
+        return generate(policy.getPlan(), dest, policy.getLength(), characterMask(policy.isIncludeUppercase(),
+                policy.isIncludeLowercase(), policy.isIncludeNumbers(), policy.isIncludeSymbols()));
+    }
+
+    public String generatePassword(PasswordPolicy policy) {
+        char[] password = new char[policy.getPlan().length()];
         try {
-            // Check if length is provided and valid
-            if (length == null) {
-                throw new IllegalArgumentException("Length parameter is required and cannot be null");
-            }
+            return new String(password, 0, generatePassword(password, policy));
+        } finally {
+            Arrays.fill(password, '\0');
+        }
+    }
+
+    public PasswordBatch preparePasswords(Integer count, PasswordPolicy policy, boolean unique) {
+        requireValid(checkBulkCount(count));
+        return batch(count, policy.getPlan(), unique);
+    }
 
-            if (length < MIN_PASSWORD_LENGTH || length > MAX_PASSWORD_LENGTH) {
-                throw new IllegalArgumentException(
-                    "Password length must be between " + MIN_PASSWORD_LENGTH + " and " + MAX_PASSWORD_LENGTH + 
-                    ". Provided: " + length);
+    public PasswordBatch prepareExport(Integer count, int maxCount, PasswordPolicy policy, boolean unique) {
+        requireValid(checkExportCount(count, maxCount, unique));
+        return batch(count, policy.getPlan(), unique);
+    }
+
+    /**
+     * Generates a password following a template such as {@code Aaaa-9999-!!}; see
+     * {@link PasswordTemplate} for the syntax. Compiled templates are cached, so repeat
+     * requests for the same template skip parsing entirely.
+     */
+    public String generateFromTemplate(String template) {
+        PasswordTemplate plan = compileTemplate(template);
+        char[] password = new char[plan.length()];
+        try {
+            fillScreened(plan, password);
+            return new String(password);
+        } finally {
+            Arrays.fill(password, '\0');
+        }
+    }
+
+    /**
+     * Bulk variant of {@link #generateFromTemplate}; the template is compiled once, eagerly.
+     */
+    public Stream<String> generatePasswordsFromTemplate(Integer count, String template) {
+        return generatePasswordsFromTemplate(count, template, false);
+    }
+
+    public Stream<String> generatePasswordsFromTemplate(Integer count, String template, boolean unique) {
+        return preparePasswordsFromTemplate(count, template, unique).stream();
+    }
+
+    public PasswordBatch preparePasswordsFromTemplate(Integer count, String template, boolean unique) {
+        requireValid(checkBulkCount(count));
+        return batch(count, compileTemplate(template), unique);
+    }
+
+    /**
+     * Validates an export job, which is generated to disk in the background and so may hold up
+     * to {@code maxCount} passwords rather than the bulk limit. Uniqueness stays within the bulk
+     * limit, since its fingerprint set grows with the batch.
+     */
+    public PasswordBatch prepareExport(Integer count, int maxCount, Integer length, Boolean includeUppercase,
+                                       Boolean includeLowercase, Boolean includeNumbers, Boolean includeSymbols,
+                                       ClassRequirements requirements, boolean unique) {
+        return prepareExport(count, maxCount, length, includeUppercase, includeLowercase, includeNumbers,
+                includeSymbols, requirements, CharsetOptions.NONE, unique);
+    }
+
+    public PasswordBatch prepareExport(Integer count, int maxCount, Integer length, Boolean includeUppercase,
+                                       Boolean includeLowercase, Boolean includeNumbers, Boolean includeSymbols,
+                                       ClassRequirements requirements, CharsetOptions charset, boolean unique) {
+        requireValid(checkExportCount(count, maxCount, unique));
+        return batch(count, plan(length, includeUppercase, includeLowercase, includeNumbers, includeSymbols,
+                requirements, charset), unique);
+    }
+
+    public PasswordBatch prepareExportFromTemplate(Integer count, int maxCount, String template, boolean unique) {
+        requireValid(checkExportCount(count, maxCount, unique));
+        return batch(count, compileTemplate(template), unique);
+    }
+
+    /**
+     * Returns the cached plan for a template, compiling it on first use.
+     */
+    public PasswordTemplate compileTemplate(String template) {
+        requireValid(template == null || template.isEmpty() ? ParameterError.TEMPLATE_REQUIRED : null);
+        return templateCache.get(template, PasswordTemplate::compile);
+    }
+
+    public BoundedCache<String, PasswordTemplate> getTemplateCache() {
+        return templateCache;
+    }
+
+    public BoundedCache<?, ?> getCoverageCache() {
+        return coverageCache;
+    }
+
+    public BoundedCache<?, ?> getCharsetCache() {
+        return charsetCache;
+    }
+
+    /**
+     * Generates a diceware-style passphrase from the configured word list.
+     *
+     * @param words Number of words (1-64)
+     * @param separator Inserted between words (at most 8 characters, may be empty)
+     * @param capitalization How words are capitalized
+     * @param digits Number of random digits appended to randomly chosen words (0 to words)
+     */
+    public String generatePassphrase(Integer words, String separator, Capitalization capitalization,
+                                     Integer digits) {
+        WordList list = requireWordList();
+        requireValid(checkPassphraseParameters(words, separator, capitalization, digits));
+
+        // Decide up front which words receive a digit, so a word may receive several
+        int[] digitsPerWord = new int[words];
+        for (int i = 0; i < digits; i++) {
+            digitsPerWord[randomSource.nextInt(words)]++;
+        }
+
+        StringBuilder passphrase = new StringBuilder(words * 8);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                passphrase.append(separator);
+            }
+            passphrase.append(capitalize(list.word(randomSource.nextInt(list.size())), capitalization));
+            for (int d = 0; d < digitsPerWord[i]; d++) {
+                passphrase.append((char) ('0' + randomSource.nextInt(10)));
             }
+        }
+        return passphrase.toString();
+    }
+
+    /**
+     * Checks the parameters of {@link #generatePassphrase} without generating anything.
+     *
+     * @return the first problem found, or null if a passphrase can be generated
+     */
+    public ParameterError checkPassphraseParameters(Integer words, String separator, Capitalization capitalization,
+                                                    Integer digits) {
+        if (words == null || words < MIN_PASSPHRASE_WORDS || words > MAX_PASSPHRASE_WORDS) {
+            return ParameterError.PASSPHRASE_WORDS_OUT_OF_RANGE;
+        }
+        if (separator == null || separator.length() > MAX_SEPARATOR_LENGTH) {
+            return ParameterError.SEPARATOR_INVALID;
+        }
+        if (capitalization == null) {
+            return ParameterError.CAPITALIZATION_REQUIRED;
+        }
+        if (digits == null || digits < 0 || digits > words) {
+            return ParameterError.DIGITS_OUT_OF_RANGE;
+        }
+        return null;
+    }
+
+    /**
+     * Entropy of a passphrase with the given settings, counting word choice, digit values and
+     * random capitalization. Digit placement adds a little more and is conservatively ignored.
+     */
+    public double passphraseEntropyBits(int words, Capitalization capitalization, int digits) {
+        double bits = words * (Math.log(requireWordList().size()) / Math.log(2)) + digits * (Math.log(10) / Math.log(2));
+        if (capitalization == Capitalization.RANDOM) {
+            bits += words;
+        }
+        return bits;
+    }
+
+    /**
+     * Number of times a password appears in the configured breach corpus (0 if never).
+     */
+    public long breachOccurrences(String password) {
+        if (breachedPasswordIndex == null) {
+            throw new FeatureNotConfiguredException(
+                "Breached password check is not available: no breach corpus is configured (password.breach.file)");
+        }
+        requireValid(checkBreachPassword(password));
+        return breachedPasswordIndex.occurrences(password);
+    }
+
+    /**
+     * Checks the password given to {@link #breachOccurrences} without looking it up.
+     *
+     * @return the problem found, or null if the password can be looked up
+     */
+    public static ParameterError checkBreachPassword(String password) {
+        return password == null || password.isEmpty() ? ParameterError.PASSWORD_REQUIRED : null;
+    }
+
+    /**
+     * Batch of {@code count} passwords from one plan. With {@code unique}, emitted passwords
+     * are tracked in an off-heap {@link FingerprintSet} and duplicates are regenerated; the
+     * keyspace check up front keeps the expected number of retries per password below two.
+     */
+    private PasswordBatch batch(int count, GenerationPlan plan, boolean unique) {
+        if (!unique) {
+            return new PasswordBatch(this, bulkPlan(plan, count), count, null);
+        }
 
-            // Check if character type booleans are provided
-            if (includeUppercase == null || includeLowercase == null || 
-                includeNumbers == null || includeSymbols == null) {
-                throw new IllegalArgumentException(
-                    "All character type parameters (includeUppercase, includeLowercase, includeNumbers, includeSymbols) are required");
+        if (plan.keyspace().divide(BigInteger.TWO).compareTo(BigInteger.valueOf(count)) < 0) {
+            throw ParameterError.UNIQUE_COUNT_EXCEEDS_KEYSPACE.exception();
+        }
+        return new PasswordBatch(this, bulkPlan(plan, count), count, new FingerprintSet(count));
+    }
+
+    /**
+     * The vectorized form of a uniform plan when that is enabled and the batch is big enough,
+     * otherwise the plan itself.
+     */
+    private GenerationPlan bulkPlan(GenerationPlan plan, long count) {
+        if (vectorized && plan instanceof UniformPlan uniform
+                && count * uniform.length() >= MIN_VECTORIZED_CHARS && VectorSampler.supports(uniform.pool())) {
+            return new VectorizedPlan(uniform, count);
+        }
+        return plan;
+    }
+
+    int fillUnique(GenerationPlan plan, char[] dest, FingerprintSet emitted) {
+        for (int attempt = 0; attempt < MAX_UNIQUE_ATTEMPTS; attempt++) {
+            int size = fillScreened(plan, dest);
+            if (emitted.add(dest, size)) {
+                return size;
             }
+        }
+        // At most half the keyspace is ever in use, so this means a broken random source
+        throw new IllegalStateException("No unique password found after " + MAX_UNIQUE_ATTEMPTS + " attempts");
+    }
 
-            // Check if at least one character type is selected
-            if (!includeUppercase && !includeLowercase && !includeNumbers && !includeSymbols) {
+    /**
+     * Fills {@code dest} from a plan, retrying while the result appears in the breach corpus.
+     * Only tiny keyspaces (say, four digits) can exhaust the attempts.
+     */
+    int fillScreened(GenerationPlan plan, char[] dest) {
+        int size = plan.fill(dest, randomSource);
+        if (!screenGenerated || breachedPasswordIndex == null) {
+            return size;
+        }
+        for (int attempt = 1; breachedPasswordIndex.occurrences(dest, size) > 0; attempt++) {
+            if (attempt == MAX_BREACH_ATTEMPTS) {
+                Arrays.fill(dest, 0, plan.length(), '\0');
                 throw new InvalidPasswordParametersException(
-                    "At least one character type must be selected (uppercase, lowercase, numbers, or symbols)");
+                    "Could not generate a password that is absent from the breach corpus; " +
+                    "increase the length or select more character types");
             }
+            size = plan.fill(dest, randomSource);
+        }
+        return size;
+    }
 
-        } catch (IllegalArgumentException e) {
-            throw e;
-        } catch (InvalidPasswordParametersException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new InvalidPasswordParametersException(
-                "Validation error: " + e.getMessage(), e);
+    private int generate(GenerationPlan plan, char[] dest, int length, int characterMask) {
+        long start = System.nanoTime();
+        int size = fillScreened(plan, dest);
+        metrics.recordGeneration(length, characterMask, System.nanoTime() - start);
+        return size;
+    }
+
+    private WordList requireWordList() {
+        if (wordList == null) {
+            throw new FeatureNotConfiguredException(
+                "Passphrase generation is not available: no word list is configured (password.passphrase.wordlist)");
         }
+        return wordList;
     }
 
-    private String buildCharacterPool(Boolean includeUppercase, Boolean includeLowercase,
-                                     Boolean includeNumbers, Boolean includeSymbols) {
-        try {
-            StringBuilder pool = new StringBuilder();
+    private String capitalize(String word, Capitalization capitalization) {
+        switch (capitalization) {
+            case UPPER:
+                return word.toUpperCase();
+            case FIRST:
+                return capitalizeFirst(word);
+            case RANDOM:
+                return randomSource.nextInt(2) == 0 ? word : capitalizeFirst(word);
+            default:
+                return word;
+        }
+    }
 
-            if (includeUppercase != null && includeUppercase) {
-                pool.append(UPPERCASE_CHARS);
+    private static String capitalizeFirst(String word) {
+        if (word.isEmpty()) {
+            return word;
+        }
+        int first = word.codePointAt(0);
+        return new StringBuilder(word.length())
+                .appendCodePoint(Character.toTitleCase(first))
+                .append(word, Character.charCount(first), word.length())
+                .toString();
+    }
+
+    /**
+     * Validates the parameters and returns the plan that generates them: the cached coverage
+     * plan when class minimums apply, otherwise a uniform draw from the resolved pool.
+     */
+    private GenerationPlan plan(Integer length, Boolean includeUppercase, Boolean includeLowercase,
+                                Boolean includeNumbers, Boolean includeSymbols, ClassRequirements requirements,
+                                CharsetOptions charset) {
+        requireValid(checkSettings(
+                length, includeUppercase, includeLowercase, includeNumbers, includeSymbols, requirements, charset));
+
+        int characterMask = characterMask(includeUppercase, includeLowercase, includeNumbers, includeSymbols);
+        CompiledCharset compiled = resolveCharset(characterMask, charset, true);
+        requireValid(compiled.error());
+        CoveragePlan coveragePlan = coveragePlan(length, compiled, requirements);
+        return coveragePlan != null ? coveragePlan : new UniformPlan(compiled.merged(), length);
+    }
+
+    /**
+     * Pools for the selected classes or custom alphabet. The plain classes are precomputed;
+     * anything else is reduced to its canonical fingerprint (see {@link #charsetFingerprint})
+     * and, when {@code cached}, compiled once per fingerprint.
+     */
+    private CompiledCharset resolveCharset(int characterMask, CharsetOptions charset, boolean cached) {
+        if (charset == null || !charset.hasAlphabet() && !charset.hasExclusions()) {
+            return STANDARD_CHARSETS[characterMask];
+        }
+        int[] codePoints = charset.hasAlphabet()
+                ? difference(canonicalCodePoints(charset.getAlphabet()), canonicalCodePoints(charset.getExclude()))
+                : relevantExclusions(characterMask, canonicalCodePoints(charset.getExclude()));
+        if (!charset.hasAlphabet() && codePoints.length == 0) {
+            return STANDARD_CHARSETS[characterMask];
+        }
+        String fingerprint = charsetFingerprint(characterMask, codePoints);
+        return cached
+                ? charsetCache.get(fingerprint, k -> compileCharset(characterMask, codePoints))
+                : compileCharset(characterMask, codePoints);
+    }
+
+    /**
+     * Cache key naming a set of characters exactly: the class mask, then the custom alphabet
+     * less its exclusions, or the exclusions that hit a selected class, as sorted distinct code
+     * points. Requests listing the same characters in another order, with repeats, or with
+     * exclusions that change nothing, share one entry.
+     */
+    private static String charsetFingerprint(int characterMask, int[] codePoints) {
+        return new StringBuilder(codePoints.length + 3)
+                .append(characterMask).append(':')
+                .append(new String(codePoints, 0, codePoints.length))
+                .toString();
+    }
+
+    /**
+     * Builds the pools for a mask and canonical code points: the custom alphabet when the mask
+     * is 0, otherwise the characters to exclude from the selected classes. Characters that
+     * cannot be used compile to an {@link CompiledCharset#invalid} charset rather than throwing,
+     * so the rejection is cached too.
+     */
+    private static CompiledCharset compileCharset(int characterMask, int[] codePoints) {
+        if (characterMask == 0) {
+            if (codePoints.length == 0) {
+                return CompiledCharset.invalid(ParameterError.CUSTOM_ALPHABET_EMPTY);
             }
-            if (includeLowercase != null && includeLowercase) {
-                pool.append(LOWERCASE_CHARS);
+            for (int codePoint : codePoints) {
+                if (!isStandaloneVisible(codePoint)) {
+                    return CompiledCharset.invalid(ParameterError.CUSTOM_ALPHABET_INVISIBLE);
+                }
             }
-            if (includeNumbers != null && includeNumbers) {
-                pool.append(NUMERIC_CHARS);
+            return new CompiledCharset(CharacterPool.ofCodePoints(codePoints));
+        }
+
+        String excluded = new String(codePoints, 0, codePoints.length);
+        for (int i = 0; i < CLASS_FLAGS.length; i++) {
+            if ((characterMask & CLASS_FLAGS[i]) != 0 && removesAll(CHARACTER_POOLS[CLASS_FLAGS[i]], excluded)) {
+                return CompiledCharset.invalid(EXCLUDED_CLASS_ERRORS[i]);
             }
-            if (includeSymbols != null && includeSymbols) {
-                pool.append(SYMBOL_CHARS);
+        }
+        CharacterPool[] classPools = classPools(characterMask, excluded);
+        StringBuilder merged = new StringBuilder();
+        for (CharacterPool pool : classPools) {
+            merged.append(pool);
+        }
+        return new CompiledCharset(characterMask, new CharacterPool(merged.toString()), classPools);
+    }
+
+    /**
+     * Whether a code point can stand in a password on its own: not whitespace, a control or
+     * formatting character, a combining mark, an unpaired surrogate or unassigned.
+     */
+    private static boolean isStandaloneVisible(int codePoint) {
+        switch (Character.getType(codePoint)) {
+            case Character.CONTROL, Character.FORMAT, Character.SURROGATE, Character.UNASSIGNED,
+                 Character.NON_SPACING_MARK, Character.ENCLOSING_MARK, Character.COMBINING_SPACING_MARK,
+                 Character.SPACE_SEPARATOR, Character.LINE_SEPARATOR, Character.PARAGRAPH_SEPARATOR:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Sorted, distinct code points of {@code characters}; unpaired surrogates are kept as
+     * themselves so that validation can reject them.
+     */
+    private static int[] canonicalCodePoints(String characters) {
+        if (characters == null || characters.isEmpty()) {
+            return new int[0];
+        }
+        int[] codePoints = characters.codePoints().toArray();
+        Arrays.sort(codePoints);
+        int distinct = 0;
+        for (int i = 0; i < codePoints.length; i++) {
+            if (i == 0 || codePoints[i] != codePoints[i - 1]) {
+                codePoints[distinct++] = codePoints[i];
+            }
+        }
+        return distinct == codePoints.length ? codePoints : Arrays.copyOf(codePoints, distinct);
+    }
+
+    /**
+     * Elements of sorted {@code from} that are not in sorted {@code remove}.
+     */
+    private static int[] difference(int[] from, int[] remove) {
+        if (remove.length == 0) {
+            return from;
+        }
+        int[] kept = new int[from.length];
+        int size = 0;
+        int r = 0;
+        for (int codePoint : from) {
+            while (r < remove.length && remove[r] < codePoint) {
+                r++;
             }
+            if (r == remove.length || remove[r] != codePoint) {
+                kept[size++] = codePoint;
+            }
+        }
+        return Arrays.copyOf(kept, size);
+    }
 
-            if (pool.length() == 0) {
-                throw new InvalidPasswordParametersException(
-                    "Character pool is empty. At least one character type must be selected.");
+    /**
+     * The excluded code points that belong to one of the selected classes; the rest cannot
+     * change the pools, so they are left out of the fingerprint.
+     */
+    private static int[] relevantExclusions(int characterMask, int[] excluded) {
+        int[] relevant = new int[excluded.length];
+        int size = 0;
+        for (int codePoint : excluded) {
+            if (codePoint < ASCII_CLASS_FLAGS.length && (ASCII_CLASS_FLAGS[codePoint] & characterMask) != 0) {
+                relevant[size++] = codePoint;
             }
+        }
+        return Arrays.copyOf(relevant, size);
+    }
 
-            return pool.toString();
+    private static void requireValid(ParameterError error) {
+        if (error != null) {
+            throw error.exception();
+        }
+    }
 
-        } catch (InvalidPasswordParametersException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new InvalidPasswordParametersException(
-                "Error building character pool: " + e.getMessage(), e);
+    /**
+     * Resolves the per-class minimums for the selected classes and returns the matching cached
+     * plan, or null when the requirements cannot constrain the output (no minimums, or a
+     * single class). The requirements must already have passed {@link #checkRequirements}.
+     */
+    private CoveragePlan coveragePlan(int length, CompiledCharset charset, ClassRequirements requirements) {
+        int[] minimums = classMinimums(charset.characterMask(), requirements);
+        if (minimums == null) {
+            return null;
         }
+
+        // Pack length and the four 5-bit minimums into one number; the charset stands for the rest
+        long shape = length;
+        for (int minimum : minimums) {
+            shape = (shape << 5) | minimum;
+        }
+        return coverageCache.get(new CoverageKey(charset, shape),
+                k -> new CoveragePlan(length, charset.merged(), charset.classPools(), minimums));
     }
 
-    private String generateSecurePassword(String characterPool, Integer length) {
-        try {
-            if (characterPool == null || characterPool.isEmpty()) {
-                throw new InvalidPasswordParametersException("Character pool cannot be null or empty");
+    /**
+     * Coverage plans are cached per compiled charset instance, so a charset evicted and compiled
+     * again starts new entries while its old ones age out.
+     */
+    private record CoverageKey(CompiledCharset charset, long shape) {
+    }
+
+    /**
+     * Minimum count for each selected class, in flag order, or null when they cannot constrain
+     * the output.
+     */
+    private static int[] classMinimums(int characterMask, ClassRequirements requirements) {
+        if (requirements == null) {
+            requirements = ClassRequirements.NONE;
+        }
+
+        int selected = Integer.bitCount(characterMask);
+        int[] minimums = new int[selected];
+        int total = 0;
+        int index = 0;
+
+        for (int classFlag : CLASS_FLAGS) {
+            if ((characterMask & classFlag) == 0) {
+                continue;
+            }
+            Integer minimum = requirements.minimumFor(classFlag);
+            int resolved = minimum != null ? minimum : (requirements.isRequireEachClass() ? 1 : 0);
+            minimums[index++] = resolved;
+            total += resolved;
+        }
+
+        return total == 0 || selected == 1 ? null : minimums;
+    }
+
+    private static boolean removesAll(CharacterPool pool, String excluded) {
+        for (int i = 0; i < pool.size(); i++) {
+            if (excluded.indexOf(pool.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Pools of the selected classes, in flag order, without the {@code excluded} characters,
+     * which must leave every selected class at least one character.
+     */
+    private static CharacterPool[] classPools(int characterMask, String excluded) {
+        CharacterPool[] pools = new CharacterPool[Integer.bitCount(characterMask)];
+        int index = 0;
+        for (int classFlag : CLASS_FLAGS) {
+            if ((characterMask & classFlag) == 0) {
+                continue;
+            }
+            CharacterPool pool = CHARACTER_POOLS[classFlag];
+            if (excluded != null && !excluded.isEmpty()) {
+                StringBuilder kept = new StringBuilder(pool.size());
+                for (int i = 0; i < pool.size(); i++) {
+                    if (excluded.indexOf(pool.charAt(i)) < 0) {
+                        kept.append(pool.charAt(i));
+                    }
+                }
+                pool = new CharacterPool(kept.toString());
+            }
+            pools[index++] = pool;
+        }
+        return pools;
+    }
+
+    private static ParameterError checkAlphabetParameters(Integer length, Boolean includeUppercase,
+                                                          Boolean includeLowercase, Boolean includeNumbers,
+                                                          Boolean includeSymbols, ClassRequirements requirements,
+                                                          CharsetOptions charset) {
+        ParameterError error = checkLength(length);
+        if (error != null) {
+            return error;
+        }
+        if (charset.getAlphabet().isEmpty()) {
+            return ParameterError.ALPHABET_EMPTY;
+        }
+        if (charset.getAlphabet().length() > MAX_CHARSET_LENGTH
+                || charset.hasExclusions() && charset.getExclude().length() > MAX_CHARSET_LENGTH) {
+            return ParameterError.CHARSET_TOO_LONG;
+        }
+        if (characterMask(includeUppercase, includeLowercase, includeNumbers, includeSymbols) != 0
+                || requirements != null && (requirements.isRequireEachClass() || hasMinimum(requirements))) {
+            return ParameterError.ALPHABET_WITH_CLASSES;
+        }
+        return null;
+    }
+
+    private static boolean hasMinimum(ClassRequirements requirements) {
+        for (int classFlag : CLASS_FLAGS) {
+            Integer minimum = requirements.minimumFor(classFlag);
+            if (minimum != null && minimum > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ParameterError checkRequirements(int length, int characterMask, ClassRequirements requirements) {
+        if (requirements == null) {
+            return null;
+        }
+
+        int total = 0;
+        for (int classFlag : CLASS_FLAGS) {
+            Integer minimum = requirements.minimumFor(classFlag);
+            if (minimum != null && (minimum < 0 || minimum > CoveragePlan.MAX_CLASS_MINIMUM)) {
+                return ParameterError.CLASS_MINIMUM_OUT_OF_RANGE;
             }
 
-            if (length == null || length <= 0) {
-                throw new InvalidPasswordParametersException("Password length must be greater than 0");
+            if ((characterMask & classFlag) == 0) {
+                if (minimum != null && minimum > 0) {
+                    return ParameterError.CLASS_MINIMUM_NOT_SELECTED;
+                }
+                continue;
             }
+            total += minimum != null ? minimum : (requirements.isRequireEachClass() ? 1 : 0);
+        }
+
+        return total > length ? ParameterError.CLASS_MINIMUMS_EXCEED_LENGTH : null;
+    }
+
+    private static ParameterError checkExportCount(Integer count, int maxCount, boolean unique) {
+        if (count == null) {
+            return ParameterError.COUNT_REQUIRED;
+        }
+        int limit = unique ? Math.min(maxCount, MAX_BULK_COUNT) : maxCount;
+        return count < MIN_BULK_COUNT || count > limit ? ParameterError.EXPORT_COUNT_OUT_OF_RANGE : null;
+    }
+
+    /**
+     * Checks the size of a bulk request without preparing it, so the caller can charge for the
+     * batch before its memory is allocated.
+     *
+     * @param length characters per password
+     * @return the first problem found, or null if the count and length are in range
+     */
+    public static ParameterError checkBulkSize(Integer count, Integer length) {
+        ParameterError error = checkBulkCount(count);
+        return error != null ? error : checkLength(length);
+    }
+
+    private static ParameterError checkBulkCount(Integer count) {
+        if (count == null) {
+            return ParameterError.COUNT_REQUIRED;
+        }
+        if (count < MIN_BULK_COUNT || count > MAX_BULK_COUNT) {
+            return ParameterError.COUNT_OUT_OF_RANGE;
+        }
+        return null;
+    }
+
+    private static ParameterError checkPasswordParameters(Integer length, Boolean includeUppercase,
+                                                          Boolean includeLowercase, Boolean includeNumbers,
+                                                          Boolean includeSymbols) {
+        ParameterError error = checkLength(length);
+        if (error != null) {
+            return error;
+        }
+        if (includeUppercase == null || includeLowercase == null || includeNumbers == null || includeSymbols == null) {
+            return ParameterError.CHARACTER_TYPES_REQUIRED;
+        }
+        if (!includeUppercase && !includeLowercase && !includeNumbers && !includeSymbols) {
+            return ParameterError.NO_CHARACTER_TYPE;
+        }
+        return null;
+    }
+
+    private static ParameterError checkLength(Integer length) {
+        if (length == null) {
+            return ParameterError.LENGTH_REQUIRED;
+        }
+        if (length < MIN_PASSWORD_LENGTH || length > MAX_PASSWORD_LENGTH) {
+            return ParameterError.LENGTH_OUT_OF_RANGE;
+        }
+        return null;
+    }
+
+    private static int characterMask(Boolean includeUppercase, Boolean includeLowercase,
+                                     Boolean includeNumbers, Boolean includeSymbols) {
+        int mask = 0;
+
+        if (includeUppercase != null && includeUppercase) {
+            mask |= UPPERCASE_FLAG;
+        }
+        if (includeLowercase != null && includeLowercase) {
+            mask |= LOWERCASE_FLAG;
+        }
+        if (includeNumbers != null && includeNumbers) {
+            mask |= NUMERIC_FLAG;
+        }
+        if (includeSymbols != null && includeSymbols) {
+            mask |= SYMBOL_FLAG;
+        }
+
+        return mask;
+    }
 
-            StringBuilder password = new StringBuilder();
-            int poolLength = characterPool.length();
+    /**
+     * Precomputed pool for a non-empty combination of the *_FLAG bits.
+     */
+    static CharacterPool characterPool(int characterMask) {
+        return CHARACTER_POOLS[characterMask];
+    }
 
-            // Use SecureRandom to generate indices
-            for (int i = 0; i < length; i++) {
-                int randomIndex = secureRandom.nextInt(poolLength);
-                password.append(characterPool.charAt(randomIndex));
+    /**
+     * Precomputes the pool for each of the 15 non-empty flag combinations, indexed by flag mask.
+     */
+    private static CharacterPool[] buildCharacterPools() {
+        CharacterPool[] pools = new CharacterPool[16];
+        for (int mask = 1; mask < pools.length; mask++) {
+            StringBuilder pool = new StringBuilder();
+            if ((mask & UPPERCASE_FLAG) != 0) {
+                pool.append(UPPERCASE_CHARS);
+            }
+            if ((mask & LOWERCASE_FLAG) != 0) {
+                pool.append(LOWERCASE_CHARS);
+            }
+            if ((mask & NUMERIC_FLAG) != 0) {
+                pool.append(NUMERIC_CHARS);
             }
+            if ((mask & SYMBOL_FLAG) != 0) {
+                pool.append(SYMBOL_CHARS);
+            }
+            pools[mask] = new CharacterPool(pool.toString());
+        }
+        return pools;
+    }
 
-            return password.toString();
+    /**
+     * The class flag of each ASCII character, 0 for characters in no class.
+     */
+    private static byte[] buildAsciiClassFlags() {
+        byte[] flags = new byte[128];
+        for (int classFlag : CLASS_FLAGS) {
+            CharacterPool pool = CHARACTER_POOLS[classFlag];
+            for (int i = 0; i < pool.size(); i++) {
+                flags[pool.charAt(i)] = (byte) classFlag;
+            }
+        }
+        return flags;
+    }
 
-        } catch (InvalidPasswordParametersException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new InvalidPasswordParametersException(
-                "Error during password generation: " + e.getMessage(), e);
+    /**
+     * Compiled charsets for the 15 plain class combinations, indexed by flag mask.
+     */
+    private static CompiledCharset[] buildStandardCharsets() {
+        CompiledCharset[] charsets = new CompiledCharset[16];
+        for (int mask = 1; mask < charsets.length; mask++) {
+            charsets[mask] = new CompiledCharset(mask, CHARACTER_POOLS[mask], classPools(mask, null));
         }
+        return charsets;
     }
 }
@@ -0,0 +1,150 @@
+package com.passwordgenerator.service;
+
+import com.passwordgenerator.exception.ParameterError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for password generation.
+ *
+ * <p>Every meter is registered up front and looked up by array index, so recording on the hot
+ * path is a couple of array reads and a lock-free histogram update, with no tag construction or
+ * registry lookups per request.
+ */
+@Component
+public class PasswordMetrics {
+
+    /** Inclusive upper bounds of the length buckets used as the {@code length} tag. */
+    private static final int[] LENGTH_BUCKETS = {8, 16, 32, 64, 128, 256, 512, PasswordGeneratorService.MAX_PASSWORD_LENGTH};
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    public enum FailureType {
+        INVALID_PARAMETERS, ILLEGAL_ARGUMENT, BAD_REQUEST, INTERNAL_ERROR
+    }
+
+    private final Timer[][] generationTimers;
+    private final Counter[] failureCounters;
+    private final Counter[] parameterErrorCounters;
+    private final Timer bulkTimer;
+    private final Counter bulkPasswords;
+    private final Timer streamTimer;
+    private final Counter streamPasswords;
+
+    public PasswordMetrics(MeterRegistry registry) {
+        generationTimers = new Timer[LENGTH_BUCKETS.length][16];
+        for (int bucket = 0; bucket < LENGTH_BUCKETS.length; bucket++) {
+            String lengthTag = (bucket == 0 ? 1 : LENGTH_BUCKETS[bucket - 1] + 1) + "-" + LENGTH_BUCKETS[bucket];
+            for (int mask = 0; mask < 16; mask++) {
+                generationTimers[bucket][mask] = Timer.builder("password.generation")
+                        .description("Time to generate a single password")
+                        .tag("length", lengthTag)
+                        .tag("charset", charsetName(mask))
+                        .publishPercentiles(PERCENTILES)
+                        .register(registry);
+            }
+        }
+
+        // Failures without a ParameterError code are tagged code=none, so every series has both tags
+        FailureType[] types = FailureType.values();
+        failureCounters = new Counter[types.length];
+        for (FailureType type : types) {
+            failureCounters[type.ordinal()] = failureCounter(registry, type, "none");
+        }
+        ParameterError[] errors = ParameterError.values();
+        parameterErrorCounters = new Counter[errors.length];
+        for (ParameterError error : errors) {
+            parameterErrorCounters[error.ordinal()] = failureCounter(registry, failureType(error), error.getCode());
+        }
+
+        bulkTimer = Timer.builder("password.bulk")
+                .description("Time to stream a bulk generation response")
+                .publishPercentiles(PERCENTILES)
+                .register(registry);
+        bulkPasswords = Counter.builder("password.bulk.passwords")
+                .description("Passwords written by bulk generation")
+                .register(registry);
+        streamTimer = Timer.builder("password.stream")
+                .description("Duration of password event streams")
+                .register(registry);
+        streamPasswords = Counter.builder("password.stream.passwords")
+                .description("Passwords written to event streams")
+                .register(registry);
+    }
+
+    /**
+     * Metrics that record nowhere, for services constructed outside the Spring context.
+     */
+    public static PasswordMetrics noop() {
+        return new PasswordMetrics(new CompositeMeterRegistry());
+    }
+
+    public void recordGeneration(int length, int characterMask, long nanos) {
+        generationTimers[lengthBucket(length)][characterMask].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordBulk(long passwords, long nanos) {
+        bulkTimer.record(nanos, TimeUnit.NANOSECONDS);
+        bulkPasswords.increment(passwords);
+    }
+
+    public void recordStream(long passwords, long nanos) {
+        streamTimer.record(nanos, TimeUnit.NANOSECONDS);
+        streamPasswords.increment(passwords);
+    }
+
+    public void recordFailure(FailureType type) {
+        failureCounters[type.ordinal()].increment();
+    }
+
+    public void recordFailure(ParameterError error) {
+        parameterErrorCounters[error.ordinal()].increment();
+    }
+
+    private static Counter failureCounter(MeterRegistry registry, FailureType type, String code) {
+        return Counter.builder("password.validation.failures")
+                .description("Requests rejected, by failure type and parameter error code")
+                .tag("type", type.name().toLowerCase())
+                .tag("code", code)
+                .register(registry);
+    }
+
+    private static FailureType failureType(ParameterError error) {
+        return error.getCategory() == ParameterError.Category.INVALID_PARAMETERS
+                ? FailureType.INVALID_PARAMETERS : FailureType.ILLEGAL_ARGUMENT;
+    }
+
+    private static int lengthBucket(int length) {
+        // Buckets are powers of two starting at 8: ceil(log2(length)) - 3, clamped to the table
+        int log2 = length <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(length - 1);
+        return Math.min(LENGTH_BUCKETS.length - 1, Math.max(0, log2 - 3));
+    }
+
+    /**
+     * Letters for each selected class: U = uppercase, L = lowercase, N = numbers, S = symbols;
+     * "custom" for a caller's own alphabet, which selects no class.
+     */
+    private static String charsetName(int mask) {
+        if (mask == 0) {
+            return "custom";
+        }
+        StringBuilder name = new StringBuilder(4);
+        if ((mask & PasswordGeneratorService.UPPERCASE_FLAG) != 0) {
+            name.append('U');
+        }
+        if ((mask & PasswordGeneratorService.LOWERCASE_FLAG) != 0) {
+            name.append('L');
+        }
+        if ((mask & PasswordGeneratorService.NUMERIC_FLAG) != 0) {
+            name.append('N');
+        }
+        if ((mask & PasswordGeneratorService.SYMBOL_FLAG) != 0) {
+            name.append('S');
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,245 @@
+package com.passwordgenerator.service;
+
+import com.passwordgenerator.exception.InvalidPasswordParametersException;
+import com.passwordgenerator.exception.ParameterError;
+import com.passwordgenerator.service.random.RandomSource;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Password format compiled from a template string such as {@code Aaaa-9999-!!} or {@code ~L{3}9{4}!}.
+ *
+ * <p>Template syntax:
+ * <pre>
+ *   A   uppercase letter          L   any letter
+ *   a   lowercase letter          X   letter or digit
+ *   9   digit                     *   any character class
+ *   !   symbol
+ *   {n} repeat the previous token n times (n &gt;= 1)
+ *   \c  the literal character c
+ *   ~   as the first character: shuffle the finished password
+ * </pre>
+ * Any other character is copied literally. Literals must be single UTF-16 characters: repetition
+ * and shuffling work per {@code char}, so characters outside the Basic Multilingual Plane (emoji,
+ * say) would be split into unpaired surrogates and are rejected. Consecutive positions drawing from the same pool are
+ * merged into one run, so each run costs a single bulk random draw.
+ */
+public final class PasswordTemplate implements GenerationPlan {
+
+    static final int MAX_TEMPLATE_LENGTH = 256;
+
+    private final String template;
+    private final CharacterPool[] runPools;
+    private final char[] runLiterals;
+    private final int[] runLengths;
+    private final boolean shuffle;
+    private final int length;
+    private final int maxUtf8Length;
+
+    private PasswordTemplate(String template, List<Run> runs, boolean shuffle) {
+        this.template = template;
+        this.runPools = new CharacterPool[runs.size()];
+        this.runLiterals = new char[runs.size()];
+        this.runLengths = new int[runs.size()];
+        int total = 0;
+        int bytes = 0;
+        for (int i = 0; i < runs.size(); i++) {
+            Run run = runs.get(i);
+            runPools[i] = run.pool;
+            runLiterals[i] = run.literal;
+            runLengths[i] = run.count;
+            total += run.count;
+            bytes += run.count * (run.pool != null
+                    ? run.pool.maxUtf8BytesPerCharacter()
+                    : CharacterPool.utf8Bytes(run.literal));
+        }
+        this.shuffle = shuffle;
+        this.length = total;
+        this.maxUtf8Length = bytes;
+    }
+
+    /**
+     * Parses and validates a template.
+     *
+     * @throws InvalidPasswordParametersException if the template is malformed or produces
+     *         an empty password or one longer than the maximum password length
+     */
+    public static PasswordTemplate compile(String template) {
+        if (template == null || template.isEmpty()) {
+            throw ParameterError.TEMPLATE_REQUIRED.exception();
+        }
+        if (template.length() > MAX_TEMPLATE_LENGTH) {
+            throw new InvalidPasswordParametersException(
+                "Template must be at most " + MAX_TEMPLATE_LENGTH + " characters. Provided: " + template.length());
+        }
+
+        boolean shuffle = template.charAt(0) == '~';
+        List<Run> runs = new ArrayList<>();
+        int total = 0;
+        int i = shuffle ? 1 : 0;
+
+        while (i < template.length()) {
+            char c = template.charAt(i);
+            CharacterPool pool = null;
+            char literal = 0;
+
+            if (c == '\\') {
+                if (i + 1 >= template.length()) {
+                    throw new InvalidPasswordParametersException("Template ends with an unfinished escape");
+                }
+                literal = template.charAt(i + 1);
+                i += 2;
+            } else if (c == '{') {
+                throw new InvalidPasswordParametersException(
+                    "Repetition at position " + i + " does not follow a token");
+            } else {
+                int mask = classMask(c);
+                if (mask != 0) {
+                    pool = PasswordGeneratorService.characterPool(mask);
+                } else {
+                    literal = c;
+                }
+                i++;
+            }
+
+            if (pool == null && Character.isSurrogate(literal)) {
+                throw new InvalidPasswordParametersException(
+                    "Template literal at position " + (i - 1) + " is not a single UTF-16 character; "
+                    + "only characters in the Basic Multilingual Plane can be used as literals");
+            }
+
+            int count = 1;
+            if (i < template.length() && template.charAt(i) == '{') {
+                int close = template.indexOf('}', i);
+                if (close < 0) {
+                    throw new InvalidPasswordParametersException("Unclosed repetition at position " + i);
+                }
+                try {
+                    count = Integer.parseInt(template.substring(i + 1, close));
+                } catch (NumberFormatException e) {
+                    throw new InvalidPasswordParametersException(
+                        "Invalid repetition count at position " + i + ": " + template.substring(i + 1, close));
+                }
+                if (count < 1 || count > PasswordGeneratorService.MAX_PASSWORD_LENGTH) {
+                    throw new InvalidPasswordParametersException(
+                        "Repetition count must be between 1 and " + PasswordGeneratorService.MAX_PASSWORD_LENGTH
+                        + ". Provided: " + count);
+                }
+                i = close + 1;
+            }
+
+            total += count;
+            if (total > PasswordGeneratorService.MAX_PASSWORD_LENGTH) {
+                throw new InvalidPasswordParametersException(
+                    "Template produces more than " + PasswordGeneratorService.MAX_PASSWORD_LENGTH + " characters");
+            }
+
+            Run last = runs.isEmpty() ? null : runs.get(runs.size() - 1);
+            if (last != null && last.pool == pool && (pool != null || last.literal == literal)) {
+                last.count += count;
+            } else {
+                runs.add(new Run(pool, literal, count));
+            }
+        }
+
+        if (total == 0) {
+            throw new InvalidPasswordParametersException("Template does not produce any characters");
+        }
+        return new PasswordTemplate(template, runs, shuffle);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public int maxUtf8Length() {
+        return maxUtf8Length;
+    }
+
+    @Override
+    public int fill(char[] dest, RandomSource random) {
+        int position = 0;
+        for (int i = 0; i < runLengths.length; i++) {
+            if (runPools[i] != null) {
+                runPools[i].fill(dest, position, runLengths[i], random);
+            } else {
+                for (int j = 0; j < runLengths[i]; j++) {
+                    dest[position + j] = runLiterals[i];
+                }
+            }
+            position += runLengths[i];
+        }
+
+        if (shuffle && length > 1) {
+            // Fisher-Yates with unbiased indices, all drawn in one request
+            IndexSampler indices = new IndexSampler(random, length - 1);
+            for (int i = length - 1; i > 0; i--) {
+                int j = indices.next(i + 1);
+                char swap = dest[i];
+                dest[i] = dest[j];
+                dest[j] = swap;
+            }
+            indices.wipe();
+        }
+        return length;
+    }
+
+    /**
+     * Product of the run pool sizes. Shuffling can only add outputs, so for shuffled templates
+     * this is a lower bound.
+     */
+    @Override
+    public BigInteger keyspace() {
+        BigInteger keyspace = BigInteger.ONE;
+        for (int i = 0; i < runLengths.length; i++) {
+            if (runPools[i] != null) {
+                keyspace = keyspace.multiply(BigInteger.valueOf(runPools[i].size()).pow(runLengths[i]));
+            }
+        }
+        return keyspace;
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+
+    private static int classMask(char c) {
+        switch (c) {
+            case 'A':
+                return PasswordGeneratorService.UPPERCASE_FLAG;
+            case 'a':
+                return PasswordGeneratorService.LOWERCASE_FLAG;
+            case '9':
+                return PasswordGeneratorService.NUMERIC_FLAG;
+            case '!':
+                return PasswordGeneratorService.SYMBOL_FLAG;
+            case 'L':
+                return PasswordGeneratorService.UPPERCASE_FLAG | PasswordGeneratorService.LOWERCASE_FLAG;
+            case 'X':
+                return PasswordGeneratorService.UPPERCASE_FLAG | PasswordGeneratorService.LOWERCASE_FLAG
+                        | PasswordGeneratorService.NUMERIC_FLAG;
+            case '*':
+                return PasswordGeneratorService.UPPERCASE_FLAG | PasswordGeneratorService.LOWERCASE_FLAG
+                        | PasswordGeneratorService.NUMERIC_FLAG | PasswordGeneratorService.SYMBOL_FLAG;
+            default:
+                return 0;
+        }
+    }
+
+    private static final class Run {
+        private final CharacterPool pool;
+        private final char literal;
+        private int count;
+
+        private Run(CharacterPool pool, char literal, int count) {
+            this.pool = pool;
+            this.literal = literal;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.passwordgenerator.service;
+
+import com.passwordgenerator.service.random.RandomSource;
+
+import java.math.BigInteger;
+
+/**
+ * Plain generation plan: every position drawn independently from one pool. {@code length}
+ * counts characters, so a pool with supplementary characters can produce up to twice as many
+ * {@code char}s.
+ */
+final class UniformPlan implements GenerationPlan {
+
+    private final CharacterPool pool;
+    private final int length;
+
+    UniformPlan(CharacterPool pool, int length) {
+        this.pool = pool;
+        this.length = length;
+    }
+
+    CharacterPool pool() {
+        return pool;
+    }
+
+    @Override
+    public int length() {
+        return length * pool.maxCharsPerCharacter();
+    }
+
+    @Override
+    public int maxUtf8Length() {
+        return length * pool.maxUtf8BytesPerCharacter();
+    }
+
+    @Override
+    public int fill(char[] dest, RandomSource random) {
+        return pool.fill(dest, 0, length, random);
+    }
+
+    @Override
+    public BigInteger keyspace() {
+        return BigInteger.valueOf(pool.size()).pow(length);
+    }
+}
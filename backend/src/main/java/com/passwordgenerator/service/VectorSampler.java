@@ -0,0 +1,105 @@
+package com.passwordgenerator.service;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+
+/**
+ * Maps random bytes to pool characters a whole vector at a time with the Vector API: one
+ * unsigned compare yields the rejection mask for every lane, and the characters come from a
+ * 256-entry lookup table held in registers and indexed with lane shuffles, so there is no
+ * per-character branch or division. Accepted lanes are then written out in order.
+ *
+ * <p>Consumes samples in the same order and accepts the same ones as
+ * {@link CharacterPool#map}, so both produce identical output from identical random bytes.
+ * Only pools of up to 256 characters below U+0100 qualify, since table entries are bytes.
+ *
+ * <p>Only load this class after {@link VectorSupport#isAvailable()}.
+ */
+final class VectorSampler {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    private static final int LANE_BITS = Integer.numberOfTrailingZeros(LANES);
+
+    private final CharacterPool pool;
+    private final int acceptLimit;
+    /** Table slice {@code k} holds the characters for samples {@code [k * LANES, (k + 1) * LANES)}. */
+    private final ByteVector[] tables;
+
+    VectorSampler(CharacterPool pool) {
+        if (!supports(pool)) {
+            throw new IllegalArgumentException("Pool cannot be vectorized: " + pool);
+        }
+        this.pool = pool;
+        this.acceptLimit = pool.acceptLimit();
+
+        // Slices at or past the accept limit would only ever feed rejected lanes
+        byte[] table = new byte[256];
+        for (int sample = 0; sample < acceptLimit; sample++) {
+            table[sample] = (byte) pool.sampleCharacter(sample);
+        }
+        this.tables = new ByteVector[(acceptLimit + LANES - 1) / LANES];
+        for (int k = 0; k < tables.length; k++) {
+            tables[k] = ByteVector.fromArray(SPECIES, table, k * LANES);
+        }
+    }
+
+    static boolean isHardwareSupported() {
+        return SPECIES.vectorBitSize() >= 128;
+    }
+
+    static boolean supports(CharacterPool pool) {
+        if (!pool.isByteSampled()) {
+            return false;
+        }
+        for (int i = 0; i < pool.size(); i++) {
+            if (pool.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lanes per vector: 16 with SSE, 32 with AVX2, 64 with AVX-512.
+     */
+    static int lanes() {
+        return LANES;
+    }
+
+    /**
+     * Same contract as {@link CharacterPool#map}.
+     */
+    int map(byte[] samples, int from, int to, char[] dest, int position, int end) {
+        byte[] mapped = new byte[LANES];
+        long allLanes = LANES == 64 ? -1L : (1L << LANES) - 1;
+        int i = from;
+
+        // Whole vectors while every lane could still be accepted without passing the end
+        for (; i + LANES <= to && end - position >= LANES; i += LANES) {
+            ByteVector sample = ByteVector.fromArray(SPECIES, samples, i);
+            VectorShuffle<Byte> slot = sample.and((byte) (LANES - 1)).toShuffle();
+            ByteVector slice = sample.lanewise(VectorOperators.LSHR, LANE_BITS);
+
+            ByteVector characters = tables[0].rearrange(slot);
+            for (int k = 1; k < tables.length; k++) {
+                characters = characters.blend(tables[k].rearrange(slot), slice.eq((byte) k));
+            }
+            long accepted = acceptLimit == 256
+                    ? allLanes
+                    : sample.compare(VectorOperators.UNSIGNED_LT, (byte) acceptLimit).toLong();
+
+            characters.intoArray(mapped, 0);
+            for (long lanes = accepted; lanes != 0; lanes &= lanes - 1) {
+                dest[position++] = (char) (mapped[Long.numberOfTrailingZeros(lanes)] & 0xFF);
+            }
+        }
+        Arrays.fill(mapped, (byte) 0);
+
+        return pool.map(samples, i, to, dest, position, end);
+    }
+}
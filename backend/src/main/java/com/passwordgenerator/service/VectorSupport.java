@@ -0,0 +1,59 @@
+package com.passwordgenerator.service;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Whether the vectorized bulk path can run. {@code jdk.incubator.vector} is only resolved when
+ * the JVM is started with {@code --add-modules jdk.incubator.vector}, and {@link VectorSampler}
+ * fails to load without it, so it must only be touched once this says yes.
+ *
+ * <p>On x86 the JDK 21 JIT compiles the byte shuffles and masks the sampler relies on only with
+ * AVX encodings; with {@code -XX:UseAVX=0} (SSE only) they run as plain Java code, an order of
+ * magnitude slower than the scalar path, so the vectorized path is refused there too.
+ */
+final class VectorSupport {
+
+    private static final String UNAVAILABLE_REASON = probe();
+
+    private VectorSupport() {
+    }
+
+    static boolean isAvailable() {
+        return UNAVAILABLE_REASON == null;
+    }
+
+    /**
+     * Why {@link #isAvailable()} is false, for the startup log; null when it is true.
+     */
+    static String unavailableReason() {
+        return UNAVAILABLE_REASON;
+    }
+
+    private static String probe() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return "start the JVM with --add-modules jdk.incubator.vector";
+        }
+        if (legacySseOnly()) {
+            return "byte shuffles are not compiled without AVX (UseAVX=0)";
+        }
+        if (!VectorSampler.isHardwareSupported()) {
+            return "preferred vector size is below 128 bits";
+        }
+        return null;
+    }
+
+    private static boolean legacySseOnly() {
+        HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+        if (hotSpot == null) {
+            return false;
+        }
+        try {
+            return "0".equals(hotSpot.getVMOption("UseAVX").getValue());
+        } catch (IllegalArgumentException e) {
+            // Not an x86 HotSpot build
+            return false;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.passwordgenerator.service;
+
+import com.passwordgenerator.service.random.RandomSource;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Per-batch wrapper around a {@link UniformPlan} over a pool {@link VectorSampler#supports} that samples characters for many passwords at
+ * once through a {@link VectorSampler} and hands them out one password at a time. Every
+ * character is still an independent uniform draw from the pool, so passwords are distributed
+ * exactly as with the plain plan.
+ *
+ * <p>Refills are sized to what the batch still needs, and characters are wiped from the buffer
+ * as they are handed out. Open-ended streams and retries still leave sampled characters behind,
+ * so the owning batch calls {@link #wipe} when it is closed. Stateful: one per batch, not
+ * thread-safe.
+ */
+final class VectorizedPlan implements GenerationPlan {
+
+    private static final int BUFFER_CHARS = 8192;
+
+    private final UniformPlan plan;
+    private final CharacterPool pool;
+    private final int length;
+    private final VectorSampler sampler;
+    private final char[] buffer;
+    private long remainingChars;
+    private int position;
+    private int limit;
+
+    /**
+     * @param count passwords the batch will produce
+     */
+    VectorizedPlan(UniformPlan plan, long count) {
+        this.plan = plan;
+        this.pool = plan.pool();
+        this.length = plan.length();
+        this.sampler = new VectorSampler(pool);
+        this.buffer = new char[Math.max(1, BUFFER_CHARS / length) * length];
+        this.remainingChars = count * length;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public int maxUtf8Length() {
+        return plan.maxUtf8Length();
+    }
+
+    @Override
+    public int fill(char[] dest, RandomSource random) {
+        if (position == limit) {
+            refill(random);
+        }
+        System.arraycopy(buffer, position, dest, 0, length);
+        Arrays.fill(buffer, position, position + length, '\0');
+        position += length;
+        remainingChars -= length;
+        return length;
+    }
+
+    @Override
+    public BigInteger keyspace() {
+        return plan.keyspace();
+    }
+
+    /**
+     * Zeroes the characters sampled but not yet handed out, so nothing outlives the batch.
+     */
+    void wipe() {
+        Arrays.fill(buffer, position, limit, '\0');
+        position = limit;
+    }
+
+    /**
+     * Fills the buffer with whole passwords: as many as are left in the batch, at least one
+     * (retries for uniqueness or screening can ask for more than the count), at most a buffer.
+     */
+    private void refill(RandomSource random) {
+        int needed = (int) Math.min(buffer.length, Math.max(remainingChars, length));
+        int filled = 0;
+        while (filled < needed) {
+            byte[] samples = new byte[pool.estimateSamples(needed - filled)];
+            random.nextBytes(samples);
+            filled = sampler.map(samples, 0, samples.length, buffer, filled, needed);
+            Arrays.fill(samples, (byte) 0);
+        }
+        position = 0;
+        limit = needed;
+    }
+}
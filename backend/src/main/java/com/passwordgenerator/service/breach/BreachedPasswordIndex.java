@@ -0,0 +1,372 @@
+package com.passwordgenerator.service.breach;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Looks up passwords in a Have I Been Pwned style breach corpus: a text file of
+ * {@code SHA1HEX:COUNT} lines sorted by hash (the "ordered by hash" download).
+ *
+ * <p>The file is searched in place through read-only memory maps, so its size costs neither
+ * heap nor startup time. Because SHA-1 values are uniformly distributed, each probe
+ * interpolates the expected byte position of the target from the hashes at the ends of the
+ * current window. That takes a handful of probes even for hundreds of millions of lines;
+ * alternate probes bisect so a skewed file still converges logarithmically.
+ *
+ * <p>In front of the file sits a fixed-size Bloom filter. A background thread fills it
+ * after startup; once it is ready, almost every miss is answered without touching the file.
+ * Its size is configured, not derived from the corpus, so heap use stays flat. It is skipped
+ * when it would be too small to filter anything useful.
+ */
+public final class BreachedPasswordIndex implements AutoCloseable {
+
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+    private static final int HASH_HEX_LENGTH = 40;
+    private static final long LINEAR_SCAN_BYTES = 4096;
+    private static final int MAX_HASH_FUNCTIONS = 8;
+    private static final double MAX_USEFUL_FALSE_POSITIVE_RATE = 0.5;
+    /** Typical line length ({@code 40 hex + ':' + count + CRLF}) used to size the filter. */
+    private static final int ESTIMATED_LINE_BYTES = 46;
+
+    private final Path file;
+    private final MappedByteBuffer[] segments;
+    private final long size;
+
+    private final long[] filter;
+    private final long filterBits;
+    private final int hashFunctions;
+    private final Thread filterLoader;
+    private volatile boolean filterReady;
+    private volatile boolean closed;
+
+    private final LongAdder filteredLookups = new LongAdder();
+    private final LongAdder searchedLookups = new LongAdder();
+
+    private BreachedPasswordIndex(Path file, MappedByteBuffer[] segments, long size, long filterBytes) {
+        this.file = file;
+        this.segments = segments;
+        this.size = size;
+
+        // Pick the number of hash functions for the estimated entry count and give up on the
+        // filter entirely if even the best choice would pass most misses through
+        long estimatedEntries = Math.max(1, size / ESTIMATED_LINE_BYTES);
+        long bits = filterBytes * 8;
+        int functions = (int) Math.max(1, Math.min(MAX_HASH_FUNCTIONS,
+                Math.round((double) bits / estimatedEntries * Math.log(2))));
+        double falsePositiveRate = Math.pow(1 - Math.exp(-(double) functions * estimatedEntries / bits), functions);
+
+        if (bits >= 64 && falsePositiveRate <= MAX_USEFUL_FALSE_POSITIVE_RATE) {
+            this.filter = new long[(int) Math.min(Integer.MAX_VALUE - 8, bits / 64)];
+            this.filterBits = (long) filter.length * 64;
+            this.hashFunctions = functions;
+            this.filterLoader = new Thread(this::loadFilter, "breach-filter-loader");
+            this.filterLoader.setDaemon(true);
+        } else {
+            this.filter = null;
+            this.filterBits = 0;
+            this.hashFunctions = 0;
+            this.filterLoader = null;
+        }
+    }
+
+    /**
+     * Maps a sorted hash file and starts filling the Bloom filter in the background.
+     *
+     * @param filterBytes heap to spend on the Bloom filter; 0 disables it
+     */
+    public static BreachedPasswordIndex open(Path file, long filterBytes) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_BITS)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = (long) i << SEGMENT_BITS;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, size - start));
+            }
+
+            BreachedPasswordIndex index = new BreachedPasswordIndex(file, segments, size, filterBytes);
+            if (index.filterLoader != null) {
+                index.filterLoader.start();
+            }
+            return index;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open breached password file " + file, e);
+        }
+    }
+
+    public static byte[] sha1(String password) {
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    }
+
+    /**
+     * SHA-1 of the UTF-8 encoding of {@code password[0, length)}; the encoded bytes are wiped.
+     */
+    public static byte[] sha1(char[] password, int length) {
+        ByteBuffer encoded = StandardCharsets.UTF_8.encode(CharBuffer.wrap(password, 0, length));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(encoded.duplicate());
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        } finally {
+            if (encoded.hasArray()) {
+                Arrays.fill(encoded.array(), (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * Number of times the password appears in the corpus, or 0 if it does not.
+     */
+    public long occurrences(String password) {
+        return occurrences(sha1(password));
+    }
+
+    public long occurrences(char[] password, int length) {
+        return occurrences(sha1(password, length));
+    }
+
+    public long occurrences(byte[] hash) {
+        if (filterReady && !filterMightContain(hash)) {
+            filteredLookups.increment();
+            return 0;
+        }
+        searchedLookups.increment();
+        return search(hash);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getFileSize() {
+        return size;
+    }
+
+    public boolean isFilterReady() {
+        return filterReady;
+    }
+
+    /**
+     * Lookups answered by the Bloom filter alone.
+     */
+    public long getFilteredLookups() {
+        return filteredLookups.sum();
+    }
+
+    /**
+     * Lookups that had to search the file.
+     */
+    public long getSearchedLookups() {
+        return searchedLookups.sum();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (filterLoader != null) {
+            try {
+                filterLoader.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Waits for the background filter load; used by tests and benchmarks.
+     */
+    public void awaitFilter() throws InterruptedException {
+        if (filterLoader != null) {
+            filterLoader.join();
+        }
+    }
+
+    private long search(byte[] hash) {
+        long target = prefix(hash);
+        long low = 0;
+        long high = size;
+        long lowKey = 0;
+        long highKey = -1L;
+        boolean interpolate = true;
+
+        while (high - low > LINEAR_SCAN_BYTES) {
+            long probe = interpolate
+                    ? interpolate(low, high, lowKey, highKey, target)
+                    : low + (high - low) / 2;
+            interpolate = !interpolate;
+
+            long line = lineStartAtOrAfter(probe);
+            if (line >= high) {
+                // No line starts between the probe and the end of the window
+                line = low;
+            }
+
+            int comparison = compareHash(line, hash);
+            if (comparison == 0) {
+                return parseCount(line);
+            } else if (comparison < 0) {
+                lowKey = readPrefix(line);
+                low = lineStartAtOrAfter(line + 1);
+            } else {
+                highKey = readPrefix(line);
+                high = line;
+            }
+        }
+
+        for (long line = low; line < high; line = lineStartAtOrAfter(line + 1)) {
+            int comparison = compareHash(line, hash);
+            if (comparison == 0) {
+                return parseCount(line);
+            } else if (comparison > 0) {
+                break;
+            }
+        }
+        return 0;
+    }
+
+    private static long interpolate(long low, long high, long lowKey, long highKey, long target) {
+        double span = unsigned(highKey) - unsigned(lowKey);
+        double fraction = span <= 0 ? 0.5 : (unsigned(target) - unsigned(lowKey)) / span;
+        fraction = Math.max(0, Math.min(1, fraction));
+        long probe = low + (long) (fraction * (high - low));
+        return Math.max(low, Math.min(high - 1, probe));
+    }
+
+    private static double unsigned(long value) {
+        double result = (double) (value >>> 1) * 2;
+        return result + (value & 1);
+    }
+
+    private long lineStartAtOrAfter(long position) {
+        if (position == 0) {
+            return 0;
+        }
+        long p = position;
+        while (p <= size && byteAt(p - 1) != '\n') {
+            p++;
+        }
+        return Math.min(p, size);
+    }
+
+    /**
+     * Compares the hash on the line starting at {@code line} with {@code hash}.
+     */
+    private int compareHash(long line, byte[] hash) {
+        for (int i = 0; i < HASH_HEX_LENGTH; i++) {
+            int fileNibble = hexValue(byteAt(line + i));
+            int targetNibble = (hash[i >> 1] >> ((i & 1) == 0 ? 4 : 0)) & 0xF;
+            if (fileNibble != targetNibble) {
+                return fileNibble < targetNibble ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    private long readPrefix(long line) {
+        long prefix = 0;
+        for (int i = 0; i < 16; i++) {
+            prefix = (prefix << 4) | hexValue(byteAt(line + i));
+        }
+        return prefix;
+    }
+
+    private long parseCount(long line) {
+        long position = line + HASH_HEX_LENGTH;
+        if (position >= size || byteAt(position) != ':') {
+            return 1;
+        }
+        long count = 0;
+        for (position++; position < size; position++) {
+            byte b = byteAt(position);
+            if (b < '0' || b > '9') {
+                break;
+            }
+            count = count * 10 + (b - '0');
+        }
+        return Math.max(1, count);
+    }
+
+    private byte byteAt(long position) {
+        return segments[(int) (position >>> SEGMENT_BITS)].get((int) (position & (SEGMENT_SIZE - 1)));
+    }
+
+    private static int hexValue(byte b) {
+        if (b >= '0' && b <= '9') {
+            return b - '0';
+        }
+        if (b >= 'A' && b <= 'F') {
+            return b - 'A' + 10;
+        }
+        if (b >= 'a' && b <= 'f') {
+            return b - 'a' + 10;
+        }
+        throw new IllegalStateException("Breached password file is not in SHA1:COUNT format");
+    }
+
+    private static long prefix(byte[] hash) {
+        long prefix = 0;
+        for (int i = 0; i < 8; i++) {
+            prefix = (prefix << 8) | (hash[i] & 0xFF);
+        }
+        return prefix;
+    }
+
+    private static long secondPrefix(byte[] hash) {
+        long prefix = 0;
+        for (int i = 8; i < 16; i++) {
+            prefix = (prefix << 8) | (hash[i] & 0xFF);
+        }
+        return prefix;
+    }
+
+    // SHA-1 output is already uniform, so the filter derives its bit positions from the hash
+    // itself (double hashing over two 64-bit halves) instead of hashing again.
+
+    private boolean filterMightContain(byte[] hash) {
+        return filterMightContain(prefix(hash), secondPrefix(hash));
+    }
+
+    private boolean filterMightContain(long h1, long h2) {
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, filterBits);
+            if ((filter[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void loadFilter() {
+        long line = 0;
+        while (line < size && !closed) {
+            if (size - line >= 32) {
+                long h1 = readPrefix(line);
+                long h2 = readPrefix(line + 16);
+                for (int i = 0; i < hashFunctions; i++) {
+                    long bit = Long.remainderUnsigned(h1 + i * h2, filterBits);
+                    filter[(int) (bit >>> 6)] |= 1L << bit;
+                }
+            }
+            line = lineStartAtOrAfter(line + HASH_HEX_LENGTH);
+        }
+        // The volatile write publishes the filled filter to lookup threads
+        filterReady = !closed;
+    }
+}
@@ -0,0 +1,145 @@
+package com.passwordgenerator.service.export;
+
+import com.passwordgenerator.service.PasswordBatch;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * One export: a batch of passwords generated in the background into an encrypted spool file,
+ * then downloaded. Fields written by the generating thread are volatile so status polls see
+ * them without locking.
+ */
+public final class ExportJob {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private final String id;
+    private final int count;
+    private final boolean plainText;
+    private final Path spoolFile;
+    private final Instant createdAt;
+
+    private volatile State state = State.QUEUED;
+    private volatile PasswordBatch batch;
+    private volatile int generated;
+    private volatile long sizeBytes;
+    private volatile Instant completedAt;
+    private volatile Instant expiresAt;
+    private volatile Instant downloadedAt;
+    private volatile String error;
+    private volatile boolean cancelled;
+
+    ExportJob(String id, PasswordBatch batch, boolean plainText, Path spoolFile, Instant createdAt) {
+        this.id = id;
+        this.batch = batch;
+        this.count = batch.count();
+        this.plainText = plainText;
+        this.spoolFile = spoolFile;
+        this.createdAt = createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Passwords written so far; read from the running batch while the job is in progress.
+     */
+    public int getGenerated() {
+        PasswordBatch running = batch;
+        return running != null ? running.generated() : generated;
+    }
+
+    public boolean isPlainText() {
+        return plainText;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Size of the finished spool file, which is also the size of the download.
+     */
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    /**
+     * When the spool file is deleted; null until the job has finished.
+     */
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Instant getDownloadedAt() {
+        return downloadedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    Path getSpoolFile() {
+        return spoolFile;
+    }
+
+    PasswordBatch getBatch() {
+        return batch;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    void started() {
+        state = State.RUNNING;
+    }
+
+    void finished(State finalState, long sizeBytes, String error, Instant now, Instant expiresAt) {
+        PasswordBatch done = batch;
+        this.generated = done != null ? done.generated() : 0;
+        this.batch = null;
+        this.sizeBytes = sizeBytes;
+        this.error = error;
+        this.completedAt = now;
+        this.expiresAt = expiresAt;
+        this.state = finalState;
+    }
+
+    void downloaded(Instant now, Instant expiresAt) {
+        this.downloadedAt = now;
+        if (this.expiresAt == null || expiresAt.isBefore(this.expiresAt)) {
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    void holdUntil(Instant expiresAt) {
+        if (this.expiresAt == null || expiresAt.isAfter(this.expiresAt)) {
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.passwordgenerator.service.export;
+
+import com.passwordgenerator.exception.RateLimitExceededException;
+import com.passwordgenerator.service.PasswordBatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs export jobs: batches too large to stream in one response are generated on a small,
+ * bounded pool of platform threads into spool files, which clients then download.
+ *
+ * <p>Each spool file is encrypted with AES-256 in CTR mode under a fresh key that is handed to
+ * the client when the job is created and never stored by the server. The file at rest is
+ * therefore unreadable to anyone without that response, including the server itself, which
+ * lets downloads send the file as it is, with zero-copy {@code sendfile}, and serve byte ranges
+ * without any decryption state (CTR ciphertext offsets are plaintext offsets). Deleting a job
+ * overwrites its file before unlinking it, as a second line of defense; on copy-on-write and
+ * flash storage only the encryption can be relied on.
+ *
+ * <p>Jobs live in memory. Finished jobs are kept for {@code ttl} (or {@code retainAfterDownload}
+ * once fully downloaded, to allow resumed transfers) and then deleted by a background sweep;
+ * spool files left over from a previous run are deleted on startup.
+ */
+public final class ExportJobManager implements AutoCloseable {
+
+    /** How the spool is encrypted; clients need it, the key and the IV to read a download. */
+    public static final String CIPHER_NAME = "AES-256-CTR";
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportJobManager.class);
+
+    private static final String TRANSFORMATION = "AES/CTR/NoPadding";
+    private static final int KEY_BYTES = 32;
+    private static final int IV_BYTES = 16;
+    private static final int ID_BYTES = 16;
+    private static final String SPOOL_SUFFIX = ".spool";
+    private static final int WIPE_BLOCK_SIZE = 1024 * 1024;
+    private static final long QUEUE_FULL_RETRY_AFTER_SECONDS = 30;
+
+    /**
+     * Writes a batch to a stream as NDJSON or plain lines; the web layer's response writer.
+     */
+    @FunctionalInterface
+    public interface BatchWriter {
+        void write(PasswordBatch batch, OutputStream out, boolean plainText) throws IOException;
+    }
+
+    /**
+     * A newly created job with the key and IV its spool is encrypted under. This is the only
+     * time they are available; the caller owns (and should wipe) the arrays.
+     */
+    public record Submission(ExportJob job, byte[] key, byte[] iv) {
+    }
+
+    private final Path spoolDirectory;
+    private final int maxJobs;
+    private final Duration ttl;
+    private final Duration retainAfterDownload;
+    private final BatchWriter writer;
+    private final Clock clock;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    /** Jobs held or being submitted; reserved before a job is created, so the bound is never exceeded. */
+    private final AtomicInteger jobSlots = new AtomicInteger();
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService sweeper;
+
+    private final LongAdder spooledBytes = new LongAdder();
+    private final LongAdder deletedFiles = new LongAdder();
+
+    /**
+     * @param threads jobs generated at the same time
+     * @param queueCapacity jobs allowed to wait for a thread; further submissions are refused
+     * @param maxJobs jobs retained in any state, which bounds the disk used by spool files
+     * @param sweepInterval how often expired jobs are deleted; null disables the background sweep
+     */
+    public ExportJobManager(Path spoolDirectory, int threads, int queueCapacity, int maxJobs, Duration ttl,
+                            Duration retainAfterDownload, Duration sweepInterval, BatchWriter writer) {
+        this(spoolDirectory, threads, queueCapacity, maxJobs, ttl, retainAfterDownload, sweepInterval, writer,
+                Clock.systemUTC());
+    }
+
+    /**
+     * Same as above with an explicit clock, so tests can control expiry.
+     */
+    public ExportJobManager(Path spoolDirectory, int threads, int queueCapacity, int maxJobs, Duration ttl,
+                            Duration retainAfterDownload, Duration sweepInterval, BatchWriter writer, Clock clock) {
+        if (threads < 1 || queueCapacity < 1 || maxJobs < 1) {
+            throw new IllegalArgumentException("Export threads, queue capacity and job limit must be positive. Provided: "
+                    + threads + ", " + queueCapacity + ", " + maxJobs);
+        }
+        this.spoolDirectory = spoolDirectory;
+        this.maxJobs = maxJobs;
+        this.ttl = ttl;
+        this.retainAfterDownload = retainAfterDownload;
+        this.writer = writer;
+        this.clock = clock;
+
+        prepareSpoolDirectory();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-export-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        if (sweepInterval != null) {
+            this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "password-export-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(1, sweepInterval.toMillis());
+            sweeper.scheduleWithFixedDelay(this::sweep, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            this.sweeper = null;
+        }
+    }
+
+    /**
+     * Queues a validated batch for generation.
+     *
+     * @throws RateLimitExceededException if the job limit is reached or the queue is full
+     */
+    public Submission submit(PasswordBatch batch, boolean plainText) {
+        if (!reserveJobSlot()) {
+            throw new RateLimitExceededException(
+                "This server already holds " + maxJobs + " export jobs", QUEUE_FULL_RETRY_AFTER_SECONDS);
+        }
+        try {
+            return start(batch, plainText);
+        } catch (RuntimeException e) {
+            jobSlots.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private boolean reserveJobSlot() {
+        for (int held = jobSlots.get(); held < maxJobs; held = jobSlots.get()) {
+            if (jobSlots.compareAndSet(held, held + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates and queues a job in a slot the caller has reserved, which it releases if this throws.
+     */
+    private Submission start(PasswordBatch batch, boolean plainText) {
+        byte[] key = new byte[KEY_BYTES];
+        byte[] iv = new byte[IV_BYTES];
+        byte[] idBytes = new byte[ID_BYTES];
+        random.nextBytes(key);
+        random.nextBytes(iv);
+        random.nextBytes(idBytes);
+
+        Cipher cipher;
+        try {
+            cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"), new IvParameterSpec(iv));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(TRANSFORMATION + " is not available", e);
+        }
+
+        String id = HexFormat.of().formatHex(idBytes);
+        ExportJob job = new ExportJob(id, batch, plainText, spoolDirectory.resolve(id + SPOOL_SUFFIX), clock.instant());
+        jobs.put(id, job);
+        try {
+            executor.execute(() -> run(job, cipher));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            throw new RateLimitExceededException("The export queue is full", QUEUE_FULL_RETRY_AFTER_SECONDS);
+        }
+        return new Submission(job, key, iv);
+    }
+
+    /**
+     * The job with this id, or null if it never existed or has expired.
+     */
+    public ExportJob get(String id) {
+        return id == null ? null : jobs.get(id);
+    }
+
+    /**
+     * Path to read a completed job's download from.
+     */
+    public Path spoolFile(ExportJob job) {
+        return job.getSpoolFile();
+    }
+
+    /**
+     * Keeps the job for at least {@code retainAfterDownload} from now, never less than it had,
+     * so a transfer about to start is not swept from under it. Call before sending the file.
+     */
+    public void holdForTransfer(ExportJob job) {
+        job.holdUntil(clock.instant().plus(retainAfterDownload));
+    }
+
+    /**
+     * Records that the end of the file has been sent, which shortens the job's remaining life
+     * to {@code retainAfterDownload}; the grace period lets an interrupted transfer resume.
+     * Call once the transfer has completed.
+     */
+    public void markDownloaded(ExportJob job) {
+        Instant now = clock.instant();
+        job.downloaded(now, now.plus(retainAfterDownload));
+    }
+
+    /**
+     * Cancels a job if it is still running and deletes it along with its spool file.
+     *
+     * @return false if there was no such job
+     */
+    public boolean delete(String id) {
+        ExportJob job = jobs.remove(id);
+        if (job == null) {
+            return false;
+        }
+        jobSlots.decrementAndGet();
+        job.cancel();
+        // A running job deletes its own file when it notices the cancellation
+        if (job.getState().isFinished()) {
+            deleteSpoolFile(job.getSpoolFile());
+        }
+        return true;
+    }
+
+    /**
+     * Deletes every finished job whose expiry has passed.
+     */
+    public void sweep() {
+        Instant now = clock.instant();
+        for (ExportJob job : jobs.values()) {
+            Instant expiresAt = job.getExpiresAt();
+            if (job.getState().isFinished() && expiresAt != null && !expiresAt.isAfter(now)) {
+                delete(job.getId());
+            }
+        }
+    }
+
+    public int getJobCount() {
+        return jobs.size();
+    }
+
+    public long countJobs(ExportJob.State state) {
+        return jobs.values().stream().filter(job -> job.getState() == state).count();
+    }
+
+    public long getSpooledBytes() {
+        return spooledBytes.sum();
+    }
+
+    public long getDeletedFiles() {
+        return deletedFiles.sum();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+        for (String id : jobs.keySet()) {
+            delete(id);
+        }
+    }
+
+    private void run(ExportJob job, Cipher cipher) {
+        if (job.isCancelled()) {
+            return;
+        }
+        job.started();
+        long size = 0;
+        try (FileChannel channel = FileChannel.open(job.getSpoolFile(),
+                Set.of(StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), ownerOnly("rw-------"))) {
+            SpoolOutputStream out = new SpoolOutputStream(channel, cipher, job::isCancelled);
+            PasswordBatch batch = job.getBatch();
+            try {
+                writer.write(batch, out, job.isPlainText());
+            } finally {
+                batch.close();
+                try {
+                    out.close();
+                } finally {
+                    size = out.written();
+                    spooledBytes.add(size);
+                }
+            }
+            channel.force(false);
+            finish(job, ExportJob.State.COMPLETED, size, null);
+        } catch (Exception e) {
+            boolean cancelled = job.isCancelled();
+            if (!cancelled) {
+                logger.warn("Export job failed: id={} count={} error={}", job.getId(), job.getCount(), e.toString());
+            }
+            // Nothing partial is ever served, so the file goes straight away
+            deleteSpoolFile(job.getSpoolFile());
+            finish(job, cancelled ? ExportJob.State.CANCELLED : ExportJob.State.FAILED, 0,
+                    cancelled ? null : "Export failed: " + e.getMessage());
+        }
+    }
+
+    private void finish(ExportJob job, ExportJob.State state, long size, String error) {
+        Instant now = clock.instant();
+        job.finished(state, size, error, now, now.plus(ttl));
+        // Deleted while running: the job is gone from the map, so clean up its file here
+        if (job.isCancelled() && state == ExportJob.State.COMPLETED) {
+            deleteSpoolFile(job.getSpoolFile());
+        }
+    }
+
+    /**
+     * Overwrites the file with zeros, then unlinks it.
+     */
+    private void deleteSpoolFile(Path file) {
+        try {
+            if (!Files.exists(file)) {
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                ByteBuffer zeros = ByteBuffer.allocate((int) Math.min(WIPE_BLOCK_SIZE, Math.max(1, channel.size())));
+                for (long position = 0, size = channel.size(); position < size; ) {
+                    zeros.clear().limit((int) Math.min(zeros.capacity(), size - position));
+                    position += channel.write(zeros, position);
+                }
+                channel.force(false);
+            }
+            Files.deleteIfExists(file);
+            deletedFiles.increment();
+        } catch (IOException e) {
+            logger.warn("Could not delete export spool file: path={} error={}", file, e.toString());
+        }
+    }
+
+    private void prepareSpoolDirectory() {
+        try {
+            if (!Files.isDirectory(spoolDirectory)) {
+                Files.createDirectories(spoolDirectory, ownerOnly("rwx------"));
+            }
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(spoolDirectory, "*" + SPOOL_SUFFIX)) {
+                for (Path file : leftovers) {
+                    deleteSpoolFile(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot use export spool directory " + spoolDirectory, e);
+        }
+    }
+
+    private FileAttribute<?>[] ownerOnly(String permissions) {
+        if (spoolDirectory.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            return new FileAttribute<?>[]{PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString(permissions))};
+        }
+        return new FileAttribute<?>[0];
+    }
+}
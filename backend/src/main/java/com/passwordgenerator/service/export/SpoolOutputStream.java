@@ -0,0 +1,103 @@
+package com.passwordgenerator.service.export;
+
+import javax.crypto.Cipher;
+import javax.crypto.ShortBufferException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Encrypts everything written to it with a stream cipher and appends it to a file channel in
+ * large blocks. Both buffers are reused for the whole file and wiped on close, and
+ * {@link #flush()} is deliberately a no-op: callers flush for the sake of network clients, and
+ * the file is only read once it is complete.
+ */
+final class SpoolOutputStream extends OutputStream {
+
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final Cipher cipher;
+    private final BooleanSupplier cancelled;
+    private final byte[] plain = new byte[BLOCK_SIZE];
+    private final byte[] encrypted = new byte[BLOCK_SIZE];
+    private final ByteBuffer encryptedBuffer = ByteBuffer.wrap(encrypted);
+    private int buffered;
+    private long written;
+
+    SpoolOutputStream(FileChannel channel, Cipher cipher, BooleanSupplier cancelled) {
+        this.channel = channel;
+        this.cipher = cipher;
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * Bytes handed to the channel so far.
+     */
+    long written() {
+        return written;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (buffered == BLOCK_SIZE) {
+            drain();
+        }
+        plain[buffered++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (buffered == BLOCK_SIZE) {
+                drain();
+            }
+            int chunk = Math.min(length, BLOCK_SIZE - buffered);
+            System.arraycopy(bytes, offset, plain, buffered, chunk);
+            buffered += chunk;
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            Arrays.fill(plain, (byte) 0);
+            Arrays.fill(encrypted, (byte) 0);
+        }
+    }
+
+    private void drain() throws IOException {
+        if (cancelled.getAsBoolean()) {
+            throw new InterruptedIOException("Export cancelled");
+        }
+        if (buffered == 0) {
+            return;
+        }
+        int length;
+        try {
+            // A stream cipher in CTR mode: output is exactly as long as the input
+            length = cipher.update(plain, 0, buffered, encrypted, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException("Cipher produced more output than input", e);
+        }
+        Arrays.fill(plain, 0, buffered, (byte) 0);
+        buffered = 0;
+
+        encryptedBuffer.clear().limit(length);
+        while (encryptedBuffer.hasRemaining()) {
+            written += channel.write(encryptedBuffer);
+        }
+    }
+}
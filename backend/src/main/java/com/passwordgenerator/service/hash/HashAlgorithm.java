@@ -0,0 +1,40 @@
+package com.passwordgenerator.service.hash;
+
+/**
+ * Password hashing schemes for generate-and-hash. Each has one cost parameter, with a default
+ * following the OWASP password storage recommendations and bounds that keep a single hash
+ * from tying up a worker for more than a few seconds.
+ */
+public enum HashAlgorithm {
+
+    /** bcrypt, {@code $2b$} variant; the cost is the base-2 logarithm of the rounds. */
+    BCRYPT(10, 4, 16),
+
+    /** PBKDF2 with HMAC-SHA256; the cost is the iteration count. */
+    PBKDF2(600_000, 1_000, 10_000_000),
+
+    /** Argon2id, version 19; the cost is the number of passes over memory. */
+    ARGON2(2, 1, 16);
+
+    private final int defaultCost;
+    private final int minCost;
+    private final int maxCost;
+
+    HashAlgorithm(int defaultCost, int minCost, int maxCost) {
+        this.defaultCost = defaultCost;
+        this.minCost = minCost;
+        this.maxCost = maxCost;
+    }
+
+    public int defaultCost() {
+        return defaultCost;
+    }
+
+    public int minCost() {
+        return minCost;
+    }
+
+    public int maxCost() {
+        return maxCost;
+    }
+}
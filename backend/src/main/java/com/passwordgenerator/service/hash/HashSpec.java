@@ -0,0 +1,79 @@
+package com.passwordgenerator.service.hash;
+
+import com.passwordgenerator.exception.InvalidPasswordParametersException;
+import com.passwordgenerator.exception.ParameterError;
+
+/**
+ * A hashing algorithm with validated cost parameters. {@code memory} (KiB) and
+ * {@code parallelism} (lanes) apply to Argon2 only and are zero otherwise.
+ */
+public record HashSpec(HashAlgorithm algorithm, int cost, int memory, int parallelism) {
+
+    /** bcrypt ignores everything past the first 72 bytes of a password. */
+    public static final int BCRYPT_MAX_BYTES = 72;
+
+    public static final int ARGON2_DEFAULT_MEMORY = 19_456;
+    public static final int ARGON2_MAX_MEMORY = 65_536;
+    public static final int ARGON2_DEFAULT_PARALLELISM = 1;
+    public static final int ARGON2_MAX_PARALLELISM = 16;
+
+    /**
+     * Validates request parameters, filling in the algorithm's defaults for those not given.
+     *
+     * @throws InvalidPasswordParametersException if {@link #check} finds a problem
+     */
+    public static HashSpec of(HashAlgorithm algorithm, Integer cost, Integer memory, Integer parallelism) {
+        ParameterError error = check(algorithm, cost, memory, parallelism);
+        if (error != null) {
+            throw error.exception();
+        }
+        int resolvedCost = cost != null ? cost : algorithm.defaultCost();
+        if (algorithm != HashAlgorithm.ARGON2) {
+            return new HashSpec(algorithm, resolvedCost, 0, 0);
+        }
+        return new HashSpec(algorithm, resolvedCost, memory != null ? memory : ARGON2_DEFAULT_MEMORY,
+                parallelism != null ? parallelism : ARGON2_DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Checks the parameters of {@link #of} without building a spec.
+     *
+     * @return the first problem found, or null if the parameters are valid
+     */
+    public static ParameterError check(HashAlgorithm algorithm, Integer cost, Integer memory, Integer parallelism) {
+        if (algorithm == null) {
+            return ParameterError.HASH_ALGORITHM_REQUIRED;
+        }
+        int resolvedCost = cost != null ? cost : algorithm.defaultCost();
+        if (resolvedCost < algorithm.minCost() || resolvedCost > algorithm.maxCost()) {
+            return ParameterError.HASH_COST_OUT_OF_RANGE;
+        }
+        if (algorithm != HashAlgorithm.ARGON2) {
+            return memory != null || parallelism != null ? ParameterError.HASH_OPTIONS_NOT_ARGON2 : null;
+        }
+
+        int lanes = parallelism != null ? parallelism : ARGON2_DEFAULT_PARALLELISM;
+        if (lanes < 1 || lanes > ARGON2_MAX_PARALLELISM) {
+            return ParameterError.HASH_PARALLELISM_OUT_OF_RANGE;
+        }
+        int kib = memory != null ? memory : ARGON2_DEFAULT_MEMORY;
+        // Argon2 needs at least eight 1 KiB blocks per lane
+        if (kib < 8 * lanes || kib > ARGON2_MAX_MEMORY) {
+            return ParameterError.HASH_MEMORY_OUT_OF_RANGE;
+        }
+        return null;
+    }
+
+    /**
+     * Checks that the algorithm can hash passwords of this size in full, before any are generated.
+     *
+     * @param utf8Length the most bytes a password to be hashed can take once UTF-8 encoded,
+     *                   which is more than its length for non-ASCII alphabets
+     * @return the problem found, or null if such passwords can be hashed
+     */
+    public ParameterError checkPasswordLength(int utf8Length) {
+        return algorithm == HashAlgorithm.BCRYPT && utf8Length > BCRYPT_MAX_BYTES
+                ? ParameterError.HASH_PASSWORD_TOO_LONG
+                : null;
+    }
+}
@@ -0,0 +1,249 @@
+package com.passwordgenerator.service.hash;
+
+import com.passwordgenerator.exception.RateLimitExceededException;
+import com.passwordgenerator.service.PasswordBatch;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs password hashing off the request threads, on a work-stealing pool with one worker per
+ * core. Hashing is CPU-bound and deliberately slow, so more threads than cores would only add
+ * contention, and running it on the request threads would let a burst of hashed requests
+ * occupy every one of them.
+ *
+ * <p>Queueing is bounded by a fixed number of slots, each held by one hash from submission
+ * until a worker has finished with it. Single requests that find every slot taken are refused
+ * with 429 rather than queued; bulk batches, whose response is already committed, wait for
+ * slots instead and never hold more than {@value #WINDOW_PER_THREAD} per worker.
+ */
+public final class HashingPool implements AutoCloseable {
+
+    /** Hashes each bulk batch keeps in flight per worker, so workers never wait for the writer. */
+    public static final int WINDOW_PER_THREAD = 2;
+
+    private static final long QUEUE_FULL_RETRY_AFTER_SECONDS = 1;
+
+    /**
+     * Receives a bulk batch's passwords and hashes, in batch order.
+     */
+    public interface HashedPasswordSink {
+
+        /**
+         * Takes {@code password[0, length)} and its hash. The array is wiped once this returns.
+         */
+        void accept(char[] password, int length, String hash) throws IOException;
+
+        /**
+         * Called before waiting on a hash that is not ready yet, so buffered output can be sent.
+         */
+        void flush() throws IOException;
+    }
+
+    private record Pending(char[] password, int length, CompletableFuture<String> hash) {
+    }
+
+    private final PasswordHasher hasher;
+    private final ForkJoinPool pool;
+    private final int threads;
+    private final int queueCapacity;
+    private final Semaphore slots;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder[] hashes = new LongAdder[HashAlgorithm.values().length];
+    private final LongAdder[] hashNanos = new LongAdder[HashAlgorithm.values().length];
+
+    /**
+     * @param threads hashing workers; 0 for one per available processor
+     * @param queueCapacity hashes submitted and not yet finished, including those running
+     */
+    public HashingPool(PasswordHasher hasher, int threads, int queueCapacity) {
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        if (queueCapacity < workers) {
+            throw new IllegalArgumentException("Hashing queue capacity must be at least the number of threads ("
+                    + workers + "). Provided: " + queueCapacity);
+        }
+        this.hasher = hasher;
+        this.threads = workers;
+        this.queueCapacity = queueCapacity;
+        this.slots = new Semaphore(queueCapacity);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        // Async mode: submissions are taken first in, first out, so older requests finish first
+        this.pool = new ForkJoinPool(workers, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("password-hash-" + threadNumber.incrementAndGet());
+            return thread;
+        }, null, true);
+
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = new LongAdder();
+            hashNanos[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Hashes {@code password[0, length)} on the pool. The caller keeps ownership of the array
+     * and must leave it unchanged until the returned future completes.
+     *
+     * @throws RateLimitExceededException if every slot is taken
+     */
+    public CompletableFuture<String> submit(char[] password, int length, HashSpec spec) {
+        if (!slots.tryAcquire()) {
+            rejected.increment();
+            throw new RateLimitExceededException(
+                "All " + queueCapacity + " password hashing slots are in use", QUEUE_FULL_RETRY_AFTER_SECONDS);
+        }
+        return start(password, length, spec);
+    }
+
+    /**
+     * Generates and hashes a whole batch, handing each password and its hash to {@code sink} in
+     * batch order. Up to {@link #getWindow()} passwords are hashed in parallel ahead of the one
+     * being written; the rest of the batch is not generated until there is room for it.
+     */
+    public void hashInOrder(PasswordBatch batch, HashSpec spec, HashedPasswordSink sink) throws IOException {
+        int window = getWindow();
+        ArrayDeque<Pending> pending = new ArrayDeque<>(window);
+        try {
+            while (batch.hasNext() || !pending.isEmpty()) {
+                while (pending.size() < window && batch.hasNext()) {
+                    if (!slots.tryAcquire()) {
+                        sink.flush();
+                        slots.acquire();
+                    }
+                    char[] password = new char[batch.passwordLength()];
+                    int length;
+                    try {
+                        length = batch.next(password);
+                    } catch (RuntimeException e) {
+                        slots.release();
+                        throw e;
+                    }
+                    pending.add(new Pending(password, length, start(password, length, spec)));
+                }
+
+                Pending next = pending.peek();
+                if (!next.hash().isDone()) {
+                    sink.flush();
+                }
+                String hash = await(next.hash());
+                pending.poll();
+                try {
+                    sink.accept(next.password(), next.length(), hash);
+                } finally {
+                    Arrays.fill(next.password(), '\0');
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Password hashing interrupted");
+        } finally {
+            // Abandoned hashes are skipped if they have not started; the arrays are wiped either way
+            for (Pending abandoned : pending) {
+                abandoned.hash().cancel(false);
+                Arrays.fill(abandoned.password(), '\0');
+            }
+        }
+    }
+
+    private CompletableFuture<String> start(char[] password, int length, HashSpec spec) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        Runnable task = () -> {
+            if (result.isDone()) {
+                slots.release();
+                return;
+            }
+            String hash = null;
+            Throwable failure = null;
+            try {
+                long start = System.nanoTime();
+                hash = hasher.hash(password, length, spec);
+                hashNanos[spec.algorithm().ordinal()].add(System.nanoTime() - start);
+                hashes[spec.algorithm().ordinal()].increment();
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                // Free the slot first, so whoever sees the result can submit again straight away
+                slots.release();
+            }
+            if (failure != null) {
+                result.completeExceptionally(failure);
+            } else {
+                result.complete(hash);
+            }
+        };
+        try {
+            pool.execute(task);
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+        return result;
+    }
+
+    private static String await(CompletableFuture<String> hash) throws InterruptedException {
+        try {
+            return hash.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Hashes each bulk batch keeps in flight.
+     */
+    public int getWindow() {
+        return Math.min(queueCapacity, threads * WINDOW_PER_THREAD);
+    }
+
+    /**
+     * Hashes submitted and not yet finished.
+     */
+    public int getInFlight() {
+        return queueCapacity - slots.availablePermits();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getHashes(HashAlgorithm algorithm) {
+        return hashes[algorithm.ordinal()].sum();
+    }
+
+    public double getHashSeconds(HashAlgorithm algorithm) {
+        return hashNanos[algorithm.ordinal()].sum() / 1e9;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+        try {
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.passwordgenerator.service.hash;
+
+import com.passwordgenerator.service.random.RandomSource;
+import org.bouncycastle.crypto.generators.Argon2BytesGenerator;
+import org.bouncycastle.crypto.generators.OpenBSDBCrypt;
+import org.bouncycastle.crypto.params.Argon2Parameters;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Hashes passwords into the self-describing strings password stores expect: bcrypt's modular
+ * crypt format ({@code $2b$10$...}) and PHC strings for PBKDF2
+ * ({@code $pbkdf2-sha256$i=600000,l=32$salt$hash}) and Argon2id
+ * ({@code $argon2id$v=19$m=19456,t=2,p=1$salt$hash}). Each hash gets a fresh 16-byte salt from
+ * the service's random source. Passwords are UTF-8 encoded and only ever handled as
+ * {@code char[]}; every copy made here is wiped before returning.
+ *
+ * <p>Stateless apart from the random source, so one instance is shared by all hashing threads.
+ */
+public final class PasswordHasher {
+
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BYTES = 32;
+    private static final String PBKDF2_ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final Base64.Encoder PHC_BASE64 = Base64.getEncoder().withoutPadding();
+
+    private final RandomSource random;
+
+    public PasswordHasher(RandomSource random) {
+        this.random = random;
+    }
+
+    /**
+     * Hashes {@code password[0, length)}.
+     *
+     * @throws IllegalArgumentException if the password is too long for bcrypt once UTF-8 encoded
+     */
+    public String hash(char[] password, int length, HashSpec spec) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        char[] exact = Arrays.copyOf(password, length);
+        try {
+            return switch (spec.algorithm()) {
+                case BCRYPT -> bcrypt(exact, salt, spec.cost());
+                case PBKDF2 -> pbkdf2(exact, salt, spec.cost());
+                case ARGON2 -> argon2(exact, salt, spec);
+            };
+        } finally {
+            Arrays.fill(exact, '\0');
+        }
+    }
+
+    private static String bcrypt(char[] password, byte[] salt, int cost) {
+        // The library would silently truncate; a stored hash that ignores part of the password is worse than an error
+        int bytes = utf8Length(password);
+        if (bytes > HashSpec.BCRYPT_MAX_BYTES) {
+            throw new IllegalArgumentException("BCRYPT only uses the first " + HashSpec.BCRYPT_MAX_BYTES
+                    + " bytes of a password; this password is " + bytes + " bytes in UTF-8");
+        }
+        return OpenBSDBCrypt.generate("2b", password, salt, cost);
+    }
+
+    private static String pbkdf2(char[] password, byte[] salt, int iterations) {
+        PBEKeySpec keySpec = new PBEKeySpec(password, salt, iterations, HASH_BYTES * 8);
+        byte[] hash = null;
+        try {
+            hash = SecretKeyFactory.getInstance(PBKDF2_ALGORITHM).generateSecret(keySpec).getEncoded();
+            return "$pbkdf2-sha256$i=" + iterations + ",l=" + HASH_BYTES
+                    + "$" + PHC_BASE64.encodeToString(salt) + "$" + PHC_BASE64.encodeToString(hash);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(PBKDF2_ALGORITHM + " is not available", e);
+        } finally {
+            keySpec.clearPassword();
+            if (hash != null) {
+                Arrays.fill(hash, (byte) 0);
+            }
+        }
+    }
+
+    private static String argon2(char[] password, byte[] salt, HashSpec spec) {
+        Argon2BytesGenerator generator = new Argon2BytesGenerator();
+        generator.init(new Argon2Parameters.Builder(Argon2Parameters.ARGON2_id)
+                .withVersion(Argon2Parameters.ARGON2_VERSION_13)
+                .withIterations(spec.cost())
+                .withMemoryAsKB(spec.memory())
+                .withParallelism(spec.parallelism())
+                .withSalt(salt)
+                .build());
+        byte[] hash = new byte[HASH_BYTES];
+        try {
+            generator.generateBytes(password, hash);
+            return "$argon2id$v=" + Argon2Parameters.ARGON2_VERSION_13
+                    + "$m=" + spec.memory() + ",t=" + spec.cost() + ",p=" + spec.parallelism()
+                    + "$" + PHC_BASE64.encodeToString(salt) + "$" + PHC_BASE64.encodeToString(hash);
+        } finally {
+            Arrays.fill(hash, (byte) 0);
+        }
+    }
+
+    private static int utf8Length(char[] chars) {
+        int bytes = 0;
+        for (int i = 0; i < chars.length; i++) {
+            char c = chars[i];
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < chars.length && Character.isLowSurrogate(chars[i + 1])) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
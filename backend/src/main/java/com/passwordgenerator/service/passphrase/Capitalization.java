@@ -0,0 +1,19 @@
+package com.passwordgenerator.service.passphrase;
+
+/**
+ * How words in a generated passphrase are capitalized.
+ */
+public enum Capitalization {
+
+    /** Words exactly as they appear in the list. */
+    NONE,
+
+    /** First letter of every word in upper case. */
+    FIRST,
+
+    /** Every word entirely in upper case. */
+    UPPER,
+
+    /** Each word independently either left as-is or first-letter capitalized; adds one bit per word. */
+    RANDOM
+}
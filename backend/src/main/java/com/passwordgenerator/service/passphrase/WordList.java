@@ -0,0 +1,306 @@
+package com.passwordgenerator.service.passphrase;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Word list served from a memory-mapped, offset-indexed file, so that lists with millions of
+ * entries cost neither heap nor startup time.
+ *
+ * <p>Index file layout (big-endian):
+ * <pre>
+ *   int  magic    'PWIX'
+ *   int  version  2
+ *   long count
+ *   long sourceSize           size of the plain-text list compiled, in bytes
+ *   long sourceModified       its last-modified time, in epoch milliseconds
+ *   byte sourceDigest[32]     SHA-256 of its contents
+ *   long offsets[count + 1]   absolute file position of each word; the last entry is end of data
+ *   byte words[]             UTF-8 word bytes, concatenated
+ * </pre>
+ * Looking up word {@code i} reads two offsets and decodes the bytes between them: O(1) and
+ * without touching any other word. Plain-text lists (one word per line, or EFF diceware format
+ * {@code "11111<TAB>word"}) are compiled into an index once, streaming, and the index is reused
+ * on later startups while the source's size and modification time still match the header.
+ * Index files are named after the source's absolute path, so lists with the same file name in
+ * different directories never share one.
+ *
+ * <p>Every word must be distinct: a repeated word would be drawn more often than the others
+ * while the reported entropy still counted it twice, so compiling rejects such lists.
+ */
+public final class WordList {
+
+    private static final int MAGIC = 0x50574958;
+    private static final int VERSION = 2;
+    private static final int DIGEST_BYTES = 32;
+    private static final int HEADER_BYTES = 32 + DIGEST_BYTES;
+    private static final String INDEX_SUFFIX = ".pwix";
+
+    private final MappedByteBuffer index;
+    private final int size;
+
+    private WordList(MappedByteBuffer index) {
+        if (index.getInt(0) != MAGIC || index.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a word list index file");
+        }
+        long count = index.getLong(8);
+        if (count < 1 || count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Word list index has an invalid word count: " + count);
+        }
+        this.index = index;
+        this.size = (int) count;
+    }
+
+    /**
+     * Opens a word list. An existing index file is mapped directly; a plain-text list is compiled
+     * into {@code indexDirectory} first unless an up-to-date index is already there.
+     */
+    public static WordList open(Path source, Path indexDirectory) {
+        try {
+            if (source.getFileName().toString().endsWith(INDEX_SUFFIX)) {
+                return map(source);
+            }
+
+            Path indexFile = indexFile(source, indexDirectory);
+            if (!isCurrent(indexFile, source)) {
+                compile(source, indexFile);
+            }
+            return map(indexFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open word list " + source, e);
+        }
+    }
+
+    /**
+     * The index file {@link #open} uses for a plain-text list: its file name followed by a hash
+     * of its absolute path.
+     */
+    public static Path indexFile(Path source, Path indexDirectory) {
+        byte[] path = source.toAbsolutePath().normalize().toString().getBytes(StandardCharsets.UTF_8);
+        String key = HexFormat.of().formatHex(sha256().digest(path), 0, 8);
+        return indexDirectory.resolve(source.getFileName() + "." + key + INDEX_SUFFIX);
+    }
+
+    /**
+     * Streams a plain-text list into an index file, holding one word at a time plus an 8-byte
+     * hash per word for the duplicate check. The list is read twice, and compiling fails if its
+     * contents differ between the two reads. The index is written next to its final location
+     * and moved into place atomically.
+     *
+     * @throws IllegalArgumentException if the list has no words or repeats one
+     */
+    public static void compile(Path source, Path indexFile) throws IOException {
+        long sourceSize = Files.size(source);
+        long sourceModified = Files.getLastModifiedTime(source).toMillis();
+
+        long count = 0;
+        MessageDigest counted = sha256();
+        try (BufferedReader reader = digestingReader(source, counted)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (parseWord(line) != null) {
+                    count++;
+                }
+            }
+        }
+        if (count == 0) {
+            throw new IllegalArgumentException("Word list " + source + " contains no words");
+        }
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Word list " + source + " has more than " + Integer.MAX_VALUE + " words");
+        }
+        byte[] digest = counted.digest();
+
+        Files.createDirectories(indexFile.toAbsolutePath().getParent());
+        Path temporary = Files.createTempFile(indexFile.toAbsolutePath().getParent(), "wordlist", ".tmp");
+        long dataStart = HEADER_BYTES + 8 * (count + 1);
+
+        MessageDigest compiled = sha256();
+        long[] wordHashes = new long[(int) count];
+        try (FileChannel offsetChannel = FileChannel.open(temporary, StandardOpenOption.WRITE);
+             FileChannel dataChannel = FileChannel.open(temporary, StandardOpenOption.WRITE);
+             BufferedReader reader = digestingReader(source, compiled)) {
+
+            DataOutputStream offsets = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(offsetChannel)));
+            dataChannel.position(dataStart);
+            BufferedOutputStream data = new BufferedOutputStream(Channels.newOutputStream(dataChannel));
+
+            offsets.writeInt(MAGIC);
+            offsets.writeInt(VERSION);
+            offsets.writeLong(count);
+            offsets.writeLong(sourceSize);
+            offsets.writeLong(sourceModified);
+            offsets.write(digest);
+
+            long position = dataStart;
+            int words = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String word = parseWord(line);
+                if (word != null) {
+                    byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+                    if (words == count) {
+                        throw new IOException("Word list " + source + " changed while it was being compiled");
+                    }
+                    wordHashes[words++] = hash(bytes);
+                    offsets.writeLong(position);
+                    data.write(bytes);
+                    position += bytes.length;
+                }
+            }
+            offsets.writeLong(position);
+
+            offsets.flush();
+            data.flush();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+
+        try {
+            if (!Arrays.equals(digest, compiled.digest())) {
+                throw new IOException("Word list " + source + " changed while it was being compiled");
+            }
+            rejectDuplicates(source, map(temporary), wordHashes);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+
+        Files.move(temporary, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Decodes a single word; only that word's bytes are read from the mapping.
+     */
+    public String word(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Word index " + i + " out of range for " + size + " words");
+        }
+        int start = (int) index.getLong(HEADER_BYTES + 8 * i);
+        int end = (int) index.getLong(HEADER_BYTES + 8 * (i + 1));
+        byte[] bytes = new byte[end - start];
+        index.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Whether {@code indexFile} was compiled from {@code source} as it is now, judged by the size
+     * and modification time recorded in its header.
+     */
+    private static boolean isCurrent(Path indexFile, Path source) throws IOException {
+        if (!Files.exists(indexFile)) {
+            return false;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    return false;
+                }
+            }
+        }
+        return header.getInt(0) == MAGIC
+                && header.getInt(4) == VERSION
+                && header.getLong(16) == Files.size(source)
+                && header.getLong(24) == Files.getLastModifiedTime(source).toMillis();
+    }
+
+    /**
+     * Fails if any word of a freshly compiled list appears twice. Words are compared by hash
+     * first, so only those sharing a hash are decoded.
+     */
+    private static void rejectDuplicates(Path source, WordList list, long[] wordHashes) {
+        long[] sorted = wordHashes.clone();
+        Arrays.sort(sorted);
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[i - 1] || (i > 1 && sorted[i - 2] == sorted[i])) {
+                continue;
+            }
+            // Rare: a repeated word, or two words whose hashes collide
+            long shared = sorted[i];
+            for (int a = 0; a < wordHashes.length; a++) {
+                if (wordHashes[a] != shared) {
+                    continue;
+                }
+                String word = list.word(a);
+                for (int b = a + 1; b < wordHashes.length; b++) {
+                    if (wordHashes[b] == shared && word.equals(list.word(b))) {
+                        throw new IllegalArgumentException("Word list " + source + " repeats the word '" + word
+                                + "' (words " + (a + 1) + " and " + (b + 1) + ")");
+                    }
+                }
+            }
+        }
+    }
+
+    private static BufferedReader digestingReader(Path source, MessageDigest digest) throws IOException {
+        return new BufferedReader(new InputStreamReader(
+                new DigestInputStream(Files.newInputStream(source), digest), StandardCharsets.UTF_8.newDecoder()));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a; only used to find candidate duplicates, which are then compared in full.
+     */
+    private static long hash(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static WordList map(Path indexFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Word list index " + indexFile + " exceeds 2 GB");
+            }
+            return new WordList(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Extracts the word from a list line: the last whitespace-separated token, so both bare lists
+     * and diceware lists with leading dice rolls are accepted. Blank lines and '#' comments are skipped.
+     */
+    private static String parseWord(String line) {
+        String trimmed = line.strip();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return null;
+        }
+        int split = Math.max(trimmed.lastIndexOf(' '), trimmed.lastIndexOf('\t'));
+        return split < 0 ? trimmed : trimmed.substring(split + 1);
+    }
+}
@@ -0,0 +1,66 @@
+package com.passwordgenerator.service.policy;
+
+import com.passwordgenerator.service.GenerationPlan;
+
+/**
+ * A named policy compiled into its generation plan. Immutable; a file reload replaces
+ * policies wholesale rather than changing them.
+ */
+public final class PasswordPolicy {
+
+    private final String name;
+    private final String description;
+    private final GenerationPlan plan;
+    private final int length;
+    private final boolean includeUppercase;
+    private final boolean includeLowercase;
+    private final boolean includeNumbers;
+    private final boolean includeSymbols;
+
+    PasswordPolicy(String name, PolicyDefinition definition, GenerationPlan plan) {
+        this.name = name;
+        this.description = definition.getDescription();
+        this.plan = plan;
+        this.length = definition.getLength();
+        this.includeUppercase = Boolean.TRUE.equals(definition.getIncludeUppercase());
+        this.includeLowercase = Boolean.TRUE.equals(definition.getIncludeLowercase());
+        this.includeNumbers = Boolean.TRUE.equals(definition.getIncludeNumbers());
+        this.includeSymbols = Boolean.TRUE.equals(definition.getIncludeSymbols());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public GenerationPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Characters per password; a custom alphabet with supplementary characters can take up to
+     * {@code getPlan().length()} {@code char}s.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    public boolean isIncludeUppercase() {
+        return includeUppercase;
+    }
+
+    public boolean isIncludeLowercase() {
+        return includeLowercase;
+    }
+
+    public boolean isIncludeNumbers() {
+        return includeNumbers;
+    }
+
+    public boolean isIncludeSymbols() {
+        return includeSymbols;
+    }
+}
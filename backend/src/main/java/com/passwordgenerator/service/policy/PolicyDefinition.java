@@ -0,0 +1,125 @@
+package com.passwordgenerator.service.policy;
+
+/**
+ * One named policy as written in the policy file. Field names match the generate-password
+ * parameters; character classes default to off and minimums to none.
+ */
+public class PolicyDefinition {
+    private String description;
+    private Integer length;
+    private Boolean includeUppercase = false;
+    private Boolean includeLowercase = false;
+    private Boolean includeNumbers = false;
+    private Boolean includeSymbols = false;
+    private Boolean requireEachClass = false;
+    private Integer minUppercase;
+    private Integer minLowercase;
+    private Integer minNumbers;
+    private Integer minSymbols;
+    private String alphabet;
+    private String exclude;
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Integer getLength() {
+        return length;
+    }
+
+    public void setLength(Integer length) {
+        this.length = length;
+    }
+
+    public Boolean getIncludeUppercase() {
+        return includeUppercase;
+    }
+
+    public void setIncludeUppercase(Boolean includeUppercase) {
+        this.includeUppercase = includeUppercase;
+    }
+
+    public Boolean getIncludeLowercase() {
+        return includeLowercase;
+    }
+
+    public void setIncludeLowercase(Boolean includeLowercase) {
+        this.includeLowercase = includeLowercase;
+    }
+
+    public Boolean getIncludeNumbers() {
+        return includeNumbers;
+    }
+
+    public void setIncludeNumbers(Boolean includeNumbers) {
+        this.includeNumbers = includeNumbers;
+    }
+
+    public Boolean getIncludeSymbols() {
+        return includeSymbols;
+    }
+
+    public void setIncludeSymbols(Boolean includeSymbols) {
+        this.includeSymbols = includeSymbols;
+    }
+
+    public Boolean getRequireEachClass() {
+        return requireEachClass;
+    }
+
+    public void setRequireEachClass(Boolean requireEachClass) {
+        this.requireEachClass = requireEachClass;
+    }
+
+    public Integer getMinUppercase() {
+        return minUppercase;
+    }
+
+    public void setMinUppercase(Integer minUppercase) {
+        this.minUppercase = minUppercase;
+    }
+
+    public Integer getMinLowercase() {
+        return minLowercase;
+    }
+
+    public void setMinLowercase(Integer minLowercase) {
+        this.minLowercase = minLowercase;
+    }
+
+    public Integer getMinNumbers() {
+        return minNumbers;
+    }
+
+    public void setMinNumbers(Integer minNumbers) {
+        this.minNumbers = minNumbers;
+    }
+
+    public Integer getMinSymbols() {
+        return minSymbols;
+    }
+
+    public void setMinSymbols(Integer minSymbols) {
+        this.minSymbols = minSymbols;
+    }
+
+    public String getAlphabet() {
+        return alphabet;
+    }
+
+    public void setAlphabet(String alphabet) {
+        this.alphabet = alphabet;
+    }
+
+    public String getExclude() {
+        return exclude;
+    }
+
+    public void setExclude(String exclude) {
+        this.exclude = exclude;
+    }
+}
@@ -0,0 +1,273 @@
+package com.passwordgenerator.service.policy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.passwordgenerator.exception.PolicyNotFoundException;
+import com.passwordgenerator.service.CharsetOptions;
+import com.passwordgenerator.service.ClassRequirements;
+import com.passwordgenerator.service.GenerationPlan;
+import com.passwordgenerator.service.PasswordGeneratorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Named generation policies loaded from a YAML or JSON file:
+ *
+ * <pre>
+ * policies:
+ *   db-service-account:
+ *     length: 32
+ *     includeUppercase: true
+ *     includeLowercase: true
+ *     includeNumbers: true
+ *     minNumbers: 2
+ *     exclude: "0O1lI"
+ * </pre>
+ *
+ * <p>Every policy is validated and compiled into a {@link GenerationPlan} when the file is
+ * loaded, so generating from one is a map lookup plus the plan's own work. With watching on, a
+ * background thread reloads the file when it changes and swaps in the new set of policies in one
+ * step; a file that fails to parse or validate is rejected as a whole and the previous policies
+ * stay in force. The file's directory is watched rather than the file itself, so editors that
+ * save by renaming and symlink swaps (as with Kubernetes ConfigMaps) are picked up too.
+ */
+public final class PolicyRegistry implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PolicyRegistry.class);
+
+    private static final Pattern NAME = Pattern.compile("[a-z0-9][a-z0-9._-]{0,63}");
+
+    private final Path file;
+    private final PasswordGeneratorService generator;
+    private final Duration settleDelay;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final WatchService watchService;
+    private final Thread watcher;
+
+    private volatile Map<String, PasswordPolicy> policies = Map.of();
+    private volatile Instant loadedAt;
+    private byte[] loadedDigest;
+
+    private final LongAdder reloads = new LongAdder();
+    private final LongAdder failedReloads = new LongAdder();
+
+    /**
+     * Loads the file, failing if it is missing or invalid.
+     *
+     * @param settleDelay how long to wait after a change before reloading, so a save made of
+     *                    several writes is read once it is complete; null disables watching
+     */
+    public PolicyRegistry(Path file, PasswordGeneratorService generator, Duration settleDelay) {
+        this.file = file.toAbsolutePath();
+        this.generator = generator;
+        this.settleDelay = settleDelay;
+        reload();
+
+        if (settleDelay == null) {
+            this.watchService = null;
+            this.watcher = null;
+            return;
+        }
+        try {
+            this.watchService = this.file.getFileSystem().newWatchService();
+            this.file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to watch policy file " + this.file, e);
+        }
+        this.watcher = new Thread(this::watch, "policy-watcher");
+        this.watcher.setDaemon(true);
+        this.watcher.start();
+    }
+
+    /**
+     * The policy with this name, or null.
+     */
+    public PasswordPolicy get(String name) {
+        return policies.get(name);
+    }
+
+    /**
+     * The policy with this name.
+     *
+     * @throws PolicyNotFoundException if the current file does not define it
+     */
+    public PasswordPolicy require(String name) {
+        PasswordPolicy policy = policies.get(name);
+        if (policy == null) {
+            throw new PolicyNotFoundException("No password policy named '" + name + "'");
+        }
+        return policy;
+    }
+
+    /**
+     * All policies, in file order.
+     */
+    public Map<String, PasswordPolicy> getPolicies() {
+        return policies;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    public long getReloads() {
+        return reloads.sum();
+    }
+
+    public long getFailedReloads() {
+        return failedReloads.sum();
+    }
+
+    /**
+     * Reads the file and, if its contents changed since the last load, compiles and swaps in its
+     * policies. Only called from the constructor and the watcher thread.
+     *
+     * @return whether the policies were replaced
+     * @throws IllegalArgumentException if the file is unreadable or any policy is invalid
+     */
+    boolean reload() {
+        byte[] content;
+        try {
+            content = Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read policy file " + file + ": " + e.getMessage(), e);
+        }
+        byte[] digest = sha256(content);
+        if (MessageDigest.isEqual(digest, loadedDigest)) {
+            return false;
+        }
+
+        Map<String, PasswordPolicy> compiled = compile(parse(content));
+        policies = compiled;
+        loadedDigest = digest;
+        loadedAt = Instant.now();
+        logger.info("Loaded password policies file={} count={}", file, compiled.size());
+        return true;
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                // Let the rest of a multi-step save land, then drop the events it caused
+                Thread.sleep(settleDelay.toMillis());
+                for (WatchKey pending = key; pending != null; pending = watchService.poll()) {
+                    pending.pollEvents();
+                    pending.reset();
+                }
+                try {
+                    if (reload()) {
+                        reloads.increment();
+                    }
+                } catch (RuntimeException e) {
+                    failedReloads.increment();
+                    logger.warn("Rejected policy file change, keeping the previous policies file={} reason={}",
+                            file, e.getMessage());
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+
+    private Map<String, PolicyDefinition> parse(byte[] content) {
+        PolicyFile policyFile;
+        try {
+            Object root = file.getFileName().toString().endsWith(".json")
+                    ? objectMapper.readValue(content, Object.class)
+                    : new Yaml(new SafeConstructor(new LoaderOptions())).load(new String(content, StandardCharsets.UTF_8));
+            policyFile = objectMapper.convertValue(root, PolicyFile.class);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Invalid policy file " + file + ": " + e.getMessage(), e);
+        }
+        if (policyFile == null || policyFile.getPolicies() == null || policyFile.getPolicies().isEmpty()) {
+            throw new IllegalArgumentException("Policy file " + file + " defines no policies");
+        }
+        return policyFile.getPolicies();
+    }
+
+    private Map<String, PasswordPolicy> compile(Map<String, PolicyDefinition> definitions) {
+        Map<String, PasswordPolicy> compiled = new LinkedHashMap<>();
+        for (Map.Entry<String, PolicyDefinition> entry : definitions.entrySet()) {
+            String name = entry.getKey();
+            PolicyDefinition definition = entry.getValue();
+            if (!NAME.matcher(name).matches()) {
+                throw new IllegalArgumentException("Invalid policy name '" + name
+                        + "': use up to 64 lowercase letters, digits, '.', '_' and '-'");
+            }
+            if (definition == null) {
+                throw new IllegalArgumentException("Policy '" + name + "' has no settings");
+            }
+            try {
+                GenerationPlan plan = generator.compilePlan(definition.getLength(),
+                        definition.getIncludeUppercase(), definition.getIncludeLowercase(),
+                        definition.getIncludeNumbers(), definition.getIncludeSymbols(),
+                        new ClassRequirements(Boolean.TRUE.equals(definition.getRequireEachClass()),
+                                definition.getMinUppercase(), definition.getMinLowercase(),
+                                definition.getMinNumbers(), definition.getMinSymbols()),
+                        new CharsetOptions(definition.getAlphabet(), definition.getExclude()));
+                compiled.put(name, new PasswordPolicy(name, definition, plan));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Policy '" + name + "': " + e.getMessage(), e);
+            }
+        }
+        return Collections.unmodifiableMap(compiled);
+    }
+
+    private static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (watchService != null) {
+            watcher.interrupt();
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close policy watch service", e);
+            }
+        }
+    }
+
+    /**
+     * Root of the policy file.
+     */
+    public static class PolicyFile {
+        private LinkedHashMap<String, PolicyDefinition> policies;
+
+        public LinkedHashMap<String, PolicyDefinition> getPolicies() {
+            return policies;
+        }
+
+        public void setPolicies(LinkedHashMap<String, PolicyDefinition> policies) {
+            this.policies = policies;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.passwordgenerator.service.random;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.SecureRandomParameters;
+import java.security.SecureRandomSpi;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * ChaCha20 (RFC 8439) keystream generator with fast key erasure, seeded from the operating
+ * system. Each refill runs the block function under the current key and immediately replaces
+ * the key with the first 32 bytes of the output, and bytes are wiped from the buffer as they
+ * are handed out. So whoever captures the state later cannot recover anything generated
+ * before, the same construction OpenBSD's {@code arc4random} uses.
+ *
+ * <p>Generation is pure arithmetic on a few {@code int}s with no locks, digests or system calls,
+ * which makes it several times faster than the JDK's DRBGs for the short draws passwords
+ * need. Like any {@link SecureRandom} an instance is not meant to be shared without external
+ * locking; {@link SecureRandomProvider} provides that.
+ */
+public final class ChaCha20Random extends SecureRandom {
+
+    public static final String ALGORITHM = "ChaCha20";
+
+    /** Key size, and the number of bytes taken from the OS for every new instance. */
+    public static final int SEED_BYTES = 32;
+
+    private static final int BLOCK_BYTES = 64;
+    private static final int BUFFER_BLOCKS = 16;
+    private static final VarHandle LITTLE_ENDIAN_INT =
+            MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    /** "expand 32-byte k" */
+    private static final int[] SIGMA = {0x61707865, 0x3320646e, 0x79622d32, 0x6b206574};
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Seeds a generator from {@code seed}, which must be 32 bytes. The output is fully
+     * determined by the seed; {@link RandomEngines#chaCha20()} draws it from the OS.
+     */
+    public ChaCha20Random(byte[] seed) {
+        super(new Spi(seed), null);
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return ALGORITHM;
+    }
+
+    @Override
+    public String toString() {
+        return ALGORITHM + ",fast_key_erasure";
+    }
+
+    /**
+     * Writes {@code length} bytes of the RFC 8439 keystream for a 32-byte {@code key} and 12-byte
+     * {@code nonce}, starting at block {@code counter}. Exposed for known-answer tests.
+     */
+    public static void keyStream(byte[] key, byte[] nonce, int counter, byte[] out, int offset, int length) {
+        if (key.length != SEED_BYTES || nonce.length != 12) {
+            throw new IllegalArgumentException("ChaCha20 needs a 32-byte key and a 12-byte nonce");
+        }
+        int[] state = initialState(key, nonce);
+        byte[] block = new byte[BLOCK_BYTES];
+        for (int position = 0; position < length; position += BLOCK_BYTES) {
+            state[12] = counter++;
+            block(state, block, 0);
+            System.arraycopy(block, 0, out, offset + position, Math.min(BLOCK_BYTES, length - position));
+        }
+    }
+
+    /**
+     * Checks the block function against the RFC 8439 section 2.3.2 test vector, so a broken
+     * build or JIT fails at startup instead of producing predictable passwords.
+     *
+     * @throws IllegalStateException if the output does not match
+     */
+    public static void selfTest() {
+        HexFormat hex = HexFormat.of();
+        byte[] key = hex.parseHex("000102030405060708090a0b0c0d0e0f101112131415161718191a1b1c1d1e1f");
+        byte[] nonce = hex.parseHex("000000090000004a00000000");
+        byte[] expected = hex.parseHex("10f1e7e4d13b5915500fdd1fa32071c4c7d1f4c733c068030422aa9ac3d46c4e"
+                + "d2826446079faa0914c2d705d98b02a2b5129cd1de164eb9cbd083e8a2503c4e");
+        byte[] actual = new byte[BLOCK_BYTES];
+        keyStream(key, nonce, 1, actual, 0, BLOCK_BYTES);
+        if (!Arrays.equals(expected, actual)) {
+            throw new IllegalStateException("ChaCha20 block function failed its known-answer test");
+        }
+    }
+
+    private static int[] initialState(byte[] key, byte[] nonce) {
+        int[] state = new int[16];
+        System.arraycopy(SIGMA, 0, state, 0, 4);
+        for (int i = 0; i < 8; i++) {
+            state[4 + i] = (int) LITTLE_ENDIAN_INT.get(key, i * 4);
+        }
+        for (int i = 0; i < 3; i++) {
+            state[13 + i] = (int) LITTLE_ENDIAN_INT.get(nonce, i * 4);
+        }
+        return state;
+    }
+
+    /**
+     * One 64-byte block: 20 rounds over a copy of {@code state}, added back to the input.
+     */
+    private static void block(int[] state, byte[] out, int offset) {
+        int x0 = state[0], x1 = state[1], x2 = state[2], x3 = state[3];
+        int x4 = state[4], x5 = state[5], x6 = state[6], x7 = state[7];
+        int x8 = state[8], x9 = state[9], x10 = state[10], x11 = state[11];
+        int x12 = state[12], x13 = state[13], x14 = state[14], x15 = state[15];
+
+        for (int round = 0; round < 10; round++) {
+            // Column rounds
+            x0 += x4; x12 = Integer.rotateLeft(x12 ^ x0, 16);
+            x8 += x12; x4 = Integer.rotateLeft(x4 ^ x8, 12);
+            x0 += x4; x12 = Integer.rotateLeft(x12 ^ x0, 8);
+            x8 += x12; x4 = Integer.rotateLeft(x4 ^ x8, 7);
+
+            x1 += x5; x13 = Integer.rotateLeft(x13 ^ x1, 16);
+            x9 += x13; x5 = Integer.rotateLeft(x5 ^ x9, 12);
+            x1 += x5; x13 = Integer.rotateLeft(x13 ^ x1, 8);
+            x9 += x13; x5 = Integer.rotateLeft(x5 ^ x9, 7);
+
+            x2 += x6; x14 = Integer.rotateLeft(x14 ^ x2, 16);
+            x10 += x14; x6 = Integer.rotateLeft(x6 ^ x10, 12);
+            x2 += x6; x14 = Integer.rotateLeft(x14 ^ x2, 8);
+            x10 += x14; x6 = Integer.rotateLeft(x6 ^ x10, 7);
+
+            x3 += x7; x15 = Integer.rotateLeft(x15 ^ x3, 16);
+            x11 += x15; x7 = Integer.rotateLeft(x7 ^ x11, 12);
+            x3 += x7; x15 = Integer.rotateLeft(x15 ^ x3, 8);
+            x11 += x15; x7 = Integer.rotateLeft(x7 ^ x11, 7);
+
+            // Diagonal rounds
+            x0 += x5; x15 = Integer.rotateLeft(x15 ^ x0, 16);
+            x10 += x15; x5 = Integer.rotateLeft(x5 ^ x10, 12);
+            x0 += x5; x15 = Integer.rotateLeft(x15 ^ x0, 8);
+            x10 += x15; x5 = Integer.rotateLeft(x5 ^ x10, 7);
+
+            x1 += x6; x12 = Integer.rotateLeft(x12 ^ x1, 16);
+            x11 += x12; x6 = Integer.rotateLeft(x6 ^ x11, 12);
+            x1 += x6; x12 = Integer.rotateLeft(x12 ^ x1, 8);
+            x11 += x12; x6 = Integer.rotateLeft(x6 ^ x11, 7);
+
+            x2 += x7; x13 = Integer.rotateLeft(x13 ^ x2, 16);
+            x8 += x13; x7 = Integer.rotateLeft(x7 ^ x8, 12);
+            x2 += x7; x13 = Integer.rotateLeft(x13 ^ x2, 8);
+            x8 += x13; x7 = Integer.rotateLeft(x7 ^ x8, 7);
+
+            x3 += x4; x14 = Integer.rotateLeft(x14 ^ x3, 16);
+            x9 += x14; x4 = Integer.rotateLeft(x4 ^ x9, 12);
+            x3 += x4; x14 = Integer.rotateLeft(x14 ^ x3, 8);
+            x9 += x14; x4 = Integer.rotateLeft(x4 ^ x9, 7);
+        }
+
+        LITTLE_ENDIAN_INT.set(out, offset, x0 + state[0]);
+        LITTLE_ENDIAN_INT.set(out, offset + 4, x1 + state[1]);
+        LITTLE_ENDIAN_INT.set(out, offset + 8, x2 + state[2]);
+        LITTLE_ENDIAN_INT.set(out, offset + 12, x3 + state[3]);
+        LITTLE_ENDIAN_INT.set(out, offset + 16, x4 + state[4]);
+        LITTLE_ENDIAN_INT.set(out, offset + 20, x5 + state[5]);
+        LITTLE_ENDIAN_INT.set(out, offset + 24, x6 + state[6]);
+        LITTLE_ENDIAN_INT.set(out, offset + 28, x7 + state[7]);
+        LITTLE_ENDIAN_INT.set(out, offset + 32, x8 + state[8]);
+        LITTLE_ENDIAN_INT.set(out, offset + 36, x9 + state[9]);
+        LITTLE_ENDIAN_INT.set(out, offset + 40, x10 + state[10]);
+        LITTLE_ENDIAN_INT.set(out, offset + 44, x11 + state[11]);
+        LITTLE_ENDIAN_INT.set(out, offset + 48, x12 + state[12]);
+        LITTLE_ENDIAN_INT.set(out, offset + 52, x13 + state[13]);
+        LITTLE_ENDIAN_INT.set(out, offset + 56, x14 + state[14]);
+        LITTLE_ENDIAN_INT.set(out, offset + 60, x15 + state[15]);
+    }
+
+    /**
+     * Generator state: the ChaCha20 input block (constants, key, counter and an all-zero nonce)
+     * and a buffer of keystream not yet handed out.
+     */
+    private static final class Spi extends SecureRandomSpi {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] state = new int[16];
+        private final byte[] buffer = new byte[BUFFER_BLOCKS * BLOCK_BYTES];
+        private int position = buffer.length;
+
+        Spi(byte[] seed) {
+            if (seed == null || seed.length != SEED_BYTES) {
+                throw new IllegalArgumentException("ChaCha20 seed must be " + SEED_BYTES + " bytes");
+            }
+            System.arraycopy(SIGMA, 0, state, 0, 4);
+            rekey(seed, 0);
+        }
+
+        @Override
+        protected void engineNextBytes(byte[] bytes) {
+            int offset = 0;
+            while (offset < bytes.length) {
+                if (position == buffer.length) {
+                    refill();
+                }
+                int count = Math.min(bytes.length - offset, buffer.length - position);
+                System.arraycopy(buffer, position, bytes, offset, count);
+                Arrays.fill(buffer, position, position + count, (byte) 0);
+                position += count;
+                offset += count;
+            }
+        }
+
+        /**
+         * Folds caller-supplied bytes into the key: the new key is SHA-256 of the old key and the
+         * seed, so added material can never reduce the state's entropy.
+         */
+        @Override
+        protected void engineSetSeed(byte[] seed) {
+            byte[] key = new byte[SEED_BYTES];
+            for (int i = 0; i < 8; i++) {
+                LITTLE_ENDIAN_INT.set(key, i * 4, state[4 + i]);
+            }
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                digest.update(key);
+                digest.update(seed);
+                byte[] mixed = digest.digest();
+                rekey(mixed, 0);
+                Arrays.fill(mixed, (byte) 0);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is unavailable", e);
+            } finally {
+                Arrays.fill(key, (byte) 0);
+            }
+            // Discard keystream produced under the old key
+            Arrays.fill(buffer, (byte) 0);
+            position = buffer.length;
+        }
+
+        @Override
+        protected void engineReseed(SecureRandomParameters params) {
+            engineSetSeed(RandomEngines.osSeed(SEED_BYTES));
+        }
+
+        @Override
+        protected byte[] engineGenerateSeed(int numBytes) {
+            return RandomEngines.osSeed(numBytes);
+        }
+
+        /**
+         * Runs the block function over the whole buffer, then takes its first 32 bytes as the next
+         * key and wipes them. Each refill uses a fresh key, so the counter can start over.
+         */
+        private void refill() {
+            for (int block = 0; block < BUFFER_BLOCKS; block++) {
+                state[12] = block;
+                block(state, buffer, block * BLOCK_BYTES);
+            }
+            rekey(buffer, 0);
+            Arrays.fill(buffer, 0, SEED_BYTES, (byte) 0);
+            position = SEED_BYTES;
+        }
+
+        private void rekey(byte[] key, int offset) {
+            for (int i = 0; i < 8; i++) {
+                state[4 + i] = (int) LITTLE_ENDIAN_INT.get(key, offset + i * 4);
+            }
+        }
+    }
+}
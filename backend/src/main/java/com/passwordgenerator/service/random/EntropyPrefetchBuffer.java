@@ -0,0 +1,249 @@
+package com.passwordgenerator.service.random;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link RandomSource} that serves bytes pre-generated by background producer threads, taking
+ * RNG work off the request path.
+ *
+ * <p>Bytes are kept in a bounded, lock-free multi-producer/multi-consumer ring of fixed-size
+ * chunks (a sequence-numbered ring in the style of Vyukov's bounded MPMC queue). A consumer
+ * claims whole chunks, copies out what it needs and zeroes the chunk before releasing it, so no
+ * byte is ever handed out twice; any unused tail of the last chunk is discarded. When the ring
+ * runs dry the remainder is generated directly from the underlying source.
+ *
+ * <p>Producers fill the ring to capacity, then sleep until it drains to the low-water mark.
+ */
+public class EntropyPrefetchBuffer implements RandomSource, AutoCloseable {
+
+    private static final long PRODUCER_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final RandomSource source;
+    private final int chunkSize;
+    private final int slots;
+    private final int slotMask;
+    private final int lowWaterSlots;
+    private final byte[] storage;
+    private final AtomicLongArray sequences;
+    private final AtomicLong enqueuePosition = new AtomicLong();
+    private final AtomicLong dequeuePosition = new AtomicLong();
+
+    private final Thread[] producers;
+    private final AtomicBoolean refillRequested = new AtomicBoolean();
+    private volatile boolean running;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param source generator used by the producers and as the fallback when the ring is empty
+     * @param capacityBytes ring size in bytes, rounded up to a power-of-two number of chunks
+     * @param chunkSize bytes per slot; the unit in which bytes are produced and consumed
+     * @param lowWaterMarkBytes producers wake up once fewer bytes than this remain buffered
+     * @param producerThreads number of background producer threads
+     */
+    public EntropyPrefetchBuffer(RandomSource source, int capacityBytes, int chunkSize,
+                                 int lowWaterMarkBytes, int producerThreads) {
+        if (source == null) {
+            throw new IllegalArgumentException("Random source cannot be null");
+        }
+        if (chunkSize < 1 || capacityBytes < chunkSize) {
+            throw new IllegalArgumentException(
+                "Buffer capacity must hold at least one chunk. Provided capacity: " + capacityBytes
+                + ", chunk size: " + chunkSize);
+        }
+        if (producerThreads < 1) {
+            throw new IllegalArgumentException(
+                "At least one producer thread is required. Provided: " + producerThreads);
+        }
+
+        int requestedSlots = capacityBytes / chunkSize;
+        this.source = source;
+        this.chunkSize = chunkSize;
+        this.slots = requestedSlots == 1 ? 1 : Integer.highestOneBit(requestedSlots - 1) << 1;
+        this.slotMask = slots - 1;
+        this.lowWaterSlots = Math.max(0, Math.min(slots - 1, lowWaterMarkBytes / chunkSize));
+        this.storage = new byte[slots * chunkSize];
+        this.sequences = new AtomicLongArray(slots);
+        for (int i = 0; i < slots; i++) {
+            sequences.set(i, i);
+        }
+
+        // Filled in by start(), so no thread ever sees this instance before construction finishes
+        this.producers = new Thread[producerThreads];
+    }
+
+    /**
+     * Starts the producer threads. May only be called once.
+     */
+    public void start() {
+        if (producers[0] != null) {
+            throw new IllegalStateException("Entropy prefetch buffer has already been started");
+        }
+        for (int i = 0; i < producers.length; i++) {
+            producers[i] = new Thread(this::produce, "entropy-prefetch-" + i);
+            producers[i].setDaemon(true);
+        }
+        running = true;
+        for (Thread producer : producers) {
+            producer.start();
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        for (Thread producer : producers) {
+            LockSupport.unpark(producer);
+        }
+        for (Thread producer : producers) {
+            if (producer == null) {
+                break;
+            }
+            try {
+                producer.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        Arrays.fill(storage, (byte) 0);
+    }
+
+    @Override
+    public void nextBytes(byte[] bytes) {
+        int filled = 0;
+        while (filled < bytes.length) {
+            int taken = poll(bytes, filled, bytes.length - filled);
+            if (taken == 0) {
+                break;
+            }
+            filled += taken;
+        }
+
+        if (filled == bytes.length) {
+            hits.increment();
+        } else {
+            misses.increment();
+            byte[] direct = new byte[bytes.length - filled];
+            source.nextBytes(direct);
+            System.arraycopy(direct, 0, bytes, filled, direct.length);
+            Arrays.fill(direct, (byte) 0);
+        }
+
+        if (available() <= lowWaterSlots && refillRequested.compareAndSet(false, true)) {
+            // Unparking a producer that was never started is a no-op
+            for (Thread producer : producers) {
+                LockSupport.unpark(producer);
+            }
+        }
+    }
+
+    /**
+     * Requests served entirely from the buffer.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Requests that needed direct generation because the buffer ran dry.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int getCapacityBytes() {
+        return slots * chunkSize;
+    }
+
+    /**
+     * Approximate number of buffered bytes; may be momentarily stale under concurrency.
+     */
+    public int getAvailableBytes() {
+        return available() * chunkSize;
+    }
+
+    private int available() {
+        long buffered = enqueuePosition.get() - dequeuePosition.get();
+        return (int) Math.max(0, Math.min(slots, buffered));
+    }
+
+    /**
+     * Claims one filled chunk, copies up to {@code length} bytes into {@code dest} and zeroes the
+     * chunk before handing the slot back to producers.
+     *
+     * @return bytes copied, or 0 if the ring was empty
+     */
+    private int poll(byte[] dest, int offset, int length) {
+        long position = dequeuePosition.get();
+        while (true) {
+            int slot = (int) (position & slotMask);
+            long difference = sequences.get(slot) - (position + 1);
+            if (difference == 0) {
+                if (dequeuePosition.compareAndSet(position, position + 1)) {
+                    int start = slot * chunkSize;
+                    int taken = Math.min(chunkSize, length);
+                    System.arraycopy(storage, start, dest, offset, taken);
+                    Arrays.fill(storage, start, start + chunkSize, (byte) 0);
+                    sequences.set(slot, position + slots);
+                    return taken;
+                }
+                position = dequeuePosition.get();
+            } else if (difference < 0) {
+                return 0;
+            } else {
+                position = dequeuePosition.get();
+            }
+        }
+    }
+
+    /**
+     * Claims one free slot and fills it from {@code chunk}.
+     *
+     * @return false if the ring was full
+     */
+    private boolean offer(byte[] chunk) {
+        long position = enqueuePosition.get();
+        while (true) {
+            int slot = (int) (position & slotMask);
+            long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                if (enqueuePosition.compareAndSet(position, position + 1)) {
+                    System.arraycopy(chunk, 0, storage, slot * chunkSize, chunkSize);
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+                position = enqueuePosition.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = enqueuePosition.get();
+            }
+        }
+    }
+
+    private void produce() {
+        byte[] chunk = new byte[chunkSize];
+        try {
+            while (running) {
+                refillRequested.set(false);
+                source.nextBytes(chunk);
+                while (running && offer(chunk)) {
+                    source.nextBytes(chunk);
+                }
+                while (running && available() > lowWaterSlots) {
+                    LockSupport.parkNanos(this, PRODUCER_IDLE_NANOS);
+                }
+            }
+        } finally {
+            Arrays.fill(chunk, (byte) 0);
+        }
+    }
+}
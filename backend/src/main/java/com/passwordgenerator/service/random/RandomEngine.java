@@ -0,0 +1,22 @@
+package com.passwordgenerator.service.random;
+
+import java.security.SecureRandom;
+
+/**
+ * Service provider interface for the generators behind {@link SecureRandomProvider}. The
+ * provider decides how many instances exist and when they are replaced; the engine only knows
+ * how to build a freshly seeded one. {@link RandomEngines} has the built-in engines.
+ */
+public interface RandomEngine {
+
+    /**
+     * Short name reported in logs, metrics and {@code /actuator/entropy}.
+     */
+    String name();
+
+    /**
+     * Returns a new, independently seeded generator. Called at startup and on every reseed, so
+     * it must not hand out shared instances.
+     */
+    SecureRandom newInstance();
+}
@@ -0,0 +1,123 @@
+package com.passwordgenerator.service.random;
+
+import java.security.DrbgParameters;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.Security;
+import java.util.function.Supplier;
+
+/**
+ * The built-in {@link RandomEngine}s. Each factory builds one instance straight away, so a
+ * misconfigured engine fails at startup rather than on the first request.
+ */
+public final class RandomEngines {
+
+    /** JDK security property naming the DRBG mechanism and its hash or cipher. */
+    private static final String DRBG_CONFIG_PROPERTY = "securerandom.drbg.config";
+
+    private static final SecureRandom SEED_SOURCE = osSeedSource();
+
+    private RandomEngines() {
+    }
+
+    /**
+     * {@code new SecureRandom()}: NativePRNG on Linux, which reads {@code /dev/urandom} under one
+     * process-wide lock.
+     */
+    public static RandomEngine platform() {
+        return of("platform", SecureRandom::new);
+    }
+
+    /**
+     * Any JCA {@link SecureRandom} algorithm by name, e.g. {@code SHA1PRNG} or
+     * {@code NativePRNGNonBlocking}.
+     */
+    public static RandomEngine jca(String algorithm) {
+        return checked(of(algorithm, () -> {
+            try {
+                return SecureRandom.getInstance(algorithm);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("Unsupported SecureRandom algorithm: " + algorithm, e);
+            }
+        }));
+    }
+
+    /**
+     * The JDK's NIST SP 800-90A DRBG at the given security strength in bits (112, 128, 192 or
+     * 256). With prediction resistance every call reseeds from the OS, which is far slower but
+     * means a state compromise never exposes later output.
+     *
+     * @param mechanism mechanism and algorithm such as {@code HMAC_DRBG,SHA-256} or
+     *                  {@code CTR_DRBG,AES-256}; blank keeps the JDK default ({@code Hash_DRBG,SHA-256}).
+     *                  The JDK only reads this from a JVM-wide security property, so it is set
+     *                  there and applies to every DRBG created afterwards.
+     */
+    public static RandomEngine drbg(int strength, boolean predictionResistance, String mechanism) {
+        if (mechanism != null && !mechanism.isBlank()) {
+            Security.setProperty(DRBG_CONFIG_PROPERTY, mechanism);
+        }
+        DrbgParameters.Instantiation parameters = DrbgParameters.instantiation(strength,
+                predictionResistance ? DrbgParameters.Capability.PR_AND_RESEED : DrbgParameters.Capability.RESEED_ONLY,
+                null);
+        return checked(of("drbg", () -> {
+            try {
+                return SecureRandom.getInstance("DRBG", parameters);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("Unsupported DRBG configuration: " + mechanism
+                        + " at strength " + strength, e);
+            }
+        }));
+    }
+
+    /**
+     * {@link ChaCha20Random} seeded with 32 bytes from the OS. Runs the block function's
+     * known-answer test first.
+     */
+    public static RandomEngine chaCha20() {
+        ChaCha20Random.selfTest();
+        return of("chacha20", () -> new ChaCha20Random(osSeed(ChaCha20Random.SEED_BYTES)));
+    }
+
+    /**
+     * Wraps an arbitrary factory as an engine.
+     */
+    public static RandomEngine of(String name, Supplier<SecureRandom> factory) {
+        return new RandomEngine() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public SecureRandom newInstance() {
+                return factory.get();
+            }
+
+            @Override
+            public String toString() {
+                return name;
+            }
+        };
+    }
+
+    /**
+     * Seed bytes straight from the OS: {@code /dev/urandom} where NativePRNGNonBlocking exists,
+     * otherwise the platform default's seed generator (e.g. the Windows CryptoAPI).
+     */
+    static byte[] osSeed(int numBytes) {
+        return SEED_SOURCE.generateSeed(numBytes);
+    }
+
+    private static SecureRandom osSeedSource() {
+        try {
+            return SecureRandom.getInstance("NativePRNGNonBlocking");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+
+    private static RandomEngine checked(RandomEngine engine) {
+        engine.newInstance();
+        return engine;
+    }
+}
@@ -0,0 +1,34 @@
+package com.passwordgenerator.service.random;
+
+/**
+ * Source of cryptographically strong random bytes used for password generation.
+ */
+public interface RandomSource {
+
+    /**
+     * Fills the whole array with random bytes.
+     */
+    void nextBytes(byte[] bytes);
+
+    /**
+     * Returns a uniformly distributed value in {@code [0, bound)}. Draws 31-bit samples and
+     * rejects those above the largest multiple of {@code bound}, so there is no modulo bias.
+     */
+    default int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("Bound must be positive. Provided: " + bound);
+        }
+
+        long range = 1L << 31;
+        long limit = range - (range % bound);
+        byte[] bytes = new byte[4];
+        while (true) {
+            nextBytes(bytes);
+            long sample = ((bytes[0] & 0x7FL) << 24) | ((bytes[1] & 0xFFL) << 16)
+                    | ((bytes[2] & 0xFFL) << 8) | (bytes[3] & 0xFFL);
+            if (sample < limit) {
+                return (int) (sample % bound);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.passwordgenerator.service.random;
+
+/**
+ * How {@link SecureRandomProvider} maps calling threads onto {@code SecureRandom} instances.
+ */
+public enum RandomStrategy {
+
+    /** One instance shared by every thread; all callers contend on its internal lock. */
+    SHARED,
+
+    /** A fixed array of instances, selected by a hash of the calling thread's id. */
+    STRIPED,
+
+    /**
+     * One instance per thread. Best for a small, fixed platform-thread pool; avoid it with
+     * virtual threads, where it would create an instance for every request.
+     */
+    THREAD_LOCAL
+}
@@ -0,0 +1,78 @@
+package com.passwordgenerator.service.random;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Wraps a {@link SecureRandom} and swaps it for a freshly seeded instance once it has produced
+ * a configured number of bytes or a configured amount of time has passed. Replacing the
+ * instance works uniformly across algorithms, unlike {@code SecureRandom.reseed()}, which
+ * only some implementations support.
+ *
+ * <p>Instances shared between threads serialize access with a {@link ReentrantLock}. JDK
+ * generators guard their state with {@code synchronized}, and a virtual thread that blocks on a
+ * contended monitor pins its carrier; taking our own lock first keeps that monitor uncontended,
+ * so waiting threads park and release their carrier instead.
+ */
+final class ReseedingSecureRandom implements RandomSource {
+
+    private final Supplier<SecureRandom> factory;
+    private final long reseedAfterBytes;
+    private final long reseedIntervalNanos;
+
+    private final AtomicLong bytesSinceReseed = new AtomicLong();
+    private final AtomicBoolean reseeding = new AtomicBoolean();
+    private final ReentrantLock lock;
+    private volatile SecureRandom delegate;
+    private volatile long seededAt;
+
+    ReseedingSecureRandom(Supplier<SecureRandom> factory, long reseedAfterBytes, long reseedIntervalNanos,
+                          boolean shared) {
+        this.factory = factory;
+        this.lock = shared ? new ReentrantLock() : null;
+        this.reseedAfterBytes = reseedAfterBytes;
+        this.reseedIntervalNanos = reseedIntervalNanos;
+        this.delegate = factory.get();
+        this.seededAt = System.nanoTime();
+    }
+
+    @Override
+    public void nextBytes(byte[] bytes) {
+        long produced = bytesSinceReseed.addAndGet(bytes.length);
+        if (reseedDue(produced)) {
+            reseed();
+        }
+
+        if (lock == null) {
+            delegate.nextBytes(bytes);
+            return;
+        }
+        lock.lock();
+        try {
+            delegate.nextBytes(bytes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean reseedDue(long produced) {
+        return (reseedAfterBytes > 0 && produced >= reseedAfterBytes)
+                || (reseedIntervalNanos > 0 && System.nanoTime() - seededAt >= reseedIntervalNanos);
+    }
+
+    private void reseed() {
+        // Only one caller builds the replacement; the others keep using the current instance
+        if (reseeding.compareAndSet(false, true)) {
+            try {
+                delegate = factory.get();
+                seededAt = System.nanoTime();
+                bytesSinceReseed.set(0);
+            } finally {
+                reseeding.set(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.passwordgenerator.service.random;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * {@link RandomSource} that spreads callers over one or more {@link SecureRandom} instances
+ * according to a {@link RandomStrategy}, so request threads do not all serialize on a single
+ * generator's lock. Every instance is periodically replaced with a freshly seeded one.
+ */
+public class SecureRandomProvider implements RandomSource {
+
+    private static final long THREAD_HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final RandomStrategy strategy;
+    private final String engine;
+    private final ReseedingSecureRandom[] stripes;
+    private final int stripeMask;
+    private final ThreadLocal<ReseedingSecureRandom> threadLocal;
+    private final LongAdder bytesGenerated = new LongAdder();
+
+    /**
+     * @param strategy how threads are mapped onto instances
+     * @param stripes number of instances for {@link RandomStrategy#STRIPED}, rounded up to a power of two
+     * @param factory creates a freshly seeded instance; called at startup and on every reseed
+     * @param reseedAfterBytes bytes an instance may produce before it is replaced, or 0 to disable
+     * @param reseedInterval maximum age of an instance, or {@code null}/zero to disable
+     */
+    public SecureRandomProvider(RandomStrategy strategy, int stripes, Supplier<SecureRandom> factory,
+                                long reseedAfterBytes, Duration reseedInterval) {
+        this(strategy, stripes, RandomEngines.of("custom", factory), reseedAfterBytes, reseedInterval);
+    }
+
+    /**
+     * @param strategy how threads are mapped onto instances
+     * @param stripes number of instances for {@link RandomStrategy#STRIPED}, rounded up to a power of two
+     * @param engine builds a freshly seeded instance; called at startup and on every reseed
+     * @param reseedAfterBytes bytes an instance may produce before it is replaced, or 0 to disable
+     * @param reseedInterval maximum age of an instance, or {@code null}/zero to disable
+     */
+    public SecureRandomProvider(RandomStrategy strategy, int stripes, RandomEngine engine,
+                                long reseedAfterBytes, Duration reseedInterval) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("Random strategy cannot be null");
+        }
+        if (engine == null) {
+            throw new IllegalArgumentException("Random engine cannot be null");
+        }
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Stripe count must be at least 1. Provided: " + stripes);
+        }
+
+        long intervalNanos = reseedInterval == null ? 0 : reseedInterval.toNanos();
+        boolean shared = strategy != RandomStrategy.THREAD_LOCAL;
+        Supplier<ReseedingSecureRandom> instances =
+                () -> new ReseedingSecureRandom(engine::newInstance, reseedAfterBytes, intervalNanos, shared);
+
+        this.strategy = strategy;
+        this.engine = engine.name();
+        switch (strategy) {
+            case SHARED -> {
+                this.stripes = new ReseedingSecureRandom[] {instances.get()};
+                this.threadLocal = null;
+            }
+            case STRIPED -> {
+                int size = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+                this.stripes = new ReseedingSecureRandom[size];
+                for (int i = 0; i < size; i++) {
+                    this.stripes[i] = instances.get();
+                }
+                this.threadLocal = null;
+            }
+            default -> {
+                this.stripes = new ReseedingSecureRandom[0];
+                this.threadLocal = ThreadLocal.withInitial(instances);
+            }
+        }
+        this.stripeMask = this.stripes.length - 1;
+    }
+
+    /**
+     * A single shared platform-default {@link SecureRandom} that is never reseeded; matches the
+     * service's original behaviour and is used when no provider is configured.
+     */
+    public static SecureRandomProvider platformDefault() {
+        return new SecureRandomProvider(RandomStrategy.SHARED, 1, RandomEngines.platform(), 0, null);
+    }
+
+    @Override
+    public void nextBytes(byte[] bytes) {
+        current().nextBytes(bytes);
+        bytesGenerated.add(bytes.length);
+    }
+
+    public RandomStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Name of the {@link RandomEngine} behind the instances.
+     */
+    public String getEngine() {
+        return engine;
+    }
+
+    /**
+     * Total bytes handed out since startup, across all instances.
+     */
+    public long getBytesGenerated() {
+        return bytesGenerated.sum();
+    }
+
+    private ReseedingSecureRandom current() {
+        if (threadLocal != null) {
+            return threadLocal.get();
+        }
+        if (stripeMask == 0) {
+            return stripes[0];
+        }
+        long hash = Thread.currentThread().threadId() * THREAD_HASH_MULTIPLIER;
+        return stripes[(int) (hash >>> 32) & stripeMask];
+    }
+}
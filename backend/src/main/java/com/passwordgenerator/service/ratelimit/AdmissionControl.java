@@ -0,0 +1,139 @@
+package com.passwordgenerator.service.ratelimit;
+
+import com.passwordgenerator.exception.RateLimitExceededException;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides whether an API request may run: first against a global cap on requests in flight, so
+ * a saturated server refuses work immediately instead of queueing it, then against the client's
+ * own token bucket.
+ *
+ * <p>Requests cost one token plus one per {@code charactersPerToken} characters they ask for, so
+ * a client generating a million passwords pays for them rather than for one request.
+ */
+public class AdmissionControl {
+
+    /**
+     * How {@link #pace} waits for tokens.
+     */
+    @FunctionalInterface
+    public interface Sleeper {
+        void sleep(long nanos) throws InterruptedException;
+    }
+
+    private final ClientRateLimiter limiter;
+    private final int maxConcurrentRequests;
+    private final int charactersPerToken;
+    private final Set<String> apiKeys;
+    private final Sleeper sleeper;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder clientRejections = new LongAdder();
+    private final LongAdder overloadRejections = new LongAdder();
+
+    public AdmissionControl(ClientRateLimiter limiter, int maxConcurrentRequests, int charactersPerToken,
+                            Set<String> apiKeys) {
+        this(limiter, maxConcurrentRequests, charactersPerToken, apiKeys, TimeUnit.NANOSECONDS::sleep);
+    }
+
+    /**
+     * Same as above with an explicit way to wait, so tests can pair it with the limiter's clock.
+     */
+    public AdmissionControl(ClientRateLimiter limiter, int maxConcurrentRequests, int charactersPerToken,
+                            Set<String> apiKeys, Sleeper sleeper) {
+        if (maxConcurrentRequests < 1 || charactersPerToken < 1) {
+            throw new IllegalArgumentException("Concurrency limit and characters per token must be positive. Provided: "
+                    + maxConcurrentRequests + ", " + charactersPerToken);
+        }
+        this.limiter = limiter;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.charactersPerToken = charactersPerToken;
+        this.apiKeys = Set.copyOf(apiKeys);
+        this.sleeper = sleeper;
+    }
+
+    /**
+     * Bucket key for a request: the API key when it is one of the configured keys, otherwise
+     * the client address. Unknown keys are ignored so clients cannot mint fresh buckets.
+     */
+    public String clientKey(String apiKey, String remoteAddress) {
+        if (apiKey != null && apiKeys.contains(apiKey)) {
+            return "key:" + apiKey;
+        }
+        return "ip:" + remoteAddress;
+    }
+
+    /**
+     * Reserves an in-flight slot; every successful call must be paired with {@link #exit()}.
+     *
+     * @throws RateLimitExceededException if the server is already at its concurrency limit
+     */
+    public void enter() {
+        if (inFlight.incrementAndGet() > maxConcurrentRequests) {
+            inFlight.decrementAndGet();
+            overloadRejections.increment();
+            throw new RateLimitExceededException("Server is at capacity, please retry shortly", 1);
+        }
+    }
+
+    public void exit() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Charges the base cost of a request plus its requested characters.
+     */
+    public void admit(String client, long characters) {
+        charge(client, 1 + characters / charactersPerToken);
+    }
+
+    /**
+     * Charges characters only known once the body has been read, on top of {@link #admit}.
+     */
+    public void chargeAdditional(String client, long characters) {
+        long tokens = characters / charactersPerToken;
+        if (tokens > 0) {
+            charge(client, tokens);
+        }
+    }
+
+    /**
+     * Waits until the client's bucket can pay for {@code characters} (at least one token), for
+     * long-lived streams that should slow down rather than fail when the client runs dry.
+     */
+    public void pace(String client, long characters) throws InterruptedException {
+        long tokens = Math.max(1, (characters + charactersPerToken - 1) / charactersPerToken);
+        for (long waitNanos; (waitNanos = limiter.tryAcquire(client, tokens)) > 0; ) {
+            sleeper.sleep(waitNanos);
+        }
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getClientRejections() {
+        return clientRejections.sum();
+    }
+
+    public long getOverloadRejections() {
+        return overloadRejections.sum();
+    }
+
+    public ClientRateLimiter getLimiter() {
+        return limiter;
+    }
+
+    private void charge(String client, long tokens) {
+        long waitNanos = limiter.tryAcquire(client, tokens);
+        if (waitNanos > 0) {
+            clientRejections.increment();
+            long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            throw new RateLimitExceededException("Rate limit exceeded, retry in " + retryAfter + "s", retryAfter);
+        }
+    }
+}
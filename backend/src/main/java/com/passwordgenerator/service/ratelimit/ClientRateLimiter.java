@@ -0,0 +1,197 @@
+package com.passwordgenerator.service.ratelimit;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token buckets, implemented with the generic cell rate algorithm (GCRA).
+ *
+ * <p>Each bucket is a single {@link AtomicLong} holding the client's theoretical arrival time
+ * (TAT): the moment its bucket would be full again. Admitting a request of cost {@code n} pushes
+ * the TAT forward by {@code n} emission intervals, and is refused if that would put it more than
+ * one bucket capacity ahead of now. A request larger than the whole bucket only needs one token
+ * to start, and the rest of its cost is carried as debt. Updates are a single CAS, so there are
+ * no locks.
+ *
+ * <p>Buckets live in a fixed number of stripes, each a {@link ConcurrentHashMap} with a bounded
+ * share of {@code maxClients}. A bucket whose TAT has passed is full, which is the same as not
+ * existing, so a background sweep drops those without changing any client's allowance. Until the
+ * next sweep frees room, new clients landing on a full stripe share that stripe's overflow bucket;
+ * the request thread never scans a stripe itself, so a flood of distinct clients costs one map
+ * lookup per request. Memory therefore stays bounded however many distinct clients show up.
+ */
+public final class ClientRateLimiter implements AutoCloseable {
+
+    /** Longest debt one request can run up: about 73 years, far beyond any real charge. */
+    private static final long MAX_DEBT_NANOS = Long.MAX_VALUE / 4;
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes;
+    private final AtomicLong[] overflow;
+    private final int stripeMask;
+    private final int maxClientsPerStripe;
+    private final LongSupplier clock;
+    private final ScheduledExecutorService sweeper;
+
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    /**
+     * @param capacity burst size in tokens
+     * @param refillPerSecond sustained rate in tokens per second
+     * @param stripes number of independent maps, rounded up to a power of two
+     * @param maxClients upper bound on tracked clients across all stripes
+     * @param sweepInterval how often full buckets are evicted; null disables the background sweep
+     */
+    public ClientRateLimiter(long capacity, double refillPerSecond, int stripes, int maxClients,
+                             Duration sweepInterval) {
+        this(capacity, refillPerSecond, stripes, maxClients, sweepInterval, System::nanoTime);
+    }
+
+    /**
+     * Same as above with an explicit nanosecond clock, so tests can control time.
+     */
+    public ClientRateLimiter(long capacity, double refillPerSecond, int stripes, int maxClients,
+                      Duration sweepInterval, LongSupplier clock) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException(
+                "Rate limit capacity and refill rate must be positive. Provided: " + capacity + ", " + refillPerSecond);
+        }
+        if (stripes < 1 || maxClients < stripes) {
+            throw new IllegalArgumentException(
+                "Rate limiter needs at least one stripe and one client per stripe. Provided: " + stripes + ", " + maxClients);
+        }
+
+        int stripeCount = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.emissionIntervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond));
+        this.burstToleranceNanos = capacity * emissionIntervalNanos;
+        @SuppressWarnings("unchecked")
+        ConcurrentHashMap<String, AtomicLong>[] maps =
+                (ConcurrentHashMap<String, AtomicLong>[]) new ConcurrentHashMap<?, ?>[stripeCount];
+        this.stripes = maps;
+        this.overflow = new AtomicLong[stripeCount];
+        this.stripeMask = stripeCount - 1;
+        this.maxClientsPerStripe = Math.max(1, maxClients / stripeCount);
+        this.clock = clock;
+
+        long now = clock.getAsLong();
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new ConcurrentHashMap<>();
+            this.overflow[i] = new AtomicLong(now);
+        }
+
+        if (sweepInterval != null) {
+            this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "rate-limit-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = sweepInterval.toMillis();
+            sweeper.scheduleWithFixedDelay(this::sweep, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            this.sweeper = null;
+        }
+    }
+
+    /**
+     * Takes {@code cost} tokens from the client's bucket. A request costing more than the whole
+     * bucket could never fit, so it is admitted whenever the bucket is not in debt and leaves it
+     * in debt for the rest: the client waits off the whole cost before its next request. Asking
+     * for a full bucket instead would starve such requests, since the admission charge for the
+     * request itself has always just been taken.
+     *
+     * @return 0 if admitted, otherwise nanoseconds until the same request would be admitted
+     */
+    public long tryAcquire(String client, long cost) {
+        AtomicLong bucket = bucket(client);
+        long tokens = Math.max(cost, 1);
+        // Saturate absurd costs well short of overflowing the clock arithmetic
+        long increment = tokens < MAX_DEBT_NANOS / emissionIntervalNanos
+                ? tokens * emissionIntervalNanos
+                : MAX_DEBT_NANOS;
+        long required = increment <= burstToleranceNanos ? increment : emissionIntervalNanos;
+
+        while (true) {
+            long tat = bucket.get();
+            long now = clock.getAsLong();
+            long start = Math.max(tat, now);
+            long wait = start + required - now - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(tat, start + increment)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Removes every bucket that has refilled completely.
+     */
+    public void sweep() {
+        for (int i = 0; i < stripes.length; i++) {
+            sweep(stripes[i]);
+        }
+    }
+
+    public int getTrackedClients() {
+        int tracked = 0;
+        for (Map<String, AtomicLong> stripe : stripes) {
+            tracked += stripe.size();
+        }
+        return tracked;
+    }
+
+    public long getEvicted() {
+        return evicted.sum();
+    }
+
+    /**
+     * Requests from new clients that had to share an overflow bucket because their stripe was full.
+     */
+    public long getOverflowed() {
+        return overflowed.sum();
+    }
+
+    @Override
+    public void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    private AtomicLong bucket(String client) {
+        int hash = client.hashCode();
+        int index = (hash ^ (hash >>> 16)) & stripeMask;
+        ConcurrentHashMap<String, AtomicLong> stripe = stripes[index];
+
+        AtomicLong bucket = stripe.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (stripe.size() >= maxClientsPerStripe) {
+            overflowed.increment();
+            return overflow[index];
+        }
+        return stripe.computeIfAbsent(client, key -> new AtomicLong(clock.getAsLong()));
+    }
+
+    private void sweep(ConcurrentHashMap<String, AtomicLong> stripe) {
+        long now = clock.getAsLong();
+        for (Map.Entry<String, AtomicLong> entry : stripe.entrySet()) {
+            // A request may land between the check and the removal; it then starts afresh with a
+            // full bucket, which only ever errs in the client's favour by one request
+            if (entry.getValue().get() - now <= 0 && stripe.remove(entry.getKey(), entry.getValue())) {
+                evicted.increment();
+            }
+        }
+    }
+}
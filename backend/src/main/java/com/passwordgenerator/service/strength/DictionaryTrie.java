@@ -0,0 +1,222 @@
+package com.passwordgenerator.service.strength;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Read-only trie of ranked dictionary words, flattened into parallel arrays once at startup.
+ *
+ * <p>Words are stored under their {@link #normalize normalized} spelling (lower case with common
+ * l33t substitutions undone), so {@code P@ssw0rd} finds {@code password} in a single walk. The
+ * children of every node are stored contiguously and sorted by label and are found by binary
+ * search; root children are indexed directly for ASCII. Lookups allocate nothing.
+ */
+public final class DictionaryTrie {
+
+    /** Shorter words would match almost any password and add nothing but noise. */
+    static final int MIN_WORD_LENGTH = 3;
+    static final int MAX_WORD_LENGTH = 32;
+
+    private static final String DEFAULT_DICTIONARY = "/strength/dictionary.txt";
+
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] childCount;
+    /** Word index of the entry ending at each node, or -1. */
+    private final int[] terminal;
+    private final int[] rootIndex;
+    private final String[] words;
+
+    private DictionaryTrie(char[] labels, int[] firstChild, int[] childCount, int[] terminal, String[] words) {
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.terminal = terminal;
+        this.words = words;
+
+        this.rootIndex = new int[128];
+        Arrays.fill(rootIndex, -1);
+        for (int i = firstChild[0]; i < firstChild[0] + childCount[0]; i++) {
+            if (labels[i] < 128) {
+                rootIndex[labels[i]] = i;
+            }
+        }
+    }
+
+    /**
+     * Callback for {@link #findMatches}; {@code rank} is 1 for the most common word.
+     */
+    @FunctionalInterface
+    public interface MatchSink {
+        void match(int end, int rank, String word);
+    }
+
+    /**
+     * Builds a trie from words in rank order (most common first). Blank lines, lines starting
+     * with {@code #} and words outside the supported length are skipped; duplicates keep their
+     * best rank.
+     */
+    public static DictionaryTrie build(Iterable<String> rankedWords) {
+        Node root = new Node();
+        List<String> words = new ArrayList<>();
+        int nodes = 1;
+
+        for (String line : rankedWords) {
+            String word = line.strip().toLowerCase();
+            if (word.isEmpty() || word.startsWith("#")
+                    || word.length() < MIN_WORD_LENGTH || word.length() > MAX_WORD_LENGTH) {
+                continue;
+            }
+
+            Node node = root;
+            for (int i = 0; i < word.length(); i++) {
+                char label = normalize(word.charAt(i));
+                Node child = node.children.get(label);
+                if (child == null) {
+                    child = new Node();
+                    node.children.put(label, child);
+                    nodes++;
+                }
+                node = child;
+            }
+            if (node.word < 0) {
+                node.word = words.size();
+                words.add(word);
+            }
+        }
+
+        // Breadth-first flattening keeps each node's children contiguous and sorted
+        char[] labels = new char[nodes];
+        int[] firstChild = new int[nodes];
+        int[] childCount = new int[nodes];
+        int[] terminal = new int[nodes];
+        List<Node> queue = new ArrayList<>(nodes);
+        queue.add(root);
+        terminal[0] = -1;
+        int next = 1;
+
+        for (int index = 0; index < queue.size(); index++) {
+            Node node = queue.get(index);
+            firstChild[index] = next;
+            childCount[index] = node.children.size();
+            for (var entry : node.children.entrySet()) {
+                labels[next] = entry.getKey();
+                terminal[next] = entry.getValue().word;
+                queue.add(entry.getValue());
+                next++;
+            }
+        }
+
+        return new DictionaryTrie(labels, firstChild, childCount, terminal, words.toArray(new String[0]));
+    }
+
+    /**
+     * Loads the bundled dictionary, followed by any additional ranked word list files.
+     */
+    public static DictionaryTrie load(List<Path> additional) {
+        List<String> lines = new ArrayList<>();
+        try (InputStream in = DictionaryTrie.class.getResourceAsStream(DEFAULT_DICTIONARY)) {
+            if (in == null) {
+                throw new IllegalStateException("Bundled dictionary " + DEFAULT_DICTIONARY + " is missing");
+            }
+            new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)).lines().forEach(lines::add);
+            for (Path path : additional) {
+                lines.addAll(Files.readAllLines(path, StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load strength dictionary", e);
+        }
+        return build(lines);
+    }
+
+    public static DictionaryTrie loadDefault() {
+        return load(List.of());
+    }
+
+    public int size() {
+        return words.length;
+    }
+
+    /**
+     * Reports every dictionary word that matches {@code text} starting at {@code start},
+     * comparing normalized characters.
+     */
+    public void findMatches(CharSequence text, int start, MatchSink sink) {
+        char first = normalize(text.charAt(start));
+        int node = first < 128 ? rootIndex[first] : -1;
+        int position = start;
+
+        while (node >= 0) {
+            position++;
+            if (terminal[node] >= 0) {
+                sink.match(position, terminal[node] + 1, words[terminal[node]]);
+            }
+            if (position == text.length()) {
+                return;
+            }
+            node = child(node, normalize(text.charAt(position)));
+        }
+    }
+
+    private int child(int node, char label) {
+        int low = firstChild[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (labels[mid] < label) {
+                low = mid + 1;
+            } else if (labels[mid] > label) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Lower-cases a character and undoes the common l33t substitutions.
+     */
+    static char normalize(char c) {
+        switch (c) {
+            case '4':
+            case '@':
+                return 'a';
+            case '3':
+                return 'e';
+            case '0':
+                return 'o';
+            case '1':
+            case '!':
+            case '|':
+                return 'i';
+            case '5':
+            case '$':
+                return 's';
+            case '7':
+            case '+':
+                return 't';
+            case '8':
+                return 'b';
+            case '9':
+                return 'g';
+            default:
+                return Character.toLowerCase(c);
+        }
+    }
+
+    private static final class Node {
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+        private int word = -1;
+    }
+}
@@ -0,0 +1,354 @@
+package com.passwordgenerator.service.strength;
+
+import com.passwordgenerator.exception.ParameterError;
+import com.passwordgenerator.model.StrengthEstimate;
+import com.passwordgenerator.model.StrengthPattern;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Estimates password strength as the number of bits an attacker needs, taking the cheapest way
+ * to produce the password: character-by-character brute force over the classes it uses, or
+ * guessing parts of it as dictionary words (including l33t spellings and capitalization),
+ * keyboard walks, repeated characters and sequences such as {@code abc} or {@code 987}.
+ *
+ * <p>All candidate patterns are collected in one pass, then a shortest-path pass over the
+ * positions picks the combination with the fewest total bits. Work is linear in the password
+ * length (times the longest dictionary word), so even 1024-character inputs take microseconds.
+ */
+@Service
+public class StrengthEstimator {
+
+    static final int MAX_PASSWORD_LENGTH = 1024;
+    private static final int MIN_PATTERN_LENGTH = 3;
+
+    private static final String[] RATINGS = {"VERY_WEAK", "WEAK", "FAIR", "STRONG", "VERY_STRONG"};
+    private static final double[] SCORE_THRESHOLDS = {28, 36, 60, 80};
+
+    private static final String[] PATTERN_TYPES = {"dictionary", "sequence", "repeat", "spatial"};
+    private static final int DICTIONARY = 0;
+    private static final int SEQUENCE = 1;
+    private static final int REPEAT = 2;
+    private static final int SPATIAL = 3;
+
+    private static final String[] KEYBOARD_ROWS = {"`1234567890-=", "qwertyuiop[]\\", "asdfghjkl;'", "zxcvbnm,./"};
+    private static final String[] SHIFTED_ROWS = {"~!@#$%^&*()_+", "QWERTYUIOP{}|", "ASDFGHJKL:\"", "ZXCVBNM<>?"};
+    private static final byte[] KEY_ROW = new byte[128];
+    private static final byte[] KEY_COLUMN = new byte[128];
+    private static final boolean[] SHIFTED = new boolean[128];
+    private static final double KEYBOARD_START_BITS = log2(47);
+    private static final double KEYBOARD_TURN_BITS = log2(6);
+
+    static {
+        Arrays.fill(KEY_ROW, (byte) -1);
+        for (int row = 0; row < KEYBOARD_ROWS.length; row++) {
+            for (int column = 0; column < KEYBOARD_ROWS[row].length(); column++) {
+                mapKey(KEYBOARD_ROWS[row].charAt(column), row, column, false);
+                mapKey(SHIFTED_ROWS[row].charAt(column), row, column, true);
+            }
+        }
+    }
+
+    private final DictionaryTrie dictionary;
+
+    public StrengthEstimator(DictionaryTrie dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    public StrengthEstimate estimate(String password) {
+        ParameterError error = checkPassword(password);
+        if (error != null) {
+            throw error.exception();
+        }
+
+        Analysis analysis = new Analysis(password);
+        analysis.collectPatterns();
+        return analysis.solve();
+    }
+
+    /**
+     * Checks a password given to {@link #estimate} without analysing it.
+     *
+     * @return the problem found, or null if the password can be estimated
+     */
+    public static ParameterError checkPassword(String password) {
+        if (password == null || password.isEmpty()) {
+            return ParameterError.PASSWORD_REQUIRED;
+        }
+        return password.length() > MAX_PASSWORD_LENGTH ? ParameterError.PASSWORD_TOO_LONG : null;
+    }
+
+    /**
+     * Candidate patterns for one password plus the shortest-path solution over them.
+     */
+    private final class Analysis implements DictionaryTrie.MatchSink {
+
+        private final String password;
+        private final int length;
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private int[] types = new int[16];
+        private double[] bits = new double[16];
+        private int count;
+        private int currentStart;
+
+        Analysis(String password) {
+            this.password = password;
+            this.length = password.length();
+        }
+
+        void collectPatterns() {
+            for (int i = 0; i < length; i++) {
+                currentStart = i;
+                dictionary.findMatches(password, i, this);
+            }
+            findSequences();
+            findRepeats();
+            findKeyboardWalks();
+        }
+
+        @Override
+        public void match(int end, int rank, String word) {
+            int start = currentStart;
+            int uppercase = 0;
+            int substitutions = 0;
+            for (int i = start; i < end; i++) {
+                char c = password.charAt(i);
+                if (Character.isUpperCase(c)) {
+                    uppercase++;
+                }
+                if (Character.toLowerCase(c) != word.charAt(i - start)) {
+                    substitutions++;
+                }
+            }
+            add(DICTIONARY, start, end, log2(rank) + capitalizationBits(start, end, uppercase) + substitutions);
+        }
+
+        private double capitalizationBits(int start, int end, int uppercase) {
+            int size = end - start;
+            if (uppercase == 0) {
+                return 0;
+            }
+            if (uppercase == size || (uppercase == 1
+                    && (Character.isUpperCase(password.charAt(start)) || Character.isUpperCase(password.charAt(end - 1))))) {
+                return 1;
+            }
+            // Any placement of the minority case
+            double variations = 0;
+            double binomial = 1;
+            for (int k = 1; k <= Math.min(uppercase, size - uppercase); k++) {
+                binomial = binomial * (size - k + 1) / k;
+                variations += binomial;
+            }
+            return log2(variations);
+        }
+
+        private void findSequences() {
+            int start = 0;
+            while (start < length - 1) {
+                int delta = password.charAt(start + 1) - password.charAt(start);
+                int end = start + 1;
+                if (delta == 1 || delta == -1) {
+                    while (end < length && password.charAt(end) - password.charAt(end - 1) == delta
+                            && sameClass(password.charAt(start), password.charAt(end))) {
+                        end++;
+                    }
+                }
+                if (end - start >= MIN_PATTERN_LENGTH) {
+                    char first = password.charAt(start);
+                    double base = "aAzZ019".indexOf(first) >= 0 ? 2 : Character.isDigit(first) ? log2(10) : log2(26);
+                    add(SEQUENCE, start, end, base + log2(end - start) + (delta < 0 ? 1 : 0));
+                    start = end - 1;
+                } else {
+                    start++;
+                }
+            }
+        }
+
+        private void findRepeats() {
+            int start = 0;
+            while (start < length) {
+                int end = start + 1;
+                while (end < length && password.charAt(end) == password.charAt(start)) {
+                    end++;
+                }
+                if (end - start >= MIN_PATTERN_LENGTH) {
+                    add(REPEAT, start, end, log2(cardinality(password.charAt(start))) + log2(end - start));
+                }
+                start = end;
+            }
+        }
+
+        private void findKeyboardWalks() {
+            int start = 0;
+            while (start < length - 1) {
+                int end = start + 1;
+                int turns = 0;
+                int lastDirection = -1;
+                while (end < length) {
+                    int direction = keyDirection(password.charAt(end - 1), password.charAt(end));
+                    if (direction < 0) {
+                        break;
+                    }
+                    if (direction != lastDirection) {
+                        turns++;
+                        lastDirection = direction;
+                    }
+                    end++;
+                }
+                if (end - start >= MIN_PATTERN_LENGTH) {
+                    int shifted = 0;
+                    for (int i = start; i < end; i++) {
+                        if (SHIFTED[password.charAt(i)]) {
+                            shifted++;
+                        }
+                    }
+                    int minority = Math.min(shifted, end - start - shifted);
+                    double shiftBits = minority == 0 ? (shifted > 0 ? 1 : 0) : minority;
+                    add(SPATIAL, start, end,
+                        KEYBOARD_START_BITS + log2(end - start) + turns * KEYBOARD_TURN_BITS + shiftBits);
+                    start = end - 1;
+                } else {
+                    start++;
+                }
+            }
+        }
+
+        private void add(int type, int start, int end, double patternBits) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+                types = Arrays.copyOf(types, count * 2);
+                bits = Arrays.copyOf(bits, count * 2);
+            }
+            starts[count] = start;
+            ends[count] = end;
+            types[count] = type;
+            // Every pattern costs at least one bit: the attacker still has to pick it
+            bits[count] = Math.max(1, patternBits);
+            count++;
+        }
+
+        StrengthEstimate solve() {
+            double bruteForceBits = log2(passwordCardinality());
+
+            // Bucket patterns by end position so the forward pass visits each once
+            int[] firstByEnd = new int[length + 2];
+            for (int m = 0; m < count; m++) {
+                firstByEnd[ends[m] + 1]++;
+            }
+            for (int i = 1; i < firstByEnd.length; i++) {
+                firstByEnd[i] += firstByEnd[i - 1];
+            }
+            int[] byEnd = new int[count];
+            int[] fill = Arrays.copyOf(firstByEnd, firstByEnd.length);
+            for (int m = 0; m < count; m++) {
+                byEnd[fill[ends[m]]++] = m;
+            }
+
+            double[] best = new double[length + 1];
+            int[] choice = new int[length + 1];
+            for (int j = 1; j <= length; j++) {
+                best[j] = best[j - 1] + bruteForceBits;
+                choice[j] = -1;
+                for (int k = firstByEnd[j]; k < firstByEnd[j + 1]; k++) {
+                    int m = byEnd[k];
+                    double candidate = best[starts[m]] + bits[m];
+                    if (candidate < best[j]) {
+                        best[j] = candidate;
+                        choice[j] = m;
+                    }
+                }
+            }
+
+            List<StrengthPattern> patterns = new ArrayList<>();
+            for (int j = length; j > 0; ) {
+                int m = choice[j];
+                if (m < 0) {
+                    j--;
+                } else {
+                    patterns.add(0, new StrengthPattern(PATTERN_TYPES[types[m]], starts[m], ends[m], bits[m]));
+                    j = starts[m];
+                }
+            }
+
+            double entropyBits = best[length];
+            int score = 0;
+            while (score < SCORE_THRESHOLDS.length && entropyBits >= SCORE_THRESHOLDS[score]) {
+                score++;
+            }
+            return new StrengthEstimate(entropyBits, length * bruteForceBits, score, RATINGS[score], patterns);
+        }
+
+        private int passwordCardinality() {
+            boolean lower = false, upper = false, digit = false, symbol = false, other = false;
+            for (int i = 0; i < length; i++) {
+                char c = password.charAt(i);
+                if (c >= 'a' && c <= 'z') {
+                    lower = true;
+                } else if (c >= 'A' && c <= 'Z') {
+                    upper = true;
+                } else if (c >= '0' && c <= '9') {
+                    digit = true;
+                } else if (c < 128) {
+                    symbol = true;
+                } else {
+                    other = true;
+                }
+            }
+            return (lower ? 26 : 0) + (upper ? 26 : 0) + (digit ? 10 : 0) + (symbol ? 33 : 0) + (other ? 100 : 0);
+        }
+    }
+
+    private static int cardinality(char c) {
+        if (Character.isLowerCase(c) || Character.isUpperCase(c)) {
+            return c < 128 ? 26 : 100;
+        }
+        if (c >= '0' && c <= '9') {
+            return 10;
+        }
+        return c < 128 ? 33 : 100;
+    }
+
+    private static boolean sameClass(char a, char b) {
+        return Character.isDigit(a) == Character.isDigit(b)
+                && Character.isLowerCase(a) == Character.isLowerCase(b)
+                && Character.isUpperCase(a) == Character.isUpperCase(b);
+    }
+
+    /**
+     * Direction code (0-5) from key {@code a} to an adjacent key {@code b}, or -1 if the keys are
+     * not neighbours on a QWERTY layout. Rows are staggered, so the key below column c sits
+     * between columns c and c + 1 of the row above.
+     */
+    private static int keyDirection(char a, char b) {
+        if (a >= 128 || b >= 128 || KEY_ROW[a] < 0 || KEY_ROW[b] < 0) {
+            return -1;
+        }
+        int rowDelta = KEY_ROW[b] - KEY_ROW[a];
+        int columnDelta = KEY_COLUMN[b] - KEY_COLUMN[a];
+        if (rowDelta == 0 && (columnDelta == 1 || columnDelta == -1)) {
+            return columnDelta > 0 ? 0 : 1;
+        }
+        if (rowDelta == 1 && (columnDelta == 0 || columnDelta == -1)) {
+            return columnDelta == 0 ? 2 : 3;
+        }
+        if (rowDelta == -1 && (columnDelta == 0 || columnDelta == 1)) {
+            return columnDelta == 0 ? 4 : 5;
+        }
+        return -1;
+    }
+
+    private static void mapKey(char key, int row, int column, boolean shifted) {
+        KEY_ROW[key] = (byte) row;
+        KEY_COLUMN[key] = (byte) column;
+        SHIFTED[key] = shifted;
+    }
+
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+}
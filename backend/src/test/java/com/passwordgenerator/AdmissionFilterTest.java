@@ -0,0 +1,90 @@
+package com.passwordgenerator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static com.passwordgenerator.TestRequests.from;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "password.ratelimit.capacity=3",
+        "password.ratelimit.refill-per-second=0.01",
+        "password.ratelimit.characters-per-token=8"
+})
+@AutoConfigureMockMvc
+@DisplayName("Admission Filter Tests")
+public class AdmissionFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Should answer 429 with Retry-After once a client's bucket is empty")
+    public void testRateLimitedRequest() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(password("10.0.0.1")).andExpect(status().isOk());
+        }
+
+        String retryAfter = mockMvc.perform(password("10.0.0.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.status").value(429))
+                .andExpect(jsonPath("$.error").value("Too Many Requests"))
+                .andReturn().getResponse().getHeader(HttpHeaders.RETRY_AFTER);
+        assertNotNull(retryAfter);
+        assertTrue(Long.parseLong(retryAfter) > 0, retryAfter);
+
+        // Buckets are per client
+        mockMvc.perform(password("10.0.0.2")).andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should only filter /api/*, and never health checks")
+    public void testFilterMapping() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(password("10.0.0.3")).andExpect(status().isOk());
+        }
+        mockMvc.perform(password("10.0.0.3")).andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(from(get("/"), "10.0.0.3")).andExpect(status().isOk());
+        mockMvc.perform(from(get("/api/health"), "10.0.0.3")).andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should charge template requests for the length the template expands to")
+    public void testChargesTemplateLength() throws Exception {
+        // One token for the request plus 16 characters at 8 per token empties the bucket
+        mockMvc.perform(from(get("/api/generate-password-from-template").param("template", "a{16}"), "10.0.0.4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length").value(16));
+        mockMvc.perform(from(get("/api/generate-password-from-template").param("template", "a"), "10.0.0.4"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    @DisplayName("Should charge a bulk request for its size before preparing the batch")
+    public void testChargesBulkBeforePreparing() throws Exception {
+        // 24 characters need the 3 tokens the admission charge left 2 of. Preparing would have
+        // failed with a 400, since a literal template cannot produce 8 unique passwords.
+        mockMvc.perform(from(post("/api/generate-passwords").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"count\":8,\"template\":\"x{3}\",\"unique\":true}"), "10.0.0.5"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    private static MockHttpServletRequestBuilder password(String client) {
+        return from(get("/api/generate-password").param("length", "4").param("includeLowercase", "true"), client);
+    }
+}
@@ -0,0 +1,121 @@
+package com.passwordgenerator;
+
+import com.passwordgenerator.exception.FeatureNotConfiguredException;
+import com.passwordgenerator.exception.InvalidPasswordParametersException;
+import com.passwordgenerator.service.PasswordGeneratorService;
+import com.passwordgenerator.service.breach.BreachedPasswordIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Breached Password Index Tests")
+public class BreachedPasswordIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should find breached passwords and their counts among many entries")
+    public void testLookup() throws Exception {
+        Path file = writeCorpus(List.of("password", "123456", "letmein"), 20_000);
+
+        try (BreachedPasswordIndex index = BreachedPasswordIndex.open(file, 64 * 1024)) {
+            index.awaitFilter();
+            assertTrue(index.isFilterReady());
+
+            assertEquals(1001, index.occurrences("password"));
+            assertEquals(1002, index.occurrences("123456"));
+            assertEquals(1003, index.occurrences("letmein"));
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(0, index.occurrences("not-breached-" + i));
+            }
+            assertTrue(index.getFilteredLookups() > 900, "Bloom filter should answer most misses");
+        }
+    }
+
+    @Test
+    @DisplayName("Should search the file directly when the filter is disabled")
+    public void testLookupWithoutFilter() throws Exception {
+        Path file = writeCorpus(List.of("password"), 5_000);
+
+        try (BreachedPasswordIndex index = BreachedPasswordIndex.open(file, 0)) {
+            assertFalse(index.isFilterReady());
+            assertEquals(1001, index.occurrences("password"));
+            assertEquals(0, index.occurrences("Password"));
+            assertEquals(0, index.getFilteredLookups());
+        }
+    }
+
+    @Test
+    @DisplayName("Should regenerate generated passwords found in the corpus")
+    public void testScreenGeneratedPasswords() throws Exception {
+        Path file = writeCorpus(List.of("0", "1", "2", "3", "4"), 100);
+
+        try (BreachedPasswordIndex index = BreachedPasswordIndex.open(file, 4096)) {
+            PasswordGeneratorService service = new PasswordGeneratorService();
+            service.setBreachedPasswordIndex(index);
+            service.setScreenGenerated(true);
+
+            for (int i = 0; i < 50; i++) {
+                String password = service.generatePassword(1, false, false, true, false);
+                assertTrue(password.charAt(0) >= '5', password);
+            }
+            assertEquals(1001, service.breachOccurrences("0"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail rather than loop when every candidate is breached")
+    public void testScreenExhaustedKeyspace() throws Exception {
+        Path file = writeCorpus(List.of("0", "1", "2", "3", "4", "5", "6", "7", "8", "9"), 100);
+
+        try (BreachedPasswordIndex index = BreachedPasswordIndex.open(file, 4096)) {
+            PasswordGeneratorService service = new PasswordGeneratorService();
+            service.setBreachedPasswordIndex(index);
+            service.setScreenGenerated(true);
+
+            assertThrows(InvalidPasswordParametersException.class, () ->
+                    service.generatePassword(1, false, false, true, false));
+        }
+    }
+
+    @Test
+    @DisplayName("Should report the check as unavailable without a corpus")
+    public void testNotConfigured() {
+        assertThrows(FeatureNotConfiguredException.class, () ->
+                new PasswordGeneratorService().breachOccurrences("password"));
+    }
+
+    /**
+     * Writes an HIBP-style corpus: the given passwords (counts 1001, 1002, ...) plus random
+     * hashes, sorted, with CRLF line endings.
+     */
+    private Path writeCorpus(List<String> passwords, int randomEntries) throws IOException {
+        HexFormat hex = HexFormat.of().withUpperCase();
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < passwords.size(); i++) {
+            lines.add(hex.formatHex(BreachedPasswordIndex.sha1(passwords.get(i))) + ":" + (1001 + i));
+        }
+        Random random = new Random(42);
+        byte[] hash = new byte[20];
+        for (int i = 0; i < randomEntries; i++) {
+            random.nextBytes(hash);
+            lines.add(hex.formatHex(hash) + ":" + (1 + random.nextInt(500)));
+        }
+        lines.sort(null);
+
+        Path file = tempDir.resolve("pwned-passwords-sha1-ordered-by-hash.txt");
+        Files.writeString(file, String.join("\r\n", lines) + "\r\n");
+        return file;
+    }
+}
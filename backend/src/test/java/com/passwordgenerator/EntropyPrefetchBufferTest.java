@@ -0,0 +1,71 @@
+package com.passwordgenerator;
+
+import com.passwordgenerator.service.random.EntropyPrefetchBuffer;
+import com.passwordgenerator.service.random.RandomSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Entropy Prefetch Buffer Tests")
+public class EntropyPrefetchBufferTest {
+
+    /**
+     * Emits a strictly increasing 8-byte counter, so any byte range handed out twice is detectable.
+     */
+    private static final class CountingSource implements RandomSource {
+        private final AtomicLong counter = new AtomicLong();
+
+        @Override
+        public void nextBytes(byte[] bytes) {
+            for (int i = 0; i + 8 <= bytes.length; i += 8) {
+                long value = counter.incrementAndGet();
+                for (int b = 0; b < 8; b++) {
+                    bytes[i + b] = (byte) (value >>> (8 * b));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should fall back to direct generation when the buffer is empty")
+    public void testFallsBackWhenEmpty() {
+        EntropyPrefetchBuffer buffer = new EntropyPrefetchBuffer(new CountingSource(), 1024, 32, 256, 1);
+
+        // Producers not started: every request is a miss
+        buffer.nextBytes(new byte[64]);
+        assertEquals(0, buffer.getHits());
+        assertEquals(1, buffer.getMisses());
+        buffer.close();
+    }
+
+    @Test
+    @DisplayName("Should never hand out the same bytes twice")
+    public void testNoBytesReused() throws InterruptedException {
+        EntropyPrefetchBuffer buffer = new EntropyPrefetchBuffer(new CountingSource(), 4096, 32, 1024, 2);
+        buffer.start();
+        assertThrows(IllegalStateException.class, buffer::start);
+        Thread.sleep(50);
+
+        Set<Long> seen = new HashSet<>();
+        byte[] bytes = new byte[32];
+        for (int i = 0; i < 5000; i++) {
+            buffer.nextBytes(bytes);
+            for (int j = 0; j < bytes.length; j += 8) {
+                long value = 0;
+                for (int b = 0; b < 8; b++) {
+                    value |= (bytes[j + b] & 0xFFL) << (8 * b);
+                }
+                assertTrue(seen.add(value), "Value " + value + " was handed out twice");
+            }
+        }
+        buffer.close();
+
+        assertEquals(5000, buffer.getHits() + buffer.getMisses());
+        assertTrue(buffer.getHits() > 0, "Expected at least some requests to be served from the buffer");
+    }
+}
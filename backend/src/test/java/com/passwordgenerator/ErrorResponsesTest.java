@@ -0,0 +1,63 @@
+package com.passwordgenerator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.passwordgenerator.exception.ErrorResponses;
+import com.passwordgenerator.exception.LogThrottle;
+import com.passwordgenerator.exception.ParameterError;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Error Response Tests")
+public class ErrorResponsesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should write a complete JSON error body for every parameter error code")
+    public void testPrebuiltBodies() throws Exception {
+        for (ParameterError error : ParameterError.values()) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            ErrorResponses.write(error, response);
+
+            assertEquals(400, response.getStatus());
+            assertEquals("application/json", response.getContentType());
+            assertEquals(response.getContentAsByteArray().length, response.getContentLength());
+
+            JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+            assertEquals(400, body.get("status").asInt());
+            assertEquals(error.getCategory().getTitle(), body.get("error").asText());
+            assertEquals(error.getMessage(), body.get("message").asText());
+            assertNotNull(LocalDateTime.parse(body.get("timestamp").asText()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should let a few log events through per window and count the rest")
+    public void testLogThrottle() {
+        AtomicLong clock = new AtomicLong();
+        LogThrottle throttle = new LogThrottle(3, 1, TimeUnit.MINUTES, clock::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, throttle.tryAcquire());
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(-1, throttle.tryAcquire());
+        }
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        assertEquals(-1, throttle.tryAcquire());
+
+        // The first event of the next window reports everything dropped before it
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(101, throttle.tryAcquire());
+        assertEquals(0, throttle.tryAcquire());
+    }
+}
@@ -0,0 +1,128 @@
+package com.passwordgenerator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.passwordgenerator.exception.ParameterError;
+import com.passwordgenerator.service.export.ExportJob;
+import com.passwordgenerator.service.export.ExportJobManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static com.passwordgenerator.TestRequests.from;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Download and validation tests through the full filter chain. The spool directory is this class's own, since
+ * every manager deletes the spool files it finds on startup.
+ */
+@SpringBootTest(properties = {
+        "password.export.spool-dir=${java.io.tmpdir}/password-exports-controller-test",
+        "password.export.ttl=1h",
+        "password.export.retain-after-download=10m"
+})
+@AutoConfigureMockMvc
+@DisplayName("Export Job Controller Tests")
+public class ExportJobControllerTest {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ExportJobManager exportJobManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should only mark a job downloaded once the end of its file has been sent")
+    public void testMarkedDownloadedAfterTransfer() throws Exception {
+        ExportJob job = completedJob("10.2.0.1");
+        Instant expiry = job.getExpiresAt();
+
+        mockMvc.perform(from(download(job).header(HttpHeaders.RANGE, "bytes=0-9"), "10.2.0.1"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-9/50"));
+        assertNull(job.getDownloadedAt(), "A partial transfer is not a download");
+        assertEquals(expiry, job.getExpiresAt());
+
+        byte[] body = mockMvc.perform(from(download(job), "10.2.0.1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(50, body.length);
+        assertNotNull(job.getDownloadedAt());
+        assertTrue(job.getExpiresAt().isBefore(expiry), "A full download shortens the job's life");
+    }
+
+    @Test
+    @DisplayName("Should hand the file to sendfile without shortening the job's life")
+    public void testSendfileKeepsJob() throws Exception {
+        ExportJob job = completedJob("10.2.0.2");
+        Instant expiry = job.getExpiresAt();
+
+        mockMvc.perform(from(download(job).requestAttr(SENDFILE_SUPPORT, true), "10.2.0.2"))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 50))
+                .andExpect(request().attribute(SENDFILE_FILENAME,
+                        exportJobManager.spoolFile(job).toAbsolutePath().toString()));
+        assertNull(job.getDownloadedAt(), "The connector has not sent anything yet");
+        assertFalse(job.getExpiresAt().isBefore(expiry));
+    }
+
+    @Test
+    @DisplayName("Should refuse to hash exports or write unknown formats, with prebuilt error bodies")
+    public void testRejectsHashAndFormat() throws Exception {
+        assertCreateRejected("{\"count\":10,\"template\":\"9999\",\"hash\":\"BCRYPT\"}",
+                ParameterError.EXPORT_HASH_UNSUPPORTED);
+        assertCreateRejected("{\"count\":10,\"template\":\"9999\",\"format\":\"csv\"}",
+                ParameterError.EXPORT_FORMAT_INVALID);
+    }
+
+    private void assertCreateRejected(String body, ParameterError error) throws Exception {
+        mockMvc.perform(from(post("/api/export-jobs").contentType(MediaType.APPLICATION_JSON).content(body),
+                        "10.2.0.3"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.error").value(error.getCategory().getTitle()))
+                .andExpect(jsonPath("$.message").value(error.getMessage()));
+    }
+
+    private ExportJob completedJob(String client) throws Exception {
+        String created = mockMvc.perform(from(post("/api/export-jobs").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"count\":10,\"template\":\"9999\",\"format\":\"text\"}"), client))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode status = objectMapper.readTree(created);
+        ExportJob job = exportJobManager.get(status.get("id").asText());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!job.getState().isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(ExportJob.State.COMPLETED, job.getState());
+        assertEquals(50, job.getSizeBytes());
+        return job;
+    }
+
+    private static MockHttpServletRequestBuilder download(ExportJob job) {
+        return get("/api/export-jobs/" + job.getId() + "/download");
+    }
+}
@@ -0,0 +1,278 @@
+package com.passwordgenerator;
+
+import com.passwordgenerator.controller.ByteRange;
+import com.passwordgenerator.controller.PasswordResponseWriter;
+import com.passwordgenerator.exception.InvalidPasswordParametersException;
+import com.passwordgenerator.exception.RateLimitExceededException;
+import com.passwordgenerator.service.ClassRequirements;
+import com.passwordgenerator.service.PasswordGeneratorService;
+import com.passwordgenerator.service.export.ExportJob;
+import com.passwordgenerator.service.export.ExportJobManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Export Job Tests")
+public class ExportJobTest {
+
+    private final PasswordGeneratorService service = new PasswordGeneratorService();
+    private final PasswordResponseWriter writer = new PasswordResponseWriter(1024, 1);
+
+    @TempDir
+    Path spoolDirectory;
+
+    @Test
+    @DisplayName("Should generate an encrypted spool file that only the returned key decrypts")
+    public void testEncryptedSpool() throws Exception {
+        try (ExportJobManager manager = manager(Clock.systemUTC(), writer::writeBatch)) {
+            ExportJobManager.Submission submission = manager.submit(
+                    service.prepareExportFromTemplate(20_000, 50_000_000, "Aaaa-9999", false), false);
+            ExportJob job = awaitFinished(submission.job());
+
+            assertEquals(ExportJob.State.COMPLETED, job.getState());
+            assertEquals(20_000, job.getGenerated());
+            Path file = manager.spoolFile(job);
+            byte[] encrypted = Files.readAllBytes(file);
+            assertEquals(job.getSizeBytes(), encrypted.length);
+            assertFalse(new String(encrypted, StandardCharsets.ISO_8859_1).contains("{\"password\""));
+
+            Cipher cipher = Cipher.getInstance("AES/CTR/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(submission.key(), "AES"),
+                    new IvParameterSpec(submission.iv()));
+            byte[] plain = cipher.doFinal(encrypted);
+            String[] lines = new String(plain, StandardCharsets.UTF_8).split("\n");
+            assertEquals(20_000, lines.length);
+            for (String line : lines) {
+                assertTrue(line.matches("\\{\"password\":\"[A-Z][a-z]{3}-[0-9]{4}\"}"), line);
+            }
+
+            // CTR mode: the file decrypts from any block, which is what makes Range resumes work
+            int offset = 16 * 1000;
+            cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(submission.key(), "AES"),
+                    new IvParameterSpec(advance(submission.iv(), offset / 16)));
+            assertArrayEquals(Arrays.copyOfRange(plain, offset, plain.length),
+                    cipher.doFinal(encrypted, offset, encrypted.length - offset));
+        }
+    }
+
+    @Test
+    @DisplayName("Should wipe and delete finished jobs once they expire, sooner after a full download")
+    public void testExpiry() throws Exception {
+        AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-01-01T00:00:00Z"));
+        try (ExportJobManager manager = manager(fixedClock(now), writer::writeBatch)) {
+            ExportJob kept = awaitFinished(manager.submit(
+                    service.prepareExportFromTemplate(10, 100, "9999", false), true).job());
+            ExportJob downloaded = awaitFinished(manager.submit(
+                    service.prepareExportFromTemplate(10, 100, "9999", false), true).job());
+            assertEquals(50, kept.getSizeBytes());
+            Instant expiry = kept.getExpiresAt();
+            manager.holdForTransfer(kept);
+            assertEquals(expiry, kept.getExpiresAt(), "Holding a job for a transfer never shortens its life");
+            manager.markDownloaded(downloaded);
+
+            now.set(now.get().plus(Duration.ofMinutes(11)));
+            manager.sweep();
+            assertNull(manager.get(downloaded.getId()));
+            assertFalse(Files.exists(manager.spoolFile(downloaded)));
+            assertSame(kept, manager.get(kept.getId()));
+
+            // A transfer starting just before expiry keeps the file for the grace period
+            now.set(expiry.minus(Duration.ofMinutes(1)));
+            manager.holdForTransfer(kept);
+            assertEquals(now.get().plus(Duration.ofMinutes(10)), kept.getExpiresAt());
+            now.set(expiry.plus(Duration.ofMinutes(5)));
+            manager.sweep();
+            assertSame(kept, manager.get(kept.getId()));
+
+            now.set(now.get().plus(Duration.ofHours(1)));
+            manager.sweep();
+            assertEquals(0, manager.getJobCount());
+            assertFalse(Files.exists(manager.spoolFile(kept)));
+            assertEquals(2, manager.getDeletedFiles());
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse jobs beyond the queue, cancel deleted jobs and reject oversized exports")
+    public void testLimitsAndCancellation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExportJobManager.BatchWriter blocking = (batch, out, plainText) -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer.writeBatch(batch, out, plainText);
+        };
+        try (ExportJobManager manager = manager(Clock.systemUTC(), blocking)) {
+            // One running and one queued job fill a single thread with a queue of one
+            ExportJob running = manager.submit(service.prepareExportFromTemplate(200_000, 1_000_000, "a{12}", false),
+                    false).job();
+            ExportJob queued = manager.submit(service.prepareExportFromTemplate(5, 100, "9", false), false).job();
+            awaitState(running, ExportJob.State.RUNNING);
+            RateLimitExceededException refused = assertThrows(RateLimitExceededException.class, () ->
+                    manager.submit(service.prepareExportFromTemplate(5, 100, "9", false), false));
+            assertEquals(30, refused.getRetryAfterSeconds());
+            assertEquals(2, manager.getJobCount());
+
+            assertTrue(manager.delete(running.getId()));
+            assertFalse(manager.delete(running.getId()));
+            release.countDown();
+            assertEquals(ExportJob.State.CANCELLED, awaitFinished(running).getState());
+            assertFalse(Files.exists(manager.spoolFile(running)));
+            assertEquals(ExportJob.State.COMPLETED, awaitFinished(queued).getState());
+        }
+
+        assertThrows(InvalidPasswordParametersException.class, () ->
+                service.prepareExport(101, 100, 8, true, false, false, false, ClassRequirements.NONE, false));
+        assertThrows(InvalidPasswordParametersException.class, () ->
+                service.prepareExport(1_000_001, 50_000_000, 32, true, true, true, true, ClassRequirements.NONE, true));
+        assertEquals(2_000_000, service.prepareExport(2_000_000, 50_000_000, 8, true, false, false, false,
+                ClassRequirements.NONE, false).count());
+    }
+
+    @Test
+    @DisplayName("Should never hold more jobs than the limit, however many are submitted at once")
+    public void testJobLimit() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExportJobManager.BatchWriter blocking = (batch, out, plainText) -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer.writeBatch(batch, out, plainText);
+        };
+        // The queue has room for every submission, so only the job limit can refuse them
+        try (ExportJobManager manager = new ExportJobManager(spoolDirectory, 1, 64, 4, Duration.ofHours(1),
+                Duration.ofMinutes(10), null, blocking, Clock.systemUTC());
+             ExecutorService submitters = Executors.newFixedThreadPool(16)) {
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<String>> submissions = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                submissions.add(submitters.submit(() -> {
+                    go.await();
+                    try {
+                        return manager.submit(service.prepareExportFromTemplate(5, 100, "9", false), false)
+                                .job().getId();
+                    } catch (RateLimitExceededException e) {
+                        return null;
+                    }
+                }));
+            }
+            go.countDown();
+            List<String> accepted = new ArrayList<>();
+            for (Future<String> submission : submissions) {
+                String id = submission.get(10, TimeUnit.SECONDS);
+                if (id != null) {
+                    accepted.add(id);
+                }
+            }
+            assertEquals(4, accepted.size());
+            assertEquals(4, manager.getJobCount());
+            assertThrows(RateLimitExceededException.class, () ->
+                    manager.submit(service.prepareExportFromTemplate(5, 100, "9", false), false));
+
+            // Deleting a job frees its slot
+            assertTrue(manager.delete(accepted.get(0)));
+            manager.submit(service.prepareExportFromTemplate(5, 100, "9", false), false);
+            assertEquals(4, manager.getJobCount());
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should parse single byte ranges and ignore the ones it cannot serve")
+    public void testByteRange() {
+        assertEquals(new ByteRange(0, 100), ByteRange.parse("bytes=0-99", 1000));
+        assertEquals(new ByteRange(500, 1000), ByteRange.parse("bytes=500-", 1000));
+        assertEquals(new ByteRange(900, 1000), ByteRange.parse("bytes=-100", 1000));
+        assertEquals(new ByteRange(0, 1000), ByteRange.parse("bytes=-5000", 1000));
+        assertEquals(new ByteRange(990, 1000), ByteRange.parse("bytes=990-5000", 1000));
+        assertEquals(100, ByteRange.parse("bytes=0-99", 1000).length());
+
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=1000-", 1000));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=-0", 1000));
+
+        assertNull(ByteRange.parse(null, 1000));
+        assertNull(ByteRange.parse("bytes=0-10,20-30", 1000));
+        assertNull(ByteRange.parse("bytes=20-10", 1000));
+        assertNull(ByteRange.parse("bytes=x-10", 1000));
+        assertNull(ByteRange.parse("items=0-10", 1000));
+        assertNull(ByteRange.parse("bytes=99999999999999999999-", 1000));
+    }
+
+    private ExportJobManager manager(Clock clock, ExportJobManager.BatchWriter batchWriter) {
+        return new ExportJobManager(spoolDirectory, 1, 1, 4, Duration.ofHours(1), Duration.ofMinutes(10), null,
+                batchWriter, clock);
+    }
+
+    private static byte[] advance(byte[] iv, long blocks) {
+        byte[] counter = iv.clone();
+        for (int i = counter.length - 1; i >= 0 && blocks != 0; i--) {
+            long sum = (counter[i] & 0xFF) + (blocks & 0xFF);
+            counter[i] = (byte) sum;
+            blocks = (blocks >>> 8) + (sum >>> 8);
+        }
+        return counter;
+    }
+
+    private static Clock fixedClock(AtomicReference<Instant> now) {
+        return new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+    }
+
+    private static ExportJob awaitFinished(ExportJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!job.getState().isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(job.getState().isFinished(), "Job did not finish: " + job.getState());
+        return job;
+    }
+
+    private static void awaitState(ExportJob job, ExportJob.State state) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (job.getState() != state && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(state, job.getState());
+    }
+}
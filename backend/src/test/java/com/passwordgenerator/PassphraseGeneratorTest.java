@@ -0,0 +1,154 @@
+package com.passwordgenerator;
+
+import com.passwordgenerator.exception.FeatureNotConfiguredException;
+import com.passwordgenerator.exception.ParameterError;
+import com.passwordgenerator.service.PasswordGeneratorService;
+import com.passwordgenerator.service.passphrase.Capitalization;
+import com.passwordgenerator.service.passphrase.WordList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Passphrase Generator Tests")
+public class PassphraseGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private PasswordGeneratorService passwordGeneratorService;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Path source = tempDir.resolve("eff.txt");
+        Files.write(source, List.of(
+                "# sample diceware list",
+                "11111\tabacus",
+                "11112\tabdomen",
+                "",
+                "11113\tabdominal",
+                "11114\télan"), StandardCharsets.UTF_8);
+
+        passwordGeneratorService = new PasswordGeneratorService();
+        passwordGeneratorService.setWordList(WordList.open(source, tempDir.resolve("index")));
+    }
+
+    @Test
+    @DisplayName("Should compile a diceware list into an offset index")
+    public void testCompilesIndex() {
+        WordList list = WordList.open(tempDir.resolve("eff.txt"), tempDir.resolve("index"));
+
+        assertEquals(4, list.size());
+        assertEquals("abacus", list.word(0));
+        assertEquals("abdominal", list.word(2));
+        assertEquals("élan", list.word(3));
+        assertTrue(Files.exists(WordList.indexFile(tempDir.resolve("eff.txt"), tempDir.resolve("index"))));
+    }
+
+    @Test
+    @DisplayName("Should keep separate indexes for lists with the same file name")
+    public void testIndexKeyedOnPath() throws IOException {
+        Path other = Files.createDirectories(tempDir.resolve("other")).resolve("eff.txt");
+        Files.write(other, List.of("zebra", "zephyr"), StandardCharsets.UTF_8);
+
+        WordList list = WordList.open(other, tempDir.resolve("index"));
+        assertEquals(2, list.size());
+        assertEquals("zephyr", list.word(1));
+        assertNotEquals(WordList.indexFile(tempDir.resolve("eff.txt"), tempDir.resolve("index")),
+                WordList.indexFile(other, tempDir.resolve("index")));
+        assertEquals(4, WordList.open(tempDir.resolve("eff.txt"), tempDir.resolve("index")).size());
+    }
+
+    @Test
+    @DisplayName("Should recompile when the list changes even if its modification time does not")
+    public void testRecompilesChangedList() throws IOException {
+        Path source = tempDir.resolve("eff.txt");
+        FileTime modified = Files.getLastModifiedTime(source);
+        Files.write(source, List.of("alpha", "bravo", "charlie"), StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(source, modified);
+
+        WordList list = WordList.open(source, tempDir.resolve("index"));
+        assertEquals(3, list.size());
+        assertEquals("charlie", list.word(2));
+    }
+
+    @Test
+    @DisplayName("Should reject a list that repeats a word")
+    public void testRejectsDuplicateWords() throws IOException {
+        Path source = tempDir.resolve("repeats.txt");
+        Files.write(source, List.of("11111\tabacus", "11112\tabdomen", "11113\tabacus"), StandardCharsets.UTF_8);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> WordList.open(source, tempDir.resolve("index")));
+        assertTrue(e.getMessage().contains("'abacus' (words 1 and 3)"), e.getMessage());
+        assertFalse(Files.exists(WordList.indexFile(source, tempDir.resolve("index"))));
+    }
+
+    @Test
+    @DisplayName("Should map a compiled index directly")
+    public void testOpensCompiledIndex() {
+        Path index = WordList.indexFile(tempDir.resolve("eff.txt"), tempDir.resolve("index"));
+        WordList list = WordList.open(index, tempDir);
+
+        assertEquals(4, list.size());
+        assertEquals("abdomen", list.word(1));
+    }
+
+    @Test
+    @DisplayName("Should generate passphrase with separator and capitalization")
+    public void testGeneratesPassphrase() {
+        String passphrase = passwordGeneratorService.generatePassphrase(5, ".", Capitalization.FIRST, 0);
+
+        String[] words = passphrase.split("\\.");
+        assertEquals(5, words.length);
+        for (String word : words) {
+            assertTrue(List.of("Abacus", "Abdomen", "Abdominal", "Élan").contains(word), word);
+        }
+    }
+
+    @Test
+    @DisplayName("Should inject the requested number of digits")
+    public void testInjectsDigits() {
+        String passphrase = passwordGeneratorService.generatePassphrase(4, "-", Capitalization.UPPER, 3);
+
+        assertEquals(3, passphrase.chars().filter(Character::isDigit).count());
+        assertEquals(passphrase.toUpperCase(), passphrase);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid passphrase parameters")
+    public void testRejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class,
+                () -> passwordGeneratorService.generatePassphrase(0, "-", Capitalization.NONE, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> passwordGeneratorService.generatePassphrase(4, "-", Capitalization.NONE, 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> passwordGeneratorService.generatePassphrase(4, "123456789", Capitalization.NONE, 0));
+
+        assertNull(passwordGeneratorService.checkPassphraseParameters(4, "", Capitalization.NONE, 4));
+        assertEquals(ParameterError.PASSPHRASE_WORDS_OUT_OF_RANGE,
+                passwordGeneratorService.checkPassphraseParameters(65, "-", Capitalization.NONE, 0));
+        assertEquals(ParameterError.SEPARATOR_INVALID,
+                passwordGeneratorService.checkPassphraseParameters(4, null, Capitalization.NONE, 0));
+        assertEquals(ParameterError.CAPITALIZATION_REQUIRED,
+                passwordGeneratorService.checkPassphraseParameters(4, "-", null, 0));
+        assertEquals(ParameterError.DIGITS_OUT_OF_RANGE,
+                passwordGeneratorService.checkPassphraseParameters(4, "-", Capitalization.NONE, -1));
+    }
+
+    @Test
+    @DisplayName("Should report missing word list as not configured")
+    public void testRequiresWordList() {
+        assertThrows(FeatureNotConfiguredException.class,
+                () -> new PasswordGeneratorService().generatePassphrase(4, "-", Capitalization.NONE, 0));
+    }
+}
@@ -0,0 +1,396 @@
+package com.passwordgenerator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.passwordgenerator.controller.PasswordController;
+import com.passwordgenerator.exception.ParameterError;
+import com.passwordgenerator.service.hash.HashingPool;
+import com.passwordgenerator.service.hash.PasswordHasher;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.bouncycastle.crypto.generators.OpenBSDBCrypt;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.passwordgenerator.TestRequests.from;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Controller tests through the full filter chain. Each test uses its own client address, so
+ * the rate limiter's buckets never carry over between tests. Refill is slow enough that a
+ * client which has spent its bucket stays blocked for the rest of the run, which is how the
+ * stream tests hold a stream open.
+ */
+@SpringBootTest(properties = {
+        "password.ratelimit.capacity=20",
+        "password.ratelimit.refill-per-second=0.01",
+        "password.stream.max-concurrent=2",
+        "password.hash.enabled=false"
+})
+@AutoConfigureMockMvc
+@DisplayName("Password Controller Tests")
+public class PasswordControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordController passwordController;
+
+    @Autowired
+    private HashingPool hashingPool;
+
+    /** Hashes wait here before drawing their salt; open unless a test is holding the pool. */
+    private static volatile CountDownLatch hashGate = new CountDownLatch(0);
+
+    /**
+     * Stands in for the configured hashing pool (password.hash.enabled=false): one worker, one
+     * slot, and hashes that wait at {@link #hashGate}, so a test can fill the pool on purpose.
+     */
+    @TestConfiguration
+    static class GatedHashing {
+
+        @Bean(destroyMethod = "close")
+        HashingPool hashingPool() {
+            SecureRandom random = new SecureRandom();
+            return new HashingPool(new PasswordHasher(bytes -> {
+                try {
+                    hashGate.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                random.nextBytes(bytes);
+            }), 1, 1);
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<MvcResult> openStreams = new ArrayList<>();
+
+    @AfterEach
+    public void closeStreams() throws IOException {
+        for (MvcResult stream : openStreams) {
+            abort(stream);
+        }
+        assertEquals(0, passwordController.getActiveStreams(), "Every stream slot should be released");
+    }
+
+    @Test
+    @DisplayName("Should stream exactly count events in batches, then release the stream slot")
+    public void testStreamCount() throws Exception {
+        MvcResult result = mockMvc.perform(from(stream(5, 2), "10.1.0.1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult(10_000);
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] events = body.split("\n\n");
+        assertEquals(5, events.length, body);
+        for (String event : events) {
+            assertTrue(event.matches("data: \\{\"password\":\"[a-z]{6}\"}"), event);
+        }
+        assertTrue(body.endsWith("\n\n"));
+        assertEquals(0, passwordController.getActiveStreams());
+    }
+
+    @Test
+    @DisplayName("Should reject stream counts and batch sizes out of range")
+    public void testStreamParameters() throws Exception {
+        mockMvc.perform(from(stream(0, 1), "10.1.0.2"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Illegal Argument"))
+                .andExpect(jsonPath("$.message").value(ParameterError.STREAM_COUNT_OUT_OF_RANGE.getMessage()));
+        mockMvc.perform(from(stream(5, 0), "10.1.0.2"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ParameterError.STREAM_BATCH_SIZE_OUT_OF_RANGE.getMessage()));
+        mockMvc.perform(from(stream(5, 257), "10.1.0.2"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ParameterError.STREAM_BATCH_SIZE_OUT_OF_RANGE.getMessage()));
+        assertEquals(0, passwordController.getActiveStreams());
+    }
+
+    @Test
+    @DisplayName("Should refuse streams over the cap with 429 and free the slot when a client aborts")
+    public void testStreamCap() throws Exception {
+        // Unbounded streams that stall once their client's bucket is spent
+        openStreams.add(mockMvc.perform(from(stream(null, 1), "10.1.0.3")).andExpect(request().asyncStarted()).andReturn());
+        openStreams.add(mockMvc.perform(from(stream(null, 1), "10.1.0.4")).andExpect(request().asyncStarted()).andReturn());
+        assertEquals(2, passwordController.getActiveStreams());
+
+        mockMvc.perform(from(stream(null, 1), "10.1.0.5"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+        assertEquals(2, passwordController.getActiveStreams());
+
+        abort(openStreams.remove(0));
+        assertEquals(1, passwordController.getActiveStreams());
+        openStreams.add(mockMvc.perform(from(stream(null, 1), "10.1.0.5")).andExpect(request().asyncStarted()).andReturn());
+        assertEquals(2, passwordController.getActiveStreams());
+    }
+
+    @Test
+    @DisplayName("Should answer invalid passphrase, strength and breach requests from prebuilt error bodies")
+    public void testPrebuiltParameterErrors() throws Exception {
+        mockMvc.perform(from(get("/api/generate-passphrase").param("words", "65"), "10.1.0.6"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Illegal Argument"))
+                .andExpect(jsonPath("$.message").value(ParameterError.PASSPHRASE_WORDS_OUT_OF_RANGE.getMessage()));
+        mockMvc.perform(from(get("/api/generate-passphrase").param("words", "4").param("digits", "5"), "10.1.0.6"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ParameterError.DIGITS_OUT_OF_RANGE.getMessage()));
+        mockMvc.perform(from(post("/api/estimate-strength").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"password\":\"\"}"), "10.1.0.6"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ParameterError.PASSWORD_REQUIRED.getMessage()));
+        mockMvc.perform(from(post("/api/check-breached").contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"), "10.1.0.6"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ParameterError.PASSWORD_REQUIRED.getMessage()));
+        mockMvc.perform(from(get("/api/generate-password-from-template").param("template", ""), "10.1.0.6"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid Password Parameters"))
+                .andExpect(jsonPath("$.message").value(ParameterError.TEMPLATE_REQUIRED.getMessage()));
+    }
+
+    @Test
+    @DisplayName("Should answer invalid bulk hash and uniqueness requests from prebuilt error bodies")
+    public void testBulkParameterErrors() throws Exception {
+        assertBulkRejected("{\"count\":5,\"length\":10,\"includeLowercase\":true,\"hashCost\":4}",
+                ParameterError.HASH_ALGORITHM_REQUIRED);
+        assertBulkRejected("{\"count\":5,\"length\":10,\"includeLowercase\":true,\"hash\":\"BCRYPT\",\"hashCost\":3}",
+                ParameterError.HASH_COST_OUT_OF_RANGE);
+        assertBulkRejected("{\"count\":10001,\"length\":10,\"includeLowercase\":true,\"hash\":\"BCRYPT\"}",
+                ParameterError.HASHED_COUNT_OUT_OF_RANGE);
+        assertBulkRejected("{\"count\":5,\"length\":73,\"includeLowercase\":true,\"hash\":\"BCRYPT\"}",
+                ParameterError.HASH_PASSWORD_TOO_LONG);
+        // 40 characters, but 80 bytes once UTF-8 encoded
+        assertBulkRejected("{\"count\":5,\"length\":40,\"alphabet\":\"é\",\"hash\":\"BCRYPT\"}",
+                ParameterError.HASH_PASSWORD_TOO_LONG);
+        assertBulkRejected("{\"count\":5,\"template\":\"a{40}é{20}\",\"hash\":\"BCRYPT\"}",
+                ParameterError.HASH_PASSWORD_TOO_LONG);
+        assertBulkRejected("{\"count\":501,\"template\":\"9{3}\",\"unique\":true}",
+                ParameterError.UNIQUE_COUNT_EXCEEDS_KEYSPACE);
+    }
+
+    private void assertBulkRejected(String body, ParameterError error) throws Exception {
+        mockMvc.perform(from(post("/api/generate-passwords").contentType(MediaType.APPLICATION_JSON).content(body),
+                        "10.1.0.13"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.error").value(error.getCategory().getTitle()))
+                .andExpect(jsonPath("$.message").value(error.getMessage()));
+    }
+
+    @Test
+    @DisplayName("Should stream a bulk batch as NDJSON, one object per line, or as plain lines on request")
+    public void testBulkFraming() throws Exception {
+        String batch = "{\"count\":5,\"length\":10,\"includeLowercase\":true}";
+        MvcResult result = mockMvc.perform(from(post("/api/generate-passwords")
+                        .contentType(MediaType.APPLICATION_JSON).content(batch), "10.1.0.7"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(body.endsWith("\n"), "Every line should be terminated");
+        String[] lines = body.split("\n");
+        assertEquals(5, lines.length, body);
+        for (String line : lines) {
+            assertTrue(line.matches("\\{\"password\":\"[a-z]{10}\"}"), line);
+        }
+
+        result = mockMvc.perform(from(post("/api/generate-passwords").accept(MediaType.TEXT_PLAIN)
+                        .contentType(MediaType.APPLICATION_JSON).content(batch), "10.1.0.7"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(body.matches("([a-z]{10}\n){5}"), body);
+
+        // Parameters are checked before the response is committed
+        mockMvc.perform(from(post("/api/generate-passwords").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"count\":0,\"length\":10,\"includeLowercase\":true}"), "10.1.0.7"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+    }
+
+    @Test
+    @DisplayName("Should write /generate-password responses in the PasswordResponse shape, or as bare text")
+    public void testGeneratePasswordResponses() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(from(get("/api/generate-password")
+                        .param("length", "12").param("includeUppercase", "true").param("includeNumbers", "true"),
+                        "10.1.0.8"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.password").value(matchesPattern("[A-Z0-9]{12}")))
+                .andExpect(jsonPath("$.length").value(12))
+                .andExpect(jsonPath("$.includeUppercase").value(true))
+                .andExpect(jsonPath("$.includeLowercase").value(false))
+                .andExpect(jsonPath("$.includeNumbers").value(true))
+                .andExpect(jsonPath("$.includeSymbols").value(false))
+                .andReturn().getResponse();
+        // Exactly the fields Jackson would write for the bean, and a Content-Length that matches
+        JsonNode json = objectMapper.readTree(response.getContentAsString());
+        List<String> fields = new ArrayList<>();
+        json.fieldNames().forEachRemaining(fields::add);
+        assertEquals(List.of("password", "length", "includeUppercase", "includeLowercase", "includeNumbers",
+                "includeSymbols"), fields);
+        assertEquals(response.getContentAsByteArray().length, response.getContentLength());
+
+        mockMvc.perform(from(get("/api/generate-password").accept(MediaType.TEXT_PLAIN)
+                        .param("length", "8").param("alphabet", "äöü"), "10.1.0.8"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/plain;charset=UTF-8"))
+                .andExpect(content().string(matchesPattern("[äöü]{8}")));
+
+        // The strength variant goes through the response bean and adds its field
+        mockMvc.perform(from(get("/api/generate-password").param("length", "16")
+                        .param("includeLowercase", "true").param("estimateStrength", "true"), "10.1.0.8"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length").value(16))
+                .andExpect(jsonPath("$.strength").exists());
+    }
+
+    @Test
+    @DisplayName("Should answer invalid /generate-password parameters with prebuilt 400 bodies")
+    public void testGeneratePasswordErrors() throws Exception {
+        mockMvc.perform(from(get("/api/generate-password").param("length", "0")
+                        .param("includeLowercase", "true"), "10.1.0.9"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.error").value("Illegal Argument"))
+                .andExpect(jsonPath("$.message").value(ParameterError.LENGTH_OUT_OF_RANGE.getMessage()))
+                .andExpect(jsonPath("$.timestamp").exists());
+        mockMvc.perform(from(get("/api/generate-password").param("length", "12"), "10.1.0.9"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid Password Parameters"))
+                .andExpect(jsonPath("$.message").value(ParameterError.NO_CHARACTER_TYPE.getMessage()));
+        mockMvc.perform(from(get("/api/generate-password").param("length", "12").param("alphabet", "a b"),
+                        "10.1.0.9"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ParameterError.CUSTOM_ALPHABET_INVISIBLE.getMessage()));
+        // Plain-text clients get the same JSON error
+        mockMvc.perform(from(get("/api/generate-password").accept(MediaType.TEXT_PLAIN)
+                        .param("includeLowercase", "true"), "10.1.0.9"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ParameterError.LENGTH_REQUIRED.getMessage()));
+    }
+
+    @Test
+    @DisplayName("Should route requests with a hash parameter to the hashed variant")
+    public void testHashRouting() throws Exception {
+        MvcResult result = mockMvc.perform(from(hashed(4), "10.1.0.10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length").value(12))
+                .andExpect(jsonPath("$.hash").value(matchesPattern("\\$2b\\$04\\$[./A-Za-z0-9]{53}")))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode json = objectMapper.readTree(body);
+        assertTrue(OpenBSDBCrypt.checkPassword(json.get("hash").asText(), json.get("password").asText().toCharArray()));
+
+        // Without it, the plain variant answers directly and has no hash field
+        mockMvc.perform(from(get("/api/generate-password").param("length", "12")
+                        .param("includeLowercase", "true"), "10.1.0.10"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hash").doesNotExist());
+        mockMvc.perform(from(hashed(3), "10.1.0.10"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should refuse hashed requests with 429 while every hashing slot is taken")
+    public void testHashingPoolFull() throws Exception {
+        hashGate = new CountDownLatch(1);
+        try {
+            MvcResult held = mockMvc.perform(from(hashed(4), "10.1.0.11"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(from(hashed(4), "10.1.0.12"))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                    .andExpect(jsonPath("$.status").value(429));
+            assertEquals(1, hashingPool.getRejected());
+
+            hashGate.countDown();
+            held.getAsyncResult(10_000);
+            mockMvc.perform(asyncDispatch(held))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.hash").exists());
+        } finally {
+            hashGate.countDown();
+        }
+    }
+
+    private static MockHttpServletRequestBuilder hashed(int bcryptCost) {
+        return get("/api/generate-password")
+                .param("length", "12")
+                .param("includeLowercase", "true")
+                .param("hash", "BCRYPT")
+                .param("hashCost", Integer.toString(bcryptCost));
+    }
+
+    private static MockHttpServletRequestBuilder stream(Integer count, int batchSize) {
+        MockHttpServletRequestBuilder request = get("/api/stream-passwords")
+                .param("length", "6")
+                .param("includeLowercase", "true")
+                .param("batchSize", Integer.toString(batchSize));
+        return count != null ? request.param("count", count.toString()) : request;
+    }
+
+    /**
+     * Does what the container does when a client goes away mid-stream: reports the error to the
+     * async listeners, then completes the request.
+     */
+    private static void abort(MvcResult stream) throws IOException {
+        AsyncContext context = stream.getRequest().getAsyncContext();
+        AsyncEvent event = new AsyncEvent(context, new IOException("Connection reset by peer"));
+        for (AsyncListener listener : ((MockAsyncContext) context).getListeners()) {
+            listener.onError(event);
+        }
+        context.complete();
+    }
+}
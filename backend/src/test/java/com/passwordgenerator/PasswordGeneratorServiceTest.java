@@ -1,12 +1,30 @@
 package com.passwordgenerator;
 
 import com.passwordgenerator.exception.InvalidPasswordParametersException;
+import com.passwordgenerator.exception.ParameterError;
+import com.passwordgenerator.service.BoundedCache;
+import com.passwordgenerator.service.CharsetOptions;
+import com.passwordgenerator.service.ClassRequirements;
+import com.passwordgenerator.service.FingerprintSet;
+import com.passwordgenerator.service.PasswordBatch;
 import com.passwordgenerator.service.PasswordGeneratorService;
+import com.passwordgenerator.service.random.RandomSource;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 @DisplayName("Password Generator Service Tests")
 public class PasswordGeneratorServiceTest {
@@ -193,4 +211,521 @@ public class PasswordGeneratorServiceTest {
         assertEquals(20, password.length());
         assertTrue(password.matches("[A-Z]{20}"));
     }
+
+    @Test
+    @DisplayName("Should generate requested number of passwords in bulk")
+    public void testGeneratePasswordsInBulk() {
+        List<String> passwords = passwordGeneratorService.generatePasswords(
+                500, 12, true, true, true, false).collect(Collectors.toList());
+
+        assertEquals(500, passwords.size());
+        passwords.forEach(p -> assertTrue(p.matches("[A-Za-z0-9]{12}")));
+    }
+
+    @Test
+    @DisplayName("Should reject bulk count outside the allowed range")
+    public void testThrowExceptionWhenBulkCountInvalid() {
+        assertThrows(IllegalArgumentException.class, () ->
+                passwordGeneratorService.generatePasswords(0, 12, true, true, true, true));
+        assertThrows(IllegalArgumentException.class, () ->
+                passwordGeneratorService.generatePasswords(1_000_001, 12, true, true, true, true));
+    }
+
+    @Test
+    @DisplayName("Should sample every pool character uniformly")
+    public void testCharacterDistributionIsUniform() {
+        // Pool sizes 92 and 10 do not divide 256, so any modulo bias would show up clearly
+        assertUniform(true, true, true, true);
+        assertUniform(false, false, true, false);
+    }
+
+    @Test
+    @DisplayName("Should generate password matching a template")
+    public void testGenerateFromTemplate() {
+        String password = passwordGeneratorService.generateFromTemplate("Aaaa-9999-!!");
+
+        assertTrue(password.matches("[A-Z][a-z]{3}-[0-9]{4}-[!@#$%^&*()\\-_=+\\[\\]{}|;:',.<>?/`~]{2}"), password);
+    }
+
+    @Test
+    @DisplayName("Should expand repetitions, escapes and shuffle")
+    public void testGenerateFromTemplateWithRepetitionAndShuffle() {
+        String password = passwordGeneratorService.generateFromTemplate("~L{3}9{4}\\A");
+
+        assertEquals(8, password.length());
+        // Three random letters plus the escaped literal 'A'
+        assertEquals(4, password.chars().filter(Character::isLetter).count());
+        assertEquals(4, password.chars().filter(Character::isDigit).count());
+        assertTrue(password.indexOf('A') >= 0);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed templates")
+    public void testRejectMalformedTemplates() {
+        assertThrows(InvalidPasswordParametersException.class, () -> passwordGeneratorService.generateFromTemplate(""));
+        assertThrows(InvalidPasswordParametersException.class, () -> passwordGeneratorService.generateFromTemplate("{3}"));
+        assertThrows(InvalidPasswordParametersException.class, () -> passwordGeneratorService.generateFromTemplate("a{3"));
+        assertThrows(InvalidPasswordParametersException.class, () -> passwordGeneratorService.generateFromTemplate("a{x}"));
+        assertThrows(InvalidPasswordParametersException.class, () -> passwordGeneratorService.generateFromTemplate("a{1025}"));
+        assertThrows(InvalidPasswordParametersException.class, () -> passwordGeneratorService.generateFromTemplate("~"));
+    }
+
+    @Test
+    @DisplayName("Should shuffle templates uniformly with one random draw for all swap indices")
+    public void testTemplateShuffleDrawsIndicesInBulk() {
+        SecureRandom random = new SecureRandom();
+        AtomicInteger draws = new AtomicInteger();
+        PasswordGeneratorService counting = new PasswordGeneratorService(bytes -> {
+            draws.incrementAndGet();
+            random.nextBytes(bytes);
+        });
+
+        // Literals cost nothing: one draw for the digit and one for all 1023 swaps
+        String password = counting.generateFromTemplate("~-{1023}9");
+        assertEquals(1024, password.length());
+        assertTrue(password.matches("-*[0-9]-*"), password);
+        assertEquals(2, draws.get());
+
+        int[] digitPositions = new int[4];
+        for (int i = 0; i < 4000; i++) {
+            digitPositions[counting.generateFromTemplate("~---9").replaceAll("[0-9].*", "").length()]++;
+        }
+        for (int count : digitPositions) {
+            assertTrue(count > 850 && count < 1150, Arrays.toString(digitPositions));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject supplementary-plane literals, which shuffling would split into lone surrogates")
+    public void testRejectSupplementaryTemplateLiterals() {
+        InvalidPasswordParametersException e = assertThrows(InvalidPasswordParametersException.class,
+                () -> passwordGeneratorService.generateFromTemplate("~a{8}🔑"));
+        assertTrue(e.getMessage().contains("position 5"), e.getMessage());
+        assertThrows(InvalidPasswordParametersException.class,
+                () -> passwordGeneratorService.generateFromTemplate("9{4}\\🔑"));
+        assertThrows(InvalidPasswordParametersException.class,
+                () -> passwordGeneratorService.generateFromTemplate("a\uD800"));
+
+        // BMP literals other than ASCII are still fine when shuffled
+        String password = passwordGeneratorService.generateFromTemplate("~a{8}é");
+        assertEquals(9, password.length());
+        assertTrue(password.contains("é"));
+        assertEquals(10, passwordGeneratorService.compileTemplate("~a{8}é").maxUtf8Length());
+    }
+
+    @Test
+    @DisplayName("Should reuse compiled templates from the cache")
+    public void testTemplateCacheReusesPlans() {
+        passwordGeneratorService.generateFromTemplate("aaaa");
+        passwordGeneratorService.generateFromTemplate("aaaa");
+        List<String> passwords = passwordGeneratorService.generatePasswordsFromTemplate(10, "aaaa")
+                .collect(Collectors.toList());
+
+        assertEquals(10, passwords.size());
+        assertEquals(1, passwordGeneratorService.getTemplateCache().getMisses());
+        assertEquals(2, passwordGeneratorService.getTemplateCache().getHits());
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used entries beyond capacity")
+    public void testBoundedCacheEvicts() {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(10);
+        for (int i = 0; i < 100; i++) {
+            cache.get(i, k -> k * 2);
+        }
+
+        assertTrue(cache.size() <= 10);
+        assertTrue(cache.getEvictions() >= 90);
+        assertEquals(198, cache.get(99, k -> -1));
+    }
+
+    @Test
+    @DisplayName("Should include every selected class when required, even for short passwords")
+    public void testRequireEachClass() {
+        ClassRequirements requirements = new ClassRequirements(true, null, null, null, null);
+        for (int i = 0; i < 200; i++) {
+            String password = passwordGeneratorService.generatePassword(4, true, true, true, true, requirements);
+            assertEquals(4, password.length());
+            assertTrue(password.chars().anyMatch(Character::isUpperCase));
+            assertTrue(password.chars().anyMatch(Character::isLowerCase));
+            assertTrue(password.chars().anyMatch(Character::isDigit));
+            assertTrue(password.chars().anyMatch(c -> !Character.isLetterOrDigit(c)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should honour per-class minimum counts in single and bulk generation")
+    public void testClassMinimums() {
+        ClassRequirements requirements = new ClassRequirements(false, null, null, 5, 3);
+        List<String> passwords = passwordGeneratorService.generatePasswords(100, 12, true, true, true, true, requirements)
+                .collect(Collectors.toList());
+        passwords.add(passwordGeneratorService.generatePassword(12, true, true, true, true, requirements));
+
+        for (String password : passwords) {
+            assertTrue(password.chars().filter(Character::isDigit).count() >= 5, password);
+            assertTrue(password.chars().filter(c -> !Character.isLetterOrDigit(c)).count() >= 3, password);
+        }
+    }
+
+    @Test
+    @DisplayName("Should be uniform over all passwords meeting the class requirements")
+    public void testClassCoverageIsUniform() {
+        // Length 2 over uppercase and digits with both required: 2 * 26 * 10 = 520 valid passwords
+        ClassRequirements requirements = new ClassRequirements(true, null, null, null, null);
+        Map<String, Integer> counts = new HashMap<>();
+        int samples = 52_000;
+        for (int i = 0; i < samples; i++) {
+            counts.merge(passwordGeneratorService.generatePassword(2, true, false, true, false, requirements), 1, Integer::sum);
+        }
+
+        assertEquals(520, counts.size());
+        double expected = (double) samples / 520;
+        double chiSquare = 0;
+        for (int count : counts.values()) {
+            chiSquare += (count - expected) * (count - expected) / expected;
+        }
+        double threshold = 519 + 6 * Math.sqrt(2.0 * 519);
+        assertTrue(chiSquare < threshold, "Chi-square " + chiSquare + " exceeds " + threshold);
+    }
+
+    @Test
+    @DisplayName("Should reject unsatisfiable class requirements")
+    public void testInvalidClassRequirements() {
+        assertThrows(InvalidPasswordParametersException.class, () ->
+                passwordGeneratorService.generatePassword(4, true, true, true, true,
+                        new ClassRequirements(false, 2, 2, 1, null)));
+        assertThrows(InvalidPasswordParametersException.class, () ->
+                passwordGeneratorService.generatePassword(8, true, true, false, false,
+                        new ClassRequirements(false, null, null, 1, null)));
+        assertThrows(IllegalArgumentException.class, () ->
+                passwordGeneratorService.generatePassword(64, true, true, true, true,
+                        new ClassRequirements(false, 17, null, null, null)));
+    }
+
+    @Test
+    @DisplayName("Should report invalid parameters as result codes and throw them without a stack trace")
+    public void testCheckPasswordParameters() {
+        assertNull(passwordGeneratorService.checkPasswordParameters(16, true, true, true, true, ClassRequirements.NONE));
+        assertEquals(ParameterError.LENGTH_REQUIRED,
+                passwordGeneratorService.checkPasswordParameters(null, true, true, true, true, null));
+        assertEquals(ParameterError.LENGTH_OUT_OF_RANGE,
+                passwordGeneratorService.checkPasswordParameters(1025, true, true, true, true, null));
+        assertEquals(ParameterError.CHARACTER_TYPES_REQUIRED,
+                passwordGeneratorService.checkPasswordParameters(16, true, null, true, true, null));
+        assertEquals(ParameterError.NO_CHARACTER_TYPE,
+                passwordGeneratorService.checkPasswordParameters(16, false, false, false, false, null));
+        assertEquals(ParameterError.CLASS_MINIMUM_OUT_OF_RANGE,
+                passwordGeneratorService.checkPasswordParameters(64, true, true, true, true,
+                        new ClassRequirements(false, null, -1, null, null)));
+        assertEquals(ParameterError.CLASS_MINIMUM_NOT_SELECTED,
+                passwordGeneratorService.checkPasswordParameters(16, true, false, false, false,
+                        new ClassRequirements(false, null, null, null, 2)));
+        assertEquals(ParameterError.CLASS_MINIMUMS_EXCEED_LENGTH,
+                passwordGeneratorService.checkPasswordParameters(3, true, true, true, true,
+                        new ClassRequirements(true, null, null, null, null)));
+
+        InvalidPasswordParametersException thrown = assertThrows(InvalidPasswordParametersException.class, () ->
+                passwordGeneratorService.generatePasswords(0, 16, true, true, true, true));
+        assertEquals(ParameterError.COUNT_OUT_OF_RANGE, thrown.getError());
+        assertEquals(ParameterError.COUNT_OUT_OF_RANGE.getMessage(), thrown.getMessage());
+        assertEquals(0, thrown.getStackTrace().length);
+    }
+
+    @Test
+    @DisplayName("Should never repeat a password within a unique batch")
+    public void testUniqueBulk() {
+        // 4-digit PINs: 10,000 possible, so a batch of 5,000 would almost surely repeat otherwise
+        List<String> pins = passwordGeneratorService.generatePasswords(5_000, 4, false, false, true, false,
+                ClassRequirements.NONE, true).collect(Collectors.toList());
+        assertEquals(5_000, pins.size());
+        assertEquals(5_000, new HashSet<>(pins).size());
+
+        List<String> templated = passwordGeneratorService.generatePasswordsFromTemplate(300, "9{3}", true)
+                .collect(Collectors.toList());
+        assertEquals(300, new HashSet<>(templated).size());
+    }
+
+    @Test
+    @DisplayName("Should fail fast when a unique batch approaches the keyspace size")
+    public void testUniqueBulkKeyspaceLimit() {
+        InvalidPasswordParametersException thrown = assertThrows(InvalidPasswordParametersException.class, () ->
+                passwordGeneratorService.generatePasswords(5_001, 4, false, false, true, false,
+                        ClassRequirements.NONE, true));
+        assertEquals(ParameterError.UNIQUE_COUNT_EXCEEDS_KEYSPACE, thrown.getError());
+        thrown = assertThrows(InvalidPasswordParametersException.class, () ->
+                passwordGeneratorService.generatePasswordsFromTemplate(501, "9{3}", true));
+        assertEquals(ParameterError.UNIQUE_COUNT_EXCEEDS_KEYSPACE, thrown.getError());
+        // Without the uniqueness option the same batch is allowed
+        assertEquals(5_001, passwordGeneratorService.generatePasswords(5_001, 4, false, false, true, false,
+                ClassRequirements.NONE, false).count());
+    }
+
+    @Test
+    @DisplayName("Should reject export counts beyond the configured maximum, or the bulk limit when unique")
+    public void testExportCountLimit() {
+        InvalidPasswordParametersException thrown = assertThrows(InvalidPasswordParametersException.class, () ->
+                passwordGeneratorService.prepareExportFromTemplate(2_000_001, 2_000_000, "aaaa", false));
+        assertEquals(ParameterError.EXPORT_COUNT_OUT_OF_RANGE, thrown.getError());
+        thrown = assertThrows(InvalidPasswordParametersException.class, () ->
+                passwordGeneratorService.prepareExportFromTemplate(1_000_001, 2_000_000, "X{12}", true));
+        assertEquals(ParameterError.EXPORT_COUNT_OUT_OF_RANGE, thrown.getError());
+        thrown = assertThrows(InvalidPasswordParametersException.class, () ->
+                passwordGeneratorService.prepareExportFromTemplate(null, 2_000_000, "aaaa", false));
+        assertEquals(ParameterError.COUNT_REQUIRED, thrown.getError());
+
+        assertEquals(2_000_000, passwordGeneratorService.prepareExportFromTemplate(2_000_000, 2_000_000, "aaaa", false)
+                .count());
+    }
+
+    @Test
+    @DisplayName("Should track fingerprints exactly in a fixed number of bytes per item")
+    public void testFingerprintSet() {
+        FingerprintSet set = new FingerprintSet(1000);
+        assertTrue(set.add("1234"));
+        assertFalse(set.add("1234"));
+        assertTrue(set.add(" 1234"));
+        assertTrue(set.add("a-much-longer-password-that-is-hashed"));
+        assertFalse(set.add("a-much-longer-password-that-is-hashed"));
+        assertEquals(3, set.size());
+
+        assertTrue(set.getMemoryBytes() <= 1000 * FingerprintSet.BYTES_PER_ITEM + 16);
+        assertEquals(set.getMemoryBytes(), FingerprintSet.memoryFor(1000));
+    }
+
+    @Test
+    @DisplayName("Should generate into a caller buffer without touching the rest of it")
+    public void testGenerateIntoBuffer() {
+        char[] buffer = new char[1024];
+        Arrays.fill(buffer, '#');
+        passwordGeneratorService.generatePassword(buffer, 12, false, true, true, false,
+                new ClassRequirements(true, null, null, null, null));
+
+        String password = new String(buffer, 0, 12);
+        assertTrue(password.matches("[a-z0-9]{12}"), password);
+        assertTrue(password.chars().anyMatch(Character::isDigit));
+        assertEquals('#', buffer[12]);
+
+        assertThrows(IllegalArgumentException.class, () ->
+                passwordGeneratorService.generatePassword(buffer, 0, true, true, true, true, ClassRequirements.NONE));
+    }
+
+    @Test
+    @DisplayName("Should leave excluded characters out of every selected class")
+    public void testExcludeCharacters() {
+        CharsetOptions noLookAlikes = new CharsetOptions(null, "0O1lI|`'\"\\$");
+        ClassRequirements requirements = new ClassRequirements(true, null, null, 2, 2);
+        for (int i = 0; i < 200; i++) {
+            String password = passwordGeneratorService.generatePassword(
+                    12, true, true, true, true, requirements, noLookAlikes);
+            assertEquals(12, password.length());
+            assertTrue(password.chars().noneMatch(c -> "0O1lI|`'\"\\$".indexOf(c) >= 0), password);
+            assertTrue(password.chars().filter(Character::isDigit).count() >= 2, password);
+        }
+
+        InvalidPasswordParametersException e = assertThrows(InvalidPasswordParametersException.class, () ->
+                passwordGeneratorService.generatePassword(8, false, true, true, false, ClassRequirements.NONE,
+                        new CharsetOptions(null, "0123456789")));
+        assertEquals("Excluded characters remove all numbers", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should draw from a custom alphabet by code point, including supplementary characters")
+    public void testCustomAlphabet() {
+        String alphabet = "äöüß€🔑🎲";
+        CharsetOptions charset = new CharsetOptions(alphabet + "ää", "€");
+        char[] buffer = new char[PasswordGeneratorService.MAX_PASSWORD_CHARS];
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            int size = passwordGeneratorService.generatePassword(
+                    buffer, 20, false, false, false, false, ClassRequirements.NONE, charset);
+            String password = new String(buffer, 0, size);
+            assertEquals(20, password.codePointCount(0, password.length()), password);
+            password.codePoints().forEach(c -> counts.merge(c, 1, Integer::sum));
+        }
+        assertEquals(Set.of((int) 'ä', (int) 'ö', (int) 'ü', (int) 'ß', 0x1F511, 0x1F3B2), counts.keySet());
+
+        // Repeats and order do not change the fingerprint, so both requests share one compiled charset
+        passwordGeneratorService.generatePassword(10, false, false, false, false, ClassRequirements.NONE,
+                new CharsetOptions("🎲🔑ßüöä€", "€€"));
+        assertEquals(1, passwordGeneratorService.getCharsetCache().getMisses());
+        assertEquals(500, passwordGeneratorService.getCharsetCache().getHits());
+
+        // Worst case for byte limits such as bcrypt's: every character takes four bytes
+        assertEquals(4, charset.maxUtf8BytesPerCharacter());
+        PasswordBatch batch = passwordGeneratorService.preparePasswords(50, 8, false, false, false, false,
+                ClassRequirements.NONE, new CharsetOptions("🎲🔑", null), true);
+        assertEquals(32, batch.maxUtf8Length());
+        List<String> passwords = batch.stream().collect(Collectors.toList());
+        assertEquals(50, new HashSet<>(passwords).size());
+        assertTrue(passwords.stream().allMatch(p -> p.length() == 16));
+    }
+
+    @Test
+    @DisplayName("Should reject custom alphabets mixed with classes or holding invisible characters")
+    public void testRejectInvalidAlphabets() {
+        assertEquals(ParameterError.ALPHABET_WITH_CLASSES, passwordGeneratorService.checkPasswordParameters(
+                8, true, false, false, false, ClassRequirements.NONE, new CharsetOptions("abc", null)));
+        assertEquals(ParameterError.ALPHABET_WITH_CLASSES, passwordGeneratorService.checkPasswordParameters(
+                8, false, false, false, false, new ClassRequirements(true, null, null, null, null),
+                new CharsetOptions("abc", null)));
+        assertEquals(ParameterError.ALPHABET_EMPTY, passwordGeneratorService.checkPasswordParameters(
+                8, false, false, false, false, ClassRequirements.NONE, new CharsetOptions("", null)));
+        assertEquals(ParameterError.CHARSET_TOO_LONG, passwordGeneratorService.checkPasswordParameters(
+                8, false, false, false, false, ClassRequirements.NONE, new CharsetOptions("a".repeat(4097), null)));
+        assertNull(passwordGeneratorService.checkPasswordParameters(
+                8, false, false, false, false, ClassRequirements.NONE, new CharsetOptions("abc", null)));
+
+        assertThrows(InvalidPasswordParametersException.class, () -> passwordGeneratorService.generatePassword(
+                8, false, false, false, false, ClassRequirements.NONE, new CharsetOptions("ab", "ab")));
+        InvalidPasswordParametersException e = assertThrows(InvalidPasswordParametersException.class, () ->
+                passwordGeneratorService.generatePassword(8, false, false, false, false, ClassRequirements.NONE,
+                        new CharsetOptions("a b", null)));
+        assertEquals(ParameterError.CUSTOM_ALPHABET_INVISIBLE, e.getError());
+        assertThrows(InvalidPasswordParametersException.class, () -> passwordGeneratorService.generatePassword(
+                8, false, false, false, false, ClassRequirements.NONE, new CharsetOptions("\u2764\uFE0F", null)));
+        assertThrows(InvalidPasswordParametersException.class, () -> passwordGeneratorService.generatePassword(
+                8, false, false, false, false, ClassRequirements.NONE, new CharsetOptions("ab\uD83D", null)));
+    }
+
+    @Test
+    @DisplayName("Should report unusable charsets as result codes and cache the rejection")
+    public void testCharsetErrorCodes() {
+        assertEquals(ParameterError.CUSTOM_ALPHABET_EMPTY, passwordGeneratorService.checkPasswordParameters(
+                8, false, false, false, false, ClassRequirements.NONE, new CharsetOptions("ab", "ba")));
+        assertEquals(ParameterError.CUSTOM_ALPHABET_INVISIBLE, passwordGeneratorService.checkPasswordParameters(
+                8, false, false, false, false, ClassRequirements.NONE, new CharsetOptions("a\tb", null)));
+        assertEquals(ParameterError.EXCLUSIONS_REMOVE_NUMBERS, passwordGeneratorService.checkPasswordParameters(
+                8, false, true, true, false, ClassRequirements.NONE, new CharsetOptions(null, "0123456789")));
+        assertEquals(ParameterError.EXCLUSIONS_REMOVE_UPPERCASE, passwordGeneratorService.checkPasswordParameters(
+                8, true, false, false, false, ClassRequirements.NONE,
+                new CharsetOptions(null, "ABCDEFGHIJKLMNOPQRSTUVWXYZ")));
+        assertNull(passwordGeneratorService.checkPasswordParameters(
+                8, false, true, true, false, ClassRequirements.NONE, new CharsetOptions(null, "012345678")));
+        assertEquals(5, passwordGeneratorService.getCharsetCache().getMisses());
+
+        // The same rejected charset again is answered from the cache, then generation reuses the entry
+        assertEquals(ParameterError.CUSTOM_ALPHABET_INVISIBLE, passwordGeneratorService.checkPasswordParameters(
+                8, false, false, false, false, ClassRequirements.NONE, new CharsetOptions("b\ta", null)));
+        InvalidPasswordParametersException e = assertThrows(InvalidPasswordParametersException.class, () ->
+                passwordGeneratorService.generatePassword(8, false, false, false, false, ClassRequirements.NONE,
+                        new CharsetOptions("a\tb", null)));
+        assertEquals(ParameterError.CUSTOM_ALPHABET_INVISIBLE, e.getError());
+        assertEquals(5, passwordGeneratorService.getCharsetCache().getMisses());
+        assertEquals(2, passwordGeneratorService.getCharsetCache().getHits());
+    }
+
+    @Test
+    @DisplayName("Should map random bytes to exactly the scalar output on the vectorized bulk path")
+    public void testVectorizedMatchesScalar() {
+        PasswordGeneratorService probe = new PasswordGeneratorService();
+        probe.setVectorized(true);
+        assumeTrue(probe.isVectorized(), "Vector API not available");
+
+        // 92 symbols, letters and digits; 16 hex digits, which reject nothing; 100 Latin-1 letters
+        StringBuilder latin = new StringBuilder();
+        for (char c = '\u00C0'; latin.length() < 100; c++) {
+            if (c != '\u00D7' && c != '\u00F7') {
+                latin.append(c);
+            }
+        }
+        assertBulkPathsMatch(92, CharsetOptions.NONE, true);
+        assertBulkPathsMatch(16, new CharsetOptions("0123456789abcdef", null), false);
+        assertBulkPathsMatch(100, new CharsetOptions(latin.toString(), null), false);
+    }
+
+    @Test
+    @DisplayName("Should sample every pool character uniformly on the vectorized bulk path")
+    public void testVectorizedDistributionIsUniform() {
+        passwordGeneratorService.setVectorized(true);
+        assumeTrue(passwordGeneratorService.isVectorized(), "Vector API not available");
+
+        int[] counts = new int[128];
+        PasswordBatch batch = passwordGeneratorService.preparePasswords(1000, 256, true, true, true, true,
+                ClassRequirements.NONE, false);
+        char[] password = new char[256];
+        while (batch.hasNext()) {
+            int length = batch.next(password);
+            for (int i = 0; i < length; i++) {
+                counts[password[i]]++;
+            }
+        }
+        assertEquals(92, Arrays.stream(counts).filter(count -> count > 0).count());
+        assertChiSquare(counts, 256_000);
+    }
+
+    /**
+     * Generates the same batches on the scalar and the vectorized path from a random source that
+     * repeats one block per call: 20 accepted samples interleaved with a few rejected ones. Both
+     * paths then see the same accepted samples for every password, so their output must be
+     * identical. Successive blocks cover every accepted sample value.
+     */
+    private void assertBulkPathsMatch(int poolSize, CharsetOptions charset, boolean classes) {
+        int length = 20;
+        int acceptLimit = 256 - 256 % poolSize;
+        int rejected = acceptLimit == 256 ? 0 : 4;
+
+        for (int first = 0; first < acceptLimit; first += length) {
+            byte[] block = new byte[length + rejected];
+            for (int i = 0, accepted = 0; i < block.length; i++) {
+                boolean reject = i % 6 == 3 && i / 6 < rejected;
+                block[i] = (byte) (reject ? acceptLimit + (i * 13) % (256 - acceptLimit)
+                        : (first + accepted++) % acceptLimit);
+            }
+            RandomSource source = bytes -> {
+                for (int i = 0; i < bytes.length; i++) {
+                    bytes[i] = block[i % block.length];
+                }
+            };
+
+            PasswordGeneratorService scalar = new PasswordGeneratorService(source);
+            PasswordGeneratorService vectorized = new PasswordGeneratorService(source);
+            vectorized.setVectorized(true);
+
+            List<String> expected = scalar.preparePasswords(500, length, classes, classes, classes, classes,
+                    ClassRequirements.NONE, charset, false).stream().toList();
+            List<String> actual = vectorized.preparePasswords(500, length, classes, classes, classes, classes,
+                    ClassRequirements.NONE, charset, false).stream().toList();
+            assertEquals(expected, actual, "Pool of " + poolSize + ", block starting at " + first);
+            assertEquals(length, expected.get(0).codePointCount(0, length));
+        }
+    }
+
+    private void assertUniform(boolean upper, boolean lower, boolean numbers, boolean symbols) {
+        int[] counts = new int[128];
+        int samples = 0;
+        for (int i = 0; i < 250; i++) {
+            String password = passwordGeneratorService.generatePassword(1024, upper, lower, numbers, symbols);
+            for (int j = 0; j < password.length(); j++) {
+                counts[password.charAt(j)]++;
+            }
+            samples += password.length();
+        }
+        assertChiSquare(counts, samples);
+    }
+
+    /**
+     * Chi-square test of the observed characters against a uniform distribution over them.
+     */
+    private void assertChiSquare(int[] counts, int samples) {
+        int poolSize = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                poolSize++;
+            }
+        }
+
+        double expected = (double) samples / poolSize;
+        double chiSquare = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                chiSquare += (count - expected) * (count - expected) / expected;
+            }
+        }
+
+        // Mean of chi-square is df = poolSize - 1; allow ~6 standard deviations of headroom
+        int degreesOfFreedom = poolSize - 1;
+        double threshold = degreesOfFreedom + 6 * Math.sqrt(2.0 * degreesOfFreedom);
+        assertTrue(chiSquare < threshold,
+            "Chi-square " + chiSquare + " exceeds " + threshold + " for pool of " + poolSize);
+    }
 }
@@ -0,0 +1,201 @@
+package com.passwordgenerator;
+
+import com.passwordgenerator.exception.InvalidPasswordParametersException;
+import com.passwordgenerator.exception.ParameterError;
+import com.passwordgenerator.exception.RateLimitExceededException;
+import com.passwordgenerator.service.ClassRequirements;
+import com.passwordgenerator.service.PasswordBatch;
+import com.passwordgenerator.service.PasswordGeneratorService;
+import com.passwordgenerator.service.hash.HashAlgorithm;
+import com.passwordgenerator.service.hash.HashSpec;
+import com.passwordgenerator.service.hash.HashingPool;
+import com.passwordgenerator.service.hash.PasswordHasher;
+import com.passwordgenerator.service.random.RandomSource;
+import com.passwordgenerator.service.random.SecureRandomProvider;
+import org.bouncycastle.crypto.generators.Argon2BytesGenerator;
+import org.bouncycastle.crypto.generators.OpenBSDBCrypt;
+import org.bouncycastle.crypto.params.Argon2Parameters;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Password Hasher Tests")
+public class PasswordHasherTest {
+
+    private final PasswordHasher hasher = new PasswordHasher(SecureRandomProvider.platformDefault());
+
+    @Test
+    @DisplayName("Should produce bcrypt and PHC strings that independent implementations verify")
+    public void testHashFormats() throws Exception {
+        char[] password = "correct horse €🔑 battery".toCharArray();
+        // Trailing characters beyond the length must not be hashed
+        char[] buffer = Arrays.copyOf(password, password.length + 8);
+        Arrays.fill(buffer, password.length, buffer.length, 'x');
+
+        String bcrypt = hasher.hash(buffer, password.length, HashSpec.of(HashAlgorithm.BCRYPT, 5, null, null));
+        assertTrue(bcrypt.matches("\\$2b\\$05\\$[./A-Za-z0-9]{53}"), bcrypt);
+        assertTrue(OpenBSDBCrypt.checkPassword(bcrypt, password));
+        assertFalse(OpenBSDBCrypt.checkPassword(bcrypt, buffer));
+
+        String pbkdf2 = hasher.hash(buffer, password.length, HashSpec.of(HashAlgorithm.PBKDF2, 1_000, null, null));
+        String[] fields = pbkdf2.split("\\$");
+        assertEquals("pbkdf2-sha256", fields[1]);
+        assertEquals("i=1000,l=32", fields[2]);
+        PBEKeySpec keySpec = new PBEKeySpec(password, Base64.getDecoder().decode(fields[3]), 1_000, 256);
+        byte[] expected = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(keySpec).getEncoded();
+        assertArrayEquals(expected, Base64.getDecoder().decode(fields[4]));
+
+        String argon2 = hasher.hash(buffer, password.length, HashSpec.of(HashAlgorithm.ARGON2, 1, 64, 2));
+        fields = argon2.split("\\$");
+        assertEquals("argon2id", fields[1]);
+        assertEquals("v=19", fields[2]);
+        assertEquals("m=64,t=1,p=2", fields[3]);
+        Argon2BytesGenerator generator = new Argon2BytesGenerator();
+        generator.init(new Argon2Parameters.Builder(Argon2Parameters.ARGON2_id).withVersion(19)
+                .withMemoryAsKB(64).withIterations(1).withParallelism(2)
+                .withSalt(Base64.getDecoder().decode(fields[4])).build());
+        expected = new byte[32];
+        generator.generateBytes(password, expected);
+        assertArrayEquals(expected, Base64.getDecoder().decode(fields[5]));
+
+        // Fresh salt every time
+        assertNotEquals(bcrypt, hasher.hash(password, password.length, HashSpec.of(HashAlgorithm.BCRYPT, 5, null, null)));
+    }
+
+    @Test
+    @DisplayName("Should fill in default costs and reject parameters outside the algorithm's bounds")
+    public void testHashSpecValidation() {
+        assertEquals(new HashSpec(HashAlgorithm.BCRYPT, 10, 0, 0), HashSpec.of(HashAlgorithm.BCRYPT, null, null, null));
+        assertEquals(new HashSpec(HashAlgorithm.PBKDF2, 600_000, 0, 0), HashSpec.of(HashAlgorithm.PBKDF2, null, null, null));
+        assertEquals(new HashSpec(HashAlgorithm.ARGON2, 2, 19_456, 1), HashSpec.of(HashAlgorithm.ARGON2, null, null, null));
+
+        assertThrows(IllegalArgumentException.class, () -> HashSpec.of(null, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> HashSpec.of(HashAlgorithm.BCRYPT, 3, null, null));
+        assertThrows(IllegalArgumentException.class, () -> HashSpec.of(HashAlgorithm.BCRYPT, 17, null, null));
+        assertThrows(IllegalArgumentException.class, () -> HashSpec.of(HashAlgorithm.PBKDF2, 999, null, null));
+        assertThrows(IllegalArgumentException.class, () -> HashSpec.of(HashAlgorithm.PBKDF2, null, 1024, null));
+        assertThrows(IllegalArgumentException.class, () -> HashSpec.of(HashAlgorithm.ARGON2, null, 65_537, null));
+        assertThrows(IllegalArgumentException.class, () -> HashSpec.of(HashAlgorithm.ARGON2, null, 31, 4));
+        assertThrows(IllegalArgumentException.class, () -> HashSpec.of(HashAlgorithm.ARGON2, null, null, 17));
+
+        // The same checks as codes, for callers that answer from a prebuilt body
+        assertNull(HashSpec.check(HashAlgorithm.ARGON2, 1, 64, 2));
+        assertEquals(ParameterError.HASH_ALGORITHM_REQUIRED, HashSpec.check(null, null, null, null));
+        assertEquals(ParameterError.HASH_COST_OUT_OF_RANGE, HashSpec.check(HashAlgorithm.BCRYPT, 17, null, null));
+        assertEquals(ParameterError.HASH_OPTIONS_NOT_ARGON2, HashSpec.check(HashAlgorithm.PBKDF2, null, 1024, null));
+        assertEquals(ParameterError.HASH_MEMORY_OUT_OF_RANGE, HashSpec.check(HashAlgorithm.ARGON2, null, 31, 4));
+        assertEquals(ParameterError.HASH_PARALLELISM_OUT_OF_RANGE, HashSpec.check(HashAlgorithm.ARGON2, null, null, 17));
+        InvalidPasswordParametersException thrown = assertThrows(InvalidPasswordParametersException.class,
+                () -> HashSpec.of(HashAlgorithm.BCRYPT, 3, null, null));
+        assertEquals(ParameterError.HASH_COST_OUT_OF_RANGE, thrown.getError());
+
+        // bcrypt would silently ignore everything past 72 bytes
+        HashSpec bcrypt = HashSpec.of(HashAlgorithm.BCRYPT, 4, null, null);
+        assertNull(bcrypt.checkPasswordLength(72));
+        assertEquals(ParameterError.HASH_PASSWORD_TOO_LONG, bcrypt.checkPasswordLength(73));
+        assertNull(HashSpec.of(HashAlgorithm.ARGON2, null, null, null).checkPasswordLength(1024));
+        char[] multibyte = "€".repeat(25).toCharArray();
+        assertThrows(IllegalArgumentException.class, () -> hasher.hash(multibyte, multibyte.length, bcrypt));
+    }
+
+    @Test
+    @DisplayName("Should hash a batch in parallel and hand it over in batch order, wiping each password")
+    public void testHashInOrder() throws Exception {
+        PasswordBatch batch = seededService(42)
+                .preparePasswords(300, 12, true, true, true, false, ClassRequirements.NONE, false);
+        PasswordBatch reference = seededService(42)
+                .preparePasswords(300, 12, true, true, true, false, ClassRequirements.NONE, false);
+        HashSpec spec = HashSpec.of(HashAlgorithm.BCRYPT, 4, null, null);
+
+        try (HashingPool pool = new HashingPool(hasher, 3, 4)) {
+            assertEquals(4, pool.getWindow());
+            List<String> passwords = new ArrayList<>();
+            List<String> hashes = new ArrayList<>();
+            List<char[]> arrays = new ArrayList<>();
+            int[] flushes = new int[1];
+            pool.hashInOrder(batch, spec, new HashingPool.HashedPasswordSink() {
+                @Override
+                public void accept(char[] password, int length, String hash) {
+                    passwords.add(new String(password, 0, length));
+                    hashes.add(hash);
+                    arrays.add(password);
+                }
+
+                @Override
+                public void flush() {
+                    flushes[0]++;
+                }
+            });
+
+            char[] expected = new char[12];
+            for (int i = 0; i < 300; i++) {
+                int length = reference.next(expected);
+                assertEquals(new String(expected, 0, length), passwords.get(i), "Password " + i + " out of order");
+                assertTrue(OpenBSDBCrypt.checkPassword(hashes.get(i), expected), "Hash " + i + " does not match");
+                assertArrayEquals(new char[12], arrays.get(i), "Password " + i + " was not wiped");
+            }
+            assertTrue(flushes[0] > 0, "Output should be flushed while waiting for hashes");
+            assertEquals(300, pool.getHashes(HashAlgorithm.BCRYPT));
+            assertEquals(0, pool.getInFlight());
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse single hashes with 429 once every slot is taken, and free slots as hashes finish")
+    public void testBoundedQueue() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        RandomSource blocking = bytes -> {
+            // Salt generation is the first step of every hash, so this holds the worker
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Arrays.fill(bytes, (byte) 1);
+        };
+        HashSpec spec = HashSpec.of(HashAlgorithm.BCRYPT, 4, null, null);
+        char[] password = "password".toCharArray();
+
+        try (HashingPool pool = new HashingPool(new PasswordHasher(blocking), 2, 3)) {
+            List<CompletableFuture<String>> hashes = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                hashes.add(pool.submit(password, password.length, spec));
+            }
+            assertTrue(started.await(10, TimeUnit.SECONDS), "Both workers should be hashing");
+            assertEquals(3, pool.getInFlight());
+
+            RateLimitExceededException refused = assertThrows(RateLimitExceededException.class,
+                    () -> pool.submit(password, password.length, spec));
+            assertTrue(refused.getRetryAfterSeconds() > 0);
+            assertEquals(1, pool.getRejected());
+
+            release.countDown();
+            for (CompletableFuture<String> hash : hashes) {
+                assertTrue(OpenBSDBCrypt.checkPassword(hash.get(10, TimeUnit.SECONDS), password));
+            }
+            assertTrue(OpenBSDBCrypt.checkPassword(
+                    pool.submit(password, password.length, spec).get(10, TimeUnit.SECONDS), password));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new HashingPool(hasher, 4, 3));
+    }
+
+    private static PasswordGeneratorService seededService(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        return new PasswordGeneratorService(random::nextBytes);
+    }
+}
@@ -0,0 +1,129 @@
+package com.passwordgenerator;
+
+import com.passwordgenerator.config.MetricsConfiguration;
+import com.passwordgenerator.exception.ParameterError;
+import com.passwordgenerator.service.ClassRequirements;
+import com.passwordgenerator.service.CharsetOptions;
+import com.passwordgenerator.service.PasswordGeneratorService;
+import com.passwordgenerator.service.PasswordMetrics;
+import com.passwordgenerator.service.PasswordMetrics.FailureType;
+import com.passwordgenerator.service.random.EntropyPrefetchBuffer;
+import com.passwordgenerator.service.random.SecureRandomProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Password Metrics Tests")
+public class PasswordMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PasswordMetrics metrics = new PasswordMetrics(registry);
+
+    @Test
+    @DisplayName("Should tag each generation with its length bucket, including the bucket edges")
+    public void testLengthBuckets() {
+        PasswordGeneratorService service =
+                new PasswordGeneratorService(SecureRandomProvider.platformDefault(), metrics);
+        int[] lengths = {1, 8, 9, 16, 17, 32, 33, 512, 513, PasswordGeneratorService.MAX_PASSWORD_LENGTH};
+        for (int length : lengths) {
+            service.generatePassword(length, true, true, true, true);
+        }
+
+        assertEquals(2, timer("1-8", "ULNS").count(), "1-8");
+        assertEquals(2, timer("9-16", "ULNS").count(), "9-16");
+        assertEquals(2, timer("17-32", "ULNS").count(), "17-32");
+        assertEquals(1, timer("33-64", "ULNS").count(), "33-64");
+        assertEquals(1, timer("257-512", "ULNS").count(), "257-512");
+        assertEquals(2, timer("513-1024", "ULNS").count(), "513-1024");
+        assertEquals(0, timer("65-128", "ULNS").count());
+    }
+
+    @Test
+    @DisplayName("Should tag each generation with the character classes selected, or custom")
+    public void testCharsetTags() {
+        PasswordGeneratorService service =
+                new PasswordGeneratorService(SecureRandomProvider.platformDefault(), metrics);
+        service.generatePassword(12, true, false, false, false);
+        service.generatePassword(12, false, true, true, false);
+        service.generatePassword(12, true, true, true, true);
+        service.generatePassword(12, false, false, false, true);
+        service.generatePassword(12, false, false, false, false, ClassRequirements.NONE,
+                new CharsetOptions("abc", null));
+
+        assertEquals(1, timer("9-16", "U").count());
+        assertEquals(1, timer("9-16", "LN").count());
+        assertEquals(1, timer("9-16", "ULNS").count());
+        assertEquals(1, timer("9-16", "S").count());
+        assertEquals(1, timer("9-16", "custom").count());
+        assertEquals(0, timer("9-16", "UL").count());
+        // Every bucket and charset combination is registered up front
+        assertEquals(8 * 16, registry.find("password.generation").timers().size());
+    }
+
+    @Test
+    @DisplayName("Should count failures separately per type")
+    public void testFailureCounters() {
+        metrics.recordFailure(FailureType.BAD_REQUEST);
+        metrics.recordFailure(FailureType.INTERNAL_ERROR);
+        metrics.recordFailure(FailureType.INTERNAL_ERROR);
+        metrics.recordFailure(ParameterError.NO_CHARACTER_TYPE);
+        metrics.recordFailure(ParameterError.LENGTH_OUT_OF_RANGE);
+        metrics.recordFailure(ParameterError.COUNT_REQUIRED);
+
+        metrics.recordFailure(FailureType.ILLEGAL_ARGUMENT);
+
+        assertEquals(1, failures("bad_request"));
+        assertEquals(2, failures("internal_error"));
+        assertEquals(1, failures("invalid_parameters"));
+        assertEquals(3, failures("illegal_argument"));
+
+        // Parameter errors are also tagged with their code; other failures with code=none
+        assertEquals(1, failures("invalid_parameters", "no_character_type"));
+        assertEquals(1, failures("illegal_argument", "length_out_of_range"));
+        assertEquals(1, failures("illegal_argument", "count_required"));
+        assertEquals(1, failures("illegal_argument", "none"));
+        assertEquals(2, failures("internal_error", "none"));
+        assertEquals(0, failures("illegal_argument", "count_out_of_range"));
+    }
+
+    @Test
+    @DisplayName("Should report random bytes produced as generation draws from the provider")
+    public void testRandomBytesCounter() {
+        SecureRandomProvider provider = SecureRandomProvider.platformDefault();
+        new MetricsConfiguration()
+                .randomSourceMetrics(provider, new StaticListableBeanFactory().getBeanProvider(EntropyPrefetchBuffer.class))
+                .bindTo(registry);
+        FunctionCounter bytes = registry.get("password.random.bytes")
+                .tag("strategy", provider.getStrategy().name())
+                .functionCounter();
+        assertEquals(0, bytes.count());
+
+        new PasswordGeneratorService(provider, metrics).generatePassword(64, true, true, true, true);
+        double afterOne = bytes.count();
+        assertTrue(afterOne > 0, "Generation should draw random bytes");
+
+        new PasswordGeneratorService(provider, metrics).generatePassword(64, true, true, true, true);
+        assertTrue(bytes.count() > afterOne);
+        assertEquals(provider.getBytesGenerated(), bytes.count());
+        assertNull(registry.find("password.random.prefetch.available").gauge(), "No prefetch buffer is configured");
+    }
+
+    private Timer timer(String length, String charset) {
+        return registry.get("password.generation").tag("length", length).tag("charset", charset).timer();
+    }
+
+    private double failures(String type) {
+        return registry.get("password.validation.failures").tag("type", type).counters().stream()
+                .mapToDouble(Counter::count).sum();
+    }
+
+    private double failures(String type, String code) {
+        return registry.get("password.validation.failures").tag("type", type).tag("code", code).counter().count();
+    }
+}
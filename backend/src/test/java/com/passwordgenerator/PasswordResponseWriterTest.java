@@ -0,0 +1,169 @@
+package com.passwordgenerator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.passwordgenerator.controller.PasswordResponseWriter;
+import com.passwordgenerator.model.PasswordResponse;
+import com.passwordgenerator.service.ClassRequirements;
+import com.passwordgenerator.service.PasswordBatch;
+import com.passwordgenerator.service.PasswordGeneratorService;
+import com.passwordgenerator.service.hash.HashAlgorithm;
+import com.passwordgenerator.service.hash.HashSpec;
+import com.passwordgenerator.service.hash.HashingPool;
+import com.passwordgenerator.service.hash.PasswordHasher;
+import com.passwordgenerator.service.random.SecureRandomProvider;
+import org.bouncycastle.crypto.generators.OpenBSDBCrypt;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Password Response Writer Tests")
+public class PasswordResponseWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PasswordResponseWriter writer = new PasswordResponseWriter(1024, 2);
+
+    @Test
+    @DisplayName("Should write the same JSON bytes as Jackson for every character")
+    public void testJsonMatchesJackson() throws Exception {
+        StringBuilder all = new StringBuilder();
+        for (char c = 0; c < 0x80; c++) {
+            all.append(c);
+        }
+        all.append("é€🔑");
+
+        assertSameAsJackson(all.toString(), true, false, true, false);
+        assertSameAsJackson("p@ss\"word\\", false, true, false, true);
+        assertSameAsJackson("x".repeat(1024), true, true, true, true);
+    }
+
+    @Test
+    @DisplayName("Should write bare UTF-8 for plain text and wipe the scratch buffers on release")
+    public void testPlainTextAndWipe() {
+        PasswordResponseWriter.Scratch scratch = writer.acquire();
+        "pa€s".getChars(0, 4, scratch.chars(), 0);
+        int size = writer.encodeText(scratch, 4);
+        assertArrayEquals("pa€s".getBytes(StandardCharsets.UTF_8), Arrays.copyOf(scratch.bytes(), size));
+
+        writer.release(scratch);
+        for (char c : scratch.chars()) {
+            assertEquals('\0', c);
+        }
+        for (byte b : scratch.bytes()) {
+            assertEquals(0, b);
+        }
+        assertSame(scratch, writer.acquire(), "Released buffers should be reused");
+    }
+
+    @Test
+    @DisplayName("Should stream a batch as NDJSON lines or plain lines")
+    public void testWriteBatch() throws Exception {
+        PasswordGeneratorService service = new PasswordGeneratorService();
+
+        PasswordBatch batch = service.preparePasswordsFromTemplate(3000, "Aaaa-9999", false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeBatch(batch, out, false);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3000, lines.length);
+        assertEquals(3000, batch.generated());
+        for (String line : lines) {
+            String password = objectMapper.readTree(line).get("password").asText();
+            assertTrue(password.matches("[A-Z][a-z]{3}-[0-9]{4}"), password);
+        }
+
+        batch = service.preparePasswordsFromTemplate(5, "9{1024}", false);
+        out = new ByteArrayOutputStream();
+        writer.writeBatch(batch, out, true);
+        lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(5, lines.length);
+        assertTrue(lines[4].matches("[0-9]{1024}"));
+    }
+
+    @Test
+    @DisplayName("Should stream a hashed batch with each hash next to its password")
+    public void testWriteHashedBatch() throws Exception {
+        PasswordGeneratorService service = new PasswordGeneratorService();
+        HashSpec spec = HashSpec.of(HashAlgorithm.BCRYPT, 4, null, null);
+
+        try (HashingPool pool = new HashingPool(new PasswordHasher(SecureRandomProvider.platformDefault()), 2, 4)) {
+            PasswordBatch batch = service.preparePasswordsFromTemplate(50, "Aaaa-\"\\\\99", false);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writer.writeHashedBatch(batch, pool, spec, out, false);
+            String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+            assertEquals(50, lines.length);
+            for (String line : lines) {
+                JsonNode json = objectMapper.readTree(line);
+                String password = json.get("password").asText();
+                assertTrue(password.matches("[A-Z][a-z]{3}-\"\\\\[0-9]{2}"), password);
+                assertTrue(OpenBSDBCrypt.checkPassword(json.get("hash").asText(), password.toCharArray()), line);
+            }
+
+            batch = service.preparePasswordsFromTemplate(20, "9999 aaaa", false);
+            out = new ByteArrayOutputStream();
+            writer.writeHashedBatch(batch, pool, spec, out, true);
+            lines = out.toString(StandardCharsets.UTF_8).split("\n");
+            assertEquals(20, lines.length);
+            for (String line : lines) {
+                String[] fields = line.split("\t", 2);
+                assertTrue(fields[1].matches("[0-9]{4} [a-z]{4}"), line);
+                assertTrue(OpenBSDBCrypt.checkPassword(fields[0], fields[1].toCharArray()), line);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should write server-sent events from an open-ended stream, one flush per call")
+    public void testWriteEvents() throws Exception {
+        PasswordGeneratorService service = new PasswordGeneratorService();
+        PasswordBatch stream = service.preparePasswordStream(20, true, false, true, false, ClassRequirements.NONE);
+
+        int[] flushes = new int[1];
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes[0]++;
+            }
+        };
+        PasswordResponseWriter.Scratch scratch = writer.acquire();
+        try {
+            for (int i = 0; i < 10; i++) {
+                writer.writeEvents(scratch, stream, 256, out);
+            }
+        } finally {
+            writer.release(scratch);
+        }
+
+        assertEquals(10, flushes[0]);
+        assertEquals(2560, stream.generated());
+        assertTrue(stream.hasNext());
+        String[] events = out.toString(StandardCharsets.UTF_8).split("\n\n");
+        assertEquals(2560, events.length);
+        for (String event : events) {
+            assertTrue(event.startsWith("data: "), event);
+            String password = objectMapper.readTree(event.substring(6)).get("password").asText();
+            assertTrue(password.matches("[A-Z0-9]{20}"), password);
+        }
+    }
+
+    private void assertSameAsJackson(String password, boolean upper, boolean lower, boolean numbers,
+                                     boolean symbols) throws Exception {
+        byte[] expected = objectMapper.writeValueAsBytes(
+                new PasswordResponse(password, password.length(), upper, lower, numbers, symbols));
+
+        PasswordResponseWriter.Scratch scratch = writer.acquire();
+        try {
+            password.getChars(0, password.length(), scratch.chars(), 0);
+            int size = writer.encodeJson(scratch, password.length(), upper, lower, numbers, symbols);
+            assertEquals(new String(expected, StandardCharsets.UTF_8),
+                    new String(scratch.bytes(), 0, size, StandardCharsets.UTF_8));
+            assertArrayEquals(expected, Arrays.copyOf(scratch.bytes(), size));
+        } finally {
+            writer.release(scratch);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.passwordgenerator;
+
+import com.passwordgenerator.exception.PolicyNotFoundException;
+import com.passwordgenerator.service.PasswordGeneratorService;
+import com.passwordgenerator.service.policy.PasswordPolicy;
+import com.passwordgenerator.service.policy.PolicyRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Policy Registry Tests")
+public class PolicyRegistryTest {
+
+    private static final String POLICIES = """
+            policies:
+              db-service-account:
+                description: Database service accounts
+                length: 32
+                includeUppercase: true
+                includeLowercase: true
+                includeNumbers: true
+                includeSymbols: true
+                minNumbers: 4
+                minSymbols: 2
+                exclude: "O0Il1'\\"\\\\`"
+              pin:
+                length: 6
+                includeNumbers: true
+            """;
+
+    private final PasswordGeneratorService service = new PasswordGeneratorService();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Should load YAML policies and generate passwords that honour them")
+    public void testLoadYamlPolicies() throws Exception {
+        Path file = Files.writeString(dir.resolve("policies.yaml"), POLICIES);
+        try (PolicyRegistry registry = new PolicyRegistry(file, service, null)) {
+            assertEquals(2, registry.getPolicies().size());
+            PasswordPolicy policy = registry.require("db-service-account");
+            assertEquals(32, policy.getLength());
+            assertEquals("Database service accounts", policy.getDescription());
+
+            for (int i = 0; i < 200; i++) {
+                String password = service.generatePassword(policy);
+                assertEquals(32, password.length());
+                assertTrue(password.chars().filter(Character::isDigit).count() >= 4, password);
+                assertTrue(password.chars().filter(c -> !Character.isLetterOrDigit(c)).count() >= 2, password);
+                assertTrue(password.chars().noneMatch(c -> "O0Il1'\"\\`".indexOf(c) >= 0), password);
+            }
+            assertTrue(service.generatePassword(registry.require("pin")).matches("[0-9]{6}"));
+
+            assertNull(registry.get("missing"));
+            assertThrows(PolicyNotFoundException.class, () -> registry.require("missing"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should load JSON policies by file extension")
+    public void testLoadJsonPolicies() throws Exception {
+        Path file = Files.writeString(dir.resolve("policies.json"),
+                "{\"policies\": {\"hex-ish\": {\"length\": 20, \"includeUppercase\": true, \"includeNumbers\": true,"
+                        + " \"exclude\": \"GHIJKLMNOPQRSTUVWXYZ\"},"
+                        + " \"dice\": {\"length\": 5, \"alphabet\": \"\u2680\u2681\u2682\u2683\u2684\u2685\"}}}");
+        try (PolicyRegistry registry = new PolicyRegistry(file, service, null)) {
+            String password = service.generatePassword(registry.require("hex-ish"));
+            assertTrue(password.matches("[A-F0-9]{20}"), password);
+            assertTrue(service.generatePassword(registry.require("dice")).matches("[\u2680-\u2685]{5}"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid file as a whole at startup")
+    public void testRejectInvalidFile() throws Exception {
+        assertInvalid("policies:\n  ok:\n    length: 8\n    includeNumbers: true\n  Bad Name:\n    length: 8\n",
+                "Invalid policy name");
+        assertInvalid("policies:\n  no-numbers:\n    length: 8\n    includeNumbers: true\n    exclude: \"0123456789\"\n",
+                "Excluded characters remove all numbers");
+        assertInvalid("policies:\n  too-short:\n    length: 2\n    includeNumbers: true\n    minNumbers: 3\n",
+                "too-short");
+        assertInvalid("policies:\n  typo:\n    lenght: 8\n", "typo");
+        assertInvalid("policies: {}\n", "defines no policies");
+        assertThrows(IllegalArgumentException.class,
+                () -> new PolicyRegistry(dir.resolve("missing.yaml"), service, null));
+    }
+
+    @Test
+    @DisplayName("Should hot-swap a changed file and keep the old policies when a change is invalid")
+    public void testHotReload() throws Exception {
+        Path file = Files.writeString(dir.resolve("policies.yaml"), POLICIES);
+        try (PolicyRegistry registry = new PolicyRegistry(file, service, Duration.ofMillis(50))) {
+            assertEquals(0, registry.getReloads());
+
+            replace(file, POLICIES.replace("length: 6", "length: 8"));
+            awaitUntil(() -> registry.getReloads() == 1);
+            assertEquals(8, registry.require("pin").getLength());
+
+            replace(file, POLICIES.replace("length: 6", "length: 0"));
+            awaitUntil(() -> registry.getFailedReloads() == 1);
+            assertEquals(8, registry.require("pin").getLength());
+            assertEquals(32, registry.require("db-service-account").getLength());
+            assertEquals(1, registry.getReloads());
+        }
+    }
+
+    private void assertInvalid(String content, String expectedMessage) throws Exception {
+        Path file = Files.writeString(dir.resolve("invalid.yaml"), content);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new PolicyRegistry(file, service, null));
+        assertTrue(e.getMessage().contains(expectedMessage), e.getMessage());
+    }
+
+    /** Writes the new content beside the file and renames it over, as editors and deploy tools do. */
+    private void replace(Path file, String content) throws Exception {
+        Path staged = Files.writeString(dir.resolve("policies.yaml.tmp"), content);
+        Files.move(staged, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void awaitUntil(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for reload");
+            Thread.sleep(20);
+        }
+    }
+}
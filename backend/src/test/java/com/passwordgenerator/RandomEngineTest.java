@@ -0,0 +1,142 @@
+package com.passwordgenerator;
+
+import com.passwordgenerator.service.random.ChaCha20Random;
+import com.passwordgenerator.service.random.RandomEngine;
+import com.passwordgenerator.service.random.RandomEngines;
+import com.passwordgenerator.service.random.RandomStrategy;
+import com.passwordgenerator.service.random.SecureRandomProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.ChaCha20ParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+import java.security.Security;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Random Engine Tests")
+public class RandomEngineTest {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    @Test
+    @DisplayName("Should match the RFC 8439 ChaCha20 block function test vectors")
+    public void testChaCha20KnownAnswers() {
+        ChaCha20Random.selfTest();
+
+        // Section 2.3.2
+        byte[] key = HEX.parseHex("000102030405060708090a0b0c0d0e0f101112131415161718191a1b1c1d1e1f");
+        byte[] block = new byte[64];
+        ChaCha20Random.keyStream(key, HEX.parseHex("000000090000004a00000000"), 1, block, 0, 64);
+        assertEquals("10f1e7e4d13b5915500fdd1fa32071c4c7d1f4c733c068030422aa9ac3d46c4e"
+                + "d2826446079faa0914c2d705d98b02a2b5129cd1de164eb9cbd083e8a2503c4e", HEX.formatHex(block));
+
+        // Appendix A.1, test vector #1: all-zero key and nonce, block 0
+        ChaCha20Random.keyStream(new byte[32], new byte[12], 0, block, 0, 64);
+        assertEquals("76b8e0ada0f13d90405d6ae55386bd28bdd219b8a08ded1aa836efcc8b770dc7"
+                + "da41597c5157488d7724e03fb8d84a376a43b8f41518a11cc387b669b2ee6586", HEX.formatHex(block));
+    }
+
+    @Test
+    @DisplayName("Should produce the same keystream as the JDK's ChaCha20 cipher")
+    public void testChaCha20MatchesJdkCipher() throws Exception {
+        SplittableRandom random = new SplittableRandom(8439);
+        for (int length : new int[] {1, 63, 64, 65, 1000}) {
+            byte[] key = new byte[32];
+            byte[] nonce = new byte[12];
+            random.nextBytes(key);
+            random.nextBytes(nonce);
+            int counter = random.nextInt(1 << 20);
+
+            Cipher cipher = Cipher.getInstance("ChaCha20");
+            cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "ChaCha20"),
+                    new ChaCha20ParameterSpec(nonce, counter));
+            byte[] expected = cipher.doFinal(new byte[length]);
+
+            byte[] actual = new byte[length];
+            ChaCha20Random.keyStream(key, nonce, counter, actual, 0, length);
+            assertArrayEquals(expected, actual, "Keystream of " + length + " bytes");
+        }
+    }
+
+    @Test
+    @DisplayName("Should rekey from its own keystream and never reuse it (fast key erasure)")
+    public void testChaCha20FastKeyErasure() {
+        byte[] seed = HEX.parseHex("c0ffee00000000000000000000000000000000000000000000000000000000aa");
+
+        // Each refill is 16 blocks under the current key; the first 32 bytes become the next key
+        byte[] first = new byte[1024];
+        ChaCha20Random.keyStream(seed, new byte[12], 0, first, 0, first.length);
+        byte[] second = new byte[1024];
+        ChaCha20Random.keyStream(Arrays.copyOf(first, 32), new byte[12], 0, second, 0, second.length);
+
+        byte[] expected = new byte[992 + 100];
+        System.arraycopy(first, 32, expected, 0, 992);
+        System.arraycopy(second, 32, expected, 992, 100);
+
+        ChaCha20Random generator = new ChaCha20Random(seed);
+        byte[] actual = new byte[expected.length];
+        byte[] head = new byte[10];
+        generator.nextBytes(head);
+        byte[] tail = new byte[actual.length - head.length];
+        generator.nextBytes(tail);
+        System.arraycopy(head, 0, actual, 0, head.length);
+        System.arraycopy(tail, 0, actual, head.length, tail.length);
+        assertArrayEquals(expected, actual);
+
+        // Mixing in a seed moves to a different stream
+        ChaCha20Random reseeded = new ChaCha20Random(seed);
+        reseeded.setSeed(new byte[] {1});
+        byte[] afterSeed = new byte[32];
+        reseeded.nextBytes(afterSeed);
+        assertFalse(Arrays.equals(Arrays.copyOfRange(expected, 0, 32), afterSeed));
+
+        assertThrows(IllegalArgumentException.class, () -> new ChaCha20Random(new byte[16]));
+    }
+
+    @Test
+    @DisplayName("Should build DRBGs with the configured strength, prediction resistance and mechanism")
+    public void testDrbgConfiguration() {
+        String original = Security.getProperty("securerandom.drbg.config");
+        try {
+            SecureRandom drbg = RandomEngines.drbg(192, true, "HMAC_DRBG,SHA-512").newInstance();
+            assertEquals("HMAC_DRBG,SHA-512,192,pr_and_reseed", drbg.toString());
+
+            drbg = RandomEngines.drbg(256, false, "CTR_DRBG,AES-256").newInstance();
+            assertEquals("CTR_DRBG,AES-256,256,reseed_only,use_df", drbg.toString());
+
+            assertThrows(IllegalStateException.class, () -> RandomEngines.drbg(256, false, "Unknown_DRBG"));
+        } finally {
+            Security.setProperty("securerandom.drbg.config", original == null ? "" : original);
+        }
+    }
+
+    @Test
+    @DisplayName("Should generate independent output from every engine through the provider")
+    public void testEveryEngine() {
+        List<RandomEngine> engines = List.of(RandomEngines.platform(), RandomEngines.jca("SHA1PRNG"),
+                RandomEngines.drbg(256, false, null), RandomEngines.chaCha20());
+        for (RandomEngine engine : engines) {
+            SecureRandomProvider provider = new SecureRandomProvider(RandomStrategy.STRIPED, 2, engine, 1000, null);
+            byte[] first = new byte[48];
+            byte[] second = new byte[48];
+            provider.nextBytes(first);
+            provider.nextBytes(second);
+            assertFalse(Arrays.equals(first, second), engine.name() + " returned repeated output");
+            assertEquals(engine.name(), provider.getEngine());
+
+            // Separately seeded instances must not share a stream
+            byte[] other = new byte[48];
+            engine.newInstance().nextBytes(other);
+            assertFalse(Arrays.equals(first, other), engine.name() + " instances share a stream");
+        }
+
+        assertThrows(IllegalStateException.class, () -> RandomEngines.jca("NoSuchPRNG"));
+    }
+}
@@ -0,0 +1,214 @@
+package com.passwordgenerator;
+
+import com.passwordgenerator.exception.RateLimitExceededException;
+import com.passwordgenerator.service.ratelimit.AdmissionControl;
+import com.passwordgenerator.service.ratelimit.ClientRateLimiter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Rate Limiter Tests")
+public class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Should allow a full burst, refuse the next request and refill over time")
+    public void testBurstAndRefill() {
+        AtomicLong clock = new AtomicLong(5 * SECOND);
+        try (ClientRateLimiter limiter = new ClientRateLimiter(10, 5, 4, 100, null, clock::get)) {
+            for (int i = 0; i < 10; i++) {
+                assertEquals(0, limiter.tryAcquire("a", 1), "Request " + i + " should be admitted");
+            }
+            long wait = limiter.tryAcquire("a", 1);
+            assertEquals(SECOND / 5, wait, "One token refills in 1/5 s");
+
+            // Other clients are unaffected
+            assertEquals(0, limiter.tryAcquire("b", 10));
+
+            clock.addAndGet(SECOND / 5);
+            assertEquals(0, limiter.tryAcquire("a", 1));
+            assertTrue(limiter.tryAcquire("a", 1) > 0);
+
+            clock.addAndGet(SECOND);
+            assertEquals(0, limiter.tryAcquire("a", 5));
+        }
+    }
+
+    @Test
+    @DisplayName("Should charge weighted costs in full")
+    public void testWeightedCost() {
+        AtomicLong clock = new AtomicLong();
+        try (ClientRateLimiter limiter = new ClientRateLimiter(10, 10, 1, 100, null, clock::get)) {
+            assertEquals(0, limiter.tryAcquire("a", 7));
+            long wait = limiter.tryAcquire("a", 7);
+            assertEquals(4 * SECOND / 10, wait, "Four more tokens are needed");
+
+            // A request worth more than the whole bucket is admitted and paid off as debt
+            clock.addAndGet(SECOND);
+            assertEquals(0, limiter.tryAcquire("a", 1_000_000));
+            assertEquals((1_000_000 + 1 - 10) * SECOND / 10, limiter.tryAcquire("a", 1_000_000));
+        }
+    }
+
+    @Test
+    @DisplayName("Should delay the next request in proportion to the size of one over capacity")
+    public void testOverCapacityDebt() {
+        AtomicLong clock = new AtomicLong();
+        try (ClientRateLimiter limiter = new ClientRateLimiter(10, 10, 1, 100, null, clock::get)) {
+            assertEquals(0, limiter.tryAcquire("small", 30));
+            assertEquals(0, limiter.tryAcquire("large", 300));
+            // The next token is due once the debt beyond one bucket has refilled
+            assertEquals((30 + 1 - 10) * SECOND / 10, limiter.tryAcquire("small", 1));
+            assertEquals((300 + 1 - 10) * SECOND / 10, limiter.tryAcquire("large", 1));
+
+            // A client in debt cannot start another large request either
+            clock.addAndGet(2 * SECOND);
+            assertEquals(SECOND / 10, limiter.tryAcquire("small", 30));
+            clock.addAndGet(SECOND / 10);
+            assertEquals(0, limiter.tryAcquire("small", 30));
+            assertTrue(limiter.tryAcquire("large", 30) > 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should evict refilled buckets and fall back to a shared bucket when full")
+    public void testEvictionAndOverflow() {
+        AtomicLong clock = new AtomicLong();
+        try (ClientRateLimiter limiter = new ClientRateLimiter(10, 10, 1, 100, null, clock::get)) {
+            for (int i = 0; i < 100; i++) {
+                assertEquals(0, limiter.tryAcquire("client-" + i, 1));
+            }
+            assertEquals(100, limiter.getTrackedClients());
+
+            // The table is full and nothing has refilled, so a new client shares the overflow bucket
+            assertEquals(0, limiter.tryAcquire("newcomer", 1));
+            assertEquals(100, limiter.getTrackedClients());
+            assertEquals(1, limiter.getOverflowed());
+
+            // After a tenth of a second every bucket is full again and the sweep drops them all
+            clock.addAndGet(SECOND / 10);
+            limiter.sweep();
+            assertEquals(0, limiter.getTrackedClients());
+            assertEquals(100, limiter.getEvicted());
+
+            assertEquals(0, limiter.tryAcquire("newcomer", 1));
+            assertEquals(1, limiter.getTrackedClients());
+        }
+    }
+
+    @Test
+    @DisplayName("Should send new clients on a full stripe to the overflow bucket without sweeping inline")
+    public void testFullStripeDoesNotSweepPerRequest() {
+        AtomicLong clock = new AtomicLong();
+        try (ClientRateLimiter limiter = new ClientRateLimiter(10, 10, 1, 100, null, clock::get)) {
+            for (int i = 0; i < 100; i++) {
+                assertEquals(0, limiter.tryAcquire("client-" + i, 1));
+            }
+
+            // Every tracked bucket has refilled, so an inline sweep would evict all of them
+            clock.addAndGet(SECOND);
+            for (int i = 0; i < 1000; i++) {
+                limiter.tryAcquire("flood-" + i, 1);
+            }
+            assertEquals(0, limiter.getEvicted());
+            assertEquals(100, limiter.getTrackedClients());
+            assertEquals(1000, limiter.getOverflowed());
+
+            limiter.sweep();
+            assertEquals(100, limiter.getEvicted());
+            assertEquals(0, limiter.tryAcquire("flood-0", 1));
+            assertEquals(1, limiter.getTrackedClients());
+        }
+    }
+
+    @Test
+    @DisplayName("Should never admit more than the bucket allows under contention")
+    public void testConcurrentAcquire() throws Exception {
+        AtomicLong clock = new AtomicLong();
+        try (ClientRateLimiter limiter = new ClientRateLimiter(1000, 1, 8, 100, null, clock::get)) {
+            int threads = 8;
+            AtomicInteger admitted = new AtomicInteger();
+            CountDownLatch done = new CountDownLatch(threads);
+            for (int t = 0; t < threads; t++) {
+                Thread.ofPlatform().start(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        if (limiter.tryAcquire("shared", 1) == 0) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+            assertEquals(1000, admitted.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject with Retry-After and shed load past the concurrency limit")
+    public void testAdmissionControl() {
+        AtomicLong clock = new AtomicLong();
+        ClientRateLimiter limiter = new ClientRateLimiter(4, 1, 1, 100, null, clock::get);
+        AdmissionControl control = new AdmissionControl(limiter, 2, 100, Set.of("secret"));
+
+        assertEquals("key:secret", control.clientKey("secret", "10.0.0.1"));
+        assertEquals("ip:10.0.0.1", control.clientKey("made-up", "10.0.0.1"));
+        assertEquals("ip:10.0.0.1", control.clientKey(null, "10.0.0.1"));
+
+        // 1 token for the request plus 2 for 250 characters
+        control.admit("a", 250);
+        RateLimitExceededException rejected = assertThrows(RateLimitExceededException.class,
+                () -> control.admit("a", 250));
+        assertEquals(2, rejected.getRetryAfterSeconds());
+        assertThrows(RateLimitExceededException.class, () -> control.chargeAdditional("a", 400));
+        control.chargeAdditional("a", 99);
+        assertEquals(2, control.getClientRejections());
+
+        control.enter();
+        control.enter();
+        RateLimitExceededException overloaded = assertThrows(RateLimitExceededException.class, control::enter);
+        assertEquals(1, overloaded.getRetryAfterSeconds());
+        assertEquals(2, control.getInFlight());
+        assertEquals(1, control.getOverloadRejections());
+        control.exit();
+        control.enter();
+    }
+
+    @Test
+    @DisplayName("Should pace a stream by waiting for tokens instead of rejecting")
+    public void testPace() throws Exception {
+        // Sleeping advances the limiter's clock, so no wall-clock time passes
+        AtomicLong clock = new AtomicLong(5 * SECOND);
+        AtomicLong slept = new AtomicLong();
+        ClientRateLimiter limiter = new ClientRateLimiter(2, 20, 1, 100, null, clock::get);
+        AdmissionControl control = new AdmissionControl(limiter, 8, 100, Set.of(), nanos -> {
+            slept.addAndGet(nanos);
+            clock.addAndGet(nanos);
+        });
+
+        for (int i = 0; i < 6; i++) {
+            control.pace("stream", 50);
+        }
+        // Two tokens of burst, then four more at 20 per second
+        assertEquals(4 * SECOND / 20, slept.get());
+        assertEquals(0, control.getClientRejections());
+
+        // A pace larger than the bucket goes ahead with one token and pays the rest off as debt
+        clock.addAndGet(SECOND);
+        slept.set(0);
+        control.pace("stream", 250);
+        assertEquals(0, slept.get());
+        control.pace("stream", 250);
+        assertEquals(2 * SECOND / 20, slept.get());
+        control.pace("stream", 50);
+        assertEquals(5 * SECOND / 20, slept.get());
+    }
+}
@@ -0,0 +1,86 @@
+package com.passwordgenerator;
+
+import com.passwordgenerator.service.random.RandomStrategy;
+import com.passwordgenerator.service.random.SecureRandomProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Secure Random Provider Tests")
+public class SecureRandomProviderTest {
+
+    private static final Supplier<SecureRandom> DRBG = () -> {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    };
+
+    @Test
+    @DisplayName("Should produce random bytes with every strategy")
+    public void testEveryStrategyProducesBytes() {
+        for (RandomStrategy strategy : RandomStrategy.values()) {
+            SecureRandomProvider provider = new SecureRandomProvider(strategy, 4, DRBG, 0, null);
+            byte[] first = new byte[32];
+            byte[] second = new byte[32];
+            provider.nextBytes(first);
+            provider.nextBytes(second);
+
+            assertFalse(Arrays.equals(first, second), strategy + " returned repeated output");
+            assertEquals(64, provider.getBytesGenerated());
+            assertEquals(strategy, provider.getStrategy());
+        }
+    }
+
+    @Test
+    @DisplayName("Should replace the instance once the byte budget is spent")
+    public void testReseedsAfterByteBudget() {
+        AtomicInteger created = new AtomicInteger();
+        SecureRandomProvider provider = new SecureRandomProvider(RandomStrategy.SHARED, 1,
+                () -> {
+                    created.incrementAndGet();
+                    return DRBG.get();
+                }, 100, null);
+
+        assertEquals(1, created.get());
+        provider.nextBytes(new byte[60]);
+        assertEquals(1, created.get());
+        provider.nextBytes(new byte[60]);
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    @DisplayName("Should replace the instance once the reseed interval has passed")
+    public void testReseedsAfterInterval() throws InterruptedException {
+        AtomicInteger created = new AtomicInteger();
+        SecureRandomProvider provider = new SecureRandomProvider(RandomStrategy.SHARED, 1,
+                () -> {
+                    created.incrementAndGet();
+                    return DRBG.get();
+                }, 0, Duration.ofMillis(20));
+
+        provider.nextBytes(new byte[16]);
+        assertEquals(1, created.get());
+        Thread.sleep(40);
+        provider.nextBytes(new byte[16]);
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid configuration")
+    public void testRejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SecureRandomProvider(null, 1, DRBG, 0, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SecureRandomProvider(RandomStrategy.STRIPED, 0, DRBG, 0, null));
+    }
+}
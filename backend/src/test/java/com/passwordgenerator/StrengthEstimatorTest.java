@@ -0,0 +1,82 @@
+package com.passwordgenerator;
+
+import com.passwordgenerator.model.StrengthEstimate;
+import com.passwordgenerator.model.StrengthPattern;
+import com.passwordgenerator.service.PasswordGeneratorService;
+import com.passwordgenerator.service.strength.DictionaryTrie;
+import com.passwordgenerator.service.strength.StrengthEstimator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Strength Estimator Tests")
+public class StrengthEstimatorTest {
+
+    private static StrengthEstimator estimator;
+
+    @BeforeAll
+    public static void setUp() {
+        estimator = new StrengthEstimator(DictionaryTrie.loadDefault());
+    }
+
+    @Test
+    @DisplayName("Should rate common passwords as very weak")
+    public void testCommonPasswords() {
+        for (String password : List.of("password", "123456", "qwerty", "P@ssw0rd", "iloveyou")) {
+            StrengthEstimate estimate = estimator.estimate(password);
+            assertEquals(0, estimate.getScore(), password);
+            assertTrue(estimate.getEntropyBits() < estimate.getCharsetEntropyBits(), password);
+        }
+    }
+
+    @Test
+    @DisplayName("Should detect each kind of pattern")
+    public void testPatternDetection() {
+        assertEquals("dictionary", onlyPattern("Dragon").getType());
+        assertEquals("sequence", onlyPattern("lmnopq").getType());
+        assertEquals("repeat", onlyPattern("zzzzzzzz").getType());
+        assertEquals("spatial", onlyPattern("zxcvfr").getType());
+
+        StrengthPattern walk = onlyPattern("zxcvfr");
+        assertEquals(0, walk.getStart());
+        assertEquals(6, walk.getEnd());
+    }
+
+    @Test
+    @DisplayName("Should rate long random passwords as very strong")
+    public void testRandomPasswords() {
+        PasswordGeneratorService service = new PasswordGeneratorService();
+        StrengthEstimate estimate = estimator.estimate(service.generatePassword(20, true, true, true, true));
+        assertEquals(4, estimate.getScore());
+        assertEquals("VERY_STRONG", estimate.getRating());
+
+        StrengthEstimate longest = estimator.estimate(service.generatePassword(1024, true, true, true, true));
+        assertTrue(longest.getEntropyBits() > 5000);
+    }
+
+    @Test
+    @DisplayName("Should never rate a password above its charset entropy")
+    public void testBoundedByCharsetEntropy() {
+        StrengthEstimate estimate = estimator.estimate("correcthorsebatterystaple");
+        assertTrue(estimate.getEntropyBits() <= estimate.getCharsetEntropyBits());
+        assertFalse(estimate.getPatterns().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject empty and oversized passwords")
+    public void testInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> estimator.estimate(""));
+        assertThrows(IllegalArgumentException.class, () -> estimator.estimate(null));
+        assertThrows(IllegalArgumentException.class, () -> estimator.estimate("a".repeat(1025)));
+    }
+
+    private StrengthPattern onlyPattern(String password) {
+        List<StrengthPattern> patterns = estimator.estimate(password).getPatterns();
+        assertEquals(1, patterns.size(), password);
+        return patterns.get(0);
+    }
+}
@@ -0,0 +1,23 @@
+package com.passwordgenerator;
+
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Request helpers shared by the MockMvc tests.
+ */
+final class TestRequests {
+
+    private TestRequests() {
+    }
+
+    /**
+     * Sends {@code request} from the address {@code client}. Admission control keys its buckets
+     * by client address, so tests that share a context use their own addresses to stay independent.
+     */
+    static MockHttpServletRequestBuilder from(MockHttpServletRequestBuilder request, String client) {
+        return request.with(servletRequest -> {
+            servletRequest.setRemoteAddr(client);
+            return servletRequest;
+        });
+    }
+}
@@ -0,0 +1,31 @@
+package com.passwordgenerator.loadtest;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Gaps between request start times in an open model, where requests are sent on schedule
+ * whether or not earlier ones have completed.
+ */
+public enum ArrivalProcess {
+    /** Evenly spaced requests. */
+    CONSTANT,
+    /** Exponentially distributed gaps, i.e. independent arrivals as from many separate clients. */
+    POISSON;
+
+    public long nextGapNanos(double ratePerSecond, SplittableRandom random) {
+        double meanNanos = 1e9 / ratePerSecond;
+        if (this == CONSTANT) {
+            return Math.max(1, Math.round(meanNanos));
+        }
+        return Math.max(1, Math.round(-Math.log(1 - random.nextDouble()) * meanNanos));
+    }
+
+    public static ArrivalProcess parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown arrival process '" + value + "'; expected constant or poisson");
+        }
+    }
+}
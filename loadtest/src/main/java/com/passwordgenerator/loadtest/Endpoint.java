@@ -0,0 +1,27 @@
+package com.passwordgenerator.loadtest;
+
+import java.util.Locale;
+
+/**
+ * API endpoints the load generator can drive.
+ */
+public enum Endpoint {
+    /** {@code GET /api/generate-password} */
+    GENERATE,
+    /** {@code POST /api/generate-passwords} with {@code --bulk-count} passwords */
+    BULK,
+    /** {@code GET /api/stream-passwords} with {@code --stream-count} passwords */
+    STREAM;
+
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static Endpoint parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown endpoint '" + value + "'; expected generate, bulk or stream");
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.passwordgenerator.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency recorded per endpoint in two forms:
+ * <ul>
+ *   <li><b>response time</b>, from when the request was <em>scheduled</em> to start until its
+ *   response was fully read. In an open model a stalled server delays every request queued
+ *   behind it, and measuring from the scheduled start charges that delay to each of them
+ *   instead of hiding it (coordinated omission).</li>
+ *   <li><b>service time</b>, from when the request was actually sent. The gap between the two
+ *   is time spent waiting on the generator itself or on its in-flight cap.</li>
+ * </ul>
+ * Requests record from any thread; {@link #interval} and the report writers are called from a
+ * single reporting thread.
+ */
+public final class LatencyReport {
+
+    /** Latencies above this are recorded as this; well past any request timeout. */
+    static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(10);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private final Map<Endpoint, Series> series = new EnumMap<>(Endpoint.class);
+    /** Expected fraction of requests per endpoint, for the per-endpoint target rate. */
+    private final Map<Endpoint, Double> shares = new EnumMap<>(Endpoint.class);
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private HistogramLogWriter log;
+
+    public LatencyReport(WeightedChoice<Endpoint> mix) {
+        for (int i = 0; i < mix.values().size(); i++) {
+            series.putIfAbsent(mix.values().get(i), new Series());
+            shares.merge(mix.values().get(i), mix.probability(i), Double::sum);
+        }
+    }
+
+    private static final class Series {
+        final Recorder response = new Recorder(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        final Recorder service = new Recorder(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        final Histogram responseTotal = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        final Histogram serviceTotal = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        final LongAdder errors = new LongAdder();
+        Histogram responseInterval;
+        Histogram serviceInterval;
+    }
+
+    /**
+     * Records one completed request, failed or not, so slow failures still show in the tail.
+     *
+     * @param error null for a 2xx response, otherwise the status code or exception name
+     */
+    public void record(Endpoint endpoint, long scheduledNanos, long sentNanos, long endNanos, String error) {
+        Series s = series.get(endpoint);
+        s.response.recordValue(Math.min(endNanos - scheduledNanos, HIGHEST_TRACKABLE_NANOS));
+        s.service.recordValue(Math.min(endNanos - sentNanos, HIGHEST_TRACKABLE_NANOS));
+        if (error != null) {
+            s.errors.increment();
+            errors.computeIfAbsent(endpoint.label() + " " + error, key -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Also logs every interval, tagged by endpoint, to an HdrHistogram log for later
+     * plotting or merging across runs.
+     */
+    public void startLog(PrintStream out, long startMillis) {
+        log = new HistogramLogWriter(out);
+        log.outputLogFormatVersion();
+        log.outputStartTime(startMillis);
+        log.setBaseTime(startMillis);
+        log.outputLegend();
+        // Restart the recorders so intervals are stamped from the log's start
+        for (Series s : series.values()) {
+            s.response.reset();
+            s.service.reset();
+        }
+    }
+
+    /**
+     * Closes the current interval: folds it into the totals, logs it and returns a one-line summary.
+     */
+    public String interval() {
+        StringBuilder line = new StringBuilder();
+        for (Map.Entry<Endpoint, Series> entry : series.entrySet()) {
+            Series s = entry.getValue();
+            s.responseInterval = s.response.getIntervalHistogram(s.responseInterval);
+            s.serviceInterval = s.service.getIntervalHistogram(s.serviceInterval);
+            s.responseTotal.add(s.responseInterval);
+            s.serviceTotal.add(s.serviceInterval);
+            if (log != null) {
+                s.responseInterval.setTag(entry.getKey().label());
+                s.serviceInterval.setTag(entry.getKey().label() + "-service");
+                log.outputIntervalHistogram(s.responseInterval);
+                log.outputIntervalHistogram(s.serviceInterval);
+            }
+            long count = s.responseInterval.getTotalCount();
+            if (count > 0 || series.size() == 1) {
+                line.append(String.format(Locale.ROOT, "  %s %d req p50 %s p99 %s max %s",
+                        entry.getKey().label(), count,
+                        millis(s.responseInterval.getValueAtPercentile(50)),
+                        millis(s.responseInterval.getValueAtPercentile(99)),
+                        millis(s.responseInterval.getMaxValue())));
+            }
+        }
+        return line.toString();
+    }
+
+    public long getRequests(Endpoint endpoint) {
+        return series.get(endpoint).responseTotal.getTotalCount();
+    }
+
+    public long getErrors(Endpoint endpoint) {
+        return series.get(endpoint).errors.sum();
+    }
+
+    public Histogram getResponseTimes(Endpoint endpoint) {
+        return series.get(endpoint).responseTotal;
+    }
+
+    public Histogram getServiceTimes(Endpoint endpoint) {
+        return series.get(endpoint).serviceTotal;
+    }
+
+    /**
+     * Error counts keyed by endpoint and cause, e.g. {@code generate 429}.
+     */
+    public Map<String, Long> getErrorCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        errors.forEach((key, count) -> counts.put(key, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Writes {@code <label>-<endpoint>.hgrm} percentile distributions (in milliseconds) for the
+     * whole run and appends one row per endpoint to {@code summary.csv}, so runs with different
+     * labels line up in one table.
+     */
+    public void writeReports(Path directory, String label, double targetRate, double seconds) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<Endpoint, Series> entry : series.entrySet()) {
+            Path file = directory.resolve(label + "-" + entry.getKey().label() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+                entry.getValue().responseTotal.outputPercentileDistribution(out, 5, NANOS_PER_MILLI);
+            }
+        }
+
+        Path summary = directory.resolve("summary.csv");
+        StringBuilder rows = new StringBuilder();
+        if (!Files.exists(summary)) {
+            rows.append("label,endpoint,target_rate,requests,errors,achieved_rate,"
+                    + "p50_ms,p90_ms,p99_ms,p99.9_ms,p99.99_ms,max_ms,service_p99_ms\n");
+        }
+        for (Map.Entry<Endpoint, Series> entry : series.entrySet()) {
+            Histogram h = entry.getValue().responseTotal;
+            rows.append(String.format(Locale.ROOT, "%s,%s,%.1f,%d,%d,%.1f,%s,%s,%s,%s,%s,%s,%s%n",
+                    label, entry.getKey().label(), targetRate * shares.get(entry.getKey()), h.getTotalCount(),
+                    entry.getValue().errors.sum(), h.getTotalCount() / seconds,
+                    millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(90)),
+                    millis(h.getValueAtPercentile(99)), millis(h.getValueAtPercentile(99.9)),
+                    millis(h.getValueAtPercentile(99.99)), millis(h.getMaxValue()),
+                    millis(entry.getValue().serviceTotal.getValueAtPercentile(99))));
+        }
+        Files.writeString(summary, rows, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Summary table for the console.
+     */
+    public String summary(double seconds) {
+        StringBuilder out = new StringBuilder(String.format(Locale.ROOT,
+                "%-9s %10s %8s %9s %9s %9s %9s %9s %9s %11s%n", "endpoint", "requests", "errors", "req/s",
+                "p50 ms", "p99 ms", "p99.9 ms", "p99.99 ms", "max ms", "svc p99 ms"));
+        for (Map.Entry<Endpoint, Series> entry : series.entrySet()) {
+            Histogram h = entry.getValue().responseTotal;
+            out.append(String.format(Locale.ROOT, "%-9s %10d %8d %9.1f %9s %9s %9s %9s %9s %11s%n",
+                    entry.getKey().label(), h.getTotalCount(), entry.getValue().errors.sum(),
+                    h.getTotalCount() / seconds, millis(h.getValueAtPercentile(50)),
+                    millis(h.getValueAtPercentile(99)), millis(h.getValueAtPercentile(99.9)),
+                    millis(h.getValueAtPercentile(99.99)), millis(h.getMaxValue()),
+                    millis(entry.getValue().serviceTotal.getValueAtPercentile(99))));
+        }
+        return out.toString();
+    }
+
+    static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / NANOS_PER_MILLI);
+    }
+}
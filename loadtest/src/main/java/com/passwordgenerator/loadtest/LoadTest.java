@@ -0,0 +1,172 @@
+package com.passwordgenerator.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the Password Generator API.
+ *
+ * <p>A single dispatcher thread works through a schedule of start times drawn from the arrival
+ * process and hands each request to its own virtual thread, so a slow server never slows the
+ * arrival rate down; requests simply pile up, as they would from real clients. When the
+ * dispatcher falls behind schedule it catches up rather than skipping, and latency is measured
+ * from the scheduled start either way (see {@link LatencyReport}).
+ */
+public final class LoadTest {
+
+    /** Below this the dispatcher spins instead of parking, to keep start times accurate. */
+    private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final LoadTestOptions options;
+    private final RequestFactory requests;
+    private final LatencyReport report;
+    private final HttpClient client;
+    private final Semaphore inFlightPermits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private long maxDispatchLagNanos;
+
+    public LoadTest(LoadTestOptions options) {
+        this.options = options;
+        this.requests = new RequestFactory(options);
+        this.report = new LatencyReport(options.getEndpoints());
+        this.inFlightPermits = new Semaphore(options.getMaxInFlight());
+        this.client = HttpClient.newBuilder()
+                .version(options.getHttpVersion())
+                .connectTimeout(options.getTimeout())
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.print(LoadTestOptions.USAGE);
+            return;
+        }
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        new LoadTest(options).run();
+    }
+
+    public void run() throws IOException, InterruptedException {
+        long seed = options.getSeed() != null ? options.getSeed() : System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+        long warmupNanos = options.getWarmup().toNanos();
+        long durationNanos = options.getDuration().toNanos();
+
+        System.out.printf("Load test '%s': %s at %.1f req/s (%s), warmup %ds, measure %ds, seed %d%n",
+                options.getLabel(), options.getTarget(), options.getRate(),
+                options.getArrival().name().toLowerCase(), options.getWarmup().toSeconds(),
+                options.getDuration().toSeconds(), seed);
+
+        Files.createDirectories(options.getOutput());
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable ->
+                Thread.ofPlatform().name("loadtest-reporter").daemon().unstarted(runnable));
+        try (PrintStream log = new PrintStream(Files.newOutputStream(
+                options.getOutput().resolve(options.getLabel() + ".hlog")), false, StandardCharsets.UTF_8)) {
+
+            report.startLog(log, System.currentTimeMillis());
+            long start = System.nanoTime();
+            long measureStart = start + warmupNanos;
+            long end = measureStart + durationNanos;
+            AtomicInteger second = new AtomicInteger();
+            reporter.scheduleAtFixedRate(() -> System.out.printf("%4ds%s | in flight %d%n",
+                            second.incrementAndGet(), report.interval(), inFlight.get()),
+                    warmupNanos + TimeUnit.SECONDS.toNanos(1), TimeUnit.SECONDS.toNanos(1), TimeUnit.NANOSECONDS);
+
+            try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+                dispatch(random, start, measureStart, end, senders);
+                // Closing waits for the requests still in flight
+            }
+            reporter.shutdown();
+            reporter.awaitTermination(5, TimeUnit.SECONDS);
+            System.out.printf("   end%s | drained%n", report.interval());
+        } finally {
+            reporter.shutdownNow();
+        }
+
+        double seconds = durationNanos / 1e9;
+        System.out.println();
+        System.out.print(report.summary(seconds));
+        Map<String, Long> errors = report.getErrorCounts();
+        if (!errors.isEmpty()) {
+            System.out.println("Errors: " + errors);
+        }
+        System.out.printf("Max dispatcher lag: %s ms%n", LatencyReport.millis(maxDispatchLagNanos));
+        report.writeReports(options.getOutput(), options.getLabel(), options.getRate(), seconds);
+        System.out.println("Reports written to " + options.getOutput().toAbsolutePath());
+    }
+
+    private void dispatch(SplittableRandom random, long start, long measureStart, long end, ExecutorService senders) {
+        long scheduled = start;
+        while (scheduled < end) {
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                if (wait > SPIN_NANOS) {
+                    LockSupport.parkNanos(wait - SPIN_NANOS);
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+            long lag = -wait;
+            if (scheduled >= measureStart && lag > maxDispatchLagNanos) {
+                maxDispatchLagNanos = lag;
+            }
+
+            RequestFactory.PlannedRequest request = requests.next(random);
+            long scheduledStart = scheduled;
+            boolean measured = scheduled >= measureStart;
+            senders.execute(() -> send(request, scheduledStart, measured));
+            scheduled += options.getArrival().nextGapNanos(options.getRate(), random);
+        }
+    }
+
+    private void send(RequestFactory.PlannedRequest request, long scheduledNanos, boolean measured) {
+        inFlight.incrementAndGet();
+        String error = null;
+        long sent = scheduledNanos;
+        try {
+            // Waiting for a permit counts towards the response time, not the service time
+            inFlightPermits.acquire();
+            try {
+                sent = System.nanoTime();
+                HttpResponse<Void> response = client.send(request.request(), HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() / 100 != 2) {
+                    error = Integer.toString(response.statusCode());
+                }
+            } finally {
+                inFlightPermits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = e.getClass().getSimpleName();
+        } catch (IOException e) {
+            error = e.getClass().getSimpleName();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+        if (measured) {
+            report.record(request.endpoint(), scheduledNanos, sent, System.nanoTime(), error);
+        }
+    }
+}
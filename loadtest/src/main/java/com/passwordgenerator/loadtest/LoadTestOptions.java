@@ -0,0 +1,241 @@
+package com.passwordgenerator.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command-line options, given as {@code --name=value}.
+ */
+public final class LoadTestOptions {
+
+    public static final String USAGE = """
+            Usage: LoadTest [--help] [--name=value ...]
+
+              --target=URL          API base URL (default http://localhost:8080)
+              --rate=N              requests started per second, across all endpoints (default 100)
+              --duration=D          measured run time, e.g. 60s or 5m (default 60s)
+              --warmup=D            unmeasured lead-in at the same rate (default 10s)
+              --arrival=P           constant or poisson (default poisson)
+              --endpoints=MIX       endpoint mix, e.g. generate:95,bulk:4,stream:1 (default generate)
+              --lengths=MIX         password lengths, e.g. 16:70,32:25,128:5 (default 16)
+              --flags=MIX           character classes as letters from ulns, e.g. ulns:60,uln:30,n:10 (default ulns)
+              --bulk-count=N        passwords per bulk request (default 1000)
+              --stream-count=N      passwords per stream request (default 100)
+              --accept=json|text    response format to ask for (default json)
+              --http=1.1|2          HTTP version (default 1.1)
+              --max-in-flight=N     cap on outstanding requests; waiting counts as latency (default 10000)
+              --timeout=D           per-request timeout (default 30s)
+              --api-key=KEY         sent as X-API-Key, for a server with rate limiting keyed by API key
+              --seed=N              seed for the request mix and Poisson gaps (default random)
+              --label=NAME          name of this run in the reports (default run)
+              --output=DIR          report directory (default target/loadtest)
+            """;
+
+    private URI target = URI.create("http://localhost:8080");
+    private double rate = 100;
+    private Duration duration = Duration.ofSeconds(60);
+    private Duration warmup = Duration.ofSeconds(10);
+    private ArrivalProcess arrival = ArrivalProcess.POISSON;
+    private WeightedChoice<Endpoint> endpoints = WeightedChoice.parse("generate", Endpoint::parse);
+    private WeightedChoice<Integer> lengths = WeightedChoice.parse("16", LoadTestOptions::parseLength);
+    private WeightedChoice<String> flags = WeightedChoice.parse("ulns", LoadTestOptions::parseFlags);
+    private int bulkCount = 1000;
+    private int streamCount = 100;
+    private boolean plainText;
+    private HttpClient.Version httpVersion = HttpClient.Version.HTTP_1_1;
+    private int maxInFlight = 10_000;
+    private Duration timeout = Duration.ofSeconds(30);
+    private String apiKey;
+    private Long seed;
+    private String label = "run";
+    private Path output = Path.of("target", "loadtest");
+
+    private LoadTestOptions() {
+    }
+
+    public static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Options are given as --name=value: '" + arg + "'");
+            }
+            values.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            String value = entry.getValue();
+            switch (entry.getKey()) {
+                case "target" -> options.target = URI.create(value.endsWith("/") ? value.substring(0, value.length() - 1) : value);
+                case "rate" -> options.rate = positive(Double.parseDouble(value), "rate");
+                case "duration" -> options.duration = parseDuration(value);
+                case "warmup" -> options.warmup = parseDuration(value);
+                case "arrival" -> options.arrival = ArrivalProcess.parse(value);
+                case "endpoints" -> options.endpoints = WeightedChoice.parse(value, Endpoint::parse);
+                case "lengths" -> options.lengths = WeightedChoice.parse(value, LoadTestOptions::parseLength);
+                case "flags" -> options.flags = WeightedChoice.parse(value, LoadTestOptions::parseFlags);
+                case "bulk-count" -> options.bulkCount = (int) positive(Integer.parseInt(value), "bulk-count");
+                case "stream-count" -> options.streamCount = (int) positive(Integer.parseInt(value), "stream-count");
+                case "accept" -> options.plainText = parseAccept(value);
+                case "http" -> options.httpVersion = parseHttpVersion(value);
+                case "max-in-flight" -> options.maxInFlight = (int) positive(Integer.parseInt(value), "max-in-flight");
+                case "timeout" -> options.timeout = parseDuration(value);
+                case "api-key" -> options.apiKey = value;
+                case "seed" -> options.seed = Long.parseLong(value);
+                case "label" -> options.label = parseLabel(value);
+                case "output" -> options.output = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option --" + entry.getKey());
+            }
+        }
+        if (options.duration.isZero()) {
+            throw new IllegalArgumentException("duration must be positive");
+        }
+        return options;
+    }
+
+    /**
+     * Parses {@code 500ms}, {@code 30s}, {@code 5m} or {@code 1h}; a bare number is seconds.
+     */
+    static Duration parseDuration(String value) {
+        String trimmed = value.trim();
+        try {
+            if (trimmed.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(trimmed.substring(0, trimmed.length() - 2)));
+            }
+            long amount = Long.parseLong(Character.isDigit(trimmed.charAt(trimmed.length() - 1))
+                    ? trimmed : trimmed.substring(0, trimmed.length() - 1));
+            return switch (trimmed.charAt(trimmed.length() - 1)) {
+                case 'h' -> Duration.ofHours(amount);
+                case 'm' -> Duration.ofMinutes(amount);
+                default -> Duration.ofSeconds(amount);
+            };
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid duration '" + value + "'; use e.g. 500ms, 30s, 5m or 1h");
+        }
+    }
+
+    private static int parseLength(String value) {
+        int length = Integer.parseInt(value);
+        if (length < 1 || length > 1024) {
+            throw new IllegalArgumentException("Password lengths must be between 1 and 1024: " + value);
+        }
+        return length;
+    }
+
+    private static String parseFlags(String value) {
+        if (!value.matches("[ulns]+")) {
+            throw new IllegalArgumentException("Flags are letters from u, l, n and s: '" + value + "'");
+        }
+        return value;
+    }
+
+    private static boolean parseAccept(String value) {
+        return switch (value) {
+            case "json" -> false;
+            case "text" -> true;
+            default -> throw new IllegalArgumentException("accept must be json or text");
+        };
+    }
+
+    private static HttpClient.Version parseHttpVersion(String value) {
+        return switch (value) {
+            case "1.1" -> HttpClient.Version.HTTP_1_1;
+            case "2" -> HttpClient.Version.HTTP_2;
+            default -> throw new IllegalArgumentException("http must be 1.1 or 2");
+        };
+    }
+
+    private static String parseLabel(String value) {
+        if (!value.matches("[A-Za-z0-9._-]+")) {
+            throw new IllegalArgumentException("Labels are used in file names: letters, digits, '.', '_' and '-' only");
+        }
+        return value;
+    }
+
+    private static double positive(double value, String name) {
+        if (!(value > 0)) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return value;
+    }
+
+    public URI getTarget() {
+        return target;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public ArrivalProcess getArrival() {
+        return arrival;
+    }
+
+    public WeightedChoice<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public WeightedChoice<Integer> getLengths() {
+        return lengths;
+    }
+
+    public WeightedChoice<String> getFlags() {
+        return flags;
+    }
+
+    public int getBulkCount() {
+        return bulkCount;
+    }
+
+    public int getStreamCount() {
+        return streamCount;
+    }
+
+    public boolean isPlainText() {
+        return plainText;
+    }
+
+    public HttpClient.Version getHttpVersion() {
+        return httpVersion;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public String getApiKey() {
+        return apiKey;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public Path getOutput() {
+        return output;
+    }
+}
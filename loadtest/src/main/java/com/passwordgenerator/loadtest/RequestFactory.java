@@ -0,0 +1,77 @@
+package com.passwordgenerator.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Builds the next request of the configured mix: endpoint, password length and character
+ * classes are each drawn from their distributions.
+ */
+public final class RequestFactory {
+
+    private final LoadTestOptions options;
+    private final String accept;
+
+    public RequestFactory(LoadTestOptions options) {
+        this.options = options;
+        this.accept = options.isPlainText() ? "text/plain" : "application/json";
+    }
+
+    /**
+     * A request together with the endpoint it is reported under.
+     */
+    public record PlannedRequest(Endpoint endpoint, HttpRequest request) {
+    }
+
+    public PlannedRequest next(SplittableRandom random) {
+        Endpoint endpoint = options.getEndpoints().pick(random);
+        int length = options.getLengths().pick(random);
+        String flags = options.getFlags().pick(random);
+        return new PlannedRequest(endpoint, build(endpoint, length, flags));
+    }
+
+    HttpRequest build(Endpoint endpoint, int length, String flags) {
+        return switch (endpoint) {
+            case GENERATE -> get("/api/generate-password?" + query(length, flags), accept);
+            case STREAM -> get("/api/stream-passwords?" + query(length, flags)
+                    + "&count=" + options.getStreamCount(), "text/event-stream");
+            case BULK -> builder("/api/generate-passwords")
+                    .header("Accept", options.isPlainText() ? "text/plain" : "application/x-ndjson")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(bulkBody(length, flags)))
+                    .build();
+        };
+    }
+
+    static String query(int length, String flags) {
+        return "length=" + length
+                + "&includeUppercase=" + (flags.indexOf('u') >= 0)
+                + "&includeLowercase=" + (flags.indexOf('l') >= 0)
+                + "&includeNumbers=" + (flags.indexOf('n') >= 0)
+                + "&includeSymbols=" + (flags.indexOf('s') >= 0);
+    }
+
+    String bulkBody(int length, String flags) {
+        return String.format(Locale.ROOT,
+                "{\"count\":%d,\"length\":%d,\"includeUppercase\":%b,\"includeLowercase\":%b,"
+                        + "\"includeNumbers\":%b,\"includeSymbols\":%b}",
+                options.getBulkCount(), length, flags.indexOf('u') >= 0, flags.indexOf('l') >= 0,
+                flags.indexOf('n') >= 0, flags.indexOf('s') >= 0);
+    }
+
+    private HttpRequest get(String path, String accept) {
+        return builder(path).header("Accept", accept).GET().build();
+    }
+
+    private HttpRequest.Builder builder(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(options.getTarget() + path))
+                .timeout(options.getTimeout())
+                .version(options.getHttpVersion());
+        if (options.getApiKey() != null) {
+            builder.header("X-API-Key", options.getApiKey());
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,191 @@
+package com.passwordgenerator.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures cold-start time of the backend in each startup mode: the time from launching the JVM
+ * to the first successful {@code /api/health}, and to the first generated password after that
+ * (which is where lazily initialized beans get paid for).
+ *
+ * <p>Expects the artifacts of {@code mvn -Pfast-startup package} in the backend's target directory.
+ */
+public final class StartupTime {
+
+    public static final String USAGE = """
+            Usage: StartupTime [--help] [--name=value ...]
+
+              --backend=DIR     backend project directory (default ../backend)
+              --modes=LIST      modes to measure, from jar, jar-lazy, aot, aot-cds, aot-cds-lazy (default all)
+              --runs=N          launches per mode; the report gives min, median and max (default 5)
+              --port=N          port to start the server on (default 18080)
+              --timeout=D       give up on a launch after this long (default 60s)
+              --label=NAME      name of this run in startup.csv (default startup)
+              --output=DIR      report directory (default target/loadtest)
+            """;
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+    private static final String HEALTH_PATH = "/api/health";
+    private static final String FIRST_REQUEST_PATH = "/api/generate-password?length=16&includeLowercase=true";
+
+    /**
+     * How to launch one mode: JVM flags, jar, working directory and environment.
+     */
+    record Mode(String name, String directory, String jar, List<String> jvmArgs, Map<String, String> environment) {
+    }
+
+    static final Map<String, Mode> MODES = modes();
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    private static Map<String, Mode> modes() {
+        String fatJar = "password-generator-1.0.0.jar";
+        String appJar = "password-generator-1.0.0-app.jar";
+        List<String> aot = List.of("-Dspring.aot.enabled=true");
+        List<String> aotCds = List.of("-XX:SharedArchiveFile=app.jsa", "-Dspring.aot.enabled=true");
+        Map<String, String> lazy = Map.of("LAZY_INIT", "true");
+
+        Map<String, Mode> modes = new LinkedHashMap<>();
+        modes.put("jar", new Mode("jar", "target", fatJar, List.of(), Map.of()));
+        modes.put("jar-lazy", new Mode("jar-lazy", "target", fatJar, List.of(), lazy));
+        modes.put("aot", new Mode("aot", "target/fast-startup", appJar, aot, Map.of()));
+        modes.put("aot-cds", new Mode("aot-cds", "target/fast-startup", appJar, aotCds, Map.of()));
+        modes.put("aot-cds-lazy", new Mode("aot-cds-lazy", "target/fast-startup", appJar, aotCds, lazy));
+        return modes;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(Map.of(
+                "backend", "../backend", "modes", String.join(",", MODES.keySet()), "runs", "5",
+                "port", "18080", "timeout", "60s", "label", "startup", "output", "target/loadtest"));
+        for (String arg : args) {
+            if (arg.equals("--help")) {
+                System.out.print(USAGE);
+                return;
+            }
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0 || !options.containsKey(arg.substring(2, equals))) {
+                System.err.println("Unknown option '" + arg + "'");
+                System.err.print(USAGE);
+                System.exit(2);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+
+        Path backend = Path.of(options.get("backend"));
+        int runs = Integer.parseInt(options.get("runs"));
+        int port = Integer.parseInt(options.get("port"));
+        Duration timeout = LoadTestOptions.parseDuration(options.get("timeout"));
+        StartupTime startupTime = new StartupTime();
+
+        StringBuilder rows = new StringBuilder();
+        System.out.printf("%-13s %13s %13s %13s %18s%n", "mode", "health min", "health p50", "health max",
+                "first request p50");
+        for (String name : options.get("modes").split(",")) {
+            Mode mode = MODES.get(name.trim());
+            if (mode == null) {
+                throw new IllegalArgumentException("Unknown mode '" + name + "'; expected one of " + MODES.keySet());
+            }
+            Path directory = backend.resolve(mode.directory());
+            if (!Files.exists(directory.resolve(mode.jar()))) {
+                System.out.printf("%-13s skipped: %s not found (build with mvn -Pfast-startup package)%n",
+                        mode.name(), directory.resolve(mode.jar()));
+                continue;
+            }
+
+            long[] health = new long[runs];
+            long[] firstRequest = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                long[] times = startupTime.launch(mode, directory, port, timeout);
+                health[run] = times[0];
+                firstRequest[run] = times[1];
+            }
+            Arrays.sort(health);
+            Arrays.sort(firstRequest);
+            System.out.printf("%-13s %10d ms %10d ms %10d ms %15d ms%n", mode.name(),
+                    health[0], median(health), health[runs - 1], median(firstRequest));
+            rows.append(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%d%n", options.get("label"), mode.name(),
+                    runs, health[0], median(health), health[runs - 1], median(firstRequest)));
+        }
+
+        Path output = Path.of(options.get("output"));
+        Files.createDirectories(output);
+        Path csv = output.resolve("startup.csv");
+        if (!Files.exists(csv)) {
+            rows.insert(0, "label,mode,runs,health_min_ms,health_p50_ms,health_max_ms,first_request_p50_ms\n");
+        }
+        Files.writeString(csv, rows, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        System.out.println("Results appended to " + csv.toAbsolutePath());
+    }
+
+    /**
+     * Starts the server, waits for health and then for one generated password, and stops it again.
+     *
+     * @return milliseconds from launch to the first healthy response and to the first password
+     */
+    long[] launch(Mode mode, Path directory, int port, Duration timeout) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(mode.jvmArgs());
+        command.addAll(List.of("-jar", mode.jar(), "--server.port=" + port));
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        builder.environment().putAll(mode.environment());
+
+        long start = System.nanoTime();
+        Process process = builder.start();
+        try {
+            long deadline = start + timeout.toNanos();
+            String base = "http://localhost:" + port;
+            long health = awaitSuccess(URI.create(base + HEALTH_PATH), process, deadline) - start;
+            long firstRequest = awaitSuccess(URI.create(base + FIRST_REQUEST_PATH), process, deadline) - start;
+            return new long[] {TimeUnit.NANOSECONDS.toMillis(health), TimeUnit.NANOSECONDS.toMillis(firstRequest)};
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private long awaitSuccess(URI uri, Process process, long deadline) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(5)).GET().build();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IOException("Server exited with status " + process.exitValue() + " before " + uri.getPath()
+                        + " succeeded");
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return System.nanoTime();
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(POLL_INTERVAL);
+        }
+        throw new IOException("No successful response from " + uri + " before the timeout");
+    }
+
+    private static long median(long[] sorted) {
+        return sorted[sorted.length / 2];
+    }
+}
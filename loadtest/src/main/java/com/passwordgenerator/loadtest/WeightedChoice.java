@@ -0,0 +1,77 @@
+package com.passwordgenerator.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * A discrete distribution given as {@code value:weight} pairs, e.g. {@code 16:70,32:25,128:5}.
+ * A value without a weight counts as weight 1.
+ */
+public final class WeightedChoice<T> {
+
+    private final List<T> values;
+    private final double[] cumulative;
+
+    private WeightedChoice(List<T> values, double[] cumulative) {
+        this.values = List.copyOf(values);
+        this.cumulative = cumulative;
+    }
+
+    public static <T> WeightedChoice<T> parse(String spec, Function<String, T> parser) {
+        if (spec == null || spec.isBlank()) {
+            throw new IllegalArgumentException("Distribution must not be empty");
+        }
+        List<T> values = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String trimmed = entry.trim();
+            int colon = trimmed.lastIndexOf(':');
+            String value = colon < 0 ? trimmed : trimmed.substring(0, colon).trim();
+            double weight;
+            try {
+                weight = colon < 0 ? 1 : Double.parseDouble(trimmed.substring(colon + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid weight in '" + trimmed + "'");
+            }
+            if (value.isEmpty() || !(weight > 0)) {
+                throw new IllegalArgumentException("Each entry needs a value and a positive weight: '" + trimmed + "'");
+            }
+            values.add(parser.apply(value));
+            weights.add(weight);
+        }
+
+        double[] cumulative = new double[weights.size()];
+        double total = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            total += weights.get(i);
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= total;
+        }
+        return new WeightedChoice<>(values, cumulative);
+    }
+
+    public T pick(SplittableRandom random) {
+        double u = random.nextDouble();
+        for (int i = 0; i < cumulative.length - 1; i++) {
+            if (u < cumulative[i]) {
+                return values.get(i);
+            }
+        }
+        return values.get(values.size() - 1);
+    }
+
+    public List<T> values() {
+        return values;
+    }
+
+    /**
+     * Probability of the value at {@code index}.
+     */
+    public double probability(int index) {
+        return cumulative[index] - (index == 0 ? 0 : cumulative[index - 1]);
+    }
+}
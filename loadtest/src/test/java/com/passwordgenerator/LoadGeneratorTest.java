@@ -0,0 +1,141 @@
+package com.passwordgenerator;
+
+import com.passwordgenerator.loadtest.ArrivalProcess;
+import com.passwordgenerator.loadtest.Endpoint;
+import com.passwordgenerator.loadtest.LatencyReport;
+import com.passwordgenerator.loadtest.LoadTestOptions;
+import com.passwordgenerator.loadtest.RequestFactory;
+import com.passwordgenerator.loadtest.WeightedChoice;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Load Generator Tests")
+public class LoadGeneratorTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Should parse options, durations and distributions and reject bad ones")
+    public void testOptions() {
+        LoadTestOptions options = LoadTestOptions.parse("--target=http://host:9000/", "--rate=250.5",
+                "--duration=2m", "--warmup=500ms", "--arrival=constant", "--endpoints=generate:95,bulk:5",
+                "--lengths=16:70,32:30", "--flags=ulns:3,n:1", "--http=2", "--label=vt-on");
+        assertEquals("http://host:9000", options.getTarget().toString());
+        assertEquals(250.5, options.getRate());
+        assertEquals(Duration.ofMinutes(2), options.getDuration());
+        assertEquals(Duration.ofMillis(500), options.getWarmup());
+        assertEquals(ArrivalProcess.CONSTANT, options.getArrival());
+        assertEquals(List.of(Endpoint.GENERATE, Endpoint.BULK), options.getEndpoints().values());
+        assertEquals(0.95, options.getEndpoints().probability(0), 1e-9);
+        assertEquals(List.of(16, 32), options.getLengths().values());
+        assertEquals(0.25, options.getFlags().probability(1), 1e-9);
+        assertEquals(HttpClient.Version.HTTP_2, options.getHttpVersion());
+
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--rate=0"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--duration=soon"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--flags=ulx"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--lengths=16:-1"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--endpoints=delete"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--label=../x"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--colour=blue"));
+    }
+
+    @Test
+    @DisplayName("Should draw values and arrival gaps with the configured distributions")
+    public void testDistributions() {
+        SplittableRandom random = new SplittableRandom(42);
+        WeightedChoice<Integer> lengths = WeightedChoice.parse("16:70,32:20,64:10", Integer::valueOf);
+        int[] counts = new int[3];
+        int draws = 100_000;
+        for (int i = 0; i < draws; i++) {
+            counts[lengths.values().indexOf(lengths.pick(random))]++;
+        }
+        assertEquals(0.70, counts[0] / (double) draws, 0.01);
+        assertEquals(0.20, counts[1] / (double) draws, 0.01);
+        assertEquals(0.10, counts[2] / (double) draws, 0.01);
+
+        assertEquals(MILLI, ArrivalProcess.CONSTANT.nextGapNanos(1000, random));
+        long total = 0;
+        long longest = 0;
+        for (int i = 0; i < draws; i++) {
+            long gap = ArrivalProcess.POISSON.nextGapNanos(1000, random);
+            total += gap;
+            longest = Math.max(longest, gap);
+        }
+        assertEquals(MILLI, total / (double) draws, MILLI * 0.02, "Mean gap should match the rate");
+        assertTrue(longest > 5 * MILLI, "Exponential gaps should have a long tail");
+    }
+
+    @Test
+    @DisplayName("Should build requests for each endpoint from the drawn length and flags")
+    public void testRequests() {
+        LoadTestOptions options = LoadTestOptions.parse("--target=http://localhost:8080", "--lengths=24",
+                "--flags=ln", "--endpoints=generate,bulk,stream", "--bulk-count=50", "--stream-count=7",
+                "--api-key=k1", "--accept=text");
+        RequestFactory factory = new RequestFactory(options);
+        SplittableRandom random = new SplittableRandom(1);
+
+        boolean[] seen = new boolean[Endpoint.values().length];
+        for (int i = 0; i < 100; i++) {
+            RequestFactory.PlannedRequest planned = factory.next(random);
+            seen[planned.endpoint().ordinal()] = true;
+            String uri = planned.request().uri().toString();
+            assertEquals("k1", planned.request().headers().firstValue("X-API-Key").orElseThrow());
+            switch (planned.endpoint()) {
+                case GENERATE -> {
+                    assertEquals("http://localhost:8080/api/generate-password?length=24&includeUppercase=false"
+                            + "&includeLowercase=true&includeNumbers=true&includeSymbols=false", uri);
+                    assertEquals("text/plain", planned.request().headers().firstValue("Accept").orElseThrow());
+                }
+                case BULK -> {
+                    assertEquals("POST", planned.request().method());
+                    assertTrue(uri.endsWith("/api/generate-passwords"));
+                }
+                case STREAM -> assertTrue(uri.endsWith("&count=7"), uri);
+            }
+        }
+        assertArrayEquals(new boolean[] {true, true, true}, seen);
+    }
+
+    @Test
+    @DisplayName("Should charge queueing delay to response time but not service time")
+    public void testCoordinatedOmissionCorrection(@TempDir Path directory) throws Exception {
+        LatencyReport report = new LatencyReport(WeightedChoice.parse("generate:3,bulk:1", Endpoint::parse));
+
+        // A one-second stall: requests scheduled every 10 ms queue up behind it and are each
+        // served in 1 ms once it clears
+        long stallEnd = 1000 * MILLI;
+        report.record(Endpoint.GENERATE, 0, 0, stallEnd, null);
+        for (long scheduled = 10 * MILLI; scheduled < stallEnd; scheduled += 10 * MILLI) {
+            report.record(Endpoint.GENERATE, scheduled, stallEnd, stallEnd + MILLI, null);
+        }
+        report.record(Endpoint.BULK, 0, 0, 50 * MILLI, "503");
+        report.interval();
+
+        assertEquals(100, report.getRequests(Endpoint.GENERATE));
+        // Half of the requests waited at least half a second
+        assertTrue(report.getResponseTimes(Endpoint.GENERATE).getValueAtPercentile(50) >= 490 * MILLI);
+        assertTrue(report.getServiceTimes(Endpoint.GENERATE).getValueAtPercentile(50) <= 2 * MILLI);
+        assertEquals(1, report.getErrors(Endpoint.BULK));
+        assertEquals(1L, report.getErrorCounts().get("bulk 503"));
+
+        report.writeReports(directory, "baseline", 100, 1);
+        report.writeReports(directory, "candidate", 100, 1);
+        assertTrue(Files.readString(directory.resolve("baseline-generate.hgrm")).contains("Percentile"));
+        List<String> rows = Files.readAllLines(directory.resolve("summary.csv"));
+        assertEquals(5, rows.size(), "One header and a row per endpoint per run");
+        assertTrue(rows.get(1).startsWith("baseline,generate,75.0,100,0,100.0,"), rows.get(1));
+        assertTrue(rows.get(4).startsWith("candidate,bulk,25.0,1,1,"), rows.get(4));
+    }
+}